@@ -0,0 +1,111 @@
+package com.jielin.casclientbenchmark;
+
+import com.jielin.casclientspringboot.filter.AbstractCasFilter;
+import com.jielin.casclientspringboot.filter.YgjAuthenticationFilter;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: AuthenticationFilterBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 15:20:00
+ * @description: YgjAuthenticationFilter的已登录放行、未登录跳转，以及constructServiceUrl和retrieveTicketFromRequest
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationFilterBenchmark {
+    private ExposedAuthenticationFilter filter;
+    private MockHttpSession session;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MockServletContext servletContext = new MockServletContext();
+        MockFilterConfig filterConfig = new MockFilterConfig(servletContext);
+        filterConfig.addInitParameter("casServerLoginUrl", "https://www.server.com:8443/cas/login");
+        filterConfig.addInitParameter("serverName", "http://www.client2.com:8082");
+        this.filter = new ExposedAuthenticationFilter();
+        this.filter.init(filterConfig);
+
+        this.session = new MockHttpSession(servletContext);
+        this.session.setAttribute(AbstractCasFilter.CONST_CAS_ASSERTION, new AssertionImpl("benchmark"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticated() throws Exception {
+        MockHttpServletRequest request = request("/rest");
+        request.setSession(this.session);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse redirect() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request("/rest"), response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public String constructServiceUrl() {
+        MockHttpServletRequest request = request("/rest");
+        request.setQueryString("a=1&ticket=ST-1-benchmark&b=2");
+        request.addParameter("a", "1");
+        request.addParameter("ticket", "ST-1-benchmark");
+        request.addParameter("b", "2");
+        return this.filter.serviceUrl(request, new MockHttpServletResponse());
+    }
+
+    @Benchmark
+    public String retrieveTicketFromRequest() {
+        MockHttpServletRequest request = request("/rest");
+        request.setQueryString("ticket=ST-1-benchmark");
+        request.addParameter("ticket", "ST-1-benchmark");
+        return this.filter.ticket(request);
+    }
+
+    static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServerName("www.client2.com");
+        request.setServerPort(8082);
+        return request;
+    }
+
+    /**
+     * 暴露AbstractCasFilter中的protected方法
+     */
+    private static final class ExposedAuthenticationFilter extends YgjAuthenticationFilter {
+        private String serviceUrl(HttpServletRequest request, HttpServletResponse response) {
+            return this.constructServiceUrl(request, response);
+        }
+
+        private String ticket(HttpServletRequest request) {
+            return this.retrieveTicketFromRequest(request);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jielin.casclientbenchmark;
+
+import com.jielin.casclientspringboot.filter.AbstractCasFilter;
+import com.jielin.casclientspringboot.filter.YgjAuthenticationFilter;
+import com.jielin.casclientspringboot.filter.YgjCasPipelineFilter;
+import com.jielin.casclientspringboot.filter.YgjCasTicketValidationFilter;
+import org.jasig.cas.client.session.SingleSignOutFilter;
+import org.jasig.cas.client.util.AssertionThreadLocalFilter;
+import org.jasig.cas.client.util.HttpServletRequestWrapperFilter;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.Filter;
+import javax.servlet.GenericServlet;
+import javax.servlet.Servlet;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: FilterPipelineBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 11:00:00
+ * @description: 对比原来分别注册的五个cas filter与YgjCasPipelineFilter
+ *
+ * authenticated：session中已有登录信息的普通请求；excluded：ignorePattern匹配的静态资源请求。
+ * 建议加 -prof gc 同时对比每次请求的内存分配。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterPipelineBenchmark {
+
+    @Param({"separate", "pipeline"})
+    public String filters;
+
+    @Param({"authenticated", "excluded"})
+    public String scenario;
+
+    private Filter[] chain;
+    private MockHttpSession session;
+    private final Servlet servlet = new GenericServlet() {
+        @Override
+        public void service(ServletRequest request, ServletResponse response) {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MockServletContext servletContext = new MockServletContext();
+        MockFilterConfig filterConfig = new MockFilterConfig(servletContext);
+        filterConfig.addInitParameter("casServerUrlPrefix", "https://www.server.com:8443/cas");
+        filterConfig.addInitParameter("casServerLoginUrl", "https://www.server.com:8443/cas/login");
+        filterConfig.addInitParameter("serverName", "http://www.client2.com:8082");
+        filterConfig.addInitParameter("ignorePattern", "/static/");
+        filterConfig.addInitParameter("ignoreUrlPatternType", "CONTAINS");
+
+        if ("separate".equals(this.filters)) {
+            this.chain = new Filter[]{new SingleSignOutFilter(), new YgjAuthenticationFilter(), new YgjCasTicketValidationFilter(),
+                    new HttpServletRequestWrapperFilter(), new AssertionThreadLocalFilter()};
+        } else {
+            this.chain = new Filter[]{new YgjCasPipelineFilter()};
+        }
+        for (Filter filter : this.chain) {
+            filter.init(filterConfig);
+        }
+
+        this.session = new MockHttpSession(servletContext);
+        this.session.setAttribute(AbstractCasFilter.CONST_CAS_ASSERTION, new AssertionImpl("benchmark"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Filter filter : this.chain) {
+            filter.destroy();
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request;
+        if ("excluded".equals(this.scenario)) {
+            request = new MockHttpServletRequest("GET", "/static/js/app.js");
+        } else {
+            request = new MockHttpServletRequest("GET", "/rest");
+            request.setSession(this.session);
+        }
+        request.setServerName("www.client2.com");
+        request.setServerPort(8082);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(this.servlet, this.chain).doFilter(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,85 @@
+package com.jielin.casclientbenchmark;
+
+import com.jielin.casclientspringboot.proxy.TimingWheelProxyGrantingTicketStorage;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: ProxyGrantingTicketStorageBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 16:40:00
+ * @description: 对比cas-client默认的ProxyGrantingTicketStorageImpl与时间轮实现
+ *
+ * lookup组模拟PGT回调与校验（save + retrieve），sweep线程模拟CleanUpTimerTask的清理；
+ * 存储中预先放入preload个未过期的PGT，默认实现每次cleanUp都要全量扫描。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class ProxyGrantingTicketStorageBenchmark {
+
+    @Param({"default", "timingWheel"})
+    public String storage;
+
+    @Param({"100000"})
+    public int preload;
+
+    private ProxyGrantingTicketStorage store;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.store = "default".equals(this.storage)
+                ? new ProxyGrantingTicketStorageImpl()
+                : new TimingWheelProxyGrantingTicketStorage();
+        for (int i = 0; i < this.preload; i++) {
+            this.store.save("PGTIOU-preload-" + i, "PGT-preload-" + i);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(7)
+    public String lookup() {
+        String iou = "PGTIOU-" + this.sequence.incrementAndGet();
+        this.store.save(iou, "PGT");
+        return this.store.retrieve(iou);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void sweep() {
+        this.store.cleanUp();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(8)
+    public String lookupOnly() {
+        String iou = "PGTIOU-" + this.sequence.incrementAndGet();
+        this.store.save(iou, "PGT");
+        return this.store.retrieve(iou);
+    }
+}
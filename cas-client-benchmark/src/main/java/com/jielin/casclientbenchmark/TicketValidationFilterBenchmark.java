@@ -0,0 +1,102 @@
+package com.jielin.casclientbenchmark;
+
+import com.jielin.casclientspringboot.filter.YgjCasTicketValidationFilter;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: TicketValidationFilterBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 15:40:00
+ * @description: YgjCasTicketValidationFilter完整的ticket校验流程
+ *
+ * 进程内用JDK自带的HttpServer模拟cas的/serviceValidate，固定返回成功，
+ * 结果包含网络往返，主要用于比较不同validationTransport及filter改动前后的差异。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketValidationFilterBenchmark {
+    private static final byte[] SUCCESS = ("<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+            + "<cas:authenticationSuccess><cas:user>benchmark</cas:user>"
+            + "<cas:attributes><cas:userId>1</cas:userId></cas:attributes>"
+            + "</cas:authenticationSuccess></cas:serviceResponse>").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"DEFAULT", "POOLED"})
+    public String transport;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private YgjCasTicketValidationFilter filter;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/cas/serviceValidate", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/xml;charset=UTF-8");
+            exchange.sendResponseHeaders(200, SUCCESS.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(SUCCESS);
+            }
+        });
+        this.executor = Executors.newFixedThreadPool(4);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+
+        MockFilterConfig filterConfig = new MockFilterConfig(new MockServletContext());
+        filterConfig.addInitParameter("casServerUrlPrefix", "http://127.0.0.1:" + this.server.getAddress().getPort() + "/cas");
+        filterConfig.addInitParameter("serverName", "http://www.client2.com:8082");
+        filterConfig.addInitParameter("redirectAfterValidation", "false");
+        filterConfig.addInitParameter("validationTransport", this.transport);
+        this.filter = new YgjCasTicketValidationFilter();
+        this.filter.init(filterConfig);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.filter.destroy();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse validate() throws Exception {
+        String ticket = "ST-" + this.sequence.incrementAndGet() + "-benchmark";
+        MockHttpServletRequest request = AuthenticationFilterBenchmark.request("/rest");
+        request.setQueryString("ticket=" + ticket);
+        request.addParameter("ticket", ticket);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
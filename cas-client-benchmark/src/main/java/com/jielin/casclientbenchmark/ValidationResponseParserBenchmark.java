@@ -0,0 +1,102 @@
+package com.jielin.casclientbenchmark;
+
+import com.jielin.casclientspringboot.validation.StreamingServiceTicketValidator;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.Cas20ServiceTicketValidator;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: ValidationResponseParserBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 17:50:00
+ * @description: 对比serviceValidate响应的DOM解析与StAX流式解析
+ *
+ * dom按cas-client的方式先把响应读成String再解析；streaming直接解析响应流。
+ * attributes为响应中的属性个数（roles/permissions多值属性），配合 -prof gc 查看每次解析的分配量。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationResponseParserBenchmark {
+
+    @Param({"10", "200", "2000"})
+    public int attributes;
+
+    private byte[] response;
+    private DomParser domParser;
+    private StreamingServiceTicketValidator streamingParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder buffer = new StringBuilder("<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>\n")
+                .append("  <cas:authenticationSuccess>\n")
+                .append("    <cas:user>benchmark</cas:user>\n")
+                .append("    <cas:attributes>\n")
+                .append("      <cas:userId>1</cas:userId>\n");
+        for (int i = 0; i < this.attributes; i++) {
+            buffer.append("      <cas:").append(i % 2 == 0 ? "roles" : "permissions").append(">")
+                    .append("system:module").append(i).append(":view")
+                    .append("</cas:").append(i % 2 == 0 ? "roles" : "permissions").append(">\n");
+        }
+        buffer.append("    </cas:attributes>\n")
+                .append("  </cas:authenticationSuccess>\n")
+                .append("</cas:serviceResponse>\n");
+        this.response = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        this.domParser = new DomParser();
+        this.streamingParser = new StreamingServiceTicketValidator("http://127.0.0.1/cas");
+    }
+
+    @Benchmark
+    public Assertion dom() throws IOException, TicketValidationException {
+        //与CommonUtils.getResponseFromServer一致，逐行读入StringBuilder
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(this.response), StandardCharsets.UTF_8));
+        StringBuilder builder = new StringBuilder(255);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            builder.append(line);
+            builder.append("\n");
+        }
+        return this.domParser.parse(builder.toString());
+    }
+
+    @Benchmark
+    public Assertion streaming() throws TicketValidationException {
+        return this.streamingParser.parseResponse(new ByteArrayInputStream(this.response));
+    }
+
+    /**
+     * 暴露Cas20ServiceTicketValidator中的protected方法
+     */
+    private static final class DomParser extends Cas20ServiceTicketValidator {
+        private DomParser() {
+            super("http://127.0.0.1/cas");
+        }
+
+        private Assertion parse(String response) throws TicketValidationException {
+            return this.parseResponseFromServer(response);
+        }
+    }
+}
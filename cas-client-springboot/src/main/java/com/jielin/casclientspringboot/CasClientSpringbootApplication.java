@@ -1,11 +1,7 @@
 package com.jielin.casclientspringboot;
 
-import com.jielin.casclientspringboot.filter.YgjCasTicketValidationFilter;
-import org.jasig.cas.client.authentication.AuthenticationFilter;
-import org.jasig.cas.client.session.SingleSignOutFilter;
+import com.jielin.casclientspringboot.filter.YgjCasPipelineFilter;
 import org.jasig.cas.client.session.SingleSignOutHttpSessionListener;
-import org.jasig.cas.client.util.AssertionThreadLocalFilter;
-import org.jasig.cas.client.util.HttpServletRequestWrapperFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -15,6 +11,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,6 +22,7 @@ import java.util.Map;
 @SpringBootApplication
 @Controller
 public class CasClientSpringbootApplication {
+    private final YgjCasPipelineFilter casPipelineFilter = new YgjCasPipelineFilter();
 
     public static void main(String[] args) {
         SpringApplication.run(CasClientSpringbootApplication.class, args);
@@ -35,8 +34,10 @@ public class CasClientSpringbootApplication {
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session){
+    public String logout(HttpSession session, HttpServletResponse response){
         session.invalidate();
+        //token模式下同时清除token cookie，使用filter配置的tokenCookieName
+        this.casPipelineFilter.expireToken(response);
         //这个是直接退出，走的是默认退出方式
         return "redirect:https://www.server.com:8443/cas/logout";
     }
@@ -56,70 +57,25 @@ public class CasClientSpringbootApplication {
         return listener;
     }
 
+    // 单点退出、登录验证、ticket校验、取用户信息合并为一个filter
     @Bean
-    public FilterRegistrationBean<SingleSignOutFilter> logOutFilter() {
-        FilterRegistrationBean<SingleSignOutFilter> authenticationFilter = new FilterRegistrationBean();
-        authenticationFilter.setFilter(new SingleSignOutFilter());
-        authenticationFilter.setEnabled(true);
-        Map<String, String> initParameters = new HashMap<String, String>();
-        initParameters.put("casServerUrlPrefix", "http://localhost:8080/cas/");
-        authenticationFilter.setInitParameters(initParameters);
-        authenticationFilter.addUrlPatterns("/*");
-        authenticationFilter.setOrder(1);
-        return authenticationFilter;
-    }
-
-    // 单点登录
-    @Bean
-    public FilterRegistrationBean authenticationFilterRegistrationBean() {
+    public FilterRegistrationBean casPipelineFilterRegistrationBean() {
         FilterRegistrationBean authenticationFilter = new FilterRegistrationBean();
-        authenticationFilter.setFilter(new AuthenticationFilter());
+        //需要无状态token时配置tokenSigningKeys
+        authenticationFilter.setFilter(this.casPipelineFilter);
         Map<String, String> initParameters = new HashMap<String, String>();
+        initParameters.put("casServerUrlPrefix", "https://www.server.com:8443/cas");
         initParameters.put("casServerLoginUrl", "https://www.server.com:8443/cas/login");
         initParameters.put("serverName", "http://www.client2.com:8082");//域名换成ip，不然单点退出失效
+        //复用到cas server的连接，避免每次校验ticket都重新TLS握手
+        initParameters.put("validationTransport", "POOLED");
+        //同一ticket重复提交时共享校验结果，避免第二次校验403
+        initParameters.put("coalesceValidation", "true");
         authenticationFilter.setInitParameters(initParameters);
         authenticationFilter.setOrder(1);
-        List<String> urlPatterns = new ArrayList<String>();
-        urlPatterns.add("/*");// 设置匹配的url
-        authenticationFilter.setUrlPatterns(urlPatterns);
-        return authenticationFilter;
-    }
-
-    // 校验
-    @Bean
-    public FilterRegistrationBean ValidationFilterRegistrationBean() {
-        FilterRegistrationBean authenticationFilter = new FilterRegistrationBean();
-        //此处cas30，用cas20获取不到cas返回的登录信息
-        authenticationFilter.setFilter(new YgjCasTicketValidationFilter());
-        Map<String, String> initParameters = new HashMap<String, String>();
-        initParameters.put("casServerUrlPrefix", "https://www.server.com:8443/cas");
-        initParameters.put("serverName", "http://www.client2.com:8082");
-        authenticationFilter.setInitParameters(initParameters);
-        authenticationFilter.setOrder(1);
-        List<String> urlPatterns = new ArrayList<String>();
-        urlPatterns.add("/*");// 设置匹配的url
-        authenticationFilter.setUrlPatterns(urlPatterns);
-        return authenticationFilter;
-    }
-
-    // 取用户信息
-    @Bean
-    public FilterRegistrationBean casHttpServletRequestWrapperFilter() {
-        FilterRegistrationBean authenticationFilter = new FilterRegistrationBean();
-        authenticationFilter.setFilter(new HttpServletRequestWrapperFilter());
-        authenticationFilter.setOrder(1);
-        List<String> urlPatterns = new ArrayList<String>();
-        urlPatterns.add("/*");// 设置匹配的url
-        authenticationFilter.setUrlPatterns(urlPatterns);
-        return authenticationFilter;
-    }
-
-    // 取用户信息
-    @Bean
-    public FilterRegistrationBean casAssertionThreadLocalFilter() {
-        FilterRegistrationBean authenticationFilter = new FilterRegistrationBean();
-        authenticationFilter.setFilter(new AssertionThreadLocalFilter());
-        authenticationFilter.setOrder(1);
+        //asyncValidation=true时校验结果以ASYNC方式重新进入filter，只注册REQUEST会跳过结果检查直接放行
+        authenticationFilter.setAsyncSupported(true);
+        authenticationFilter.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
         List<String> urlPatterns = new ArrayList<String>();
         urlPatterns.add("/*");// 设置匹配的url
         authenticationFilter.setUrlPatterns(urlPatterns);
@@ -0,0 +1,181 @@
+package com.jielin.casclientspringboot.authentication;
+
+import org.jasig.cas.client.authentication.UrlPatternMatcherStrategy;
+import org.jasig.cas.client.util.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName: MultiPatternUrlPatternMatcherStrategy.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 14:10:00
+ * @description: 多个忽略路径编译后一次匹配，ignoreUrlPatternType配置为MULTI时使用
+ *
+ * ignorePattern中多个规则用逗号或空白分隔，规则都是相对context path的路径：
+ * /static/** 前缀；*.js 后缀；/api/*&#47;info 通配（*不跨/，**可跨/，?匹配单个字符）；其它为精确匹配。
+ * 前缀和精确规则编译成一棵字典树，后缀规则编译成一棵反向字典树，前缀和后缀的匹配与路径长度成正比，与规则数量无关；
+ * 通配规则逐条回溯匹配。匹配开销很小，不再按路径缓存结果，避免请求不同路径把缓存冲掉。
+ */
+public final class MultiPatternUrlPatternMatcherStrategy implements UrlPatternMatcherStrategy {
+    private volatile Node prefixes = new Node();
+    private volatile Node suffixes = new Node();
+    private volatile String[] globs = new String[0];
+
+    @Override
+    public void setPattern(String pattern) {
+        Node prefixes = new Node();
+        Node suffixes = new Node();
+        List<String> globs = new ArrayList<String>();
+        for (String rule : pattern.trim().split("[,\\s]+")) {
+            if (CommonUtils.isBlank(rule)) {
+                continue;
+            }
+            if (rule.endsWith("/**") && !hasWildcard(rule, 0, rule.length() - 3)) {
+                String base = rule.substring(0, rule.length() - 3);
+                prefixes.insert(base, false).exact = true;
+                prefixes.insert(base + "/", false).prefix = true;
+            } else if (rule.startsWith("*") && !rule.startsWith("**") && !hasWildcard(rule, 1, rule.length())) {
+                suffixes.insert(rule.substring(1), true).prefix = true;
+            } else if (hasWildcard(rule, 0, rule.length())) {
+                globs.add(rule);
+            } else {
+                prefixes.insert(rule, false).exact = true;
+            }
+        }
+        this.prefixes = prefixes;
+        this.suffixes = suffixes;
+        this.globs = globs.toArray(new String[0]);
+    }
+
+    /**
+     * 兼容UrlPatternMatcherStrategy，传入完整url时只取其中的路径部分匹配
+     */
+    @Override
+    public boolean matches(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : url.indexOf('/', start + 3);
+        if (start < 0) {
+            return false;
+        }
+        int end = url.indexOf('?', start);
+        return this.match(url, start, end < 0 ? url.length() : end);
+    }
+
+    /**
+     * 匹配相对context path的路径
+     */
+    public boolean matchesPath(String path) {
+        return this.match(path, 0, path.length());
+    }
+
+    private boolean match(String path, int from, int to) {
+        Node node = this.prefixes;
+        for (int i = from; node != null; i++) {
+            if (node.prefix) {
+                return true;
+            }
+            if (i == to) {
+                if (node.exact) {
+                    return true;
+                }
+                break;
+            }
+            node = node.child(path.charAt(i));
+        }
+
+        node = this.suffixes;
+        for (int i = to - 1; node != null; i--) {
+            if (node.prefix) {
+                return true;
+            }
+            if (i < from) {
+                break;
+            }
+            node = node.child(path.charAt(i));
+        }
+
+        for (String glob : this.globs) {
+            if (glob(glob, 0, path, from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean glob(String pattern, int p, String path, int i, int to) {
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            if (c == '*') {
+                boolean crossSegments = p + 1 < pattern.length() && pattern.charAt(p + 1) == '*';
+                int next = crossSegments ? p + 2 : p + 1;
+                for (int k = i; ; k++) {
+                    if (glob(pattern, next, path, k, to)) {
+                        return true;
+                    }
+                    if (k == to || (!crossSegments && path.charAt(k) == '/')) {
+                        return false;
+                    }
+                }
+            }
+            if (i == to || (c == '?' ? path.charAt(i) == '/' : path.charAt(i) != c)) {
+                return false;
+            }
+            p++;
+            i++;
+        }
+        return i == to;
+    }
+
+    private static boolean hasWildcard(String rule, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = rule.charAt(i);
+            if (c == '*' || c == '?') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        //exact：路径到此结束即匹配；prefix：经过此节点即匹配
+        private boolean exact;
+        private boolean prefix;
+
+        private Node child(char c) {
+            char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node insert(String key, boolean reverse) {
+            Node node = this;
+            int length = key.length();
+            for (int i = 0; i < length; i++) {
+                char c = key.charAt(reverse ? length - 1 - i : i);
+                Node child = node.child(c);
+                if (child == null) {
+                    child = new Node();
+                    int size = node.keys.length;
+                    char[] keys = new char[size + 1];
+                    Node[] children = new Node[size + 1];
+                    System.arraycopy(node.keys, 0, keys, 0, size);
+                    System.arraycopy(node.children, 0, children, 0, size);
+                    keys[size] = c;
+                    children[size] = child;
+                    node.keys = keys;
+                    node.children = children;
+                }
+                node = child;
+            }
+            return node;
+        }
+    }
+}
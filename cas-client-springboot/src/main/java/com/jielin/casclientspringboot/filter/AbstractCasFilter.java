@@ -1,4 +1,5 @@
 package com.jielin.casclientspringboot.filter;
+import com.jielin.casclientspringboot.token.SignedTokenService;
 import org.jasig.cas.client.Protocol;
 import org.jasig.cas.client.configuration.ConfigurationKeys;
 import org.jasig.cas.client.util.CommonUtils;
@@ -76,6 +77,28 @@ public abstract class AbstractCasFilter extends AbstractConfigurationFilter {
     }
 
     protected String retrieveTicketFromRequest(HttpServletRequest request) {
-        return CommonUtils.safeGetParameter(request, this.protocol.getArtifactParameterName());
+        CasRequestState state = CasRequestState.get(request);
+        if (state == null) {
+            return CommonUtils.safeGetParameter(request, this.protocol.getArtifactParameterName());
+        }
+        if (!state.isTicketResolved()) {
+            state.setTicket(CommonUtils.safeGetParameter(request, this.protocol.getArtifactParameterName()));
+        }
+        return state.getTicket();
+    }
+
+    /**
+     * 配置了tokenSigningKeys时创建token服务，否则返回null（使用session模式）
+     */
+    protected final SignedTokenService createTokenService() {
+        String signingKeys = this.getString(YgjConfigurationKeys.TOKEN_SIGNING_KEYS);
+        if (CommonUtils.isBlank(signingKeys)) {
+            return null;
+        }
+        SignedTokenService tokenService = new SignedTokenService(signingKeys, this.getInt(YgjConfigurationKeys.TOKEN_MAX_AGE));
+        tokenService.setCookieName(this.getString(YgjConfigurationKeys.TOKEN_COOKIE_NAME));
+        tokenService.setSecureCookie(this.getBoolean(YgjConfigurationKeys.TOKEN_COOKIE_SECURE));
+        tokenService.setHeaderName(this.getString(YgjConfigurationKeys.TOKEN_HEADER_NAME));
+        return tokenService;
     }
 }
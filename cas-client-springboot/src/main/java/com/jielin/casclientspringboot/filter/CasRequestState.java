@@ -0,0 +1,53 @@
+package com.jielin.casclientspringboot.filter;
+
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.ServletRequest;
+
+/**
+ * @ClassName: CasRequestState.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 09:40:00
+ * @description: 单次请求内各个cas filter共享的状态，由YgjCasPipelineFilter创建，ticket和登录信息只解析一次
+ */
+final class CasRequestState {
+    static final String ATTRIBUTE = CasRequestState.class.getName();
+    private boolean ticketResolved;
+    private String ticket;
+    private Assertion assertion;
+    private Boolean excluded;
+
+    static CasRequestState get(ServletRequest request) {
+        return (CasRequestState) request.getAttribute(ATTRIBUTE);
+    }
+
+    boolean isTicketResolved() {
+        return this.ticketResolved;
+    }
+
+    String getTicket() {
+        return this.ticket;
+    }
+
+    void setTicket(String ticket) {
+        this.ticket = ticket;
+        this.ticketResolved = true;
+    }
+
+    Assertion getAssertion() {
+        return this.assertion;
+    }
+
+    void setAssertion(Assertion assertion) {
+        this.assertion = assertion;
+    }
+
+    Boolean getExcluded() {
+        return this.excluded;
+    }
+
+    void setExcluded(Boolean excluded) {
+        this.excluded = excluded;
+    }
+}
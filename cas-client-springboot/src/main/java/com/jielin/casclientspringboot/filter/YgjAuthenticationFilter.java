@@ -1,5 +1,8 @@
 package com.jielin.casclientspringboot.filter;
 
+import com.jielin.casclientspringboot.authentication.MultiPatternUrlPatternMatcherStrategy;
+import com.jielin.casclientspringboot.metrics.CasClientMetrics;
+import com.jielin.casclientspringboot.token.SignedTokenService;
 import org.jasig.cas.client.Protocol;
 import org.jasig.cas.client.authentication.*;
 import org.jasig.cas.client.configuration.ConfigurationKeys;
@@ -29,6 +32,8 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
     private GatewayResolver gatewayStorage;
     private AuthenticationRedirectStrategy authenticationRedirectStrategy;
     private UrlPatternMatcherStrategy ignoreUrlPatternMatcherStrategyClass;
+    private SignedTokenService tokenService;
+    private CasClientMetrics metrics = CasClientMetrics.global();
     private static final Map<String, Class<? extends UrlPatternMatcherStrategy>> PATTERN_MATCHER_TYPES = new HashMap();
 
     public YgjAuthenticationFilter() {
@@ -86,6 +91,8 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
             if (authenticationRedirectStrategyClass != null) {
                 this.authenticationRedirectStrategy = (AuthenticationRedirectStrategy)ReflectUtils.newInstance(authenticationRedirectStrategyClass, new Object[0]);
             }
+
+            this.setTokenService(this.createTokenService());
         }
 
     }
@@ -103,11 +110,13 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
             this.logger.debug("Request is ignored.");
             filterChain.doFilter(request, response);
         } else {
-            HttpSession session = request.getSession(false);
-            //获取session中存储的用户对象
-            Assertion assertion = session != null ? (Assertion)session.getAttribute("_const_cas_assertion_") : null;
-            // todo 当需要使用token做认证的时候需要替换此部分的代码
+            Assertion assertion = this.retrieveAssertion(request);
             if (assertion != null) {
+                CasRequestState state = CasRequestState.get(request);
+                if (state != null) {
+                    state.setAssertion(assertion);
+                }
+                this.metrics.assertionHit(this.tokenService != null);
                 filterChain.doFilter(request, response);
             } else {
                 String serviceUrl = this.constructServiceUrl(request, response);
@@ -127,6 +136,7 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
                     this.logger.debug("Constructed service url: {}", modifiedServiceUrl);
                     String urlToRedirectTo = CommonUtils.constructRedirectUrl(this.casServerLoginUrl, this.getProtocol().getServiceParameterName(), modifiedServiceUrl, this.renew, this.gateway);
                     this.logger.debug("redirecting to \"{}\"", urlToRedirectTo);
+                    this.metrics.redirected();
                     this.authenticationRedirectStrategy.redirect(request, response, urlToRedirectTo);
                 } else {
                     filterChain.doFilter(request, response);
@@ -135,6 +145,20 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
         }
     }
 
+    private Assertion retrieveAssertion(HttpServletRequest request) {
+        if (this.tokenService != null) {
+            //token模式：本地校验签名，不访问session
+            Assertion assertion = this.tokenService.verify(this.tokenService.readToken(request));
+            if (assertion != null) {
+                request.setAttribute(CONST_CAS_ASSERTION, assertion);
+            }
+            return assertion;
+        }
+        HttpSession session = request.getSession(false);
+        //获取session中存储的用户对象
+        return session != null ? (Assertion)session.getAttribute(CONST_CAS_ASSERTION) : null;
+    }
+
     public final void setRenew(boolean renew) {
         this.renew = renew;
     }
@@ -155,9 +179,28 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
         this.gatewayStorage = gatewayStorage;
     }
 
-    private boolean isRequestUrlExcluded(HttpServletRequest request) {
+    boolean isRequestUrlExcluded(HttpServletRequest request) {
+        CasRequestState state = CasRequestState.get(request);
+        if (state != null && state.getExcluded() != null) {
+            return state.getExcluded();
+        }
+        boolean excluded = this.matchesIgnorePattern(request);
+        if (excluded) {
+            this.metrics.excluded();
+        }
+        if (state != null) {
+            state.setExcluded(excluded);
+        }
+        return excluded;
+    }
+
+    private boolean matchesIgnorePattern(HttpServletRequest request) {
         if (this.ignoreUrlPatternMatcherStrategyClass == null) {
             return false;
+        } else if (this.ignoreUrlPatternMatcherStrategyClass instanceof MultiPatternUrlPatternMatcherStrategy) {
+            //servletPath已解码并规范化，不包含;jsessionid等路径参数
+            String path = request.getPathInfo() == null ? request.getServletPath() : request.getServletPath() + request.getPathInfo();
+            return ((MultiPatternUrlPatternMatcherStrategy) this.ignoreUrlPatternMatcherStrategyClass).matchesPath(path);
         } else {
             StringBuffer urlBuffer = request.getRequestURL();
             if (request.getQueryString() != null) {
@@ -169,6 +212,18 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
         }
     }
 
+    public final void setTokenService(SignedTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    public final SignedTokenService getTokenService() {
+        return this.tokenService;
+    }
+
+    public final void setMetrics(CasClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public final void setIgnoreUrlPatternMatcherStrategyClass(UrlPatternMatcherStrategy ignoreUrlPatternMatcherStrategyClass) {
         this.ignoreUrlPatternMatcherStrategyClass = ignoreUrlPatternMatcherStrategyClass;
     }
@@ -177,5 +232,6 @@ public class YgjAuthenticationFilter extends AbstractCasFilter {
         PATTERN_MATCHER_TYPES.put("CONTAINS", ContainsPatternUrlPatternMatcherStrategy.class);
         PATTERN_MATCHER_TYPES.put("REGEX", RegexUrlPatternMatcherStrategy.class);
         PATTERN_MATCHER_TYPES.put("EXACT", ExactUrlPatternMatcherStrategy.class);
+        PATTERN_MATCHER_TYPES.put("MULTI", MultiPatternUrlPatternMatcherStrategy.class);
     }
 }
@@ -0,0 +1,277 @@
+package com.jielin.casclientspringboot.filter;
+
+import com.jielin.casclientspringboot.session.InMemorySessionIndexBackend;
+import com.jielin.casclientspringboot.session.RedisSessionIndexBackend;
+import com.jielin.casclientspringboot.session.SessionIndexBackend;
+import com.jielin.casclientspringboot.session.SharedSessionMappingStorage;
+import com.jielin.casclientspringboot.token.SignedTokenService;
+import com.jielin.casclientspringboot.token.TokenRevocationList;
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.configuration.ConfigurationKeys;
+import org.jasig.cas.client.session.SingleSignOutFilter;
+import org.jasig.cas.client.util.AssertionHolder;
+import org.jasig.cas.client.util.CommonUtils;
+import org.jasig.cas.client.util.XmlUtils;
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Collection;
+
+/**
+ * @ClassName: YgjCasPipelineFilter.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 10:20:00
+ * @description: 单次遍历完成单点退出、登录验证、ticket校验、request包装和ThreadLocal绑定
+ *
+ * 替代原来分别注册的SingleSignOutFilter、YgjAuthenticationFilter、YgjCasTicketValidationFilter、
+ * HttpServletRequestWrapperFilter、AssertionThreadLocalFilter五个filter。
+ * 各阶段共享同一个CasRequestState，ticket参数和登录信息只解析一次；
+ * 忽略登录的路径（ignorePattern）且不带ticket和退出参数时直接放行，不再经过任何阶段。
+ * 所有阶段使用本filter的初始化参数；多节点部署时配置sessionMappingStorage=REDIS，退出请求可以到达任意节点。
+ * token模式下后端通道退出请求同时吊销该次登录签发的token（见TokenRevocationList）。
+ */
+public class YgjCasPipelineFilter extends AbstractConfigurationFilter {
+    private static final String FRONT_CHANNEL_LOGOUT_PARAMETER = "SAMLRequest=";
+    private final SingleSignOutFilter singleSignOutFilter;
+    private final YgjAuthenticationFilter authenticationFilter;
+    private final YgjCasTicketValidationFilter ticketValidationFilter;
+    private String artifactParameter;
+    private String logoutParameterName;
+    private String roleAttribute;
+    private boolean ignoreCase;
+    private SharedSessionMappingStorage sessionMappingStorage;
+    private SessionIndexBackend sessionIndexBackend;
+    private TokenRevocationList tokenRevocationList;
+
+    public YgjCasPipelineFilter() {
+        this(new YgjAuthenticationFilter(), new YgjCasTicketValidationFilter());
+    }
+
+    public YgjCasPipelineFilter(YgjAuthenticationFilter authenticationFilter, YgjCasTicketValidationFilter ticketValidationFilter) {
+        //单点退出必须使用SingleSignOutFilter本身，SingleSignOutHttpSessionListener依赖它的静态handler
+        this.singleSignOutFilter = new SingleSignOutFilter();
+        this.authenticationFilter = authenticationFilter;
+        this.ticketValidationFilter = ticketValidationFilter;
+    }
+
+    public void init(FilterConfig filterConfig) throws ServletException {
+        super.init(filterConfig);
+        this.sessionMappingStorage = this.createSessionMappingStorage();
+        if (this.sessionMappingStorage != null) {
+            this.singleSignOutFilter.setSessionMappingStorage(this.sessionMappingStorage);
+        }
+        this.singleSignOutFilter.init(filterConfig);
+        this.authenticationFilter.init(filterConfig);
+        this.ticketValidationFilter.init(filterConfig);
+        this.artifactParameter = this.getString(ConfigurationKeys.ARTIFACT_PARAMETER_NAME) + "=";
+        this.logoutParameterName = this.getString(ConfigurationKeys.LOGOUT_PARAMETER_NAME);
+        SignedTokenService tokenService = this.authenticationFilter.getTokenService();
+        if (tokenService != null) {
+            this.tokenRevocationList = new TokenRevocationList(tokenService.getMaxAgeSeconds());
+            if (this.sessionMappingStorage != null) {
+                this.tokenRevocationList.setBackend(this.sessionMappingStorage.getBackend());
+                this.sessionMappingStorage.getBackend().subscribe(this.tokenRevocationList);
+            }
+            tokenService.setRevocationList(this.tokenRevocationList);
+        }
+        this.roleAttribute = this.getString(ConfigurationKeys.ROLE_ATTRIBUTE);
+        this.ignoreCase = this.getBoolean(ConfigurationKeys.IGNORE_CASE);
+    }
+
+    private SharedSessionMappingStorage createSessionMappingStorage() {
+        String storage = this.getString(YgjConfigurationKeys.SESSION_MAPPING_STORAGE);
+        if ("REDIS".equals(storage)) {
+            this.sessionIndexBackend = new RedisSessionIndexBackend(this.getString(YgjConfigurationKeys.SESSION_MAPPING_REDIS_URL),
+                    this.getInt(YgjConfigurationKeys.SESSION_MAPPING_REDIS_MAX_CONNECTIONS), this.getInt(YgjConfigurationKeys.SESSION_MAPPING_REDIS_TIMEOUT));
+            return new SharedSessionMappingStorage(this.sessionIndexBackend, this.getInt(YgjConfigurationKeys.SESSION_MAPPING_TTL), this.getInt(YgjConfigurationKeys.SESSION_MAPPING_FLUSH_INTERVAL));
+        } else if ("MEMORY".equals(storage)) {
+            //进程内共享实例，不随filter关闭
+            return new SharedSessionMappingStorage(InMemorySessionIndexBackend.shared(), this.getInt(YgjConfigurationKeys.SESSION_MAPPING_TTL), this.getInt(YgjConfigurationKeys.SESSION_MAPPING_FLUSH_INTERVAL));
+        }
+        return null;
+    }
+
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        CasRequestState state = CasRequestState.get(request);
+        if (state == null) {
+            state = new CasRequestState();
+            request.setAttribute(CasRequestState.ATTRIBUTE, state);
+        }
+
+        if (this.tokenRevocationList != null) {
+            this.revokeTokens(request);
+        }
+        boolean excluded = this.authenticationFilter.isRequestUrlExcluded(request);
+        if (excluded && !this.mayCarryCasParameters(request)) {
+            this.logger.debug("Request is ignored.");
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        new StageChain(state, excluded, filterChain).doFilter(servletRequest, servletResponse);
+    }
+
+    /**
+     * 后端通道退出请求的SessionIndex是登录时的service ticket，吊销后继续交给SingleSignOutFilter失效session
+     */
+    private void revokeTokens(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart")) {
+            return;
+        }
+        String logoutMessage = request.getParameter(this.logoutParameterName);
+        if (CommonUtils.isBlank(logoutMessage)) {
+            return;
+        }
+        String sessionIndex = XmlUtils.getTextForElement(logoutMessage, "SessionIndex");
+        if (CommonUtils.isNotBlank(sessionIndex)) {
+            this.logger.debug("Revoking token issued for ticket [{}]", sessionIndex);
+            this.tokenRevocationList.revoke(sessionIndex.trim());
+        }
+    }
+
+    /**
+     * 本地退出时清除token cookie，未启用token模式时不做处理
+     */
+    public void expireToken(HttpServletResponse response) {
+        SignedTokenService tokenService = this.authenticationFilter.getTokenService();
+        if (tokenService != null) {
+            tokenService.expireToken(response);
+        }
+    }
+
+    /**
+     * 退出请求是POST，ticket和前端通道退出参数都在query string中，判断时不解析参数
+     */
+    private boolean mayCarryCasParameters(HttpServletRequest request) {
+        if ("POST".equals(request.getMethod())) {
+            return true;
+        }
+        String queryString = request.getQueryString();
+        return queryString != null && (queryString.contains(this.artifactParameter) || queryString.contains(FRONT_CHANNEL_LOGOUT_PARAMETER));
+    }
+
+    private void bind(CasRequestState state, ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        Assertion assertion = state.getAssertion();
+        if (assertion == null) {
+            //忽略登录的路径没有经过登录验证，按原AssertionThreadLocalFilter的方式查找
+            assertion = (Assertion) request.getAttribute(AbstractCasFilter.CONST_CAS_ASSERTION);
+            if (assertion == null) {
+                HttpSession session = request.getSession(false);
+                assertion = session != null ? (Assertion) session.getAttribute(AbstractCasFilter.CONST_CAS_ASSERTION) : null;
+            }
+        }
+        if (assertion == null) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        try {
+            AssertionHolder.setAssertion(assertion);
+            filterChain.doFilter(new CasHttpServletRequestWrapper(request, assertion.getPrincipal()), servletResponse);
+        } finally {
+            AssertionHolder.clear();
+        }
+    }
+
+    public void destroy() {
+        if (this.tokenRevocationList != null && this.sessionMappingStorage != null) {
+            this.sessionMappingStorage.getBackend().unsubscribe(this.tokenRevocationList);
+        }
+        this.singleSignOutFilter.destroy();
+        this.authenticationFilter.destroy();
+        this.ticketValidationFilter.destroy();
+        CommonUtils.closeQuietly(this.sessionMappingStorage);
+        CommonUtils.closeQuietly(this.sessionIndexBackend);
+    }
+
+    /**
+     * 依次执行各阶段，最后进入容器的filterChain
+     */
+    private final class StageChain implements FilterChain {
+        private final CasRequestState state;
+        private final boolean excluded;
+        private final FilterChain filterChain;
+        private int stage;
+
+        private StageChain(CasRequestState state, boolean excluded, FilterChain filterChain) {
+            this.state = state;
+            this.excluded = excluded;
+            this.filterChain = filterChain;
+        }
+
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+            switch (this.stage++) {
+                case 0:
+                    singleSignOutFilter.doFilter(request, response, this);
+                    break;
+                case 1:
+                    if (this.excluded) {
+                        this.doFilter(request, response);
+                    } else {
+                        authenticationFilter.doFilter(request, response, this);
+                    }
+                    break;
+                case 2:
+                    ticketValidationFilter.doFilter(request, response, this);
+                    break;
+                case 3:
+                    bind(this.state, request, response, this.filterChain);
+                    break;
+                default:
+                    throw new IllegalStateException("CAS pipeline has already been completed.");
+            }
+        }
+    }
+
+    private final class CasHttpServletRequestWrapper extends HttpServletRequestWrapper {
+        private final AttributePrincipal principal;
+
+        private CasHttpServletRequestWrapper(HttpServletRequest request, AttributePrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        public Principal getUserPrincipal() {
+            return this.principal;
+        }
+
+        public String getRemoteUser() {
+            return this.principal != null ? this.principal.getName() : null;
+        }
+
+        public boolean isUserInRole(String role) {
+            if (CommonUtils.isBlank(role) || this.principal == null || roleAttribute == null) {
+                return false;
+            }
+            Object value = this.principal.getAttributes().get(roleAttribute);
+            if (value instanceof Collection) {
+                for (Object candidate : (Collection<?>) value) {
+                    if (this.rolesEqual(role, candidate)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return this.rolesEqual(role, value);
+        }
+
+        private boolean rolesEqual(String given, Object candidate) {
+            if (candidate == null) {
+                return false;
+            }
+            return ignoreCase ? given.equalsIgnoreCase(candidate.toString()) : given.equals(candidate);
+        }
+    }
+}
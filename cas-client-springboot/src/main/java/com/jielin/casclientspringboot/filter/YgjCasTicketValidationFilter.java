@@ -1,5 +1,13 @@
 package com.jielin.casclientspringboot.filter;
 
+import com.jielin.casclientspringboot.metrics.CasClientMetrics;
+import com.jielin.casclientspringboot.metrics.MeteredTicketValidator;
+import com.jielin.casclientspringboot.proxy.TimingWheelProxyGrantingTicketStorage;
+import com.jielin.casclientspringboot.token.SignedTokenService;
+import com.jielin.casclientspringboot.validation.AsyncTicketValidator;
+import com.jielin.casclientspringboot.validation.PooledHttpURLConnectionFactory;
+import com.jielin.casclientspringboot.validation.SingleFlightTicketValidator;
+import com.jielin.casclientspringboot.validation.StreamingServiceTicketValidator;
 import org.jasig.cas.client.Protocol;
 import org.jasig.cas.client.authentication.AttributePrincipal;
 import org.jasig.cas.client.configuration.ConfigurationKeys;
@@ -13,6 +21,7 @@ import org.jasig.cas.client.validation.*;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.*;
 
@@ -32,6 +41,10 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
     protected Class<? extends Cas20ServiceTicketValidator> defaultServiceTicketValidatorClass;
     protected Class<? extends Cas20ProxyTicketValidator> defaultProxyTicketValidatorClass;
     private ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+    private SignedTokenService tokenService;
+    private HttpURLConnectionFactory urlConnectionFactory;
+    private AsyncTicketValidator asyncTicketValidator;
+    private CasClientMetrics metrics = CasClientMetrics.global();
 
     public YgjCasTicketValidationFilter() {
         this(Protocol.CAS2);
@@ -66,12 +79,39 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
         }
 
         this.millisBetweenCleanUps = this.getInt(ConfigurationKeys.MILLIS_BETWEEN_CLEAN_UPS);
-        super.initInternal(filterConfig);
+        this.setTokenService(this.createTokenService());
+        try {
+            super.initInternal(filterConfig);
+        } catch (ServletException | RuntimeException e) {
+            //初始化失败时容器不会调用destroy，关闭getTicketValidator中已经创建的连接池
+            this.destroy();
+            throw e;
+        }
+        //线程池在父类初始化成功后再创建，init()中的检查失败时同样由destroy关闭
+        if (this.getBoolean(YgjConfigurationKeys.ASYNC_VALIDATION)) {
+            this.setAsyncTicketValidator(this.createAsyncTicketValidator());
+        }
+        if (this.tokenService != null) {
+            //token模式下登录信息保存在cookie中，不需要session，校验成功后跳转也不会死循环
+            this.setUseSession(false);
+            this.setRedirectAfterValidation(this.getBoolean(ConfigurationKeys.REDIRECT_AFTER_VALIDATION));
+        }
     }
 
     public void init() {
-        super.init();
-        CommonUtils.assertNotNull(this.proxyGrantingTicketStorage, "proxyGrantingTicketStorage cannot be null.");
+        try {
+            super.init();
+            CommonUtils.assertNotNull(this.proxyGrantingTicketStorage, "proxyGrantingTicketStorage cannot be null.");
+        } catch (RuntimeException e) {
+            this.destroy();
+            throw e;
+        }
+        if (this.proxyGrantingTicketStorage instanceof TimingWheelProxyGrantingTicketStorage) {
+            //存储自身在读写时清理过期PGT，不需要定时全量扫描
+            this.logger.debug("{} expires tickets by itself, CleanUpTimerTask is not scheduled.", this.proxyGrantingTicketStorage.getClass().getSimpleName());
+            return;
+        }
+
         if (this.timer == null) {
             this.timer = new Timer(true);
         }
@@ -104,7 +144,8 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
 
         ((Cas20ServiceTicketValidator) validator).setProxyCallbackUrl(this.getString(ConfigurationKeys.PROXY_CALLBACK_URL));
         ((Cas20ServiceTicketValidator) validator).setProxyGrantingTicketStorage(this.proxyGrantingTicketStorage);
-        HttpURLConnectionFactory factory = new HttpsURLConnectionFactory(this.getHostnameVerifier(), this.getSSLConfig());
+        HttpURLConnectionFactory factory = this.createURLConnectionFactory();
+        this.urlConnectionFactory = factory;
         ((Cas20ServiceTicketValidator) validator).setURLConnectionFactory(factory);
         ((Cas20ServiceTicketValidator) validator).setProxyRetriever(new Cas20ProxyRetriever(casServerUrlPrefix, this.getString(ConfigurationKeys.ENCODING), factory));
         ((Cas20ServiceTicketValidator) validator).setRenew(this.getBoolean(ConfigurationKeys.RENEW));
@@ -121,12 +162,73 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
         }
 
         ((Cas20ServiceTicketValidator) validator).setCustomParameters(additionalParameters);
-        return (TicketValidator) validator;
+        if ("STREAMING".equals(this.getString(YgjConfigurationKeys.VALIDATION_RESPONSE_PARSER))) {
+            validator = this.createStreamingTicketValidator((Cas20ServiceTicketValidator) validator, casServerUrlPrefix, factory, additionalParameters);
+        }
+        //只统计真正发到cas server的校验
+        TicketValidator meteredValidator = new MeteredTicketValidator((TicketValidator) validator, this.metrics);
+        if (this.getBoolean(YgjConfigurationKeys.COALESCE_VALIDATION)) {
+            return new SingleFlightTicketValidator(meteredValidator, this.getInt(YgjConfigurationKeys.COALESCE_VALIDATION_TIMEOUT));
+        }
+        return meteredValidator;
+    }
+
+    /**
+     * 代理校验（acceptAnyProxy/allowedProxyChains）需要检查proxies，仍使用原来的校验器
+     */
+    protected AsyncTicketValidator createAsyncTicketValidator() {
+        return new AsyncTicketValidator(this.getInt(YgjConfigurationKeys.ASYNC_VALIDATION_THREADS),
+                this.getInt(YgjConfigurationKeys.ASYNC_VALIDATION_QUEUE_SIZE), this.getInt(YgjConfigurationKeys.ASYNC_VALIDATION_TIMEOUT));
+    }
+
+    private TicketValidator createStreamingTicketValidator(Cas20ServiceTicketValidator validator, String casServerUrlPrefix, HttpURLConnectionFactory factory, Map<String, String> additionalParameters) {
+        if (validator instanceof Cas20ProxyTicketValidator) {
+            this.logger.warn("Streaming response parser does not support proxy ticket validation, using {}", validator.getClass().getName());
+            return validator;
+        }
+        StreamingServiceTicketValidator streamingValidator = new StreamingServiceTicketValidator(casServerUrlPrefix,
+                validator instanceof Cas30ServiceTicketValidator ? "p3/serviceValidate" : "serviceValidate");
+        streamingValidator.setURLConnectionFactory(factory);
+        streamingValidator.setProxyCallbackUrl(this.getString(ConfigurationKeys.PROXY_CALLBACK_URL));
+        streamingValidator.setProxyGrantingTicketStorage(this.proxyGrantingTicketStorage);
+        streamingValidator.setProxyRetriever(new Cas20ProxyRetriever(casServerUrlPrefix, this.getString(ConfigurationKeys.ENCODING), factory));
+        streamingValidator.setRenew(this.getBoolean(ConfigurationKeys.RENEW));
+        streamingValidator.setEncoding(this.getString(ConfigurationKeys.ENCODING));
+        streamingValidator.setCustomParameters(additionalParameters);
+        return streamingValidator;
+    }
+
+    private HttpURLConnectionFactory createURLConnectionFactory() {
+        String transport = this.getString(YgjConfigurationKeys.VALIDATION_TRANSPORT);
+        if (CommonUtils.isBlank(transport) || "DEFAULT".equals(transport)) {
+            return new HttpsURLConnectionFactory(this.getHostnameVerifier(), this.getSSLConfig());
+        } else if ("POOLED".equals(transport)) {
+            PooledHttpURLConnectionFactory.PoolSettings settings = new PooledHttpURLConnectionFactory.PoolSettings();
+            settings.setMaxTotal(this.getInt(YgjConfigurationKeys.VALIDATION_MAX_CONNECTIONS));
+            settings.setMaxPerRoute(this.getInt(YgjConfigurationKeys.VALIDATION_MAX_CONNECTIONS_PER_ROUTE));
+            settings.setRouteLimits(this.getString(YgjConfigurationKeys.VALIDATION_ROUTE_LIMITS));
+            settings.setConnectTimeout(this.getInt(YgjConfigurationKeys.VALIDATION_CONNECT_TIMEOUT));
+            settings.setReadTimeout(this.getInt(YgjConfigurationKeys.VALIDATION_READ_TIMEOUT));
+            settings.setConnectionRequestTimeout(this.getInt(YgjConfigurationKeys.VALIDATION_CONNECTION_REQUEST_TIMEOUT));
+            settings.setIdleTimeout(this.getInt(YgjConfigurationKeys.VALIDATION_IDLE_TIMEOUT));
+            return new PooledHttpURLConnectionFactory(this.getHostnameVerifier(), this.getSSLConfig(), settings);
+        } else {
+            this.logger.trace("Assuming {} is a qualified class name...", transport);
+            return (HttpURLConnectionFactory) ReflectUtils.newInstance(transport, new Object[0]);
+        }
     }
 
     public void destroy() {
         super.destroy();
-        this.timer.cancel();
+        if (this.timer != null) {
+            this.timer.cancel();
+        }
+        if (this.asyncTicketValidator != null) {
+            this.asyncTicketValidator.shutdown();
+        }
+        if (this.urlConnectionFactory instanceof Closeable) {
+            CommonUtils.closeQuietly((Closeable) this.urlConnectionFactory);
+        }
     }
 
     protected final boolean preFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
@@ -154,6 +256,14 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
         this.proxyGrantingTicketStorage = storage;
     }
 
+    public void setTokenService(SignedTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    public void setAsyncTicketValidator(AsyncTicketValidator asyncTicketValidator) {
+        this.asyncTicketValidator = asyncTicketValidator;
+    }
+
     public void setTimer(Timer timer) {
         this.timer = timer;
     }
@@ -167,7 +277,13 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
     }
 
     static {
-        RESERVED_INIT_PARAMS = new String[]{ConfigurationKeys.ARTIFACT_PARAMETER_NAME.getName(), ConfigurationKeys.SERVER_NAME.getName(), ConfigurationKeys.SERVICE.getName(), ConfigurationKeys.RENEW.getName(), ConfigurationKeys.LOGOUT_PARAMETER_NAME.getName(), ConfigurationKeys.ARTIFACT_PARAMETER_OVER_POST.getName(), ConfigurationKeys.EAGERLY_CREATE_SESSIONS.getName(), ConfigurationKeys.ENCODE_SERVICE_URL.getName(), ConfigurationKeys.SSL_CONFIG_FILE.getName(), ConfigurationKeys.ROLE_ATTRIBUTE.getName(), ConfigurationKeys.IGNORE_CASE.getName(), ConfigurationKeys.CAS_SERVER_LOGIN_URL.getName(), ConfigurationKeys.GATEWAY.getName(), ConfigurationKeys.AUTHENTICATION_REDIRECT_STRATEGY_CLASS.getName(), ConfigurationKeys.GATEWAY_STORAGE_CLASS.getName(), ConfigurationKeys.CAS_SERVER_URL_PREFIX.getName(), ConfigurationKeys.ENCODING.getName(), ConfigurationKeys.TOLERANCE.getName(), ConfigurationKeys.IGNORE_PATTERN.getName(), ConfigurationKeys.IGNORE_URL_PATTERN_TYPE.getName(), ConfigurationKeys.HOSTNAME_VERIFIER.getName(), ConfigurationKeys.HOSTNAME_VERIFIER_CONFIG.getName(), ConfigurationKeys.EXCEPTION_ON_VALIDATION_FAILURE.getName(), ConfigurationKeys.REDIRECT_AFTER_VALIDATION.getName(), ConfigurationKeys.USE_SESSION.getName(), ConfigurationKeys.SECRET_KEY.getName(), ConfigurationKeys.CIPHER_ALGORITHM.getName(), ConfigurationKeys.PROXY_RECEPTOR_URL.getName(), ConfigurationKeys.PROXY_GRANTING_TICKET_STORAGE_CLASS.getName(), ConfigurationKeys.MILLIS_BETWEEN_CLEAN_UPS.getName(), ConfigurationKeys.ACCEPT_ANY_PROXY.getName(), ConfigurationKeys.ALLOWED_PROXY_CHAINS.getName(), ConfigurationKeys.TICKET_VALIDATOR_CLASS.getName(), ConfigurationKeys.PROXY_CALLBACK_URL.getName(), ConfigurationKeys.RELAY_STATE_PARAMETER_NAME.getName()};
+        RESERVED_INIT_PARAMS = new String[]{ConfigurationKeys.ARTIFACT_PARAMETER_NAME.getName(), ConfigurationKeys.SERVER_NAME.getName(), ConfigurationKeys.SERVICE.getName(), ConfigurationKeys.RENEW.getName(), ConfigurationKeys.LOGOUT_PARAMETER_NAME.getName(), ConfigurationKeys.ARTIFACT_PARAMETER_OVER_POST.getName(), ConfigurationKeys.EAGERLY_CREATE_SESSIONS.getName(), ConfigurationKeys.ENCODE_SERVICE_URL.getName(), ConfigurationKeys.SSL_CONFIG_FILE.getName(), ConfigurationKeys.ROLE_ATTRIBUTE.getName(), ConfigurationKeys.IGNORE_CASE.getName(), ConfigurationKeys.CAS_SERVER_LOGIN_URL.getName(), ConfigurationKeys.GATEWAY.getName(), ConfigurationKeys.AUTHENTICATION_REDIRECT_STRATEGY_CLASS.getName(), ConfigurationKeys.GATEWAY_STORAGE_CLASS.getName(), ConfigurationKeys.CAS_SERVER_URL_PREFIX.getName(), ConfigurationKeys.ENCODING.getName(), ConfigurationKeys.TOLERANCE.getName(), ConfigurationKeys.IGNORE_PATTERN.getName(), ConfigurationKeys.IGNORE_URL_PATTERN_TYPE.getName(), ConfigurationKeys.HOSTNAME_VERIFIER.getName(), ConfigurationKeys.HOSTNAME_VERIFIER_CONFIG.getName(), ConfigurationKeys.EXCEPTION_ON_VALIDATION_FAILURE.getName(), ConfigurationKeys.REDIRECT_AFTER_VALIDATION.getName(), ConfigurationKeys.USE_SESSION.getName(), ConfigurationKeys.SECRET_KEY.getName(), ConfigurationKeys.CIPHER_ALGORITHM.getName(), ConfigurationKeys.PROXY_RECEPTOR_URL.getName(), ConfigurationKeys.PROXY_GRANTING_TICKET_STORAGE_CLASS.getName(), ConfigurationKeys.MILLIS_BETWEEN_CLEAN_UPS.getName(), ConfigurationKeys.ACCEPT_ANY_PROXY.getName(), ConfigurationKeys.ALLOWED_PROXY_CHAINS.getName(), ConfigurationKeys.TICKET_VALIDATOR_CLASS.getName(), ConfigurationKeys.PROXY_CALLBACK_URL.getName(), ConfigurationKeys.RELAY_STATE_PARAMETER_NAME.getName(),
+                YgjConfigurationKeys.TOKEN_SIGNING_KEYS.getName(), YgjConfigurationKeys.TOKEN_MAX_AGE.getName(), YgjConfigurationKeys.TOKEN_COOKIE_NAME.getName(), YgjConfigurationKeys.TOKEN_COOKIE_SECURE.getName(), YgjConfigurationKeys.TOKEN_HEADER_NAME.getName(),
+                YgjConfigurationKeys.VALIDATION_TRANSPORT.getName(), YgjConfigurationKeys.VALIDATION_MAX_CONNECTIONS.getName(), YgjConfigurationKeys.VALIDATION_MAX_CONNECTIONS_PER_ROUTE.getName(), YgjConfigurationKeys.VALIDATION_ROUTE_LIMITS.getName(), YgjConfigurationKeys.VALIDATION_CONNECT_TIMEOUT.getName(), YgjConfigurationKeys.VALIDATION_READ_TIMEOUT.getName(), YgjConfigurationKeys.VALIDATION_CONNECTION_REQUEST_TIMEOUT.getName(), YgjConfigurationKeys.VALIDATION_IDLE_TIMEOUT.getName(),
+                YgjConfigurationKeys.ASYNC_VALIDATION.getName(), YgjConfigurationKeys.ASYNC_VALIDATION_THREADS.getName(), YgjConfigurationKeys.ASYNC_VALIDATION_QUEUE_SIZE.getName(), YgjConfigurationKeys.ASYNC_VALIDATION_TIMEOUT.getName(),
+                YgjConfigurationKeys.COALESCE_VALIDATION.getName(), YgjConfigurationKeys.COALESCE_VALIDATION_TIMEOUT.getName(),
+                YgjConfigurationKeys.VALIDATION_RESPONSE_PARSER.getName(),
+                YgjConfigurationKeys.SESSION_MAPPING_STORAGE.getName(), YgjConfigurationKeys.SESSION_MAPPING_REDIS_URL.getName(), YgjConfigurationKeys.SESSION_MAPPING_REDIS_MAX_CONNECTIONS.getName(), YgjConfigurationKeys.SESSION_MAPPING_REDIS_TIMEOUT.getName(), YgjConfigurationKeys.SESSION_MAPPING_TTL.getName(), YgjConfigurationKeys.SESSION_MAPPING_FLUSH_INTERVAL.getName()};
     }
 
     @Override
@@ -177,12 +293,23 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
             HttpServletResponse response = (HttpServletResponse) servletResponse;
             String ticket = this.retrieveTicketFromRequest(request);
             if (CommonUtils.isNotBlank(ticket)) {
+                Object asyncResult = request.getAttribute(AsyncTicketValidator.RESULT_ATTRIBUTE);
+                if (asyncResult == null && this.asyncTicketValidator != null && request.isAsyncSupported()) {
+                    //异步校验，结果返回后容器会以ASYNC方式重新执行本filter
+                    this.logger.debug("Attempting to validate ticket asynchronously: {}", ticket);
+                    this.asyncTicketValidator.validate(request, this.ticketValidator, ticket, this.constructServiceUrl(request, response));
+                    return;
+                }
                 this.logger.debug("Attempting to validate ticket: {}", ticket);
 
                 try {
-                    Assertion assertion = this.ticketValidator.validate(ticket, this.constructServiceUrl(request, response));
+                    Assertion assertion = asyncResult != null ? this.takeAsyncResult(request, asyncResult) : this.ticketValidator.validate(ticket, this.constructServiceUrl(request, response));
                     this.logger.debug("Successfully authenticated user: {}", assertion.getPrincipal().getName());
                     request.setAttribute("_const_cas_assertion_", assertion);
+                    CasRequestState state = CasRequestState.get(request);
+                    if (state != null) {
+                        state.setAssertion(assertion);
+                    }
                     if (this.useSession) {
                         request.getSession().setAttribute("_const_cas_assertion_", assertion);
                     }
@@ -200,6 +327,7 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
                         throw new ServletException(var8);
                     }
 
+                    this.metrics.validationRejected();
                     response.sendError(403, var8.getMessage());
                     return;
                 }
@@ -209,8 +337,24 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
         }
     }
 
+    public final void setMetrics(CasClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private Assertion takeAsyncResult(HttpServletRequest request, Object asyncResult) throws TicketValidationException {
+        request.removeAttribute(AsyncTicketValidator.RESULT_ATTRIBUTE);
+        if (asyncResult instanceof TicketValidationException) {
+            throw (TicketValidationException) asyncResult;
+        } else if (asyncResult instanceof RuntimeException) {
+            throw (RuntimeException) asyncResult;
+        }
+        return (Assertion) asyncResult;
+    }
 
     private void createToken(String ticket, Assertion assertion, HttpServletResponse response) {
+        if (this.tokenService == null) {
+            return;
+        }
         AttributePrincipal principal = assertion.getPrincipal();
         String userID = "";
         if (principal != null) {
@@ -220,6 +364,7 @@ public class YgjCasTicketValidationFilter extends AbstractTicketValidationFilter
                 userID = userId.toString();
             }
         }
-
+        this.tokenService.writeToken(response, this.tokenService.issue(principal != null ? principal.getName() : "", userID, ticket));
+        this.logger.debug("Issued token for ticket: {}", ticket);
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.jielin.casclientspringboot.filter;
+
+import org.jasig.cas.client.configuration.ConfigurationKey;
+
+/**
+ * @ClassName: YgjConfigurationKeys.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 10:12:00
+ * @description: 自定义filter的初始化参数，用法与cas-client中的ConfigurationKeys一致
+ */
+public interface YgjConfigurationKeys {
+    /**
+     * token签名密钥，格式为 kid:secret[,kid:secret...]，第一个用于签发，其余只用于校验（密钥轮换）。
+     * 配置后启用无状态token模式，不再使用HttpSession保存登录信息。
+     * token中只保存用户名和userId，其他属性不会保留。
+     * 后端通道单点退出时按SessionIndex（登录时的service ticket）吊销该次登录签发的token；sessionMappingStorage为LOCAL时只在收到退出请求的节点生效，
+     * 多节点部署需配置REDIS，否则其他节点上的token在tokenMaxAge内仍然有效。
+     */
+    ConfigurationKey<String> TOKEN_SIGNING_KEYS = new ConfigurationKey<String>("tokenSigningKeys", null);
+    ConfigurationKey<Integer> TOKEN_MAX_AGE = new ConfigurationKey<Integer>("tokenMaxAge", 1800);
+    ConfigurationKey<String> TOKEN_COOKIE_NAME = new ConfigurationKey<String>("tokenCookieName", "ygj_token");
+    ConfigurationKey<Boolean> TOKEN_COOKIE_SECURE = new ConfigurationKey<Boolean>("tokenCookieSecure", Boolean.FALSE);
+    /**
+     * 除cookie外，同时通过该响应头下发token，请求时也优先从该请求头读取
+     */
+    ConfigurationKey<String> TOKEN_HEADER_NAME = new ConfigurationKey<String>("tokenHeaderName", null);
+
+    /**
+     * ticket校验通道：DEFAULT（cas-client默认，每次新建连接）、POOLED（连接池），或HttpURLConnectionFactory实现类的全限定名
+     */
+    ConfigurationKey<String> VALIDATION_TRANSPORT = new ConfigurationKey<String>("validationTransport", "DEFAULT");
+    ConfigurationKey<Integer> VALIDATION_MAX_CONNECTIONS = new ConfigurationKey<Integer>("validationMaxConnections", 50);
+    ConfigurationKey<Integer> VALIDATION_MAX_CONNECTIONS_PER_ROUTE = new ConfigurationKey<Integer>("validationMaxConnectionsPerRoute", 20);
+    /**
+     * 格式为 https://host:port=n[,https://host:port=n...]
+     */
+    ConfigurationKey<String> VALIDATION_ROUTE_LIMITS = new ConfigurationKey<String>("validationRouteLimits", null);
+    ConfigurationKey<Integer> VALIDATION_CONNECT_TIMEOUT = new ConfigurationKey<Integer>("validationConnectTimeout", 3000);
+    ConfigurationKey<Integer> VALIDATION_READ_TIMEOUT = new ConfigurationKey<Integer>("validationReadTimeout", 5000);
+    ConfigurationKey<Integer> VALIDATION_CONNECTION_REQUEST_TIMEOUT = new ConfigurationKey<Integer>("validationConnectionRequestTimeout", 1000);
+    ConfigurationKey<Integer> VALIDATION_IDLE_TIMEOUT = new ConfigurationKey<Integer>("validationIdleTimeout", 15000);
+
+    /**
+     * 开启后使用Servlet异步校验ticket，需要filter注册为asyncSupported，
+     * 并且dispatcher types必须包含ASYNC（如FilterRegistrationBean.setDispatcherTypes(REQUEST, ASYNC)、web.xml中的&lt;dispatcher&gt;ASYNC&lt;/dispatcher&gt;）：
+     * 校验结果在ASYNC重新分派时才检查，filter不处理ASYNC分派时请求会不经校验到达后面的servlet
+     */
+    ConfigurationKey<Boolean> ASYNC_VALIDATION = new ConfigurationKey<Boolean>("asyncValidation", Boolean.FALSE);
+    ConfigurationKey<Integer> ASYNC_VALIDATION_THREADS = new ConfigurationKey<Integer>("asyncValidationThreads", 32);
+    ConfigurationKey<Integer> ASYNC_VALIDATION_QUEUE_SIZE = new ConfigurationKey<Integer>("asyncValidationQueueSize", 1000);
+    ConfigurationKey<Integer> ASYNC_VALIDATION_TIMEOUT = new ConfigurationKey<Integer>("asyncValidationTimeout", 10000);
+
+    /**
+     * 合并同一ticket+service的并发校验，只有校验进行中到达的请求共享结果，完成后不保留，
+     * 重复的请求最多等待coalesceValidationTimeout毫秒（应大于validationConnectTimeout+validationReadTimeout）
+     */
+    ConfigurationKey<Boolean> COALESCE_VALIDATION = new ConfigurationKey<Boolean>("coalesceValidation", Boolean.FALSE);
+    ConfigurationKey<Integer> COALESCE_VALIDATION_TIMEOUT = new ConfigurationKey<Integer>("coalesceValidationTimeout", 10000);
+
+    /**
+     * serviceValidate响应的解析方式：DOM（cas-client默认）、STREAMING（StAX流式解析）
+     */
+    ConfigurationKey<String> VALIDATION_RESPONSE_PARSER = new ConfigurationKey<String>("validationResponseParser", "DOM");
+
+    /**
+     * 单点退出的session映射：LOCAL（cas-client默认，仅本节点）、REDIS（redis共享）、MEMORY（进程内共享，用于测试）
+     */
+    ConfigurationKey<String> SESSION_MAPPING_STORAGE = new ConfigurationKey<String>("sessionMappingStorage", "LOCAL");
+    /**
+     * 格式为 redis://[:password@]host:port[/database]
+     */
+    ConfigurationKey<String> SESSION_MAPPING_REDIS_URL = new ConfigurationKey<String>("sessionMappingRedisUrl", "redis://localhost:6379/0");
+    ConfigurationKey<Integer> SESSION_MAPPING_REDIS_MAX_CONNECTIONS = new ConfigurationKey<Integer>("sessionMappingRedisMaxConnections", 16);
+    ConfigurationKey<Integer> SESSION_MAPPING_REDIS_TIMEOUT = new ConfigurationKey<Integer>("sessionMappingRedisTimeout", 2000);
+    /**
+     * 共享索引中每次登录一个key，过期秒数；redis中key为"slo:"加16个字符，共20个字符，值为sessionId
+     */
+    ConfigurationKey<Integer> SESSION_MAPPING_TTL = new ConfigurationKey<Integer>("sessionMappingTtl", 28800);
+    ConfigurationKey<Integer> SESSION_MAPPING_FLUSH_INTERVAL = new ConfigurationKey<Integer>("sessionMappingFlushInterval", 100);
+}
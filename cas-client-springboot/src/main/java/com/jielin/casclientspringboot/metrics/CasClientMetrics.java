@@ -0,0 +1,93 @@
+package com.jielin.casclientspringboot.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: CasClientMetrics.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 16:30:00
+ * @description: cas client filter的运行指标
+ *
+ * 所有meter在创建时注册好，请求中只做计数和计时，不再按tag查找。
+ * filter不是spring bean，默认注册到Metrics.globalRegistry，spring boot会把自身的registry加入其中，
+ * 通过/actuator/metrics/cas.client.*查看。
+ */
+public class CasClientMetrics {
+    private static final CasClientMetrics GLOBAL = new CasClientMetrics(Metrics.globalRegistry);
+    private final Timer validationSuccess;
+    private final Timer validationFailure;
+    private final Timer validationError;
+    private final Counter validationRejected;
+    private final Counter redirects;
+    private final Counter excluded;
+    private final Counter sessionAssertions;
+    private final Counter tokenAssertions;
+
+    public CasClientMetrics(MeterRegistry registry) {
+        this.validationSuccess = validationTimer(registry, "success");
+        this.validationFailure = validationTimer(registry, "failure");
+        this.validationError = validationTimer(registry, "error");
+        this.validationRejected = Counter.builder("cas.client.validation.rejected")
+                .description("Requests answered with 403 after a failed ticket validation")
+                .register(registry);
+        this.redirects = Counter.builder("cas.client.redirects")
+                .description("Redirects to casServerLoginUrl")
+                .register(registry);
+        this.excluded = Counter.builder("cas.client.excluded")
+                .description("Requests matching ignorePattern")
+                .register(registry);
+        this.sessionAssertions = assertionCounter(registry, "session");
+        this.tokenAssertions = assertionCounter(registry, "token");
+    }
+
+    public static CasClientMetrics global() {
+        return GLOBAL;
+    }
+
+    private static Timer validationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("cas.client.validation")
+                .description("Latency of TicketValidator.validate")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter assertionCounter(MeterRegistry registry, String source) {
+        return Counter.builder("cas.client.assertions")
+                .description("Requests authenticated by an existing assertion")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    /**
+     * @param outcome success：校验通过；failure：TicketValidationException；error：网络等其它异常
+     */
+    public void recordValidation(long startNanos, String outcome) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer timer = "success".equals(outcome) ? this.validationSuccess : "failure".equals(outcome) ? this.validationFailure : this.validationError;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    public void validationRejected() {
+        this.validationRejected.increment();
+    }
+
+    public void redirected() {
+        this.redirects.increment();
+    }
+
+    public void excluded() {
+        this.excluded.increment();
+    }
+
+    public void assertionHit(boolean fromToken) {
+        (fromToken ? this.tokenAssertions : this.sessionAssertions).increment();
+    }
+}
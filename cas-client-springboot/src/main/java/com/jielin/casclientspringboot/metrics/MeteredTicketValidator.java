@@ -0,0 +1,42 @@
+package com.jielin.casclientspringboot.metrics;
+
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+
+/**
+ * @ClassName: MeteredTicketValidator.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 16:40:00
+ * @description: 记录ticket校验耗时，同步和异步校验都经过这里
+ */
+public class MeteredTicketValidator implements TicketValidator {
+    private final TicketValidator delegate;
+    private final CasClientMetrics metrics;
+
+    public MeteredTicketValidator(TicketValidator delegate, CasClientMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Assertion validate(String ticket, String service) throws TicketValidationException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Assertion assertion = this.delegate.validate(ticket, service);
+            outcome = "success";
+            return assertion;
+        } catch (TicketValidationException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            this.metrics.recordValidation(start, outcome);
+        }
+    }
+
+    public TicketValidator getDelegate() {
+        return this.delegate;
+    }
+}
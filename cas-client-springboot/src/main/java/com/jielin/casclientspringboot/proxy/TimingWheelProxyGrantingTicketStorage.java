@@ -0,0 +1,137 @@
+package com.jielin.casclientspringboot.proxy;
+
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+import org.jasig.cas.client.util.CommonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: TimingWheelProxyGrantingTicketStorage.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 16:10:00
+ * @description: 基于时间轮过期的PGT存储，不需要Timer定时全量扫描
+ *
+ * 每个PGT保存时按过期时间放入时间轮对应的槽，save/retrieve时顺带推进时间轮，
+ * 只清理已经到期的槽，单次操作均摊O(1)；存储本身使用ConcurrentHashMap，读写之间没有全局锁。
+ * 通过proxyGrantingTicketStorageClass配置使用，此时filter不会再启动CleanUpTimerTask。
+ */
+public class TimingWheelProxyGrantingTicketStorage implements ProxyGrantingTicketStorage {
+    private static final long DEFAULT_TIMEOUT = 60000L;
+    private static final long DEFAULT_TICK = 1000L;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+    private final Queue<Entry>[] wheel;
+    private final long timeout;
+    private final long tick;
+    private final AtomicLong currentTick;
+
+    public TimingWheelProxyGrantingTicketStorage() {
+        this(DEFAULT_TIMEOUT);
+    }
+
+    public TimingWheelProxyGrantingTicketStorage(long timeout) {
+        this(timeout, DEFAULT_TICK);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheelProxyGrantingTicketStorage(long timeout, long tick) {
+        CommonUtils.assertTrue(timeout > 0 && tick > 0, "timeout and tick must be positive.");
+        this.timeout = timeout;
+        this.tick = tick;
+        //槽数覆盖整个过期时间，正常情况下一个槽里只有同一个tick到期的条目
+        int slots = (int) ((timeout + tick - 1) / tick) + 2;
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            this.wheel[i] = new ConcurrentLinkedQueue<Entry>();
+        }
+        this.currentTick = new AtomicLong(System.currentTimeMillis() / tick);
+    }
+
+    @Override
+    public void save(String proxyGrantingTicketIou, String proxyGrantingTicket) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(proxyGrantingTicketIou, proxyGrantingTicket, now + this.timeout);
+        this.cache.put(proxyGrantingTicketIou, entry);
+        //放入过期时间之后的第一个tick，推进到该槽时条目一定已过期
+        this.slot((entry.expiresAt + this.tick - 1) / this.tick).add(entry);
+        this.advance(now);
+    }
+
+    @Override
+    public String retrieve(String proxyGrantingTicketIou) {
+        if (proxyGrantingTicketIou == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        this.advance(now);
+        Entry entry = this.cache.remove(proxyGrantingTicketIou);
+        if (entry == null || entry.expiresAt <= now) {
+            this.logger.info("No Proxy Ticket found for [{}]", proxyGrantingTicketIou);
+            return null;
+        }
+        return entry.proxyGrantingTicket;
+    }
+
+    /**
+     * 兼容接口，手动调用时同样只推进时间轮
+     */
+    @Override
+    public void cleanUp() {
+        this.advance(System.currentTimeMillis());
+    }
+
+    public int size() {
+        return this.cache.size();
+    }
+
+    private void advance(long now) {
+        long target = now / this.tick;
+        long last = this.currentTick.get();
+        if (last >= target || !this.currentTick.compareAndSet(last, target)) {
+            //已是最新，或其它线程正在推进
+            return;
+        }
+        //长时间没有访问时最多转一圈
+        long from = Math.max(last + 1, target - this.wheel.length + 1);
+        for (long t = from; t <= target; t++) {
+            this.expire(this.slot(t), now);
+        }
+    }
+
+    private void expire(Queue<Entry> slot, long now) {
+        int size = slot.size();
+        for (int i = 0; i < size; i++) {
+            Entry entry = slot.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.expiresAt <= now) {
+                this.cache.remove(entry.proxyGrantingTicketIou, entry);
+            } else {
+                slot.add(entry);
+            }
+        }
+    }
+
+    private Queue<Entry> slot(long tickNumber) {
+        return this.wheel[(int) (tickNumber % this.wheel.length)];
+    }
+
+    private static final class Entry {
+        private final String proxyGrantingTicketIou;
+        private final String proxyGrantingTicket;
+        private final long expiresAt;
+
+        private Entry(String proxyGrantingTicketIou, String proxyGrantingTicket, long expiresAt) {
+            this.proxyGrantingTicketIou = proxyGrantingTicketIou;
+            this.proxyGrantingTicket = proxyGrantingTicket;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
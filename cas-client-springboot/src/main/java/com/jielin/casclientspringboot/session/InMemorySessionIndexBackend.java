@@ -0,0 +1,74 @@
+package com.jielin.casclientspringboot.session;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @ClassName: InMemorySessionIndexBackend.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 09:40:00
+ * @description: 进程内的共享索引，用于测试和单机，同一个实例可以被多个SharedSessionMappingStorage（模拟多个节点）共用
+ *
+ * 不处理过期，session销毁时会删除对应的key。
+ */
+public class InMemorySessionIndexBackend implements SessionIndexBackend {
+    private static final InMemorySessionIndexBackend SHARED = new InMemorySessionIndexBackend();
+    private final ConcurrentHashMap<String, String> index = new ConcurrentHashMap<String, String>();
+    private final CopyOnWriteArrayList<Consumer<String>> listeners = new CopyOnWriteArrayList<Consumer<String>>();
+
+    /**
+     * 同一个jvm中配置sessionMappingStorage=MEMORY的filter共用此实例
+     */
+    public static InMemorySessionIndexBackend shared() {
+        return SHARED;
+    }
+
+    @Override
+    public void put(String key, String sessionId, int ttlSeconds) {
+        this.index.put(key, sessionId);
+    }
+
+    @Override
+    public String remove(String key) {
+        return this.index.remove(key);
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            this.index.remove(key);
+        }
+    }
+
+    @Override
+    public void publishInvalidations(Collection<String> sessionIds) {
+        for (Consumer<String> listener : this.listeners) {
+            for (String sessionId : sessionIds) {
+                listener.accept(sessionId);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<String> listener) {
+        this.listeners.remove(listener);
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    @Override
+    public void close() {
+        this.index.clear();
+        this.listeners.clear();
+    }
+}
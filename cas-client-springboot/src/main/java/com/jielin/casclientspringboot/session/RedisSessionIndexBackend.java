@@ -0,0 +1,137 @@
+package com.jielin.casclientspringboot.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @ClassName: RedisSessionIndexBackend.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 09:50:00
+ * @description: 基于redis的共享索引，失效通知通过pub/sub发送到所有节点
+ *
+ * 一条通知消息包含一批sessionId，以逗号分隔；订阅线程断开后间隔重连。
+ */
+public class RedisSessionIndexBackend implements SessionIndexBackend {
+    private static final String CHANNEL = "ygj:slo:invalidate";
+    //GET和DEL合并为一次往返，避免两个节点同时处理同一个退出请求
+    private static final String REMOVE_SCRIPT = "local v = redis.call('GET', KEYS[1]) redis.call('DEL', KEYS[1]) return v";
+    private static final long RECONNECT_DELAY = 3000L;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final JedisPool pool;
+    private final CopyOnWriteArrayList<Consumer<String>> listeners = new CopyOnWriteArrayList<Consumer<String>>();
+    private final JedisPubSub subscriber = new JedisPubSub() {
+        @Override
+        public void onMessage(String channel, String message) {
+            for (String sessionId : message.split(",")) {
+                for (Consumer<String> listener : listeners) {
+                    listener.accept(sessionId);
+                }
+            }
+        }
+    };
+    private volatile boolean closed;
+    private Thread subscriberThread;
+
+    /**
+     * @param redisUri redis://[:password@]host:port[/database]
+     */
+    public RedisSessionIndexBackend(String redisUri, int maxConnections, int timeout) {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(maxConnections);
+        poolConfig.setMaxIdle(maxConnections);
+        this.pool = new JedisPool(poolConfig, URI.create(redisUri), timeout);
+    }
+
+    @Override
+    public void put(String key, String sessionId, int ttlSeconds) {
+        try (Jedis jedis = this.pool.getResource()) {
+            jedis.setex(key, ttlSeconds, sessionId);
+        }
+    }
+
+    @Override
+    public String remove(String key) {
+        try (Jedis jedis = this.pool.getResource()) {
+            return (String) jedis.eval(REMOVE_SCRIPT, Collections.singletonList(key), Collections.<String>emptyList());
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = this.pool.getResource()) {
+            jedis.del(keys.toArray(new String[0]));
+        }
+    }
+
+    @Override
+    public void publishInvalidations(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = this.pool.getResource()) {
+            jedis.publish(CHANNEL, String.join(",", sessionIds));
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> listener) {
+        this.listeners.add(listener);
+        if (this.subscriberThread == null) {
+            this.subscriberThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    listen();
+                }
+            }, "cas-slo-subscriber");
+            this.subscriberThread.setDaemon(true);
+            this.subscriberThread.start();
+        }
+    }
+
+    @Override
+    public void unsubscribe(Consumer<String> listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void listen() {
+        while (!this.closed) {
+            try (Jedis jedis = this.pool.getResource()) {
+                jedis.subscribe(this.subscriber, CHANNEL);
+            } catch (RuntimeException e) {
+                if (this.closed) {
+                    return;
+                }
+                this.logger.warn("Lost subscription to {}, reconnecting in {} ms", CHANNEL, RECONNECT_DELAY, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.subscriber.isSubscribed()) {
+            this.subscriber.unsubscribe();
+        }
+        this.pool.close();
+    }
+}
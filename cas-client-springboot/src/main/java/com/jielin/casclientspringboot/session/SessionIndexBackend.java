@@ -0,0 +1,33 @@
+package com.jielin.casclientspringboot.session;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * @ClassName: SessionIndexBackend.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 09:30:00
+ * @description: 多个client节点共享的service ticket到sessionId的索引
+ */
+public interface SessionIndexBackend extends Closeable {
+
+    void put(String key, String sessionId, int ttlSeconds);
+
+    /**
+     * 删除并返回key对应的sessionId，不存在时返回null
+     */
+    String remove(String key);
+
+    void removeAll(Collection<String> keys);
+
+    /**
+     * 通知所有节点失效这些session
+     */
+    void publishInvalidations(Collection<String> sessionIds);
+
+    void subscribe(Consumer<String> listener);
+
+    void unsubscribe(Consumer<String> listener);
+}
@@ -0,0 +1,175 @@
+package com.jielin.casclientspringboot.session;
+
+import org.jasig.cas.client.session.SessionMappingStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpSession;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @ClassName: SharedSessionMappingStorage.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 10:10:00
+ * @description: 多节点共享的单点退出session映射，退出请求可以到达任意一个节点
+ *
+ * 本节点创建的session保存在本地（近端缓存），同时把 ticket -> sessionId 写入共享索引；
+ * 退出请求到达本节点时先查本地，查不到再从共享索引取出sessionId，通知持有该session的节点失效。
+ * 共享索引的删除和失效通知放入队列，每flushInterval毫秒批量发送一次。
+ */
+public class SharedSessionMappingStorage implements SessionMappingStorage, Closeable {
+    private static final String KEY_PREFIX = "slo:";
+    private static final int MAX_BATCH_SIZE = 500;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ConcurrentHashMap<String, HttpSession> sessionsByMappingId = new ConcurrentHashMap<String, HttpSession>();
+    private final ConcurrentHashMap<String, String> mappingIdsBySessionId = new ConcurrentHashMap<String, String>();
+    private final Queue<String> pendingRemovals = new ConcurrentLinkedQueue<String>();
+    private final Queue<String> pendingInvalidations = new ConcurrentLinkedQueue<String>();
+    private final SessionIndexBackend backend;
+    private final int ttlSeconds;
+    private final ScheduledExecutorService flusher;
+    private final Consumer<String> invalidationListener = new Consumer<String>() {
+        @Override
+        public void accept(String sessionId) {
+            invalidateLocal(sessionId);
+        }
+    };
+
+    public SharedSessionMappingStorage(SessionIndexBackend backend, int ttlSeconds, long flushInterval) {
+        this.backend = backend;
+        this.ttlSeconds = ttlSeconds;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cas-slo-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        this.backend.subscribe(this.invalidationListener);
+    }
+
+    @Override
+    public void addSessionById(String mappingId, HttpSession session) {
+        this.sessionsByMappingId.put(mappingId, session);
+        this.mappingIdsBySessionId.put(session.getId(), mappingId);
+        try {
+            this.backend.put(encodeKey(mappingId), session.getId(), this.ttlSeconds);
+        } catch (RuntimeException e) {
+            //共享索引不可用时仍可处理到达本节点的退出请求
+            this.logger.error("Unable to store session mapping for ticket: {}", mappingId, e);
+        }
+    }
+
+    @Override
+    public void removeBySessionById(String sessionId) {
+        String mappingId = this.mappingIdsBySessionId.remove(sessionId);
+        if (mappingId != null) {
+            this.sessionsByMappingId.remove(mappingId);
+            this.pendingRemovals.add(encodeKey(mappingId));
+        }
+    }
+
+    @Override
+    public HttpSession removeSessionByMappingId(String mappingId) {
+        HttpSession session = this.sessionsByMappingId.remove(mappingId);
+        if (session != null) {
+            this.mappingIdsBySessionId.remove(session.getId());
+            this.pendingRemovals.add(encodeKey(mappingId));
+            return session;
+        }
+
+        String sessionId;
+        try {
+            sessionId = this.backend.remove(encodeKey(mappingId));
+        } catch (RuntimeException e) {
+            this.logger.error("Unable to look up session mapping for ticket: {}", mappingId, e);
+            return null;
+        }
+        if (sessionId != null) {
+            this.logger.debug("Session for ticket {} is held by another node, publishing invalidation", mappingId);
+            this.pendingInvalidations.add(sessionId);
+        }
+        return null;
+    }
+
+    private void invalidateLocal(String sessionId) {
+        String mappingId = this.mappingIdsBySessionId.remove(sessionId);
+        if (mappingId == null) {
+            return;
+        }
+        HttpSession session = this.sessionsByMappingId.remove(mappingId);
+        if (session != null) {
+            this.logger.debug("Invalidating session [{}] on request of another node", sessionId);
+            try {
+                session.invalidate();
+            } catch (IllegalStateException e) {
+                this.logger.debug("Error invalidating session.", e);
+            }
+        }
+    }
+
+    void flush() {
+        try {
+            List<String> keys = drain(this.pendingRemovals);
+            while (!keys.isEmpty()) {
+                this.backend.removeAll(keys);
+                keys = drain(this.pendingRemovals);
+            }
+            List<String> sessionIds = drain(this.pendingInvalidations);
+            while (!sessionIds.isEmpty()) {
+                this.backend.publishInvalidations(sessionIds);
+                sessionIds = drain(this.pendingInvalidations);
+            }
+        } catch (RuntimeException e) {
+            this.logger.error("Unable to flush session mapping changes", e);
+        }
+    }
+
+    private static List<String> drain(Queue<String> queue) {
+        List<String> batch = new ArrayList<String>();
+        String item;
+        while (batch.size() < MAX_BATCH_SIZE && (item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    /**
+     * ticket较长且带cas server主机名，索引中只保存sha-256前12字节的base64（16个字符），加上"slo:"前缀key固定为20个字符
+     */
+    static String encodeKey(String mappingId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(mappingId.getBytes(StandardCharsets.UTF_8));
+            byte[] prefix = new byte[12];
+            System.arraycopy(digest, 0, prefix, 0, prefix.length);
+            return KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(prefix);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public SessionIndexBackend getBackend() {
+        return this.backend;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.backend.unsubscribe(this.invalidationListener);
+        this.flusher.shutdown();
+        this.flush();
+    }
+}
@@ -0,0 +1,235 @@
+package com.jielin.casclientspringboot.token;
+
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.util.CommonUtils;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @ClassName: SignedTokenService.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 10:20:00
+ * @description: 无状态登录token的签发与校验，HMAC-SHA256签名，支持多密钥轮换
+ *
+ * token格式: v1.kid.base64(用户名).base64(userId).sid.过期时间(秒).base64(签名)，sid为登录时service ticket的摘要。
+ * token中只保存用户名和userId，cas server返回的其他属性不会保留，校验后的Assertion也只有这两项；需要其他属性时使用session模式。
+ * 设置了TokenRevocationList时，该ticket的单点退出请求到达后token校验失败。
+ */
+public class SignedTokenService {
+    public static final String DEFAULT_COOKIE_NAME = "ygj_token";
+    public static final String USER_ID_ATTRIBUTE = "userId";
+    private static final String VERSION = "v1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final ThreadLocal<Mac> MAC = new ThreadLocal<Mac>() {
+        @Override
+        protected Mac initialValue() {
+            try {
+                return Mac.getInstance(HMAC_ALGORITHM);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<String, SecretKeySpec>();
+    private final String activeKeyId;
+    private final int maxAgeSeconds;
+    private String cookieName = DEFAULT_COOKIE_NAME;
+    private boolean secureCookie;
+    private String headerName;
+    private TokenRevocationList revocationList;
+
+    /**
+     * @param signingKeys   kid:secret[,kid:secret...]，第一个为当前签发密钥
+     * @param maxAgeSeconds token有效期
+     */
+    public SignedTokenService(String signingKeys, int maxAgeSeconds) {
+        CommonUtils.assertTrue(CommonUtils.isNotBlank(signingKeys), "signingKeys cannot be blank.");
+        CommonUtils.assertTrue(maxAgeSeconds > 0, "maxAgeSeconds must be positive.");
+        String firstKeyId = null;
+        for (String entry : signingKeys.split(",")) {
+            int index = entry.indexOf(':');
+            CommonUtils.assertTrue(index > 0, "signing key must be in kid:secret format.");
+            String kid = entry.substring(0, index).trim();
+            byte[] secret = entry.substring(index + 1).trim().getBytes(StandardCharsets.UTF_8);
+            CommonUtils.assertTrue(kid.indexOf('.') < 0, "kid cannot contain '.'.");
+            CommonUtils.assertTrue(secret.length >= MIN_SECRET_LENGTH, "secret of key [" + kid + "] must be at least " + MIN_SECRET_LENGTH + " bytes.");
+            this.keys.put(kid, new SecretKeySpec(secret, HMAC_ALGORITHM));
+            if (firstKeyId == null) {
+                firstKeyId = kid;
+            }
+        }
+        this.activeKeyId = firstKeyId;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * @param ticket 本次登录校验的service ticket，单点退出时按它吊销
+     */
+    public String issue(String principalName, String userId, String ticket) {
+        long expiresAt = System.currentTimeMillis() / 1000L + this.maxAgeSeconds;
+        StringBuilder builder = new StringBuilder(160);
+        builder.append(VERSION).append('.')
+                .append(this.activeKeyId).append('.')
+                .append(encode(principalName)).append('.')
+                .append(encode(userId)).append('.')
+                .append(ticket != null ? TokenRevocationList.sessionId(ticket) : "").append('.')
+                .append(expiresAt);
+        byte[] signature = sign(this.keys.get(this.activeKeyId), builder);
+        return builder.append('.').append(ENCODER.encodeToString(signature)).toString();
+    }
+
+    /**
+     * 校验token并还原Assertion，签名错误、密钥未知或已过期时返回null
+     */
+    public Assertion verify(String token) {
+        if (CommonUtils.isBlank(token)) {
+            return null;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 7 || !VERSION.equals(parts[0])) {
+            return null;
+        }
+        SecretKeySpec key = this.keys.get(parts[1]);
+        if (key == null) {
+            this.logger.debug("Unknown token key id [{}]", parts[1]);
+            return null;
+        }
+
+        try {
+            long expiresAt = Long.parseLong(parts[5]);
+            if (expiresAt * 1000L < System.currentTimeMillis()) {
+                this.logger.debug("Token expired at {}", expiresAt);
+                return null;
+            }
+            byte[] expected = sign(key, token.substring(0, token.lastIndexOf('.')));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[6]))) {
+                this.logger.debug("Token signature mismatch");
+                return null;
+            }
+            String principalName = decode(parts[2]);
+            if (this.revocationList != null && !parts[4].isEmpty() && this.revocationList.isRevoked(parts[4])) {
+                this.logger.debug("Token of [{}] has been revoked by logout", principalName);
+                return null;
+            }
+            String userId = decode(parts[3]);
+            Map<String, Object> attributes = userId.isEmpty()
+                    ? Collections.<String, Object>emptyMap()
+                    : Collections.<String, Object>singletonMap(USER_ID_ATTRIBUTE, userId);
+            AttributePrincipal principal = new AttributePrincipalImpl(principalName, attributes);
+            Date now = new Date();
+            return new AssertionImpl(principal, now, new Date(expiresAt * 1000L), now, new HashMap<String, Object>(attributes));
+        } catch (IllegalArgumentException e) {
+            this.logger.debug("Malformed token", e);
+            return null;
+        }
+    }
+
+    public String readToken(HttpServletRequest request) {
+        if (this.headerName != null) {
+            String header = request.getHeader(this.headerName);
+            if (CommonUtils.isNotBlank(header)) {
+                return header.startsWith(BEARER_PREFIX) ? header.substring(BEARER_PREFIX.length()) : header;
+            }
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (this.cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    public void writeToken(HttpServletResponse response, String token) {
+        Cookie cookie = new Cookie(this.cookieName, token);
+        cookie.setPath("/");
+        cookie.setMaxAge(this.maxAgeSeconds);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(this.secureCookie);
+        response.addCookie(cookie);
+        if (this.headerName != null) {
+            response.setHeader(this.headerName, token);
+        }
+    }
+
+    /**
+     * 登出时清除token cookie，名称和secure与签发时一致
+     */
+    public void expireToken(HttpServletResponse response) {
+        Cookie cookie = new Cookie(this.cookieName, "");
+        cookie.setPath("/");
+        cookie.setMaxAge(0);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(this.secureCookie);
+        response.addCookie(cookie);
+    }
+
+    private static byte[] sign(SecretKeySpec key, CharSequence payload) {
+        Mac mac = MAC.get();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        return mac.doFinal(payload.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String encode(String value) {
+        return value == null ? "" : ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+
+    public void setCookieName(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public void setSecureCookie(boolean secureCookie) {
+        this.secureCookie = secureCookie;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = CommonUtils.isBlank(headerName) ? null : headerName;
+    }
+
+    public void setRevocationList(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
+    public String getCookieName() {
+        return this.cookieName;
+    }
+
+    public int getMaxAgeSeconds() {
+        return this.maxAgeSeconds;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jielin.casclientspringboot.token;
+
+import com.jielin.casclientspringboot.session.SessionIndexBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * @ClassName: TokenRevocationList.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 15:40:00
+ * @description: 单点退出后吊销已签发的token
+ *
+ * token中带有登录时service ticket的摘要（sid），后端通道退出请求的SessionIndex就是这个ticket，
+ * 按它吊销只影响这一次登录，同一用户的其他登录不受影响（cas 5.3的退出请求中NameID固定为@NOT_USED@，不能按用户名吊销）。
+ * 记录按sid保存在map中，保留tokenMaxAge秒，之后该token已经自然过期。所有记录的保留时长相同，
+ * 加入顺序就是过期顺序，过期记录从队列头部依次移除，每次吊销只处理已过期的记录，不扫描整个map。
+ * 配置了共享索引（sessionMappingStorage=REDIS/MEMORY）时通过它的失效通知同步到其他节点，否则只在收到退出请求的节点生效。
+ */
+public class TokenRevocationList implements Consumer<String> {
+    static final String MESSAGE_PREFIX = "tok:";
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ConcurrentHashMap<String, Long> revokedUntil = new ConcurrentHashMap<String, Long>();
+    private final ConcurrentLinkedQueue<Revocation> expiryQueue = new ConcurrentLinkedQueue<Revocation>();
+    private final int retainSeconds;
+    private SessionIndexBackend backend;
+
+    public TokenRevocationList(int retainSeconds) {
+        this.retainSeconds = retainSeconds;
+    }
+
+    /**
+     * 吊销用该ticket登录时签发的token，并通知其他节点
+     */
+    public void revoke(String sessionIndex) {
+        String sid = sessionId(sessionIndex);
+        this.revokeLocal(sid);
+        if (this.backend != null) {
+            try {
+                //sid是base64url，不含逗号，不影响redis通知按逗号拼接
+                this.backend.publishInvalidations(Collections.singletonList(MESSAGE_PREFIX + sid));
+            } catch (RuntimeException e) {
+                this.logger.error("Unable to publish token revocation for ticket [{}]", sessionIndex, e);
+            }
+        }
+    }
+
+    boolean isRevoked(String sid) {
+        Long until = this.revokedUntil.get(sid);
+        return until != null && until > System.currentTimeMillis() / 1000L;
+    }
+
+    private void revokeLocal(String sid) {
+        long now = System.currentTimeMillis() / 1000L;
+        Long until = now + this.retainSeconds;
+        this.revokedUntil.put(sid, until);
+        this.expiryQueue.add(new Revocation(sid, until));
+        for (Revocation head = this.expiryQueue.peek(); head != null && head.until <= now; head = this.expiryQueue.peek()) {
+            if (this.expiryQueue.remove(head)) {
+                //同一个sid再次吊销时map中是新的时间，不能删除
+                this.revokedUntil.remove(head.sid, head.until);
+            }
+        }
+    }
+
+    int size() {
+        return this.revokedUntil.size();
+    }
+
+    /**
+     * 其他节点的吊销通知；共享索引的session失效通知也会到这里，不带前缀的直接忽略
+     */
+    @Override
+    public void accept(String message) {
+        if (message.startsWith(MESSAGE_PREFIX) && message.length() > MESSAGE_PREFIX.length()) {
+            this.revokeLocal(message.substring(MESSAGE_PREFIX.length()));
+        }
+    }
+
+    /**
+     * ticket的sha-256前12字节的base64，固定16个字符，token中不出现ticket本身
+     */
+    static String sessionId(String ticket) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(ticket.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void setBackend(SessionIndexBackend backend) {
+        this.backend = backend;
+    }
+
+    private static final class Revocation {
+        private final String sid;
+        private final Long until;
+
+        private Revocation(String sid, Long until) {
+            this.sid = sid;
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.jielin.casclientspringboot.validation;
+
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @ClassName: AsyncTicketValidator.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 14:02:00
+ * @description: 基于Servlet异步的ticket校验，到cas server的网络请求在独立线程池中执行，不占用tomcat工作线程
+ *
+ * 校验结果（Assertion或异常）写入request属性后通过AsyncContext.dispatch()重新交给容器，
+ * filter在ASYNC分发中取出结果，继续执行原来的跳转、403或filterChain逻辑。
+ */
+public class AsyncTicketValidator {
+    public static final String RESULT_ATTRIBUTE = "_ygj_async_validation_result_";
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+
+    public AsyncTicketValidator(int threads, int queueSize, long timeout) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "cas-ticket-validation-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * 开启异步并提交校验，调用方随后应直接返回，不再继续filterChain
+     */
+    public void validate(HttpServletRequest request, final TicketValidator ticketValidator, final String ticket, final String serviceUrl) {
+        final AsyncContext asyncContext = request.startAsync();
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        asyncContext.setTimeout(this.timeout);
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                finish(asyncContext, finished, new TicketValidationException("Ticket validation timed out after " + timeout + "ms"));
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                Object result;
+                try {
+                    result = ticketValidator.validate(ticket, serviceUrl);
+                } catch (TicketValidationException e) {
+                    result = e;
+                } catch (RuntimeException e) {
+                    result = e;
+                }
+                finish(asyncContext, finished, result);
+            }
+        };
+
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            //线程池已满时退化为在当前线程同步校验
+            this.logger.warn("Async ticket validation queue is full, validating on the request thread.");
+            task.run();
+        }
+    }
+
+    private void finish(AsyncContext asyncContext, AtomicBoolean finished, Object result) {
+        if (finished.compareAndSet(false, true)) {
+            asyncContext.getRequest().setAttribute(RESULT_ATTRIBUTE, result);
+            asyncContext.dispatch();
+        }
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,278 @@
+package com.jielin.casclientspringboot.validation;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
+import org.jasig.cas.client.util.CommonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.KeyStore;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: PooledHttpURLConnectionFactory.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 11:05:00
+ * @description: 基于连接池的ticket校验通道，复用keep-alive连接和TLS会话，避免每次校验都重新握手
+ *
+ * cas-client的CommonUtils.getResponseFromServer在读完响应后会调用disconnect()，
+ * 默认的HttpsURLConnectionFactory因此每次都会关闭底层socket；这里返回的连接在读取前已把响应完整缓冲，
+ * 底层连接立即归还连接池，disconnect()不再影响连接复用。
+ */
+public class PooledHttpURLConnectionFactory implements HttpURLConnectionFactory, Closeable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledHttpURLConnectionFactory.class);
+
+    private final transient PoolingHttpClientConnectionManager connectionManager;
+    private final transient CloseableHttpClient httpClient;
+
+    public PooledHttpURLConnectionFactory(HostnameVerifier hostnameVerifier, Properties sslConfiguration, PoolSettings settings) {
+        //整个连接池共用一个SSLContext，JSSE会按host:port缓存会话，新连接可直接恢复TLS会话
+        SSLConnectionSocketFactory sslSocketFactory = hostnameVerifier != null
+                ? new SSLConnectionSocketFactory(createSSLContext(sslConfiguration), hostnameVerifier)
+                : new SSLConnectionSocketFactory(createSSLContext(sslConfiguration));
+        this.connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build());
+        this.connectionManager.setMaxTotal(settings.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(settings.getMaxPerRoute());
+        for (String route : settings.getRouteLimits().keySet()) {
+            HttpHost host = HttpHost.create(route);
+            int port = host.getPort() > 0 ? host.getPort() : ("https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80);
+            HttpHost target = new HttpHost(host.getHostName(), port, host.getSchemeName());
+            this.connectionManager.setMaxPerRoute(new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName())),
+                    settings.getRouteLimits().get(route));
+        }
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(settings.getConnectTimeout())
+                .setSocketTimeout(settings.getReadTimeout())
+                .setConnectionRequestTimeout(settings.getConnectionRequestTimeout())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(this.connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.getIdleTimeout(), TimeUnit.MILLISECONDS)
+                //service ticket只能使用一次，不能自动重试
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Override
+    public HttpURLConnection buildHttpURLConnection(URLConnection conn) {
+        return new PooledHttpURLConnection(conn.getURL(), this.httpClient);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.httpClient.close();
+    }
+
+    private static SSLContext createSSLContext(Properties sslConfiguration) {
+        try {
+            String keyStorePath = sslConfiguration.getProperty("keyStorePath");
+            if (keyStorePath == null) {
+                return SSLContext.getDefault();
+            }
+            SSLContext sslContext = SSLContext.getInstance(sslConfiguration.getProperty("protocol", "TLS"));
+            KeyStore keyStore = KeyStore.getInstance(sslConfiguration.getProperty("keyStoreType", KeyStore.getDefaultType()));
+            FileInputStream keyStoreIS = new FileInputStream(keyStorePath);
+            try {
+                String keyStorePass = sslConfiguration.getProperty("keyStorePass");
+                keyStore.load(keyStoreIS, keyStorePass != null ? keyStorePass.toCharArray() : null);
+            } finally {
+                CommonUtils.closeQuietly(keyStoreIS);
+            }
+            LOGGER.debug("Keystore has {} keys", keyStore.size());
+            KeyManagerFactory keyManager = KeyManagerFactory.getInstance(sslConfiguration.getProperty("keyManagerType", "SunX509"));
+            String certificatePassword = sslConfiguration.getProperty("certificatePassword");
+            keyManager.init(keyStore, certificatePassword != null ? certificatePassword.toCharArray() : null);
+            sslContext.init(keyManager.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create SSLContext for ticket validation", e);
+        }
+    }
+
+    /**
+     * 执行时一次性读完响应并释放底层连接，其余方法只提供CommonUtils需要的部分
+     */
+    private static final class PooledHttpURLConnection extends HttpURLConnection {
+        private final CloseableHttpClient httpClient;
+        private Header[] headers = new Header[0];
+        private byte[] body;
+
+        private PooledHttpURLConnection(URL url, CloseableHttpClient httpClient) {
+            super(url);
+            this.httpClient = httpClient;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (this.connected) {
+                return;
+            }
+            HttpGet get = new HttpGet(this.url.toString());
+            CloseableHttpResponse response = this.httpClient.execute(get);
+            try {
+                this.responseCode = response.getStatusLine().getStatusCode();
+                this.responseMessage = response.getStatusLine().getReasonPhrase();
+                this.headers = response.getAllHeaders();
+                this.body = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : new byte[0];
+            } finally {
+                response.close();
+            }
+            this.connected = true;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            this.connect();
+            return this.responseCode;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            this.connect();
+            if (this.responseCode >= 400) {
+                throw new IOException("Server returned HTTP response code: " + this.responseCode + " for URL: " + this.url);
+            }
+            return new ByteArrayInputStream(this.body);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return this.connected && this.responseCode >= 400 ? new ByteArrayInputStream(this.body) : null;
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            for (int i = this.headers.length - 1; i >= 0; i--) {
+                if (this.headers[i].getName().equalsIgnoreCase(name)) {
+                    return this.headers[i].getValue();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void disconnect() {
+            //响应已缓冲，连接已归还连接池
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+
+    /**
+     * 连接池参数，时间单位均为毫秒
+     */
+    public static final class PoolSettings {
+        private int maxTotal = 50;
+        private int maxPerRoute = 20;
+        private int connectTimeout = 3000;
+        private int readTimeout = 5000;
+        private int connectionRequestTimeout = 1000;
+        private long idleTimeout = 15000;
+        private final Map<String, Integer> routeLimits = new LinkedHashMap<String, Integer>();
+
+        /**
+         * @param routeLimits 单独限制某个地址的连接数，格式为 https://host:port=n[,https://host:port=n...]
+         */
+        public void setRouteLimits(String routeLimits) {
+            this.routeLimits.clear();
+            if (CommonUtils.isBlank(routeLimits)) {
+                return;
+            }
+            for (String entry : routeLimits.split(",")) {
+                int index = entry.lastIndexOf('=');
+                CommonUtils.assertTrue(index > 0, "route limit must be in url=max format: " + entry);
+                this.routeLimits.put(entry.substring(0, index).trim(), Integer.valueOf(entry.substring(index + 1).trim()));
+            }
+        }
+
+        public Map<String, Integer> getRouteLimits() {
+            return this.routeLimits;
+        }
+
+        public int getMaxTotal() {
+            return this.maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return this.maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public int getConnectTimeout() {
+            return this.connectTimeout;
+        }
+
+        public void setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public int getReadTimeout() {
+            return this.readTimeout;
+        }
+
+        public void setReadTimeout(int readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public int getConnectionRequestTimeout() {
+            return this.connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public long getIdleTimeout() {
+            return this.idleTimeout;
+        }
+
+        public void setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+}
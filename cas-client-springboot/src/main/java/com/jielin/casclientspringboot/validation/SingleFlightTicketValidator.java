@@ -0,0 +1,83 @@
+package com.jielin.casclientspringboot.validation;
+
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @ClassName: SingleFlightTicketValidator.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 15:30:00
+ * @description: 合并同一ticket的并发校验请求
+ *
+ * service ticket只能使用一次，浏览器预加载、重复点击或代理重试时同一个ticket会同时到达，
+ * 只有第一次校验能成功，其余都会403。这里按ticket+service合并：只有第一次校验进行中到达的请求共享它的结果，
+ * 校验结束即移除，之后再到达的同一ticket照常发到cas server校验（会被拒绝），不保留结果，不破坏ticket一次性使用。
+ * 等待的请求最多等waitMillis，超时按校验失败处理，不会因为第一次校验卡住而一直占用线程。
+ */
+public class SingleFlightTicketValidator implements TicketValidator {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ConcurrentHashMap<String, CompletableFuture<Assertion>> flights = new ConcurrentHashMap<String, CompletableFuture<Assertion>>();
+    private final TicketValidator delegate;
+    private final long waitMillis;
+
+    public SingleFlightTicketValidator(TicketValidator delegate, long waitMillis) {
+        this.delegate = delegate;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public Assertion validate(String ticket, String service) throws TicketValidationException {
+        String key = ticket + '|' + service;
+        CompletableFuture<Assertion> flight = new CompletableFuture<Assertion>();
+        CompletableFuture<Assertion> existing = this.flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            this.logger.debug("Joining in-flight validation of ticket: {}", ticket);
+            return this.await(existing);
+        }
+        try {
+            Assertion assertion = this.delegate.validate(ticket, service);
+            flight.complete(assertion);
+            return assertion;
+        } catch (TicketValidationException | RuntimeException | Error e) {
+            //Error也必须结束future，否则等待的请求一直阻塞
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            //先结束future再移除，移除后到达的请求重新校验
+            this.flights.remove(key, flight);
+        }
+    }
+
+    private Assertion await(CompletableFuture<Assertion> flight) throws TicketValidationException {
+        try {
+            return flight.get(this.waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TicketValidationException("Timed out after " + this.waitMillis + " ms waiting for in-flight ticket validation");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketValidationException("Interrupted while waiting for ticket validation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TicketValidationException) {
+                throw (TicketValidationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TicketValidationException(cause);
+        }
+    }
+
+    public TicketValidator getDelegate() {
+        return this.delegate;
+    }
+}
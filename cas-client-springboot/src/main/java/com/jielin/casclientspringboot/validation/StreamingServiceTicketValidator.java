@@ -0,0 +1,243 @@
+package com.jielin.casclientspringboot.validation;
+
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+import org.jasig.cas.client.proxy.ProxyRetriever;
+import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
+import org.jasig.cas.client.util.CommonUtils;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @ClassName: StreamingServiceTicketValidator.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月19日 17:20:00
+ * @description: 使用StAX流式解析serviceValidate响应的校验器，validationResponseParser配置为STREAMING时使用
+ *
+ * Cas20ServiceTicketValidator先把响应读成String再解析成DOM，属性越多分配越多；
+ * 这里直接在响应流上解析，一次遍历得到用户名、属性和PGT IOU，不保留原始响应。
+ * 请求参数和生成的Assertion与Cas20ServiceTicketValidator一致，只支持service ticket校验，代理校验仍使用原实现。
+ */
+public class StreamingServiceTicketValidator implements TicketValidator {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final String casServerUrlPrefix;
+    private final String endpoint;
+    private HttpURLConnectionFactory urlConnectionFactory;
+    private ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+    private ProxyRetriever proxyRetriever;
+    private String proxyCallbackUrl;
+    private boolean renew;
+    private String encoding;
+    private Map<String, String> customParameters = new HashMap<String, String>();
+
+    public StreamingServiceTicketValidator(String casServerUrlPrefix) {
+        this(casServerUrlPrefix, "serviceValidate");
+    }
+
+    /**
+     * @param endpoint serviceValidate或p3/serviceValidate
+     */
+    public StreamingServiceTicketValidator(String casServerUrlPrefix, String endpoint) {
+        CommonUtils.assertNotNull(casServerUrlPrefix, "casServerUrlPrefix cannot be null.");
+        this.casServerUrlPrefix = casServerUrlPrefix;
+        this.endpoint = endpoint;
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    @Override
+    public Assertion validate(String ticket, String service) throws TicketValidationException {
+        String validationUrl = this.constructValidationUrl(ticket, service);
+        this.logger.debug("Constructing validation url: {}", validationUrl);
+        HttpURLConnection conn = null;
+        try {
+            conn = this.urlConnectionFactory.buildHttpURLConnection(new URL(validationUrl).openConnection());
+            InputStream in = conn.getInputStream();
+            try {
+                return this.parseResponse(in);
+            } finally {
+                CommonUtils.closeQuietly(in);
+            }
+        } catch (IOException e) {
+            this.logger.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 解析serviceValidate响应，成功返回Assertion，authenticationFailure时抛出TicketValidationException
+     */
+    public Assertion parseResponse(InputStream in) throws TicketValidationException {
+        String user = null;
+        String proxyGrantingTicketIou = null;
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        XMLStreamReader reader = null;
+        try {
+            reader = this.encoding != null ? XML_INPUT_FACTORY.createXMLStreamReader(in, this.encoding) : XML_INPUT_FACTORY.createXMLStreamReader(in);
+            int depth = 0;
+            int attributesDepth = -1;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth-- == attributesDepth) {
+                        attributesDepth = -1;
+                    }
+                    continue;
+                } else if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                depth++;
+                String name = reader.getLocalName();
+                if (attributesDepth >= 0) {
+                    //getElementText读到结束标签，深度不变
+                    depth--;
+                    addAttribute(attributes, name, reader.getElementText());
+                } else if ("attributes".equals(name)) {
+                    attributesDepth = depth;
+                } else if ("user".equals(name)) {
+                    depth--;
+                    user = reader.getElementText();
+                } else if ("proxyGrantingTicket".equals(name)) {
+                    depth--;
+                    proxyGrantingTicketIou = reader.getElementText();
+                } else if ("authenticationFailure".equals(name)) {
+                    throw new TicketValidationException(reader.getElementText().trim());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new TicketValidationException("Unable to parse the response from the CAS server.", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    this.logger.debug(e.getMessage(), e);
+                }
+            }
+        }
+
+        if (CommonUtils.isBlank(user)) {
+            throw new TicketValidationException("No principal was found in the response from the CAS server.");
+        }
+        String proxyGrantingTicket = null;
+        if (proxyGrantingTicketIou != null && this.proxyGrantingTicketStorage != null) {
+            proxyGrantingTicket = this.proxyGrantingTicketStorage.retrieve(proxyGrantingTicketIou);
+        }
+        AttributePrincipal principal = CommonUtils.isNotBlank(proxyGrantingTicket)
+                ? new AttributePrincipalImpl(user, attributes, proxyGrantingTicket, this.proxyRetriever)
+                : new AttributePrincipalImpl(user, attributes);
+        return new AssertionImpl(principal);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addAttribute(Map<String, Object> attributes, String name, String value) {
+        Object existing = attributes.get(name);
+        if (existing == null) {
+            attributes.put(name, value);
+        } else if (existing instanceof List) {
+            ((List<Object>) existing).add(value);
+        } else {
+            //同名元素出现多次时转为多值
+            List<Object> values = new ArrayList<Object>(4);
+            values.add(existing);
+            values.add(value);
+            attributes.put(name, values);
+        }
+    }
+
+    private String constructValidationUrl(String ticket, String service) {
+        StringBuilder buffer = new StringBuilder(256);
+        buffer.append(this.casServerUrlPrefix);
+        if (!this.casServerUrlPrefix.endsWith("/")) {
+            buffer.append('/');
+        }
+        buffer.append(this.endpoint);
+        buffer.append("?ticket=").append(encodeUrl(ticket));
+        buffer.append("&service=").append(encodeUrl(service));
+        if (this.renew) {
+            buffer.append("&renew=true");
+        }
+        if (this.proxyCallbackUrl != null) {
+            buffer.append("&pgtUrl=").append(encodeUrl(this.proxyCallbackUrl));
+        }
+        for (Map.Entry<String, String> entry : this.customParameters.entrySet()) {
+            if (entry.getValue() != null) {
+                buffer.append('&').append(entry.getKey()).append('=').append(encodeUrl(entry.getValue()));
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static String encodeUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return URLEncoder.encode(url, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return url;
+        }
+    }
+
+    public void setURLConnectionFactory(HttpURLConnectionFactory urlConnectionFactory) {
+        this.urlConnectionFactory = urlConnectionFactory;
+    }
+
+    public void setProxyGrantingTicketStorage(ProxyGrantingTicketStorage proxyGrantingTicketStorage) {
+        this.proxyGrantingTicketStorage = proxyGrantingTicketStorage;
+    }
+
+    public void setProxyRetriever(ProxyRetriever proxyRetriever) {
+        this.proxyRetriever = proxyRetriever;
+    }
+
+    public void setProxyCallbackUrl(String proxyCallbackUrl) {
+        this.proxyCallbackUrl = proxyCallbackUrl;
+    }
+
+    public void setRenew(boolean renew) {
+        this.renew = renew;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public void setCustomParameters(Map<String, String> customParameters) {
+        this.customParameters = customParameters;
+    }
+}
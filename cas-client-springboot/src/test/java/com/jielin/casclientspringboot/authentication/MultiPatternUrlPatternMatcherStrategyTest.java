@@ -0,0 +1,74 @@
+package com.jielin.casclientspringboot.authentication;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: MultiPatternUrlPatternMatcherStrategyTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 16:00:00
+ * @description: 前缀、后缀、通配和精确规则的匹配
+ */
+public class MultiPatternUrlPatternMatcherStrategyTest {
+    private MultiPatternUrlPatternMatcherStrategy strategy;
+
+    @Before
+    public void setUp() {
+        this.strategy = new MultiPatternUrlPatternMatcherStrategy();
+        this.strategy.setPattern("/static/**, *.js\n/api/*/info /api/**/health,/login ?.txt");
+    }
+
+    @Test
+    public void matchesPrefixRules() {
+        assertTrue(this.strategy.matchesPath("/static"));
+        assertTrue(this.strategy.matchesPath("/static/"));
+        assertTrue(this.strategy.matchesPath("/static/css/app.css"));
+        assertFalse(this.strategy.matchesPath("/staticfiles/app.css"));
+        assertFalse(this.strategy.matchesPath("/stat"));
+    }
+
+    @Test
+    public void matchesSuffixRules() {
+        assertTrue(this.strategy.matchesPath("/app.js"));
+        assertTrue(this.strategy.matchesPath("/a/b/c.js"));
+        assertFalse(this.strategy.matchesPath("/app.json"));
+    }
+
+    @Test
+    public void matchesGlobRules() {
+        assertTrue(this.strategy.matchesPath("/api/user/info"));
+        assertFalse(this.strategy.matchesPath("/api/user/1/info"));
+        assertTrue(this.strategy.matchesPath("/api/a/health"));
+        assertTrue(this.strategy.matchesPath("/api/a/b/health"));
+        assertTrue(this.strategy.matchesPath("a.txt"));
+        //?不匹配/
+        assertFalse(this.strategy.matchesPath("/.txt"));
+    }
+
+    @Test
+    public void matchesExactRules() {
+        assertTrue(this.strategy.matchesPath("/login"));
+        assertFalse(this.strategy.matchesPath("/login/"));
+        assertFalse(this.strategy.matchesPath("/logout"));
+    }
+
+    @Test
+    public void matchesPathOfFullUrl() {
+        assertTrue(this.strategy.matches("http://app.example.com/static/app.css?v=1"));
+        assertTrue(this.strategy.matches("https://app.example.com/login?service=x"));
+        assertFalse(this.strategy.matches("http://app.example.com/index?path=/static/x"));
+        assertFalse(this.strategy.matches("http://app.example.com"));
+    }
+
+    @Test
+    public void resettingPatternReplacesRules() {
+        assertTrue(this.strategy.matchesPath("/login"));
+        this.strategy.setPattern("/public/**");
+        assertFalse(this.strategy.matchesPath("/login"));
+        assertTrue(this.strategy.matchesPath("/public/a"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.jielin.casclientspringboot.filter;
+
+import com.jielin.casclientspringboot.validation.AsyncTicketValidator;
+import org.junit.Test;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @ClassName: YgjCasTicketValidationFilterTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 15:00:00
+ * @description: 初始化失败时不留下异步校验的线程池
+ */
+public class YgjCasTicketValidationFilterTest {
+
+    private static FilterConfig filterConfig(final Map<String, String> parameters) {
+        final ServletContext servletContext = (ServletContext) Proxy.newProxyInstance(ServletContext.class.getClassLoader(),
+                new Class<?>[]{ServletContext.class}, (proxy, method, args) -> null);
+        return new FilterConfig() {
+            @Override
+            public String getFilterName() {
+                return "casValidationFilter";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return parameters.get(name);
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(parameters.keySet());
+            }
+        };
+    }
+
+    private static Map<String, String> parameters() {
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("casServerUrlPrefix", "http://cas.example.com/cas");
+        parameters.put("serverName", "http://app.example.com");
+        parameters.put("asyncValidation", "true");
+        return parameters;
+    }
+
+    @Test
+    public void createsAsyncValidatorAfterSuccessfulInit() throws ServletException {
+        TrackingFilter filter = new TrackingFilter();
+        filter.init(filterConfig(parameters()));
+        assertEquals(1, filter.created);
+        assertFalse(filter.validator.shutdown);
+        filter.destroy();
+        assertTrue(filter.validator.shutdown);
+    }
+
+    @Test
+    public void failedSuperclassInitCreatesNoExecutor() {
+        Map<String, String> parameters = parameters();
+        parameters.remove("casServerUrlPrefix");
+        TrackingFilter filter = new TrackingFilter();
+        try {
+            filter.init(filterConfig(parameters));
+            fail("casServerUrlPrefix is required");
+        } catch (ServletException | RuntimeException expected) {
+            assertEquals(0, filter.created);
+        }
+    }
+
+    @Test
+    public void failedInitCheckShutsExecutorDown() {
+        Map<String, String> parameters = parameters();
+        parameters.remove("serverName");
+        TrackingFilter filter = new TrackingFilter();
+        try {
+            filter.init(filterConfig(parameters));
+            fail("serverName or service is required");
+        } catch (ServletException | RuntimeException expected) {
+            assertEquals(1, filter.created);
+            assertTrue(filter.validator.shutdown);
+        }
+    }
+
+    private static final class TrackingFilter extends YgjCasTicketValidationFilter {
+        private int created;
+        private TrackingValidator validator;
+
+        @Override
+        protected AsyncTicketValidator createAsyncTicketValidator() {
+            this.created++;
+            this.validator = new TrackingValidator();
+            return this.validator;
+        }
+    }
+
+    private static final class TrackingValidator extends AsyncTicketValidator {
+        private boolean shutdown;
+
+        private TrackingValidator() {
+            super(1, 1, 1000L);
+        }
+
+        @Override
+        public void shutdown() {
+            this.shutdown = true;
+            super.shutdown();
+        }
+    }
+}
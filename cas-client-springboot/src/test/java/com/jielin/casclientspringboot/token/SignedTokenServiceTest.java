@@ -0,0 +1,76 @@
+package com.jielin.casclientspringboot.token;
+
+import org.jasig.cas.client.validation.Assertion;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: SignedTokenServiceTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 15:30:00
+ * @description: token签发、校验、密钥轮换和按登录吊销
+ */
+public class SignedTokenServiceTest {
+    private static final String KEY_A = "a:0123456789abcdef0123456789abcdef";
+    private static final String KEY_B = "b:fedcba9876543210fedcba9876543210";
+
+    @Test
+    public void verifiesIssuedToken() {
+        SignedTokenService service = new SignedTokenService(KEY_A, 60);
+        String token = service.issue("admin", "1", "ST-1-abc-cas");
+        assertTrue(token.startsWith("v1.a."));
+        Assertion assertion = service.verify(token);
+        assertEquals("admin", assertion.getPrincipal().getName());
+        assertEquals("1", assertion.getPrincipal().getAttributes().get(SignedTokenService.USER_ID_ATTRIBUTE));
+        assertTrue(assertion.isValid());
+    }
+
+    @Test
+    public void rejectsTamperedToken() {
+        SignedTokenService service = new SignedTokenService(KEY_A, 60);
+        String token = service.issue("admin", "1", "ST-1-abc-cas");
+        String[] parts = token.split("\\.");
+        parts[2] = "cm9vdA";
+        assertNull(service.verify(String.join(".", parts)));
+        assertNull(service.verify(token.substring(0, token.length() - 2)));
+        assertNull(service.verify("v1.a.x"));
+        assertNull(service.verify(""));
+    }
+
+    @Test
+    public void rejectsUnknownFormatVersion() {
+        SignedTokenService service = new SignedTokenService(KEY_A, 60);
+        String token = service.issue("admin", "1", "ST-1-abc-cas");
+        assertNull(service.verify("v2" + token.substring(2)));
+        //少了sid的6段格式
+        String[] parts = token.split("\\.");
+        assertNull(service.verify(String.join(".", parts[0], parts[1], parts[2], parts[3], parts[5], parts[6])));
+    }
+
+    @Test
+    public void acceptsTokensSignedWithRotatedKey() {
+        String token = new SignedTokenService(KEY_A, 60).issue("admin", "1", "ST-1-abc-cas");
+        SignedTokenService rotated = new SignedTokenService(KEY_B + "," + KEY_A, 60);
+        assertNotNull(rotated.verify(token));
+        assertTrue(rotated.issue("admin", "1", "ST-2-abc-cas").startsWith("v1.b."));
+        assertNull(new SignedTokenService(KEY_B, 60).verify(token));
+    }
+
+    @Test
+    public void rejectsTokenOfLoggedOutSession() {
+        SignedTokenService service = new SignedTokenService(KEY_A, 60);
+        TokenRevocationList revocationList = new TokenRevocationList(60);
+        service.setRevocationList(revocationList);
+        String loggedOut = service.issue("admin", "1", "ST-1-abc-cas");
+        String otherLogin = service.issue("admin", "1", "ST-2-abc-cas");
+
+        revocationList.revoke("ST-1-abc-cas");
+        assertNull(service.verify(loggedOut));
+        assertNotNull(service.verify(otherLogin));
+    }
+}
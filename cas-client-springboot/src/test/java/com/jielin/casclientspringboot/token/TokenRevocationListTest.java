@@ -0,0 +1,72 @@
+package com.jielin.casclientspringboot.token;
+
+import com.jielin.casclientspringboot.session.InMemorySessionIndexBackend;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: TokenRevocationListTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 15:40:00
+ * @description: 吊销记录的过期清理和节点之间的同步
+ */
+public class TokenRevocationListTest {
+
+    @Test
+    public void expiredRevocationsAreDroppedInOrder() throws InterruptedException {
+        TokenRevocationList revocationList = new TokenRevocationList(1);
+        revocationList.revoke("ST-1");
+        revocationList.revoke("ST-2");
+        assertEquals(2, revocationList.size());
+        assertTrue(revocationList.isRevoked(TokenRevocationList.sessionId("ST-1")));
+
+        Thread.sleep(2100L);
+        assertFalse(revocationList.isRevoked(TokenRevocationList.sessionId("ST-1")));
+        revocationList.revoke("ST-3");
+        assertEquals(1, revocationList.size());
+        assertTrue(revocationList.isRevoked(TokenRevocationList.sessionId("ST-3")));
+    }
+
+    @Test
+    public void repeatedRevocationKeepsTheLaterExpiry() throws InterruptedException {
+        //时间按秒取整，实际保留retainSeconds-1到retainSeconds秒
+        TokenRevocationList revocationList = new TokenRevocationList(3);
+        revocationList.revoke("ST-1");
+        Thread.sleep(1100L);
+        revocationList.revoke("ST-1");
+        Thread.sleep(2000L);
+        //第一次的记录已过期出队，第二次的仍然有效
+        revocationList.revoke("ST-2");
+        assertTrue(revocationList.isRevoked(TokenRevocationList.sessionId("ST-1")));
+        assertEquals(2, revocationList.size());
+    }
+
+    @Test
+    public void propagatesRevocationsThroughSharedBackend() {
+        InMemorySessionIndexBackend backend = new InMemorySessionIndexBackend();
+        TokenRevocationList node1 = new TokenRevocationList(60);
+        TokenRevocationList node2 = new TokenRevocationList(60);
+        for (TokenRevocationList node : new TokenRevocationList[]{node1, node2}) {
+            node.setBackend(backend);
+            backend.subscribe(node);
+        }
+
+        node1.revoke("ST-1");
+        assertTrue(node2.isRevoked(TokenRevocationList.sessionId("ST-1")));
+        //session失效通知也会到达，不带前缀的忽略
+        backend.publishInvalidations(Collections.singletonList("SESSION-1"));
+        assertEquals(1, node2.size());
+    }
+
+    @Test
+    public void sessionIdIsFixedLength() {
+        assertEquals(16, TokenRevocationList.sessionId("ST-1-abcdefghijklmnopqrst-cas.example.com").length());
+        assertFalse(TokenRevocationList.sessionId("ST-1").equals(TokenRevocationList.sessionId("ST-2")));
+    }
+}
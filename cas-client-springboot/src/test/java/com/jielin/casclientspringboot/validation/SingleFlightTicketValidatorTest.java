@@ -0,0 +1,149 @@
+package com.jielin.casclientspringboot.validation;
+
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @ClassName: SingleFlightTicketValidatorTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 11:00:00
+ * @description: 并发请求共享校验结果，校验结束后同一ticket不再复用结果
+ */
+public class SingleFlightTicketValidatorTest {
+    private static final String SERVICE = "http://app.example.com/";
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentCallersShareOneValidation() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Assertion assertion = new AssertionImpl("admin");
+        SingleFlightTicketValidator validator = new SingleFlightTicketValidator((ticket, service) -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return assertion;
+        }, 5000);
+
+        Future<Assertion> leader = this.executor.submit(() -> validator.validate("ST-1", SERVICE));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        List<Future<Assertion>> followers = new ArrayList<Future<Assertion>>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(this.executor.submit(() -> validator.validate("ST-1", SERVICE)));
+        }
+        //等待的请求进入future.get后再放行
+        Thread.sleep(200);
+        release.countDown();
+
+        assertSame(assertion, leader.get());
+        for (Future<Assertion> follower : followers) {
+            assertSame(assertion, follower.get());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void replayAfterCompletionIsValidatedAgain() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlightTicketValidator validator = new SingleFlightTicketValidator((ticket, service) -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new TicketValidationException("ticket '" + ticket + "' not recognized");
+            }
+            return new AssertionImpl("admin");
+        }, 5000);
+
+        assertEquals("admin", validator.validate("ST-1", SERVICE).getPrincipal().getName());
+        try {
+            validator.validate("ST-1", SERVICE);
+            fail("a used service ticket must reach the cas server again");
+        } catch (TicketValidationException expected) {
+            assertEquals(2, calls.get());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void errorInLeaderReleasesWaiters() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightTicketValidator validator = new SingleFlightTicketValidator((ticket, service) -> {
+            entered.countDown();
+            await(release);
+            throw new StackOverflowError();
+        }, 5000);
+
+        Future<Assertion> leader = this.executor.submit(() -> validator.validate("ST-1", SERVICE));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Assertion> follower = this.executor.submit(() -> validator.validate("ST-1", SERVICE));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertFailsWith(leader, StackOverflowError.class);
+        assertFailsWith(follower, TicketValidationException.class);
+    }
+
+    @Test(timeout = 10000)
+    public void waiterGivesUpAfterTimeout() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightTicketValidator validator = new SingleFlightTicketValidator((ticket, service) -> {
+            entered.countDown();
+            await(release);
+            return new AssertionImpl("admin");
+        }, 100);
+
+        Future<Assertion> leader = this.executor.submit(() -> validator.validate("ST-1", SERVICE));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        try {
+            validator.validate("ST-1", SERVICE);
+            fail("waiter should time out");
+        } catch (TicketValidationException expected) {
+            assertTrue(expected.getMessage().contains("Timed out"));
+        } finally {
+            release.countDown();
+        }
+        assertEquals("admin", leader.get().getPrincipal().getName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertFailsWith(Future<?> future, Class<? extends Throwable> type) throws InterruptedException {
+        try {
+            future.get();
+            fail("expected " + type.getName());
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+        }
+    }
+}
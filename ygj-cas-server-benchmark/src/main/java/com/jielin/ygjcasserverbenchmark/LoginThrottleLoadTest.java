@@ -0,0 +1,138 @@
+package com.jielin.ygjcasserverbenchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.throttle.LoginThrottle;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: LoginThrottleLoadTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 11:10:00
+ * @description: 模拟撞库流量，对比不限流和LoginThrottle限流时sys_user的查询次数
+ *
+ * 数据库用固定大小的连接池（Semaphore）和固定的查询耗时模拟，每次认证查询一次；攻击线程用attackerIps个ip轮流尝试users个用户名的错误密码，
+ * 正常用户各自用固定的ip和正确密码登录（偶尔输错一次）。限流阈值与application.properties的默认值相同。
+ * 运行：java -cp target/benchmarks.jar com.jielin.ygjcasserverbenchmark.LoginThrottleLoadTest [秒数] [攻击线程数] [攻击ip数]
+ */
+public class LoginThrottleLoadTest {
+    private static final int POOL_SIZE = 10;
+    private static final long QUERY_MICROS = 2000L;
+    private static final int USERS = 1000;
+    private static final int LEGIT_THREADS = 4;
+    private static final String PASSWORD = "123456";
+
+    private final Semaphore pool = new Semaphore(POOL_SIZE);
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong attackAttempts = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong legitAttempts = new AtomicLong();
+    private final AtomicLong legitSucceeded = new AtomicLong();
+    private final AtomicLong legitRejected = new AtomicLong();
+    private final LoginThrottle loginThrottle;
+
+    private LoginThrottleLoadTest(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int attackThreads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int attackerIps = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        System.out.printf("%ds, %d attack threads from %d ips, %d users, pool %d, query %d µs%n",
+                seconds, attackThreads, attackerIps, USERS, POOL_SIZE, QUERY_MICROS);
+        new LoginThrottleLoadTest(null).run("no throttle", seconds, attackThreads, attackerIps);
+        LoginThrottle throttle = new LoginThrottle(300000L, 10, 100000L, 20, 10, 0, new MetricRegistry());
+        new LoginThrottleLoadTest(throttle).run("throttle", seconds, attackThreads, attackerIps);
+    }
+
+    private void run(String name, int seconds, int attackThreads, final int attackerIps) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(attackThreads + LEGIT_THREADS);
+        for (int i = 0; i < attackThreads; i++) {
+            start(done, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int host = random.nextInt(attackerIps);
+                    String ip = "198.18." + ((host >>> 8) & 0xff) + "." + (host & 0xff);
+                    this.attackAttempts.incrementAndGet();
+                    if (!this.attempt(ip, "user" + random.nextInt(USERS), "guess" + random.nextInt())) {
+                        this.rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < LEGIT_THREADS; i++) {
+            start(done, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int user = random.nextInt(USERS);
+                    String ip = "10.0." + (user >>> 8) + "." + (user & 0xff);
+                    String username = "user" + user;
+                    String password = random.nextInt(20) == 0 ? "typo" : PASSWORD;
+                    this.legitAttempts.incrementAndGet();
+                    if (!this.attempt(ip, username, password)) {
+                        this.legitRejected.incrementAndGet();
+                    }
+                    pause(TimeUnit.MILLISECONDS.toMicros(20));
+                }
+            });
+        }
+        done.await();
+        System.out.printf("%-12s db %7.0f q/s | attack %8.0f req/s, %5.1f%% rejected | legit %5.0f ok/s, %d rejected%n", name,
+                (double) this.queries.get() / seconds,
+                (double) this.attackAttempts.get() / seconds, 100.0 * this.rejected.get() / Math.max(1L, this.attackAttempts.get()),
+                (double) this.legitSucceeded.get() / seconds, this.legitRejected.get());
+    }
+
+    /**
+     * 被限流时返回false，不查询数据库
+     */
+    private boolean attempt(String ip, String username, String password) {
+        if (this.loginThrottle != null && this.loginThrottle.isThrottled(ip, username)) {
+            return false;
+        }
+        if (this.authenticate(password)) {
+            this.legitSucceeded.incrementAndGet();
+        } else if (this.loginThrottle != null) {
+            this.loginThrottle.recordFailure(ip, username);
+        }
+        return true;
+    }
+
+    private boolean authenticate(String password) {
+        this.pool.acquireUninterruptibly();
+        try {
+            this.queries.incrementAndGet();
+            pause(QUERY_MICROS);
+        } finally {
+            this.pool.release();
+        }
+        return PASSWORD.equals(password);
+    }
+
+    private static void start(CountDownLatch done, Runnable task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                done.countDown();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void pause(long micros) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.jielin.ygjcasserverbenchmark;
+
+import com.jielin.ygjcasserver.validation.StreamingCasProtocolView;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.PrincipalFactory;
+import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: ServiceValidateViewBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月26日 14:30:00
+ * @description: 对比/p3/serviceValidate成功响应用thymeleaf模板与StreamingCasProtocolView输出的吞吐
+ *
+ * THYMELEAF为cas原有方式：DefaultCas30ProtocolAttributesRenderer生成formattedAttributes，再由SpringTemplateEngine处理
+ * cas-server-webapp 5.3.9的protocol/3.0/casServiceValidationSuccess.html（内容复制到TEMPLATE，模板解析结果已缓存）；
+ * STREAMING为StreamingCasProtocolView直接从attributes输出。attributes为释放的属性个数，每个属性两个值，一半带需要转义的字符。
+ * 两种方式的输出在Setup中比较，不一致时直接报错。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceValidateViewBenchmark {
+    private static final String TEMPLATE = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>\n"
+            + "    <cas:authenticationSuccess>\n"
+            + "        <cas:user th:text=\"${principal.id}\"/>\n"
+            + "        <cas:proxyGrantingTicket th:if=\"${pgtIou}\" th:text=\"${pgtIou}\"/>\n"
+            + "        <cas:proxies th:if=\"${not #lists.isEmpty(chainedAuthentications)}\">\n"
+            + "            <cas:proxy th:each=\"proxy : ${chainedAuthentications}\" th:text=\"${proxy.principal.id}\"/>\n"
+            + "        </cas:proxies>\n"
+            + "        <cas:attributes th:if=\"${not #lists.isEmpty(formattedAttributes)}\">\n"
+            + "            <div th:each=\"attr : ${formattedAttributes}\" th:remove=\"tag\">\n"
+            + "                <div th:utext=\"${attr}\" th:remove=\"tag\"/>\n"
+            + "            </div>\n"
+            + "        </cas:attributes>\n"
+            + "    </cas:authenticationSuccess>\n"
+            + "</cas:serviceResponse>\n";
+
+    @Param({"THYMELEAF", "STREAMING"})
+    public String view;
+
+    @Param({"5", "50"})
+    public int attributes;
+
+    private final DefaultCas30ProtocolAttributesRenderer attributesRenderer = new DefaultCas30ProtocolAttributesRenderer();
+    private final StreamingCasProtocolView streamingView = new StreamingCasProtocolView(StreamingCasProtocolView.Type.CAS3_SUCCESS,
+            null, StandardCharsets.UTF_8);
+    private final StringWriter writer = new StringWriter(4096);
+    private SpringTemplateEngine templateEngine;
+    private Map<String, Object> model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.setTemplateResolver(templateResolver);
+
+        PrincipalFactory principalFactory = new DefaultPrincipalFactory();
+        Map<String, Object> releasedAttributes = new LinkedHashMap<>();
+        for (int i = 0; i < this.attributes; i++) {
+            String value = i % 2 == 0 ? "ROLE_USER_" + i : "部门 <" + i + "> & 'ygj'";
+            releasedAttributes.put("attribute" + i, new ArrayList<>(Arrays.asList(value, value + "_2")));
+        }
+        List<Authentication> chainedAuthentications = new ArrayList<>();
+        chainedAuthentications.add(DefaultAuthenticationBuilder.newInstance().setPrincipal(principalFactory.createPrincipal("https://www.client2.com:8082/proxy")).build());
+        this.model = new HashMap<>();
+        this.model.put("principal", principalFactory.createPrincipal("admin"));
+        this.model.put("pgtIou", "PGTIOU-1-ygj");
+        this.model.put("chainedAuthentications", chainedAuthentications);
+        this.model.put("attributes", releasedAttributes);
+        this.model.put(StreamingCasProtocolView.MODEL_ATTRIBUTE_RENDERER, StreamingCasProtocolView.RENDERER_DEFAULT);
+
+        String thymeleaf = this.thymeleaf();
+        String streaming = this.streaming();
+        if (!thymeleaf.equals(streaming)) {
+            throw new IllegalStateException("streaming output differs from template:\n" + thymeleaf + "\n---\n" + streaming);
+        }
+        System.out.println();
+        System.out.println("[attributes=" + this.attributes + "] response chars: " + streaming.length());
+    }
+
+    @Benchmark
+    public String render() throws IOException {
+        return "THYMELEAF".equals(this.view) ? this.thymeleaf() : this.streaming();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String thymeleaf() {
+        this.writer.getBuffer().setLength(0);
+        Context context = new Context();
+        context.setVariables(this.model);
+        context.setVariable("formattedAttributes", this.attributesRenderer.render(
+                (Map<String, Object>) this.model.get("attributes")));
+        this.templateEngine.process(TEMPLATE, context, this.writer);
+        return this.writer.toString();
+    }
+
+    private String streaming() throws IOException {
+        this.writer.getBuffer().setLength(0);
+        this.streamingView.write(this.model, this.writer);
+        return this.writer.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jielin.ygjcasserverbenchmark;
+
+import com.jielin.ygjcasserver.ticket.CompactTicketCodec;
+import com.jielin.ygjcasserver.ticket.JdkTicketCodec;
+import com.jielin.ygjcasserver.ticket.TicketCodec;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: TicketCodecBenchmark.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 16:20:00
+ * @description: 对比ticket的jdk序列化与CompactTicketCodec（不压缩/lz4）的编解码吞吐和字节数
+ *
+ * attributes为principal中角色和权限的个数，services为TGT已签发ST的客户端个数；ST中带有完整的TGT。
+ * 各组合编码后的字节数在Setup中打印。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketCodecBenchmark {
+
+    @Param({"JDK", "COMPACT", "COMPACT_LZ4"})
+    public String codec;
+
+    @Param({"10", "200"})
+    public int attributes;
+
+    @Param({"1", "10"})
+    public int services;
+
+    private TicketCodec ticketCodec;
+    private TicketGrantingTicketImpl ticketGrantingTicket;
+    private ServiceTicket serviceTicket;
+    private byte[] encodedTicketGrantingTicket;
+    private byte[] encodedServiceTicket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("JDK".equals(this.codec)) {
+            this.ticketCodec = new JdkTicketCodec();
+        } else {
+            this.ticketCodec = new CompactTicketCodec("COMPACT_LZ4".equals(this.codec), 0);
+        }
+        this.ticketGrantingTicket = TicketFixtures.ticketGrantingTicket(this.attributes, this.services);
+        this.serviceTicket = TicketFixtures.serviceTicket(this.ticketGrantingTicket, this.services);
+        this.encodedTicketGrantingTicket = this.ticketCodec.encode(this.ticketGrantingTicket);
+        this.encodedServiceTicket = this.ticketCodec.encode(this.serviceTicket);
+        System.out.println();
+        System.out.println("[" + this.codec + ", attributes=" + this.attributes + ", services=" + this.services + "] TGT bytes: "
+                + this.encodedTicketGrantingTicket.length + ", ST bytes: " + this.encodedServiceTicket.length);
+    }
+
+    @Benchmark
+    public byte[] encodeTicketGrantingTicket() {
+        return this.ticketCodec.encode(this.ticketGrantingTicket);
+    }
+
+    @Benchmark
+    public Ticket decodeTicketGrantingTicket() {
+        return this.ticketCodec.decode(this.encodedTicketGrantingTicket);
+    }
+
+    @Benchmark
+    public byte[] encodeServiceTicket() {
+        return this.ticketCodec.encode(this.serviceTicket);
+    }
+
+    @Benchmark
+    public Ticket decodeServiceTicket() {
+        return this.ticketCodec.decode(this.encodedServiceTicket);
+    }
+}
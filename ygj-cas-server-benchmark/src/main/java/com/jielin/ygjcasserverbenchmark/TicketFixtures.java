@@ -0,0 +1,76 @@
+package com.jielin.ygjcasserverbenchmark;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.DefaultAuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @ClassName: TicketFixtures.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 16:00:00
+ * @description: 与登录后ticket内容相近的TGT、ST，属性为sys_user的角色和权限
+ */
+final class TicketFixtures {
+    private static final String HANDLER = "QueryDatabaseAuthenticationHandler";
+    private static final WebApplicationServiceFactory SERVICE_FACTORY = new WebApplicationServiceFactory();
+
+    private TicketFixtures() {
+    }
+
+    /**
+     * @param attributes 角色和权限的个数
+     * @param services   已经签发ST的客户端个数
+     */
+    static TicketGrantingTicketImpl ticketGrantingTicket(int attributes, int services) {
+        Map<String, Object> principalAttributes = new LinkedHashMap<String, Object>();
+        List<Object> roles = new ArrayList<Object>();
+        List<Object> permissions = new ArrayList<Object>();
+        for (int i = 0; i < attributes; i++) {
+            (i % 2 == 0 ? roles : permissions).add("system:module" + i + ":view");
+        }
+        principalAttributes.put("userId", Collections.singletonList("1"));
+        principalAttributes.put("roles", roles);
+        principalAttributes.put("permissions", permissions);
+        Principal principal = new DefaultPrincipalFactory().createPrincipal("benchmark", principalAttributes);
+
+        BasicCredentialMetaData credential = new BasicCredentialMetaData(new UsernamePasswordCredential("benchmark", "benchmark"));
+        AuthenticationHandlerExecutionResult result = new DefaultAuthenticationHandlerExecutionResult(HANDLER, credential, principal, new ArrayList<>());
+        Authentication authentication = DefaultAuthenticationBuilder.newInstance()
+                .setPrincipal(principal)
+                .addCredential(credential)
+                .addSuccess(HANDLER, result)
+                .addAttribute("authenticationMethod", HANDLER)
+                .addAttribute("successfulAuthenticationHandlers", Collections.singleton(HANDLER))
+                .build();
+
+        TicketGrantingTicketImpl ticketGrantingTicket = new TicketGrantingTicketImpl("TGT-1-Xq2lZ6rH8mYp0vW3sKdEfGhJkLmN-www.server.com",
+                authentication, new TicketGrantingTicketExpirationPolicy(28800, 7200));
+        for (int i = 0; i < services; i++) {
+            serviceTicket(ticketGrantingTicket, i);
+        }
+        return ticketGrantingTicket;
+    }
+
+    static ServiceTicket serviceTicket(TicketGrantingTicketImpl ticketGrantingTicket, int index) {
+        return ticketGrantingTicket.grantServiceTicket("ST-" + index + "-aB3dE5fG7hJ9kL1mN3pQ-www.server.com",
+                SERVICE_FACTORY.createService("http://www.client" + index + ".com:808" + index + "/"),
+                new MultiTimeUseOrTimeoutExpirationPolicy(1, 100), false, true);
+    }
+}
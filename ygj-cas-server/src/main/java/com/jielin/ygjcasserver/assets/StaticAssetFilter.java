@@ -0,0 +1,146 @@
+package com.jielin.ygjcasserver.assets;
+
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @ClassName: StaticAssetFilter.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月27日 10:30:00
+ * @description: 输出StaticAssetManifest中的静态资源，并把页面中的资源链接换成带指纹的路径
+ *
+ * 按Accept-Encoding直接输出构建时生成的br/gzip文件并设置Content-Encoding，tomcat看到该响应头后不再实时压缩；
+ * 带指纹的路径内容不会变化，缓存一年（immutable），原始路径（css中的相对引用等）按maxAge缓存，过期后用ETag协商返回304。
+ * 文件不小于sendfileSize且tomcat支持sendfile时交给tomcat零拷贝发送，较小的文件读取一次后从内存输出。
+ * 不在清单中的请求继续交给后面的过滤器和DispatcherServlet，响应的encodeURL被包装（thymeleaf的@{...}会调用）。
+ */
+public class StaticAssetFilter extends OncePerRequestFilter {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final StaticAssetManifest manifest;
+    private final String immutableCacheControl;
+    private final String cacheControl;
+    private final long sendfileSize;
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    public StaticAssetFilter(StaticAssetManifest manifest, long immutableMaxAge, long maxAge, long sendfileSize) {
+        this.manifest = manifest;
+        this.immutableCacheControl = "public, max-age=" + immutableMaxAge + ", immutable";
+        this.cacheControl = "public, max-age=" + maxAge;
+        this.sendfileSize = sendfileSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            StaticAssetManifest.Asset asset = this.manifest.getByFingerprintedPath(path);
+            boolean fingerprinted = asset != null;
+            if (asset == null) {
+                asset = this.manifest.getByPath(path);
+            }
+            if (asset != null) {
+                this.serve(asset, fingerprinted, request, response);
+                return;
+            }
+        }
+        filterChain.doFilter(request, new AssetUrlResponse(request.getContextPath(), response));
+    }
+
+    private void serve(StaticAssetManifest.Asset asset, boolean fingerprinted, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StaticAssetManifest.Variant variant = asset.select(request.getHeader("Accept-Encoding"));
+        String contentType = this.contentType(asset.getPath());
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (asset.isEncoded()) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        response.setHeader("ETag", variant.getEtag());
+        response.setHeader("Cache-Control", fingerprinted ? this.immutableCacheControl : this.cacheControl);
+        if (variant.getEncoding() != null) {
+            response.setHeader("Content-Encoding", variant.getEncoding());
+        }
+        if (matches(request.getHeader("If-None-Match"), variant.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentLengthLong(variant.getLength());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (variant.getLength() >= this.sendfileSize) {
+            if (variant.getFile() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, variant.getFile().getAbsolutePath());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, variant.getLength());
+                return;
+            }
+            try (InputStream in = variant.openStream()) {
+                StreamUtils.copy(in, response.getOutputStream());
+            }
+            return;
+        }
+        response.getOutputStream().write(variant.getContent());
+    }
+
+    /**
+     * 与ResourceHttpRequestHandler相同，取servlet容器的mime映射
+     */
+    private String contentType(String path) {
+        String contentType = this.contentTypes.get(path);
+        if (contentType == null) {
+            contentType = this.getServletContext().getMimeType(path);
+            if (contentType == null) {
+                return null;
+            }
+            this.contentTypes.put(path, contentType);
+        }
+        return contentType;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class AssetUrlResponse extends HttpServletResponseWrapper {
+        private final String contextPath;
+
+        AssetUrlResponse(String contextPath, HttpServletResponse response) {
+            super(response);
+            this.contextPath = contextPath;
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return super.encodeURL(StaticAssetFilter.this.manifest.rewrite(this.contextPath, url));
+        }
+    }
+}
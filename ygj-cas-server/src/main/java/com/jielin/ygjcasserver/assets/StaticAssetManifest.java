@@ -0,0 +1,253 @@
+package com.jielin.ygjcasserver.assets;
+
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @ClassName: StaticAssetManifest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月27日 10:00:00
+ * @description: StaticAssetPipeline在构建时生成的静态资源清单，运行时只读
+ *
+ * 每行为 原始路径=md5,原文件字节数,gzip字节数,br字节数（没有该压缩版本时为-1），例如 /css/cas.css=0a1b...,9875,2741,2290；
+ * 文件位于classpath的ygj-assets目录下，按带指纹的路径存放：ygj-assets/css/cas-0a1b....css、.gz、.br。
+ */
+public class StaticAssetManifest {
+    public static final String ASSET_ROOT = "ygj-assets";
+    public static final String MANIFEST_LOCATION = ASSET_ROOT + "/manifest.properties";
+    public static final String GZIP = "gzip";
+    public static final String BROTLI = "br";
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final String BROTLI_SUFFIX = ".br";
+
+    private final Map<String, Asset> byPath;
+    private final Map<String, Asset> byFingerprintedPath;
+
+    private StaticAssetManifest(Map<String, Asset> byPath, Map<String, Asset> byFingerprintedPath) {
+        this.byPath = byPath;
+        this.byFingerprintedPath = byFingerprintedPath;
+    }
+
+    /**
+     * 清单不存在（如在ide中直接运行，未执行构建）时返回空清单
+     */
+    public static StaticAssetManifest load(ClassLoader classLoader) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = classLoader.getResourceAsStream(MANIFEST_LOCATION)) {
+            if (in == null) {
+                return new StaticAssetManifest(Collections.emptyMap(), Collections.emptyMap());
+            }
+            properties.load(in);
+        }
+        Map<String, Asset> byPath = new HashMap<>();
+        Map<String, Asset> byFingerprintedPath = new HashMap<>();
+        for (String path : properties.stringPropertyNames()) {
+            String[] values = properties.getProperty(path).split(",");
+            String hash = values[0];
+            String fingerprintedPath = fingerprint(path, hash);
+            String resourcePath = ASSET_ROOT + fingerprintedPath;
+            Variant identity = new Variant(null, classLoader, resourcePath, Long.parseLong(values[1]), '"' + hash + '"');
+            Variant gzip = Long.parseLong(values[2]) < 0 ? null
+                    : new Variant(GZIP, classLoader, resourcePath + GZIP_SUFFIX, Long.parseLong(values[2]), "\"" + hash + "-gz\"");
+            Variant brotli = Long.parseLong(values[3]) < 0 ? null
+                    : new Variant(BROTLI, classLoader, resourcePath + BROTLI_SUFFIX, Long.parseLong(values[3]), "\"" + hash + "-br\"");
+            Asset asset = new Asset(path, fingerprintedPath, identity, gzip, brotli);
+            byPath.put(path, asset);
+            byFingerprintedPath.put(fingerprintedPath, asset);
+        }
+        return new StaticAssetManifest(byPath, byFingerprintedPath);
+    }
+
+    /**
+     * 与spring VersionResourceResolver的文件名方式相同：/js/jquery.min.js -> /js/jquery.min-{hash}.js
+     */
+    public static String fingerprint(String path, String hash) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            return path + '-' + hash;
+        }
+        return path.substring(0, dot) + '-' + hash + path.substring(dot);
+    }
+
+    public int size() {
+        return this.byPath.size();
+    }
+
+    public Asset getByPath(String path) {
+        return this.byPath.get(path);
+    }
+
+    public Asset getByFingerprintedPath(String path) {
+        return this.byFingerprintedPath.get(path);
+    }
+
+    /**
+     * 页面中context path下、在清单中的链接换成带指纹的路径，保留查询参数和锚点
+     */
+    public String rewrite(String contextPath, String url) {
+        if (url == null || !url.startsWith(contextPath) || url.length() <= contextPath.length() || url.charAt(contextPath.length()) != '/') {
+            return url;
+        }
+        int end = url.length();
+        for (int i = contextPath.length(); i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#' || c == ';') {
+                end = i;
+                break;
+            }
+        }
+        Asset asset = this.byPath.get(url.substring(contextPath.length(), end));
+        if (asset == null) {
+            return url;
+        }
+        return contextPath + asset.getFingerprintedPath() + url.substring(end);
+    }
+
+    public static class Asset {
+        private final String path;
+        private final String fingerprintedPath;
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant brotli;
+
+        Asset(String path, String fingerprintedPath, Variant identity, Variant gzip, Variant brotli) {
+            this.path = path;
+            this.fingerprintedPath = fingerprintedPath;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getFingerprintedPath() {
+            return fingerprintedPath;
+        }
+
+        public boolean isEncoded() {
+            return this.gzip != null || this.brotli != null;
+        }
+
+        /**
+         * 按Accept-Encoding选择：br优先于gzip，q=0视为不接受
+         */
+        public Variant select(String acceptEncoding) {
+            if (acceptEncoding == null || !this.isEncoded()) {
+                return this.identity;
+            }
+            if (this.brotli != null && accepts(acceptEncoding, BROTLI)) {
+                return this.brotli;
+            }
+            if (this.gzip != null && accepts(acceptEncoding, GZIP)) {
+                return this.gzip;
+            }
+            return this.identity;
+        }
+
+        private static boolean accepts(String acceptEncoding, String encoding) {
+            for (String token : acceptEncoding.split(",")) {
+                String[] parts = token.split(";");
+                if (!parts[0].trim().equalsIgnoreCase(encoding)) {
+                    continue;
+                }
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public static class Variant {
+        private final String encoding;
+        private final ClassLoader classLoader;
+        private final String resourcePath;
+        private final long length;
+        private final String etag;
+        private final File file;
+        private volatile byte[] content;
+
+        Variant(String encoding, ClassLoader classLoader, String resourcePath, long length, String etag) {
+            this.encoding = encoding;
+            this.classLoader = classLoader;
+            this.resourcePath = resourcePath;
+            this.length = length;
+            this.etag = etag;
+            this.file = toFile(classLoader.getResource(resourcePath));
+        }
+
+        /**
+         * war解压部署时为WEB-INF/classes下的文件，可以用sendfile；在可执行war（嵌套jar）中为null
+         */
+        private static File toFile(URL url) {
+            if (url == null || !"file".equals(url.getProtocol())) {
+                return null;
+            }
+            try {
+                File file = new File(url.toURI());
+                return file.isFile() ? file : null;
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public InputStream openStream() throws IOException {
+            InputStream in = this.classLoader.getResourceAsStream(this.resourcePath);
+            if (in == null) {
+                throw new IOException("Static asset not found on classpath: " + this.resourcePath);
+            }
+            return in;
+        }
+
+        /**
+         * 小文件读取一次后留在内存，重复读取无妨
+         */
+        public byte[] getContent() throws IOException {
+            byte[] bytes = this.content;
+            if (bytes == null) {
+                try (InputStream in = this.openStream()) {
+                    bytes = StreamUtils.copyToByteArray(in);
+                }
+                this.content = bytes;
+            }
+            return bytes;
+        }
+    }
+}
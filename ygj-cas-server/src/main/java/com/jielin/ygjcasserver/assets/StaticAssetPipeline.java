@@ -0,0 +1,219 @@
+package com.jielin.ygjcasserver.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * @ClassName: StaticAssetPipeline.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月27日 09:30:00
+ * @description: 构建时（process-classes阶段由exec-maven-plugin执行）生成带指纹、预压缩的静态资源和StaticAssetManifest清单
+ *
+ * 参数：输出目录（target/classes） 项目自己的static目录 cas-server-webapp的war包。
+ * 收集的资源：项目static目录与war中WEB-INF/classes/static下的文件（项目的优先，scss源文件除外），
+ * 以及cas_common_messages.properties中webjars.*指向的webjar文件（页面通过@{#{webjars...}}引用的那些）。
+ * 文本类文件不小于MIN_SIZE时生成gzip（最高压缩级别）和brotli（quality 11）版本，压缩后不小于原文件90%的不保留。
+ * brotli4j只在构建时使用（provided），本地库不可用时只生成gzip。
+ */
+public class StaticAssetPipeline {
+    private static final String WAR_STATIC = "WEB-INF/classes/static/";
+    private static final String WAR_LIB = "WEB-INF/lib/";
+    private static final String WEBJAR_ROOT = "META-INF/resources";
+    private static final String COMMON_MESSAGES = "cas_common_messages.properties";
+    private static final int MIN_SIZE = 256;
+    private static final double MIN_RATIO = 0.9;
+    private static final Set<String> COMPRESSIBLE = new HashSet<>(Arrays.asList(
+            "css", "js", "map", "json", "svg", "html", "txt", "xml", "ico", "ttf", "otf", "eot"));
+
+    private final Path outputDirectory;
+    private final Map<String, byte[]> assets = new TreeMap<>();
+    private final boolean brotli;
+
+    public StaticAssetPipeline(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+        this.brotli = Brotli4jLoader.isAvailable();
+        if (!this.brotli) {
+            System.out.println("[ygj-assets] brotli unavailable, generating gzip only: " + Brotli4jLoader.getUnavailabilityCause());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: StaticAssetPipeline <outputDirectory> <projectStaticDirectory> <casWebappWar>");
+            System.exit(1);
+        }
+        StaticAssetPipeline pipeline = new StaticAssetPipeline(Paths.get(args[0]));
+        pipeline.addDirectory(Paths.get(args[1]));
+        pipeline.addWar(new File(args[2]));
+        pipeline.write();
+    }
+
+    public void addDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String path = "/" + directory.relativize(file).toString().replace(File.separatorChar, '/');
+                this.add(path, Files.readAllBytes(file));
+            }
+        }
+    }
+
+    public void addWar(File war) throws IOException {
+        try (ZipFile zip = new ZipFile(war)) {
+            Set<String> webjars = new LinkedHashSet<>();
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.startsWith(WAR_STATIC)) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        this.add(name.substring(WAR_STATIC.length() - 1), StreamUtils.copyToByteArray(in));
+                    }
+                } else if (name.startsWith(WAR_LIB + "cas-server-core-web-") && name.endsWith(".jar")) {
+                    webjars.addAll(webjarPaths(zip, entry));
+                }
+            }
+            //webjar在各自的jar中，逐个打开WEB-INF/lib下的jar查找
+            Set<String> missing = new LinkedHashSet<>(webjars);
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements() && !missing.isEmpty(); ) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.getName().startsWith(WAR_LIB) || !entry.getName().endsWith(".jar")) {
+                    continue;
+                }
+                try (ZipInputStream jar = new ZipInputStream(zip.getInputStream(entry))) {
+                    for (ZipEntry jarEntry = jar.getNextEntry(); jarEntry != null; jarEntry = jar.getNextEntry()) {
+                        String path = jarEntry.getName().startsWith(WEBJAR_ROOT) ? jarEntry.getName().substring(WEBJAR_ROOT.length()) : null;
+                        if (path != null && missing.remove(path)) {
+                            this.add(path, StreamUtils.copyToByteArray(jar));
+                        }
+                    }
+                }
+            }
+            for (String path : missing) {
+                System.out.println("[ygj-assets] webjar resource not found: " + path);
+            }
+        }
+    }
+
+    private static Set<String> webjarPaths(ZipFile war, ZipEntry coreWebJar) throws IOException {
+        Set<String> paths = new LinkedHashSet<>();
+        try (ZipInputStream jar = new ZipInputStream(war.getInputStream(coreWebJar))) {
+            for (ZipEntry entry = jar.getNextEntry(); entry != null; entry = jar.getNextEntry()) {
+                if (COMMON_MESSAGES.equals(entry.getName())) {
+                    Properties messages = new Properties();
+                    messages.load(jar);
+                    for (String key : messages.stringPropertyNames()) {
+                        if (key.startsWith("webjars.")) {
+                            paths.add(messages.getProperty(key).trim());
+                        }
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * 同一路径先加入的优先，与war打包时项目文件覆盖overlay的规则一致
+     */
+    private void add(String path, byte[] content) {
+        if (!path.startsWith("/sass/")) {
+            this.assets.putIfAbsent(path, content);
+        }
+    }
+
+    public void write() throws IOException {
+        Path root = this.outputDirectory.resolve(StaticAssetManifest.ASSET_ROOT);
+        //不执行clean时清除上次构建留下的旧指纹文件
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(root);
+        long original = 0;
+        long gzipped = 0;
+        long brotlied = 0;
+        StringBuilder manifest = new StringBuilder("#generated by StaticAssetPipeline: path=md5,length,gzipLength,brLength\n");
+        for (Map.Entry<String, byte[]> entry : this.assets.entrySet()) {
+            String path = entry.getKey();
+            byte[] content = entry.getValue();
+            String hash = DigestUtils.md5DigestAsHex(content);
+            Path file = root.resolve(StaticAssetManifest.fingerprint(path, hash).substring(1));
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+            long gzipLength = -1;
+            long brLength = -1;
+            if (content.length >= MIN_SIZE && COMPRESSIBLE.contains(extension(path))) {
+                byte[] gzip = gzip(content);
+                if (gzip.length < content.length * MIN_RATIO) {
+                    Files.write(file.resolveSibling(file.getFileName() + StaticAssetManifest.GZIP_SUFFIX), gzip);
+                    gzipLength = gzip.length;
+                }
+                byte[] br = this.brotli ? Encoder.compress(content, new Encoder.Parameters().setQuality(11)) : null;
+                if (br != null && br.length < content.length * MIN_RATIO) {
+                    Files.write(file.resolveSibling(file.getFileName() + StaticAssetManifest.BROTLI_SUFFIX), br);
+                    brLength = br.length;
+                }
+            }
+            original += content.length;
+            gzipped += gzipLength >= 0 ? gzipLength : content.length;
+            brotlied += brLength >= 0 ? brLength : content.length;
+            manifest.append(path).append('=').append(hash).append(',').append(content.length).append(',')
+                    .append(gzipLength).append(',').append(brLength).append('\n');
+        }
+        try (Writer writer = Files.newBufferedWriter(root.resolve("manifest.properties"), StandardCharsets.ISO_8859_1)) {
+            writer.write(manifest.toString());
+        }
+        System.out.println("[ygj-assets] " + this.assets.size() + " assets, " + original / 1024 + " KB -> gzip "
+                + gzipped / 1024 + " KB, br " + brotlied / 1024 + " KB");
+    }
+
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') ? path.substring(dot + 1).toLowerCase() : "";
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                this.def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
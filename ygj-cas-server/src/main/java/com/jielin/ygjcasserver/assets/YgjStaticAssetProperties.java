@@ -0,0 +1,59 @@
+package com.jielin.ygjcasserver.assets;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjStaticAssetProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月27日 10:50:00
+ * @description: 预压缩静态资源配置，前缀 ygj.assets
+ */
+@ConfigurationProperties(prefix = "ygj.assets")
+public class YgjStaticAssetProperties {
+    private boolean enabled = true;
+    /**
+     * 带指纹路径的缓存秒数，内容变化时路径随之变化
+     */
+    private long immutableMaxAge = 31536000L;
+    /**
+     * 原始路径的缓存秒数，过期后浏览器带If-None-Match协商
+     */
+    private long maxAge = 3600L;
+    /**
+     * 不小于该字节数的文件使用sendfile，与tomcat DefaultServlet的默认值相同；更小的文件缓存在内存中
+     */
+    private long sendfileSize = 48 * 1024L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getImmutableMaxAge() {
+        return immutableMaxAge;
+    }
+
+    public void setImmutableMaxAge(long immutableMaxAge) {
+        this.immutableMaxAge = immutableMaxAge;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public long getSendfileSize() {
+        return sendfileSize;
+    }
+
+    public void setSendfileSize(long sendfileSize) {
+        this.sendfileSize = sendfileSize;
+    }
+}
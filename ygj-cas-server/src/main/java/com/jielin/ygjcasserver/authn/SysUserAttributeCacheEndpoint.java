@@ -0,0 +1,74 @@
+package com.jielin.ygjcasserver.authn;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.web.BaseCasMvcEndpoint;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @ClassName: SysUserAttributeCacheEndpoint.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月23日 11:00:00
+ * @description: 查看和清除SysUserAttributeRepository的缓存，/status/attributeCache
+ *
+ * 访问控制与cas的attributeResolution端点相同（cas.monitor.endpoints.attributeResolution.*）。
+ */
+public class SysUserAttributeCacheEndpoint extends BaseCasMvcEndpoint {
+    private final SysUserAttributeRepository attributeRepository;
+
+    public SysUserAttributeCacheEndpoint(SysUserAttributeRepository attributeRepository, CasConfigurationProperties casProperties) {
+        super("attributeCache", "/attributeCache", casProperties.getMonitor().getEndpoints().getAttributeResolution(), casProperties);
+        this.attributeRepository = attributeRepository;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public Map<String, Object> getStatus(HttpServletRequest request, HttpServletResponse response) {
+        ensureEndpointAccessIsAuthorized(request, response);
+        CacheStats stats = this.attributeRepository.stats();
+        Map<String, Object> status = new LinkedHashMap<String, Object>();
+        status.put("size", this.attributeRepository.size());
+        status.put("hitCount", stats.hitCount());
+        status.put("missCount", stats.missCount());
+        status.put("hitRate", stats.hitRate());
+        status.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1000000D);
+        return status;
+    }
+
+    /**
+     * 不带username时清除全部
+     */
+    @PostMapping("/invalidate")
+    @ResponseBody
+    public Map<String, Object> invalidate(@RequestParam(value = "username", required = false) String username,
+                                          HttpServletRequest request, HttpServletResponse response) {
+        ensureEndpointAccessIsAuthorized(request, response);
+        if (username == null || username.isEmpty()) {
+            this.attributeRepository.invalidateAll();
+        } else {
+            this.attributeRepository.invalidate(username);
+        }
+        return this.getStatus(request, response);
+    }
+
+    /**
+     * 角色、权限批量修改后重新加载全部用户
+     */
+    @PostMapping("/reload")
+    @ResponseBody
+    public Map<String, Object> reload(HttpServletRequest request, HttpServletResponse response) {
+        ensureEndpointAccessIsAuthorized(request, response);
+        this.attributeRepository.invalidateAll();
+        this.attributeRepository.warmUp();
+        return this.getStatus(request, response);
+    }
+}
@@ -0,0 +1,215 @@
+package com.jielin.ygjcasserver.authn;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+import org.apereo.services.persondir.support.CaseInsensitiveNamedPersonImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: SysUserAttributeRepository.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月23日 10:20:00
+ * @description: 从sys_user、sys_role、sys_permission读取用户的userId、nickname、roles、permissions属性
+ *
+ * 一个用户的角色和权限用一条左连接查询取回，不按角色逐个查询权限；结果按用户名缓存timeToLive毫秒。
+ * 启动时warmUp用同一个连接按用户名分页查询所有用户放入缓存，每页WARM_UP_PAGE_SIZE个用户，内存中只保留一页的结果；角色、权限修改后调用invalidate或通过attributeCache端点清除。
+ * 缓存只在本节点有效，其他节点最多在timeToLive后读到新值。
+ */
+public class SysUserAttributeRepository extends BasePersonAttributeDao {
+    public static final String USER_ID = "userId";
+    public static final String NICKNAME = "nickname";
+    public static final String ROLES = "roles";
+    public static final String PERMISSIONS = "permissions";
+    private static final String USERNAME = "username";
+    private static final Set<String> ATTRIBUTE_NAMES = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(USER_ID, NICKNAME, ROLES, PERMISSIONS)));
+    private static final String COLUMNS = "select u.username, u.id, u.nickname, r.role_code, p.code from ";
+    private static final String JOINS = " left join sys_user_role ur on ur.user_id = u.id"
+            + " left join sys_role r on r.id = ur.role_id"
+            + " left join sys_role_permission rp on rp.role_id = r.id"
+            + " left join sys_permission p on p.id = rp.permission_id";
+    private static final String SQL = COLUMNS + "sys_user u" + JOINS + " where u.username = ?";
+    /**
+     * mysql驱动默认把整个结果集读入内存，setFetchSize不会流式读取，这里按用户名翻页，每次只取一页用户的行
+     */
+    private static final String WARM_UP_SQL = COLUMNS + "(select id, username, nickname from sys_user where username > ? order by username limit ?) u"
+            + JOINS + " order by u.username";
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+    private final DataSource dataSource;
+    private final Cache<String, Map<String, List<Object>>> cache;
+    private final long maximumSize;
+
+    public SysUserAttributeRepository(DataSource dataSource, long timeToLive, long maximumSize) {
+        this.dataSource = dataSource;
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public IPersonAttributes getPerson(String uid) {
+        if (uid == null) {
+            return null;
+        }
+        Map<String, List<Object>> attributes = this.cache.get(uid, this::load);
+        return attributes != null ? new CaseInsensitiveNamedPersonImpl(uid, attributes) : null;
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeople(Map<String, Object> query) {
+        Object uid = query.get(USERNAME);
+        return this.toSet(uid != null ? this.getPerson(uid.toString()) : null);
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(Map<String, List<Object>> query) {
+        List<Object> values = query.get(USERNAME);
+        return this.toSet(values != null && !values.isEmpty() && values.get(0) != null ? this.getPerson(values.get(0).toString()) : null);
+    }
+
+    private Set<IPersonAttributes> toSet(IPersonAttributes person) {
+        return person != null ? Collections.singleton(person) : null;
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames() {
+        return ATTRIBUTE_NAMES;
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes() {
+        return Collections.singleton(USERNAME);
+    }
+
+    /**
+     * 用户不存在时返回null，不缓存
+     */
+    private Map<String, List<Object>> load(String username) {
+        try (Connection connection = this.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setString(1, username);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Map<String, Map<String, List<Object>>> users = this.readUsers(resultSet, 1);
+                return users.isEmpty() ? null : users.values().iterator().next();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to load attributes of " + username, e);
+        }
+    }
+
+    /**
+     * 查询所有用户的属性放入缓存，超过maximumSize的部分不再读取，返回放入的用户数
+     */
+    public int warmUp() {
+        int loaded = 0;
+        String lastUsername = "";
+        try (Connection connection = this.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(WARM_UP_SQL)) {
+            while (loaded < this.maximumSize) {
+                int pageSize = (int) Math.min(WARM_UP_PAGE_SIZE, this.maximumSize - loaded);
+                statement.setString(1, lastUsername);
+                statement.setInt(2, pageSize);
+                Map<String, Map<String, List<Object>>> users;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    users = this.readUsers(resultSet, pageSize);
+                }
+                this.cache.putAll(users);
+                loaded += users.size();
+                if (users.size() < pageSize) {
+                    break;
+                }
+                for (String username : users.keySet()) {
+                    lastUsername = username;
+                }
+            }
+            this.logger.info("Loaded attributes of [{}] users into the attribute cache", loaded);
+            return loaded;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to warm up the attribute cache", e);
+        }
+    }
+
+    /**
+     * 每个用户有角色数*权限数行，同一用户的行按用户名合并，角色和权限去重并保持查询顺序
+     */
+    private Map<String, Map<String, List<Object>>> readUsers(ResultSet resultSet, long limit) throws SQLException {
+        Map<String, Set<String>[]> rows = new LinkedHashMap<String, Set<String>[]>();
+        Map<String, String[]> users = new HashMap<String, String[]>();
+        while (resultSet.next()) {
+            String username = resultSet.getString(1);
+            Set<String>[] values = rows.get(username);
+            if (values == null) {
+                if (rows.size() >= limit) {
+                    break;
+                }
+                values = newValueSets();
+                rows.put(username, values);
+                users.put(username, new String[]{resultSet.getString(2), resultSet.getString(3)});
+            }
+            addIfPresent(values[0], resultSet.getString(4));
+            addIfPresent(values[1], resultSet.getString(5));
+        }
+
+        Map<String, Map<String, List<Object>>> result = new LinkedHashMap<String, Map<String, List<Object>>>();
+        for (Map.Entry<String, Set<String>[]> entry : rows.entrySet()) {
+            String[] user = users.get(entry.getKey());
+            Map<String, List<Object>> attributes = new LinkedHashMap<String, List<Object>>();
+            attributes.put(USER_ID, Collections.<Object>singletonList(user[0]));
+            if (user[1] != null) {
+                attributes.put(NICKNAME, Collections.<Object>singletonList(user[1]));
+            }
+            attributes.put(ROLES, Collections.unmodifiableList(new ArrayList<Object>(entry.getValue()[0])));
+            attributes.put(PERMISSIONS, Collections.unmodifiableList(new ArrayList<Object>(entry.getValue()[1])));
+            result.put(entry.getKey(), Collections.unmodifiableMap(attributes));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] newValueSets() {
+        return new Set[]{new LinkedHashSet<String>(), new LinkedHashSet<String>()};
+    }
+
+    private static void addIfPresent(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    public void invalidate(String username) {
+        this.cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+}
@@ -0,0 +1,179 @@
+package com.jielin.ygjcasserver.authn;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.jielin.ygjcasserver.metrics.LatencyTimer;
+import org.apereo.cas.authentication.AuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.PreventedException;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.handler.support.AbstractUsernamePasswordAuthenticationHandler;
+import org.apereo.cas.authentication.principal.PrincipalFactory;
+import org.apereo.cas.services.ServicesManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.login.AccountLockedException;
+import javax.security.auth.login.FailedLoginException;
+import javax.sql.DataSource;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: SysUserAuthenticationHandler.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 15:10:00
+ * @description: 按init.sql中的sys_user表认证用户名密码，替代QueryDatabaseAuthenticationHandler
+ *
+ * 只查询password和status两列，锁定状态在同一次查询中判断；sql固定不变，由驱动的预编译语句缓存复用（cachePrepStmts）。
+ * 密码按cas DefaultPasswordEncoder的方式摘要后与库中的十六进制值比较，比较耗时与内容无关。
+ * 用户不存在时同样先做一次摘要比较（与占位值比较），避免按响应时间区分用户名是否存在；
+ * 用户不存在和密码错误都抛出FailedLoginException，密码正确后才判断锁定，与QueryDatabaseAuthenticationHandler的顺序一致，
+ * 不知道密码时无法区分账号是否存在、是否锁定。
+ * 连接池等待、查询、密码校验分别计时：cas.authn.jdbc.pool-wait、cas.authn.jdbc.query、cas.authn.jdbc.hash-check。
+ */
+public class SysUserAuthenticationHandler extends AbstractUsernamePasswordAuthenticationHandler {
+    private static final String SQL = "select password, status from sys_user where username = ?";
+    /**
+     * status：0锁定，1解锁
+     */
+    private static final int STATUS_LOCKED = 0;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final DataSource dataSource;
+    private final String encodingAlgorithm;
+    private final Charset characterEncoding;
+    /**
+     * 用户不存在时参与比较的值，长度与库中的摘要相同
+     */
+    private final String dummyPassword;
+    private final Timer poolWait;
+    private final Timer query;
+    private final Timer hashCheck;
+
+    /**
+     * @param encodingAlgorithm 为空时按明文比较
+     */
+    public SysUserAuthenticationHandler(String name, ServicesManager servicesManager, PrincipalFactory principalFactory, Integer order,
+                                        DataSource dataSource, String encodingAlgorithm, Charset characterEncoding, MetricRegistry metricRegistry) {
+        super(name, servicesManager, principalFactory, order);
+        this.dataSource = dataSource;
+        this.encodingAlgorithm = encodingAlgorithm;
+        this.characterEncoding = characterEncoding;
+        byte[] random = new byte[16];
+        new SecureRandom().nextBytes(random);
+        if (encodingAlgorithm != null && !encodingAlgorithm.isEmpty()) {
+            //启动时检查算法名
+            this.dummyPassword = encodeHex(this.newDigest().digest(random));
+        } else {
+            this.dummyPassword = encodeHex(random);
+        }
+        this.poolWait = LatencyTimer.register(metricRegistry, "cas.authn.jdbc.pool-wait");
+        this.query = LatencyTimer.register(metricRegistry, "cas.authn.jdbc.query");
+        this.hashCheck = LatencyTimer.register(metricRegistry, "cas.authn.jdbc.hash-check");
+    }
+
+    @Override
+    protected AuthenticationHandlerExecutionResult authenticateUsernamePasswordInternal(UsernamePasswordCredential credential, String originalPassword)
+            throws GeneralSecurityException, PreventedException {
+        String username = credential.getUsername();
+        boolean found;
+        String storedPassword = null;
+        int status = STATUS_LOCKED;
+        long start = System.nanoTime();
+        long connected;
+        long queried;
+        try (Connection connection = this.dataSource.getConnection()) {
+            connected = System.nanoTime();
+            this.poolWait.update(connected - start, TimeUnit.NANOSECONDS);
+            try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                statement.setString(1, username);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    found = resultSet.next();
+                    if (found) {
+                        storedPassword = resultSet.getString(1);
+                        status = resultSet.getInt(2);
+                    }
+                    if (found && resultSet.next()) {
+                        throw new FailedLoginException("Multiple records found for " + username);
+                    }
+                }
+            } finally {
+                queried = System.nanoTime();
+                this.query.update(queried - connected, TimeUnit.NANOSECONDS);
+            }
+        } catch (SQLException e) {
+            throw new PreventedException("SQL exception while executing query for " + username, e);
+        }
+
+        boolean matched = this.passwordMatches(credential.getPassword(), found ? storedPassword : this.dummyPassword);
+        long checked = System.nanoTime();
+        this.hashCheck.update(checked - queried, TimeUnit.NANOSECONDS);
+        this.logger.debug("Authenticated [{}] in {} µs: pool wait {} µs, query {} µs, hash check {} µs", username,
+                TimeUnit.NANOSECONDS.toMicros(checked - start), TimeUnit.NANOSECONDS.toMicros(connected - start),
+                TimeUnit.NANOSECONDS.toMicros(queried - connected), TimeUnit.NANOSECONDS.toMicros(checked - queried));
+        //用户不存在与密码错误抛出同一个异常（rest接口会返回异常类名），密码正确后才判断锁定
+        if (!found || !matched) {
+            this.logger.debug("Authentication failed for [{}]: {}", username, found ? "password mismatch" : "user not found");
+            throw new FailedLoginException("Invalid credentials.");
+        }
+        if (status == STATUS_LOCKED) {
+            throw new AccountLockedException("Account " + username + " is locked");
+        }
+        return this.createHandlerResult(credential, this.principalFactory.createPrincipal(username));
+    }
+
+    private boolean passwordMatches(String password, String storedPassword) {
+        if (password == null || storedPassword == null) {
+            return false;
+        }
+        if (this.encodingAlgorithm == null || this.encodingAlgorithm.isEmpty()) {
+            return MessageDigest.isEqual(password.getBytes(this.characterEncoding), storedPassword.getBytes(this.characterEncoding));
+        }
+        byte[] digest = this.newDigest().digest(password.getBytes(this.characterEncoding));
+        byte[] expected = decodeHex(storedPassword);
+        return expected != null && MessageDigest.isEqual(digest, expected);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(this.encodingAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported password encoding algorithm " + this.encodingAlgorithm, e);
+        }
+    }
+
+    private static String encodeHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 不是合法的十六进制字符串时返回null，大小写均可
+     */
+    private static byte[] decodeHex(String value) {
+        if (value.length() % 2 != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(value.charAt(2 * i), 16);
+            int low = Character.digit(value.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jielin.ygjcasserver.authn;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjAttributeRepositoryProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月23日 10:00:00
+ * @description: 角色、权限属性的配置，前缀 ygj.authn.attributeRepository
+ *
+ * 使用ygj.authn.jdbc的连接池，ygj.authn.jdbc.enabled=false时不生效。
+ */
+@ConfigurationProperties(prefix = "ygj.authn.attributeRepository")
+public class YgjAttributeRepositoryProperties {
+    private boolean enabled = true;
+    /**
+     * 缓存的毫秒数，也是其他节点读到角色、权限修改的最长延迟
+     */
+    private long timeToLive = 600000L;
+    private long maximumSize = 10000L;
+    /**
+     * 启动时加载所有用户（最多maximumSize个）
+     */
+    private boolean warmUp = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+}
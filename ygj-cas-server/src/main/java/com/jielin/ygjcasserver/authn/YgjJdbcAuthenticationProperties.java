@@ -0,0 +1,184 @@
+package com.jielin.ygjcasserver.authn;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjJdbcAuthenticationProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 14:50:00
+ * @description: sys_user认证的数据库和连接池配置，前缀 ygj.authn.jdbc
+ *
+ * 启用后不要再配置cas.authn.jdbc.query[0]，否则同一个用户会被两个handler各查询一次。
+ */
+@ConfigurationProperties(prefix = "ygj.authn.jdbc")
+public class YgjJdbcAuthenticationProperties {
+    private boolean enabled = true;
+    private String name = "SysUserAuthenticationHandler";
+    private Integer order;
+    private String url;
+    private String user;
+    private String password;
+    private String driverClass = "com.mysql.jdbc.Driver";
+    /**
+     * 与cas的passwordEncoder.encodingAlgorithm含义相同，为空时按明文比较
+     */
+    private String encodingAlgorithm = "MD5";
+    private String characterEncoding = "UTF-8";
+    /**
+     * 连接数不是越多越好，一般取数据库服务器核数*2左右；最小空闲连接与最大连接数相同，固定大小的连接池
+     */
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 10;
+    /**
+     * 获取连接的最长等待毫秒数，超过后本次登录按数据库不可用处理
+     */
+    private long connectionTimeout = 3000L;
+    private long validationTimeout = 1000L;
+    private long idleTimeout = 600000L;
+    /**
+     * 应小于数据库的wait_timeout
+     */
+    private long maxLifetime = 1800000L;
+    /**
+     * 驱动在每个连接上缓存的预编译语句个数和sql长度上限
+     */
+    private int prepStmtCacheSize = 250;
+    private int prepStmtCacheSqlLimit = 2048;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    public void setOrder(Integer order) {
+        this.order = order;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    public void setDriverClass(String driverClass) {
+        this.driverClass = driverClass;
+    }
+
+    public String getEncodingAlgorithm() {
+        return encodingAlgorithm;
+    }
+
+    public void setEncodingAlgorithm(String encodingAlgorithm) {
+        this.encodingAlgorithm = encodingAlgorithm;
+    }
+
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    public void setCharacterEncoding(String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(long validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public int getPrepStmtCacheSize() {
+        return prepStmtCacheSize;
+    }
+
+    public void setPrepStmtCacheSize(int prepStmtCacheSize) {
+        this.prepStmtCacheSize = prepStmtCacheSize;
+    }
+
+    public int getPrepStmtCacheSqlLimit() {
+        return prepStmtCacheSqlLimit;
+    }
+
+    public void setPrepStmtCacheSqlLimit(int prepStmtCacheSqlLimit) {
+        this.prepStmtCacheSqlLimit = prepStmtCacheSqlLimit;
+    }
+}
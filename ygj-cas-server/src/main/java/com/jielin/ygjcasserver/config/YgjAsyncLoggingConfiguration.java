@@ -0,0 +1,90 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.logging.DeferredAuditTrailManager;
+import com.jielin.ygjcasserver.logging.RingBufferAppenderMetrics;
+import com.jielin.ygjcasserver.logging.YgjAsyncLoggingProperties;
+import org.apereo.cas.audit.AuditTrailExecutionPlan;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.audit.AuditSlf4jLogProperties;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.apereo.inspektr.audit.support.Slf4jLoggingAuditTrailManager;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * @ClassName: YgjAsyncLoggingConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 11:20:00
+ * @description: 审计日志延迟格式化，注册YgjRingBuffer的队列深度、丢弃数指标
+ *
+ * cas的auditTrailExecutionPlan总会注册Slf4jLoggingAuditTrailManager，这里在plan创建后换成DeferredAuditTrailManager；
+ * AuditTrailManagementAspect持有的是plan中的同一个list，替换后立即生效。
+ */
+@Configuration("ygjAsyncLoggingConfiguration")
+@EnableConfigurationProperties({CasConfigurationProperties.class, YgjAsyncLoggingProperties.class})
+@ConditionalOnProperty(prefix = "ygj.logging.async", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjAsyncLoggingConfiguration {
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Bean
+    public RingBufferAppenderMetrics ringBufferAppenderMetrics() {
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new RingBufferAppenderMetrics(registry != null ? registry : new MetricRegistry());
+    }
+
+    @Bean
+    public static BeanPostProcessor deferredAuditTrailManagerPostProcessor() {
+        return new DeferredAuditTrailManagerPostProcessor();
+    }
+
+    /**
+     * 配置在plan创建时才取，不提前初始化
+     */
+    private static class DeferredAuditTrailManagerPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+        private BeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof AuditTrailExecutionPlan
+                    && this.beanFactory.getBean(YgjAsyncLoggingProperties.class).isDeferAuditFormatting()) {
+                AuditSlf4jLogProperties slf4j = this.beanFactory.getBean(CasConfigurationProperties.class).getAudit().getSlf4j();
+                List<AuditTrailManager> managers = ((AuditTrailExecutionPlan) bean).getAuditTrailManagers();
+                managers.replaceAll(manager -> {
+                    if (manager.getClass() != Slf4jLoggingAuditTrailManager.class) {
+                        return manager;
+                    }
+                    DeferredAuditTrailManager deferred = new DeferredAuditTrailManager();
+                    deferred.setUseSingleLine(slf4j.isUseSingleLine());
+                    deferred.setEntrySeparator(slf4j.getSinglelineSeparator());
+                    deferred.setAuditFormat(slf4j.getAuditFormat());
+                    return deferred;
+                });
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.jielin.ygjcasserver.config;
+
+import com.jielin.ygjcasserver.authn.SysUserAttributeCacheEndpoint;
+import com.jielin.ygjcasserver.authn.SysUserAttributeRepository;
+import com.jielin.ygjcasserver.authn.YgjAttributeRepositoryProperties;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlan;
+import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlanConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * @ClassName: YgjAttributeRepositoryConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月23日 11:20:00
+ * @description: 把SysUserAttributeRepository注册到cas的attributeRepository，属性经personDirectoryPrincipalResolver进入principal
+ *
+ * cas在所有attributeRepository外面还有一层缓存（cas.authn.attributeRepository.expirationTime），
+ * 需要配置为0，否则清除本缓存后仍会读到旧值。
+ */
+@Configuration("ygjAttributeRepositoryConfiguration")
+@AutoConfigureAfter(YgjJdbcAuthenticationConfiguration.class)
+@EnableConfigurationProperties({CasConfigurationProperties.class, YgjAttributeRepositoryProperties.class})
+@ConditionalOnBean(name = "sysUserDataSource")
+@ConditionalOnProperty(prefix = "ygj.authn.attributeRepository", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjAttributeRepositoryConfiguration implements PersonDirectoryAttributeRepositoryPlanConfigurer {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    private YgjAttributeRepositoryProperties ygjAttributeRepositoryProperties;
+
+    @Autowired
+    @Qualifier("sysUserDataSource")
+    private DataSource sysUserDataSource;
+
+    @Bean
+    public SysUserAttributeRepository sysUserAttributeRepository() {
+        SysUserAttributeRepository repository = new SysUserAttributeRepository(this.sysUserDataSource,
+                ygjAttributeRepositoryProperties.getTimeToLive(), ygjAttributeRepositoryProperties.getMaximumSize());
+        if (ygjAttributeRepositoryProperties.isWarmUp()) {
+            try {
+                repository.warmUp();
+            } catch (RuntimeException e) {
+                //数据库暂不可用时不影响启动，登录时再逐个加载
+                this.logger.warn("Unable to warm up the attribute cache: {}", e.getMessage());
+            }
+        }
+        return repository;
+    }
+
+    @Bean
+    public SysUserAttributeCacheEndpoint sysUserAttributeCacheEndpoint() {
+        return new SysUserAttributeCacheEndpoint(sysUserAttributeRepository(), casProperties);
+    }
+
+    @Override
+    public void configureAttributeRepositoryPlan(PersonDirectoryAttributeRepositoryPlan plan) {
+        plan.registerAttributeRepository(sysUserAttributeRepository());
+    }
+}
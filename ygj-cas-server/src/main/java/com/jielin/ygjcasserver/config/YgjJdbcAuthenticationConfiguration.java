@@ -0,0 +1,103 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.authn.SysUserAuthenticationHandler;
+import com.jielin.ygjcasserver.authn.YgjJdbcAuthenticationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apereo.cas.authentication.AuthenticationEventExecutionPlan;
+import org.apereo.cas.authentication.AuthenticationEventExecutionPlanConfigurer;
+import org.apereo.cas.authentication.AuthenticationHandler;
+import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
+import org.apereo.cas.authentication.principal.PrincipalResolver;
+import org.apereo.cas.services.ServicesManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.Charset;
+import java.util.Properties;
+
+/**
+ * @ClassName: YgjJdbcAuthenticationConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 15:40:00
+ * @description: 注册SysUserAuthenticationHandler及其HikariCP连接池
+ *
+ * 连接池固定大小、只读，mysql驱动开启预编译语句缓存；有MetricRegistry时连接池自身的指标也一并注册。
+ */
+@Configuration("ygjJdbcAuthenticationConfiguration")
+@EnableConfigurationProperties(YgjJdbcAuthenticationProperties.class)
+@ConditionalOnProperty(prefix = "ygj.authn.jdbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjJdbcAuthenticationConfiguration implements AuthenticationEventExecutionPlanConfigurer {
+
+    @Autowired
+    private YgjJdbcAuthenticationProperties ygjJdbcAuthenticationProperties;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Autowired
+    @Qualifier("servicesManager")
+    private ServicesManager servicesManager;
+
+    @Autowired
+    @Qualifier("personDirectoryPrincipalResolver")
+    private PrincipalResolver personDirectoryPrincipalResolver;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sysUserDataSource() {
+        YgjJdbcAuthenticationProperties jdbc = this.ygjJdbcAuthenticationProperties;
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sysUserPool");
+        config.setDriverClassName(jdbc.getDriverClass());
+        config.setJdbcUrl(jdbc.getUrl());
+        config.setUsername(jdbc.getUser());
+        config.setPassword(jdbc.getPassword());
+        config.setMaximumPoolSize(jdbc.getMaximumPoolSize());
+        config.setMinimumIdle(jdbc.getMinimumIdle());
+        config.setConnectionTimeout(jdbc.getConnectionTimeout());
+        config.setValidationTimeout(jdbc.getValidationTimeout());
+        config.setIdleTimeout(jdbc.getIdleTimeout());
+        config.setMaxLifetime(jdbc.getMaxLifetime());
+        config.setReadOnly(true);
+        config.setAutoCommit(true);
+
+        //mysql-connector-java 5.1的预编译语句缓存，同一个连接上重复的sql不再重新预编译
+        Properties dataSourceProperties = new Properties();
+        dataSourceProperties.setProperty("cachePrepStmts", "true");
+        dataSourceProperties.setProperty("prepStmtCacheSize", String.valueOf(jdbc.getPrepStmtCacheSize()));
+        dataSourceProperties.setProperty("prepStmtCacheSqlLimit", String.valueOf(jdbc.getPrepStmtCacheSqlLimit()));
+        dataSourceProperties.setProperty("useServerPrepStmts", "true");
+        dataSourceProperties.setProperty("useLocalSessionState", "true");
+        dataSourceProperties.setProperty("cacheResultSetMetadata", "true");
+        dataSourceProperties.setProperty("elideSetAutoCommits", "true");
+        dataSourceProperties.setProperty("maintainTimeStats", "false");
+        config.setDataSourceProperties(dataSourceProperties);
+
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        if (registry != null) {
+            config.setMetricRegistry(registry);
+        }
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public AuthenticationHandler sysUserAuthenticationHandler() {
+        YgjJdbcAuthenticationProperties jdbc = this.ygjJdbcAuthenticationProperties;
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new SysUserAuthenticationHandler(jdbc.getName(), this.servicesManager, PrincipalFactoryUtils.newPrincipalFactory(), jdbc.getOrder(),
+                sysUserDataSource(), jdbc.getEncodingAlgorithm(), Charset.forName(jdbc.getCharacterEncoding()),
+                registry != null ? registry : new MetricRegistry());
+    }
+
+    @Override
+    public void configureAuthenticationExecutionPlan(AuthenticationEventExecutionPlan plan) {
+        plan.registerAuthenticationHandlerWithPrincipalResolver(sysUserAuthenticationHandler(), this.personDirectoryPrincipalResolver);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.metrics.LatencyHistogramEndpoint;
+import com.jielin.ygjcasserver.metrics.StageTimingInterceptor;
+import com.jielin.ygjcasserver.metrics.YgjLatencyMetricsProperties;
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @ClassName: YgjLatencyMetricsConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 10:30:00
+ * @description: 各环节耗时直方图：/status/latency端点，CentralAuthenticationService的TGT创建、ST签发计时
+ *
+ * 认证（cas.authn.jdbc.*）、ticket registry（cas.ticket.registry.*）、服务查找（cas.services.find）、SLO（cas.slo.dispatch.latency）
+ * 由各自的类用LatencyTimer直接计时；cas的类不能修改，TGT创建和ST签发通过代理计时。
+ */
+@Configuration("ygjLatencyMetricsConfiguration")
+@EnableConfigurationProperties({CasConfigurationProperties.class, YgjLatencyMetricsProperties.class})
+@ConditionalOnProperty(prefix = "ygj.metrics.latency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjLatencyMetricsConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    private YgjLatencyMetricsProperties ygjLatencyMetricsProperties;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Bean
+    public LatencyHistogramEndpoint latencyHistogramEndpoint() {
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new LatencyHistogramEndpoint(registry != null ? registry : new MetricRegistry(),
+                this.ygjLatencyMetricsProperties.getWindowSeconds(), casProperties);
+    }
+
+    @Bean
+    public static BeanPostProcessor centralAuthenticationServiceTimingPostProcessor() {
+        return new CentralAuthenticationServiceTimingPostProcessor();
+    }
+
+    /**
+     * 已经是代理时（如metrics-spring的@Timed）加入已有代理，不再套一层
+     */
+    private static class CentralAuthenticationServiceTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+        private BeanFactory beanFactory;
+
+        CentralAuthenticationServiceTimingPostProcessor() {
+            Map<String, String> timerNames = new LinkedHashMap<String, String>();
+            timerNames.put("createTicketGrantingTicket", "cas.ticket.tgt.create");
+            timerNames.put("grantServiceTicket", "cas.ticket.st.grant");
+            NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+            pointcut.setMappedNames(timerNames.keySet().toArray(new String[0]));
+            pointcut.setClassFilter(new RootClassFilter(CentralAuthenticationService.class));
+            this.advisor = new DefaultPointcutAdvisor(pointcut, new StageTimingInterceptor(timerNames, this::metricRegistry));
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            super.setBeanFactory(beanFactory);
+            this.beanFactory = beanFactory;
+        }
+
+        private MetricRegistry metricRegistry() {
+            try {
+                return this.beanFactory.getBean(MetricRegistry.class);
+            } catch (NoSuchBeanDefinitionException e) {
+                return new MetricRegistry();
+            }
+        }
+    }
+}
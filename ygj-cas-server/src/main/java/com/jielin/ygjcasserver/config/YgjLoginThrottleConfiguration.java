@@ -0,0 +1,63 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.throttle.LoginThrottle;
+import com.jielin.ygjcasserver.throttle.LoginThrottleFailureListener;
+import com.jielin.ygjcasserver.throttle.LoginThrottleFilter;
+import com.jielin.ygjcasserver.throttle.YgjLoginThrottleProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @ClassName: YgjLoginThrottleConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 10:40:00
+ * @description: 注册登录限流的过滤器和认证失败监听
+ *
+ * 过滤器排在字符集过滤器之后（读取用户名参数前必须已设置请求编码），只映射登录页和rest获取TGT的地址。
+ */
+@Configuration("ygjLoginThrottleConfiguration")
+@EnableConfigurationProperties(YgjLoginThrottleProperties.class)
+@ConditionalOnProperty(prefix = "ygj.authn.throttle", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjLoginThrottleConfiguration {
+    private static final int FILTER_ORDER = 0;
+
+    @Autowired
+    private YgjLoginThrottleProperties ygjLoginThrottleProperties;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Bean
+    public LoginThrottle loginThrottle() {
+        YgjLoginThrottleProperties throttle = this.ygjLoginThrottleProperties;
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new LoginThrottle(throttle.getWindow(), throttle.getBuckets(), throttle.getMaximumKeys(),
+                throttle.getIpThreshold(), throttle.getUsernameThreshold(), throttle.getGlobalUsernameThreshold(),
+                registry != null ? registry : new MetricRegistry());
+    }
+
+    @Bean
+    public FilterRegistrationBean loginThrottleFilter() {
+        YgjLoginThrottleProperties throttle = this.ygjLoginThrottleProperties;
+        FilterRegistrationBean bean = new FilterRegistrationBean();
+        bean.setFilter(new LoginThrottleFilter(loginThrottle(), throttle.getUsernameParameter(), throttle.getClientIpHeader(),
+                throttle.getTrustedProxies()));
+        bean.addUrlPatterns("/login", "/v1/tickets");
+        bean.setName("loginThrottleFilter");
+        bean.setAsyncSupported(true);
+        bean.setOrder(FILTER_ORDER);
+        return bean;
+    }
+
+    @Bean
+    public LoginThrottleFailureListener loginThrottleFailureListener() {
+        return new LoginThrottleFailureListener(loginThrottle());
+    }
+}
@@ -0,0 +1,176 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.ticket.CompactTicketCodec;
+import com.jielin.ygjcasserver.ticket.InMemoryTicketInvalidationBus;
+import com.jielin.ygjcasserver.ticket.JdkTicketCodec;
+import com.jielin.ygjcasserver.ticket.PipelinedRedisTicketRegistry;
+import com.jielin.ygjcasserver.ticket.RedisTicketInvalidationBus;
+import com.jielin.ygjcasserver.ticket.TicketCodec;
+import com.jielin.ygjcasserver.ticket.TicketInvalidationBus;
+import com.jielin.ygjcasserver.ticket.TicketNearCache;
+import com.jielin.ygjcasserver.ticket.TicketRegistryBatchFilter;
+import com.jielin.ygjcasserver.ticket.TicketRegistryBatchingListener;
+import com.jielin.ygjcasserver.ticket.YgjRedisTicketRegistryProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.CoreTicketUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.webflow.engine.impl.FlowExecutionImplFactory;
+import org.springframework.webflow.execution.factory.StaticFlowExecutionListenerLoader;
+import org.springframework.webflow.executor.FlowExecutorImpl;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisSentinelPool;
+import redis.clients.util.Pool;
+
+import javax.servlet.DispatcherType;
+import java.util.LinkedHashSet;
+
+/**
+ * @ClassName: YgjRedisTicketRegistryConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 10:40:00
+ * @description: 用PipelinedRedisTicketRegistry替换cas默认的RedisTicketRegistry
+ *
+ * cas的ticketRegistry没有@ConditionalOnMissingBean，这里在RedisTicketRegistryConfiguration之后加载，覆盖同名bean定义。
+ * 同时给登录、登出的FlowExecutor注册TicketRegistryBatchingListener，cas默认没有注册任何listener；
+ * TicketRegistryBatchFilter排在所有过滤器之前，清理listener没有提交的批次。
+ * ygj.ticket.registry.redis.nearCache.enabled=true时在redis前增加进程内近端缓存。
+ */
+@Configuration("ygjRedisTicketRegistryConfiguration")
+@AutoConfigureAfter(name = "org.apereo.cas.config.RedisTicketRegistryConfiguration")
+@EnableConfigurationProperties({CasConfigurationProperties.class, YgjRedisTicketRegistryProperties.class})
+@ConditionalOnProperty(prefix = "ygj.ticket.registry.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjRedisTicketRegistryConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    private YgjRedisTicketRegistryProperties ygjRedisTicketRegistryProperties;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Bean(destroyMethod = "close")
+    public Pool<Jedis> ticketRedisPool() {
+        RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(ygjRedisTicketRegistryProperties.getMaxTotal());
+        poolConfig.setMaxIdle(ygjRedisTicketRegistryProperties.getMaxIdle());
+        poolConfig.setMinIdle(ygjRedisTicketRegistryProperties.getMinIdle());
+        poolConfig.setMaxWaitMillis(ygjRedisTicketRegistryProperties.getMaxWaitMillis());
+        poolConfig.setTestWhileIdle(ygjRedisTicketRegistryProperties.isTestWhileIdle());
+        poolConfig.setTimeBetweenEvictionRunsMillis(ygjRedisTicketRegistryProperties.getTimeBetweenEvictionRunsMillis());
+        poolConfig.setMinEvictableIdleTimeMillis(ygjRedisTicketRegistryProperties.getMinEvictableIdleTimeMillis());
+
+        String password = StringUtils.defaultIfBlank(redis.getPassword(), null);
+        if (redis.getSentinel() != null && StringUtils.isNotBlank(redis.getSentinel().getMaster())) {
+            return new JedisSentinelPool(redis.getSentinel().getMaster(), new LinkedHashSet<String>(redis.getSentinel().getNode()),
+                    poolConfig, redis.getTimeout(), password, redis.getDatabase());
+        }
+        return new JedisPool(poolConfig, redis.getHost(), redis.getPort(), redis.getTimeout(), password, redis.getDatabase(), redis.isUseSsl());
+    }
+
+    @Bean
+    public TicketCodec ticketCodec() {
+        if ("COMPACT".equalsIgnoreCase(ygjRedisTicketRegistryProperties.getCodec())) {
+            return new CompactTicketCodec(ygjRedisTicketRegistryProperties.isCompression(), ygjRedisTicketRegistryProperties.getCompressionThreshold(),
+                    ygjRedisTicketRegistryProperties.getCodecAllowedPackages());
+        }
+        return new JdkTicketCodec();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "ygj.ticket.registry.redis.nearCache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TicketInvalidationBus ticketInvalidationBus() {
+        if ("MEMORY".equalsIgnoreCase(ygjRedisTicketRegistryProperties.getNearCache().getInvalidation())) {
+            return InMemoryTicketInvalidationBus.shared();
+        }
+        return new RedisTicketInvalidationBus(ticketRedisPool());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "ygj.ticket.registry.redis.nearCache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TicketNearCache ticketNearCache() {
+        YgjRedisTicketRegistryProperties.NearCache nearCache = ygjRedisTicketRegistryProperties.getNearCache();
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new TicketNearCache(ticketInvalidationBus(), nearCache.getMaximumSize(), nearCache.getMaxTimeToLive(),
+                registry != null ? registry : new MetricRegistry());
+    }
+
+    @Bean
+    public TicketRegistry ticketRegistry(ObjectProvider<TicketNearCache> ticketNearCache) {
+        RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
+        MetricRegistry metrics = this.metricRegistry.getIfUnique();
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(ticketRedisPool(), ygjRedisTicketRegistryProperties.isTransactional(), ticketCodec(),
+                metrics != null ? metrics : new MetricRegistry());
+        registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
+        registry.setNearCache(ticketNearCache.getIfAvailable());
+        return registry;
+    }
+
+    @Bean
+    public FilterRegistrationBean ticketRegistryBatchFilter(ObjectProvider<TicketRegistry> ticketRegistry) {
+        FilterRegistrationBean bean = new FilterRegistrationBean();
+        bean.setFilter(new TicketRegistryBatchFilter(ticketRegistry::getObject));
+        bean.addUrlPatterns("/*");
+        bean.setName("ticketRegistryBatchFilter");
+        //FORWARD、INCLUDE在请求内部，不能提前解除外层的批次
+        bean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+        bean.setAsyncSupported(true);
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return bean;
+    }
+
+    @Bean
+    public static BeanPostProcessor ticketRegistryBatchingPostProcessor() {
+        return new TicketRegistryBatchingPostProcessor();
+    }
+
+    /**
+     * FlowExecutor创建后注册listener，ticketRegistry在此时才取，不提前初始化
+     */
+    private static class TicketRegistryBatchingPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+        private BeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof FlowExecutorImpl && ((FlowExecutorImpl) bean).getExecutionFactory() instanceof FlowExecutionImplFactory) {
+                TicketRegistry ticketRegistry = this.beanFactory.getBean("ticketRegistry", TicketRegistry.class);
+                if (ticketRegistry instanceof PipelinedRedisTicketRegistry) {
+                    ((FlowExecutionImplFactory) ((FlowExecutorImpl) bean).getExecutionFactory()).setExecutionListenerLoader(
+                            new StaticFlowExecutionListenerLoader(new TicketRegistryBatchingListener((PipelinedRedisTicketRegistry) ticketRegistry)));
+                }
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.rest.BatchServiceTicketResource;
+import com.jielin.ygjcasserver.rest.YgjRestBatchProperties;
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.AuthenticationSystemSupport;
+import org.apereo.cas.authentication.principal.ServiceFactory;
+import org.apereo.cas.authentication.principal.WebApplicationService;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistrySupport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @ClassName: YgjRestBatchConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 09:50:00
+ * @description: 注册rest批量签发ST的接口 /v1/tickets/{tgtId}/services
+ *
+ * 与cas-server-support-rest的/v1/tickets使用同一套CentralAuthenticationService和ticket registry。
+ */
+@Configuration("ygjRestBatchConfiguration")
+@EnableConfigurationProperties(YgjRestBatchProperties.class)
+@ConditionalOnProperty(prefix = "ygj.rest.batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjRestBatchConfiguration {
+
+    @Autowired
+    private YgjRestBatchProperties ygjRestBatchProperties;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Autowired
+    @Qualifier("centralAuthenticationService")
+    private CentralAuthenticationService centralAuthenticationService;
+
+    @Autowired
+    @Qualifier("defaultTicketRegistrySupport")
+    private TicketRegistrySupport ticketRegistrySupport;
+
+    @Autowired
+    @Qualifier("ticketRegistry")
+    private TicketRegistry ticketRegistry;
+
+    @Autowired
+    @Qualifier("webApplicationServiceFactory")
+    private ServiceFactory<WebApplicationService> webApplicationServiceFactory;
+
+    @Autowired
+    @Qualifier("defaultAuthenticationSystemSupport")
+    private AuthenticationSystemSupport authenticationSystemSupport;
+
+    @Bean
+    public BatchServiceTicketResource batchServiceTicketResource() {
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new BatchServiceTicketResource(this.centralAuthenticationService, this.ticketRegistrySupport, this.ticketRegistry,
+                this.webApplicationServiceFactory, this.authenticationSystemSupport.getPrincipalElectionStrategy(),
+                this.ygjRestBatchProperties.getMaxServices(), registry != null ? registry : new MetricRegistry());
+    }
+}
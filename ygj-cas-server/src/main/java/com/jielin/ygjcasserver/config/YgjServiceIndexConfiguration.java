@@ -0,0 +1,56 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.services.IndexedServicesManager;
+import com.jielin.ygjcasserver.services.YgjServiceIndexProperties;
+import org.apereo.cas.config.CasCoreServicesConfiguration;
+import org.apereo.cas.services.ServiceRegistry;
+import org.apereo.cas.services.ServicesManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @ClassName: YgjServiceIndexConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 15:10:00
+ * @description: 替换cas默认的servicesManager为IndexedServicesManager
+ *
+ * 必须在CasCoreServicesConfiguration之前加载，cas的同名bean带有@ConditionalOnMissingBean。
+ * ygj.services.index.enabled=false时恢复cas默认实现。
+ */
+@Configuration("ygjServiceIndexConfiguration")
+@AutoConfigureBefore(CasCoreServicesConfiguration.class)
+@EnableConfigurationProperties(YgjServiceIndexProperties.class)
+@ConditionalOnProperty(prefix = "ygj.services.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjServiceIndexConfiguration {
+
+    @Autowired
+    private YgjServiceIndexProperties ygjServiceIndexProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("serviceRegistry")
+    private ServiceRegistry serviceRegistry;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @RefreshScope
+    @Bean
+    public ServicesManager servicesManager() {
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new IndexedServicesManager(this.serviceRegistry, this.eventPublisher, this.ygjServiceIndexProperties.getResultCacheSize(),
+                registry != null ? registry : new MetricRegistry());
+    }
+}
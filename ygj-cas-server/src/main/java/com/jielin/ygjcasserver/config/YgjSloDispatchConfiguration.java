@@ -0,0 +1,93 @@
+package com.jielin.ygjcasserver.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.slo.DispatchingSloHttpClient;
+import com.jielin.ygjcasserver.slo.SloDispatchProperties;
+import com.jielin.ygjcasserver.slo.SloDispatcher;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.logout.DefaultSingleLogoutServiceMessageHandler;
+import org.apereo.cas.logout.LogoutMessageCreator;
+import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
+import org.apereo.cas.logout.SingleLogoutServiceMessageHandler;
+import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.util.http.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @ClassName: YgjSloDispatchConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 14:40:00
+ * @description: 替换cas默认的defaultSingleLogoutServiceMessageHandler，后台登出通知通过SloDispatcher发送
+ *
+ * 必须在CasCoreLogoutConfiguration之前加载，cas的同名bean带有@ConditionalOnMissingBean。
+ * ygj.slo.dispatch.enabled=false时恢复cas默认实现。
+ */
+@Configuration("ygjSloDispatchConfiguration")
+@AutoConfigureBefore(CasCoreLogoutConfiguration.class)
+@EnableConfigurationProperties({CasConfigurationProperties.class, SloDispatchProperties.class})
+@ConditionalOnProperty(prefix = "ygj.slo.dispatch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjSloDispatchConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    private SloDispatchProperties sloDispatchProperties;
+
+    @Autowired
+    @Qualifier("noRedirectHttpClient")
+    private HttpClient noRedirectHttpClient;
+
+    @Autowired
+    @Qualifier("trustStoreSslSocketFactory")
+    private ObjectProvider<SSLConnectionSocketFactory> trustStoreSslSocketFactory;
+
+    @Autowired
+    private ObjectProvider<MetricRegistry> metricRegistry;
+
+    @Autowired
+    @Qualifier("servicesManager")
+    private ServicesManager servicesManager;
+
+    @Autowired
+    @Qualifier("logoutBuilder")
+    private ObjectProvider<LogoutMessageCreator> logoutBuilder;
+
+    @Autowired
+    @Qualifier("singleLogoutServiceLogoutUrlBuilder")
+    private ObjectProvider<SingleLogoutServiceLogoutUrlBuilder> singleLogoutServiceLogoutUrlBuilder;
+
+    @Autowired
+    @Qualifier("authenticationServiceSelectionPlan")
+    private ObjectProvider<AuthenticationServiceSelectionPlan> authenticationServiceSelectionPlan;
+
+    @Bean(destroyMethod = "close")
+    public SloDispatcher sloDispatcher() {
+        SSLConnectionSocketFactory sslSocketFactory = this.trustStoreSslSocketFactory.getIfAvailable();
+        MetricRegistry registry = this.metricRegistry.getIfUnique();
+        return new SloDispatcher(this.sloDispatchProperties,
+                sslSocketFactory != null ? sslSocketFactory : SSLConnectionSocketFactory.getSocketFactory(),
+                registry != null ? registry : new MetricRegistry());
+    }
+
+    @Bean
+    public SingleLogoutServiceMessageHandler defaultSingleLogoutServiceMessageHandler() {
+        return new DefaultSingleLogoutServiceMessageHandler(new DispatchingSloHttpClient(this.noRedirectHttpClient, sloDispatcher()),
+                this.logoutBuilder.getObject(),
+                this.servicesManager,
+                this.singleLogoutServiceLogoutUrlBuilder.getObject(),
+                this.casProperties.getSlo().isAsynchronous(),
+                this.authenticationServiceSelectionPlan.getIfAvailable());
+    }
+}
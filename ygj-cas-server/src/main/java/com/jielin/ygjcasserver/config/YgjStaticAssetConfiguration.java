@@ -0,0 +1,62 @@
+package com.jielin.ygjcasserver.config;
+
+import com.jielin.ygjcasserver.assets.StaticAssetFilter;
+import com.jielin.ygjcasserver.assets.StaticAssetManifest;
+import com.jielin.ygjcasserver.assets.YgjStaticAssetProperties;
+import org.apereo.cas.config.CasFiltersConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+
+/**
+ * @ClassName: YgjStaticAssetConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月27日 11:00:00
+ * @description: 注册预压缩静态资源的过滤器
+ *
+ * 过滤器与cas的过滤器同为最低优先级、在其之后注册，静态资源仍带有responseHeadersSecurityFilter添加的安全响应头
+ * （该过滤器对.css、.js、图片不加no-cache）；清单为空时所有请求直接放行。
+ */
+@Configuration("ygjStaticAssetConfiguration")
+@AutoConfigureAfter(CasFiltersConfiguration.class)
+@EnableConfigurationProperties(YgjStaticAssetProperties.class)
+@ConditionalOnProperty(prefix = "ygj.assets", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjStaticAssetConfiguration {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private YgjStaticAssetProperties ygjStaticAssetProperties;
+
+    @Bean
+    public StaticAssetManifest staticAssetManifest() throws IOException {
+        StaticAssetManifest manifest = StaticAssetManifest.load(this.getClass().getClassLoader());
+        if (manifest.size() == 0) {
+            this.logger.warn("[{}] not found, static assets are served without precompression", StaticAssetManifest.MANIFEST_LOCATION);
+        } else {
+            this.logger.info("Loaded [{}] precompressed static assets", manifest.size());
+        }
+        return manifest;
+    }
+
+    @Bean
+    public FilterRegistrationBean staticAssetFilter() throws IOException {
+        YgjStaticAssetProperties assets = this.ygjStaticAssetProperties;
+        FilterRegistrationBean bean = new FilterRegistrationBean();
+        bean.setFilter(new StaticAssetFilter(staticAssetManifest(), assets.getImmutableMaxAge(), assets.getMaxAge(), assets.getSendfileSize()));
+        bean.addUrlPatterns("/*");
+        bean.setName("staticAssetFilter");
+        bean.setAsyncSupported(true);
+        bean.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return bean;
+    }
+}
@@ -0,0 +1,102 @@
+package com.jielin.ygjcasserver.config;
+
+import com.jielin.ygjcasserver.validation.StreamingCas30ResponseView;
+import com.jielin.ygjcasserver.validation.StreamingCasProtocolView;
+import org.apereo.cas.authentication.AuthenticationAttributeReleasePolicy;
+import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
+import org.apereo.cas.authentication.ProtocolAttributeEncoder;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.validation.CasProtocolAttributesRenderer;
+import org.apereo.cas.web.config.CasProtocolViewsConfiguration;
+import org.apereo.cas.web.config.CasValidationConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.View;
+
+/**
+ * @ClassName: YgjValidationViewConfiguration.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月26日 10:40:00
+ * @description: serviceValidate、p3/serviceValidate（以及proxyValidate）的xml响应改用StreamingCasProtocolView输出
+ *
+ * cas2SuccessView、cas3SuccessView、cas2ServiceFailureView、cas3ServiceFailureView在CasProtocolViews中没有@ConditionalOnMissingBean，
+ * 这里在其之后加载，用同名bean覆盖；cas3ServiceSuccessView带有@ConditionalOnMissingBean，必须在CasValidationConfiguration之前加载。
+ * json格式的响应本来就由jackson输出，不受影响。ygj.validation.streaming.enabled=false时恢复thymeleaf模板。
+ */
+@Configuration("ygjValidationViewConfiguration")
+@AutoConfigureAfter(CasProtocolViewsConfiguration.class)
+@AutoConfigureBefore(CasValidationConfiguration.class)
+@EnableConfigurationProperties(CasConfigurationProperties.class)
+@ConditionalOnProperty(prefix = "ygj.validation.streaming", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class YgjValidationViewConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    private ThymeleafProperties thymeleafProperties;
+
+    @Autowired
+    @Qualifier("casAttributeEncoder")
+    private ProtocolAttributeEncoder protocolAttributeEncoder;
+
+    @Autowired
+    @Qualifier("servicesManager")
+    private ServicesManager servicesManager;
+
+    @Autowired
+    @Qualifier("authenticationAttributeReleasePolicy")
+    private AuthenticationAttributeReleasePolicy authenticationAttributeReleasePolicy;
+
+    @Autowired
+    @Qualifier("authenticationServiceSelectionPlan")
+    private ObjectProvider<AuthenticationServiceSelectionPlan> authenticationServiceSelectionPlan;
+
+    @Autowired
+    @Qualifier("cas3ProtocolAttributesRenderer")
+    private CasProtocolAttributesRenderer cas3ProtocolAttributesRenderer;
+
+    //contentType与CasProtocolViews中对应的bean保持一致
+    @Bean
+    public View cas2SuccessView() {
+        return new StreamingCasProtocolView(StreamingCasProtocolView.Type.CAS2_SUCCESS, "application/xml", this.thymeleafProperties.getEncoding());
+    }
+
+    @Bean
+    public View cas2ServiceFailureView() {
+        return new StreamingCasProtocolView(StreamingCasProtocolView.Type.FAILURE, null, this.thymeleafProperties.getEncoding());
+    }
+
+    @Bean
+    public View cas3SuccessView() {
+        return new StreamingCasProtocolView(StreamingCasProtocolView.Type.CAS3_SUCCESS, null, this.thymeleafProperties.getEncoding());
+    }
+
+    @Bean
+    public View cas3ServiceFailureView() {
+        return new StreamingCasProtocolView(StreamingCasProtocolView.Type.FAILURE, "application/xml", this.thymeleafProperties.getEncoding());
+    }
+
+    @Bean
+    public View cas3ServiceSuccessView() {
+        return new StreamingCas30ResponseView(true,
+                this.protocolAttributeEncoder,
+                this.servicesManager,
+                this.casProperties.getAuthn().getMfa().getAuthenticationContextAttribute(),
+                cas3SuccessView(),
+                this.casProperties.getAuthn().isReleaseProtocolAttributes(),
+                this.authenticationAttributeReleasePolicy,
+                this.authenticationServiceSelectionPlan.getIfAvailable(),
+                this.cas3ProtocolAttributesRenderer);
+    }
+}
@@ -0,0 +1,60 @@
+package com.jielin.ygjcasserver.logging;
+
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+import org.apache.logging.log4j.message.Message;
+import org.apereo.inspektr.audit.AuditActionContext;
+
+import java.util.function.Function;
+
+/**
+ * @ClassName: AuditRecordMessage.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 10:00:00
+ * @description: 携带AuditActionContext的日志消息，文本在第一次被appender读取时才生成
+ *
+ * AuditActionContext不可变，标注@AsynchronouslyFormattable后log4j不会在业务线程提前格式化；
+ * CompactAuditLayout直接读取其中的字段输出二进制记录，不经过文本。
+ */
+@AsynchronouslyFormattable
+public class AuditRecordMessage implements Message {
+    private static final long serialVersionUID = 1L;
+
+    private final AuditActionContext context;
+    private final transient Function<AuditActionContext, String> formatter;
+    private volatile String formatted;
+
+    public AuditRecordMessage(AuditActionContext context, Function<AuditActionContext, String> formatter) {
+        this.context = context;
+        this.formatter = formatter;
+    }
+
+    public AuditActionContext getContext() {
+        return context;
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        String text = this.formatted;
+        if (text == null) {
+            text = this.formatter != null ? this.formatter.apply(this.context) : String.valueOf(this.context);
+            this.formatted = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String getFormat() {
+        return this.getFormattedMessage();
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.jielin.ygjcasserver.logging;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
+import org.apache.logging.log4j.message.Message;
+import org.apereo.cas.util.serialization.TicketIdSanitizationUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * @ClassName: CompactAuditLayout.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 10:30:00
+ * @description: 审计日志的紧凑二进制格式，每条记录约100字节，约为多行文本格式的四分之一
+ *
+ * 记录格式：varint(记录长度) 类型(1字节) 时间毫秒(8字节) 字符串字段；字符串为varint(UTF-8字节数+1)加内容，0表示null。
+ * 类型AUDIT依次为principal、resource、action、applicationCode、clientIp、serverIp，resource中的ticket id与CasAppender一样脱敏；
+ * 其他消息为类型TEXT，只有一个文本字段。读取用CompactAuditLogReader。
+ */
+@Plugin(name = "YgjCompactAuditLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public class CompactAuditLayout extends AbstractLayout<byte[]> {
+    public static final byte AUDIT = 1;
+    public static final byte TEXT = 2;
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFERS = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(256));
+
+    private CompactAuditLayout() {
+        super(null, null, null);
+    }
+
+    @PluginFactory
+    public static CompactAuditLayout createLayout() {
+        return new CompactAuditLayout();
+    }
+
+    @Override
+    public byte[] toByteArray(LogEvent event) {
+        ByteArrayOutputStream body = BUFFERS.get();
+        body.reset();
+        Message message = event.getMessage();
+        if (message instanceof AuditRecordMessage) {
+            AuditActionContext context = ((AuditRecordMessage) message).getContext();
+            Date when = context.getWhenActionWasPerformed();
+            body.write(AUDIT);
+            writeLong(body, when != null ? when.getTime() : event.getTimeMillis());
+            writeString(body, context.getPrincipal());
+            writeString(body, TicketIdSanitizationUtils.sanitize(context.getResourceOperatedUpon()));
+            writeString(body, context.getActionPerformed());
+            writeString(body, context.getApplicationCode());
+            writeString(body, context.getClientIpAddress());
+            writeString(body, context.getServerIpAddress());
+        } else {
+            body.write(TEXT);
+            writeLong(body, event.getTimeMillis());
+            writeString(body, TicketIdSanitizationUtils.sanitize(message.getFormattedMessage()));
+        }
+        byte[] content = body.toByteArray();
+        ByteArrayOutputStream record = new ByteArrayOutputStream(content.length + 2);
+        writeVarint(record, content.length);
+        record.write(content, 0, content.length);
+        return record.toByteArray();
+    }
+
+    @Override
+    public byte[] toSerializable(LogEvent event) {
+        return this.toByteArray(event);
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public Map<String, String> getContentFormat() {
+        return Collections.emptyMap();
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length + 1);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * 读取记录长度，流结束时返回-1
+     */
+    static int readVarint(DataInput in, boolean allowEof) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b;
+            try {
+                b = in.readUnsignedByte();
+            } catch (EOFException e) {
+                if (allowEof && shift == 0) {
+                    return -1;
+                }
+                throw e;
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = readVarint(in, false);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
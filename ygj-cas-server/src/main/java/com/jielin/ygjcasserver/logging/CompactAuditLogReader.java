@@ -0,0 +1,67 @@
+package com.jielin.ygjcasserver.logging;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @ClassName: CompactAuditLogReader.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 10:50:00
+ * @description: 把CompactAuditLayout输出的二进制审计日志（含滚动后的.gz）转为每条一行的文本
+ *
+ * 用法：java -cp WEB-INF/classes com.jielin.ygjcasserver.logging.CompactAuditLogReader cas_audit.bin [...]
+ * 输出：时间|principal|action|resource|applicationCode|clientIp|serverIp，TEXT记录为 时间|文本。
+ */
+public class CompactAuditLogReader {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: CompactAuditLogReader <file> [file...]");
+            System.exit(1);
+        }
+        for (String file : args) {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            if (file.endsWith(".gz")) {
+                in = new GZIPInputStream(in);
+            }
+            try (DataInputStream data = new DataInputStream(in)) {
+                read(data, System.out);
+            }
+        }
+    }
+
+    public static void read(DataInputStream in, PrintStream out) throws IOException {
+        for (int length = CompactAuditLayout.readVarint(in, true); length >= 0; length = CompactAuditLayout.readVarint(in, true)) {
+            byte[] record = new byte[length];
+            in.readFully(record);
+            out.println(format(new DataInputStream(new ByteArrayInputStream(record))));
+        }
+    }
+
+    private static String format(DataInputStream record) throws IOException {
+        byte type = record.readByte();
+        StringBuilder line = new StringBuilder(Instant.ofEpochMilli(record.readLong()).toString());
+        if (type == CompactAuditLayout.AUDIT) {
+            String principal = CompactAuditLayout.readString(record);
+            String resource = CompactAuditLayout.readString(record);
+            String action = CompactAuditLayout.readString(record);
+            line.append('|').append(principal).append('|').append(action).append('|').append(resource);
+            for (int i = 0; i < 3; i++) {
+                line.append('|').append(CompactAuditLayout.readString(record));
+            }
+        } else if (type == CompactAuditLayout.TEXT) {
+            line.append('|').append(CompactAuditLayout.readString(record));
+        } else {
+            line.append("|unknown record type ").append(type);
+        }
+        return line.toString();
+    }
+}
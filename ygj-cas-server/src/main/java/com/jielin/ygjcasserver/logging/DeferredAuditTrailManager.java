@@ -0,0 +1,26 @@
+package com.jielin.ygjcasserver.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.support.Slf4jLoggingAuditTrailManager;
+
+/**
+ * @ClassName: DeferredAuditTrailManager.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 10:10:00
+ * @description: 替换cas注册的Slf4jLoggingAuditTrailManager，认证线程只提交AuditRecordMessage，审计文本由日志后台线程生成
+ *
+ * 使用同名logger，log4j2.xml中org.apereo.inspektr.audit.support的配置不变；输出的文本与原实现相同（单行、分隔符、JSON格式沿用cas.audit.slf4j.*）。
+ */
+public class DeferredAuditTrailManager extends Slf4jLoggingAuditTrailManager {
+    private final Logger logger = LogManager.getLogger(Slf4jLoggingAuditTrailManager.class);
+
+    @Override
+    public void record(AuditActionContext auditActionContext) {
+        if (this.logger.isInfoEnabled()) {
+            this.logger.info(new AuditRecordMessage(auditActionContext, this::toString));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.jielin.ygjcasserver.logging;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @ClassName: RingBufferAppender.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 09:30:00
+ * @description: 有界环形队列（disruptor）的异步appender，业务线程只负责入队，格式化、脱敏和写文件都在后台线程
+ *
+ * 队列满时按policy处理：DROP直接丢弃；BLOCK等待空位，blockTimeoutMillis大于0时最多等待这么久，超时后丢弃。
+ * 丢弃数按appender名称累计，log4j2.xml热加载重建appender后不清零；队列深度和丢弃数由YgjAsyncLoggingConfiguration注册为指标。
+ * includeLocation默认false，logger上配置的includeLocation不再生效，需要行号时在这里打开（在业务线程取调用栈，开销较大）。
+ * 与AsyncLogger不同，每个appender有自己的队列和满队列策略，审计日志堆积时不会挤占其他日志，也不会因为全局的策略阻塞登录请求。
+ */
+@Plugin(name = "YgjRingBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class RingBufferAppender extends AbstractAppender {
+    private static final Map<String, RingBufferAppender> RUNNING = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> DROPPED = new ConcurrentHashMap<>();
+    private static final EventTranslatorOneArg<Holder, LogEvent> TRANSLATOR = (holder, sequence, event) -> holder.event = event;
+
+    public enum Policy {
+        DROP, BLOCK
+    }
+
+    private final Configuration configuration;
+    private final AppenderRef[] appenderRefs;
+    private final List<AppenderControl> appenderControls = new ArrayList<>();
+    private final Policy policy;
+    private final boolean includeLocation;
+    private final long blockTimeoutNanos;
+    private final long shutdownTimeoutMillis;
+    private final AtomicLong dropped;
+    private final Disruptor<Holder> disruptor;
+    private final RingBuffer<Holder> ringBuffer;
+    private volatile Thread consumer;
+
+    private RingBufferAppender(String name, Filter filter, boolean ignoreExceptions, Configuration configuration, AppenderRef[] appenderRefs,
+                               int bufferSize, Policy policy, boolean includeLocation, long blockTimeoutMillis, long shutdownTimeoutMillis) {
+        super(name, filter, null, ignoreExceptions);
+        this.configuration = configuration;
+        this.appenderRefs = appenderRefs;
+        this.policy = policy;
+        this.includeLocation = includeLocation;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.dropped = DROPPED.computeIfAbsent(name, key -> new AtomicLong());
+        this.disruptor = new Disruptor<>(Holder::new, bufferSize, runnable -> {
+            Thread thread = new Thread(runnable, "ygj-log-" + name);
+            thread.setDaemon(true);
+            this.consumer = thread;
+            return thread;
+        }, ProducerType.MULTI, new TimeoutBlockingWaitStrategy(10, TimeUnit.MILLISECONDS));
+        this.disruptor.setDefaultExceptionHandler(new LoggingExceptionHandler());
+        this.disruptor.handleEventsWith(new Dispatcher());
+        this.ringBuffer = this.disruptor.getRingBuffer();
+    }
+
+    @PluginFactory
+    public static RingBufferAppender createAppender(@PluginAttribute("name") @Required(message = "No name provided for YgjRingBuffer") String name,
+                                                    @PluginElement("AppenderRef") @Required(message = "No appender references provided for YgjRingBuffer") AppenderRef[] appenderRefs,
+                                                    @PluginElement("Filter") Filter filter,
+                                                    @PluginConfiguration Configuration configuration,
+                                                    @PluginAttribute(value = "bufferSize", defaultInt = 4096) int bufferSize,
+                                                    @PluginAttribute(value = "policy", defaultString = "DROP") String policy,
+                                                    @PluginAttribute(value = "includeLocation", defaultBoolean = false) boolean includeLocation,
+                                                    @PluginAttribute(value = "blockTimeoutMillis", defaultLong = 0L) long blockTimeoutMillis,
+                                                    @PluginAttribute(value = "shutdownTimeoutMillis", defaultLong = 3000L) long shutdownTimeoutMillis,
+                                                    @PluginAttribute(value = "ignoreExceptions", defaultBoolean = true) boolean ignoreExceptions) {
+        //disruptor要求2的幂
+        int size = Integer.highestOneBit(Math.max(bufferSize, 64) - 1) << 1;
+        return new RingBufferAppender(name, filter, ignoreExceptions, configuration, appenderRefs, size,
+                Policy.valueOf(policy.trim().toUpperCase()), includeLocation, blockTimeoutMillis, shutdownTimeoutMillis);
+    }
+
+    @Override
+    public void start() {
+        for (AppenderRef ref : this.appenderRefs) {
+            Appender appender = this.configuration.getAppender(ref.getRef());
+            if (appender == null) {
+                LOGGER.error("No appender named [{}] was found for YgjRingBuffer [{}]", ref.getRef(), this.getName());
+                continue;
+            }
+            this.appenderControls.add(new AppenderControl(appender, ref.getLevel(), ref.getFilter()));
+        }
+        this.disruptor.start();
+        RUNNING.put(this.getName(), this);
+        super.start();
+    }
+
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        this.setStopping();
+        super.stop(timeout, timeUnit, false);
+        RUNNING.remove(this.getName(), this);
+        //先写完已入队的事件，超时后放弃剩余的
+        try {
+            this.disruptor.shutdown(this.shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("YgjRingBuffer [{}] did not drain [{}] events within [{}] ms", this.getName(), this.getQueueDepth(), this.shutdownTimeoutMillis);
+            this.disruptor.halt();
+        }
+        this.setStopped();
+        return true;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        //后台线程自己记录的日志（如写文件失败时的告警）再入队可能在队列满时阻塞自己，直接输出
+        if (Thread.currentThread() == this.consumer) {
+            this.dispatch(event);
+            return;
+        }
+        LogEvent immutable = this.snapshot(event);
+        if (this.ringBuffer.tryPublishEvent(TRANSLATOR, immutable)) {
+            return;
+        }
+        if (this.policy == Policy.BLOCK) {
+            if (this.blockTimeoutNanos <= 0) {
+                this.ringBuffer.publishEvent(TRANSLATOR, immutable);
+                return;
+            }
+            long deadline = System.nanoTime() + this.blockTimeoutNanos;
+            do {
+                LockSupport.parkNanos(100_000L);
+                if (this.ringBuffer.tryPublishEvent(TRANSLATOR, immutable)) {
+                    return;
+                }
+            } while (System.nanoTime() - deadline < 0);
+        }
+        if (this.dropped.getAndIncrement() == 0) {
+            LOGGER.warn("YgjRingBuffer [{}] is full ({} events), dropping events", this.getName(), this.ringBuffer.getBufferSize());
+        }
+    }
+
+    /**
+     * 可复用的事件（MutableLogEvent、RingBufferLogEvent）在返回后会被覆盖，入队前复制；
+     * Log4jLogEvent的线程名和调用位置是第一次读取时才从当前线程计算的，也要在业务线程取出。
+     * 与AsyncAppender的createMemento不同，这里不格式化消息，AuditRecordMessage等延迟格式化的消息留给后台线程。
+     */
+    private LogEvent snapshot(LogEvent event) {
+        Log4jLogEvent.Builder builder = new Log4jLogEvent.Builder(event)
+                .setThreadId(event.getThreadId())
+                .setThreadName(event.getThreadName())
+                .setThreadPriority(event.getThreadPriority())
+                .setIncludeLocation(this.includeLocation)
+                .setSource(this.includeLocation ? event.getSource() : null);
+        Message message = event.getMessage();
+        if (message instanceof ReusableMessage) {
+            builder.setMessage(((ReusableMessage) message).memento());
+        }
+        return builder.build();
+    }
+
+    private void dispatch(LogEvent event) {
+        for (AppenderControl control : this.appenderControls) {
+            control.callAppender(event);
+        }
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public int getBufferSize() {
+        return this.ringBuffer.getBufferSize();
+    }
+
+    public long getQueueDepth() {
+        return this.ringBuffer.getBufferSize() - this.ringBuffer.remainingCapacity();
+    }
+
+    public static RingBufferAppender getRunning(String name) {
+        return RUNNING.get(name);
+    }
+
+    public static Iterable<String> getRunningNames() {
+        return new ArrayList<>(RUNNING.keySet());
+    }
+
+    /**
+     * 该名称的appender累计丢弃的事件数
+     */
+    public static long getDropped(String name) {
+        AtomicLong dropped = DROPPED.get(name);
+        return dropped == null ? 0L : dropped.get();
+    }
+
+    private static final class Holder {
+        private LogEvent event;
+    }
+
+    private final class Dispatcher implements EventHandler<Holder> {
+        @Override
+        public void onEvent(Holder holder, long sequence, boolean endOfBatch) {
+            LogEvent event = holder.event;
+            holder.event = null;
+            //批次最后一条时文件appender才flush（immediateFlush=false时）
+            event.setEndOfBatch(endOfBatch);
+            RingBufferAppender.this.dispatch(event);
+        }
+    }
+
+    private final class LoggingExceptionHandler implements ExceptionHandler<Holder> {
+        @Override
+        public void handleEventException(Throwable ex, long sequence, Holder holder) {
+            holder.event = null;
+            RingBufferAppender.this.error("YgjRingBuffer [" + RingBufferAppender.this.getName() + "] failed to dispatch event", ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            LOGGER.error("YgjRingBuffer [{}] failed to start", RingBufferAppender.this.getName(), ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            LOGGER.error("YgjRingBuffer [{}] failed to shut down", RingBufferAppender.this.getName(), ex);
+        }
+    }
+}
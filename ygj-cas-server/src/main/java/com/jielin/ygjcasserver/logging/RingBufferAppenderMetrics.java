@@ -0,0 +1,31 @@
+package com.jielin.ygjcasserver.logging;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * @ClassName: RingBufferAppenderMetrics.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 11:10:00
+ * @description: 把启动时已运行的YgjRingBuffer注册为指标：cas.logging.{name}.queue-depth、buffer-size、dropped
+ *
+ * 指标每次读取时按名称查找当前的appender，log4j2.xml热加载后仍然有效；热加载新增的appender要重启后才有指标。
+ */
+public class RingBufferAppenderMetrics {
+
+    public RingBufferAppenderMetrics(MetricRegistry metricRegistry) {
+        for (String name : RingBufferAppender.getRunningNames()) {
+            String prefix = "cas.logging." + name;
+            metricRegistry.register(prefix + ".queue-depth", (Gauge<Long>) () -> {
+                RingBufferAppender appender = RingBufferAppender.getRunning(name);
+                return appender != null ? appender.getQueueDepth() : 0L;
+            });
+            metricRegistry.register(prefix + ".buffer-size", (Gauge<Integer>) () -> {
+                RingBufferAppender appender = RingBufferAppender.getRunning(name);
+                return appender != null ? appender.getBufferSize() : 0;
+            });
+            metricRegistry.register(prefix + ".dropped", (Gauge<Long>) () -> RingBufferAppender.getDropped(name));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.jielin.ygjcasserver.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjAsyncLoggingProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月28日 11:00:00
+ * @description: 审计、性能日志异步输出配置，前缀 ygj.logging.async；队列大小和满队列策略在log4j2.xml的YgjRingBuffer中配置
+ */
+@ConfigurationProperties(prefix = "ygj.logging.async")
+public class YgjAsyncLoggingProperties {
+    private boolean enabled = true;
+    /**
+     * 审计记录的文本在日志后台线程生成，认证线程只提交AuditActionContext
+     */
+    private boolean deferAuditFormatting = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isDeferAuditFormatting() {
+        return deferAuditFormatting;
+    }
+
+    public void setDeferAuditFormatting(boolean deferAuditFormatting) {
+        this.deferAuditFormatting = deferAuditFormatting;
+    }
+}
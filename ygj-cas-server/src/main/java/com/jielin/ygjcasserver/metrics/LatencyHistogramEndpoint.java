@@ -0,0 +1,80 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.web.BaseCasMvcEndpoint;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: LatencyHistogramEndpoint.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 10:20:00
+ * @description: 各环节耗时的分位数，/status/latency，可用stage参数按名称前缀过滤（如 ?stage=cas.ticket）
+ *
+ * 列出registry中所有LatencyTimer，每个窗口返回次数、每秒次数和毫秒耗时（min、mean、p50至p999、max）；count为启动以来的总次数。
+ * 访问控制与cas的metrics端点相同（cas.monitor.endpoints.metrics.*）。
+ */
+public class LatencyHistogramEndpoint extends BaseCasMvcEndpoint {
+    private static final double NANOS_PER_MILLI = 1000000D;
+    private final MetricRegistry metricRegistry;
+    private final List<Integer> windowSeconds;
+
+    public LatencyHistogramEndpoint(MetricRegistry metricRegistry, List<Integer> windowSeconds, CasConfigurationProperties casProperties) {
+        super("latency", "/latency", casProperties.getMonitor().getEndpoints().getMetrics(), casProperties);
+        this.metricRegistry = metricRegistry;
+        this.windowSeconds = windowSeconds;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public Map<String, Object> getLatency(@RequestParam(value = "stage", required = false) String stage,
+                                          HttpServletRequest request, HttpServletResponse response) {
+        ensureEndpointAccessIsAuthorized(request, response);
+        Map<String, Object> stages = new LinkedHashMap<String, Object>();
+        Map<String, Timer> timers = this.metricRegistry.getTimers((name, metric) -> metric instanceof LatencyTimer
+                && (stage == null || stage.isEmpty() || name.startsWith(stage)));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            LatencyTimer timer = (LatencyTimer) entry.getValue();
+            Map<String, Object> windows = new LinkedHashMap<String, Object>();
+            for (Integer seconds : this.windowSeconds) {
+                windows.put(seconds + "s", describe(timer.getReservoir().getSnapshot(TimeUnit.SECONDS.toMillis(seconds))));
+            }
+            Map<String, Object> status = new LinkedHashMap<String, Object>();
+            status.put("count", timer.getCount());
+            status.put("windows", windows);
+            stages.put(entry.getKey(), status);
+        }
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("chunkSeconds", TimeUnit.MILLISECONDS.toSeconds(SlidingWindowLatencyReservoir.CHUNK_MILLIS));
+        result.put("stages", stages);
+        return result;
+    }
+
+    private static Map<String, Object> describe(LatencySnapshot snapshot) {
+        Map<String, Object> window = new LinkedHashMap<String, Object>();
+        double spanSeconds = snapshot.getSpanNanos() / 1000000000D;
+        window.put("spanSeconds", Math.round(spanSeconds));
+        window.put("count", snapshot.getCount());
+        window.put("perSecond", spanSeconds > 0 ? snapshot.getCount() / spanSeconds : 0D);
+        window.put("minMillis", snapshot.getMin() / NANOS_PER_MILLI);
+        window.put("meanMillis", snapshot.getMean() / NANOS_PER_MILLI);
+        window.put("p50Millis", snapshot.getMedian() / NANOS_PER_MILLI);
+        window.put("p90Millis", snapshot.getValue(0.90) / NANOS_PER_MILLI);
+        window.put("p95Millis", snapshot.get95thPercentile() / NANOS_PER_MILLI);
+        window.put("p99Millis", snapshot.get99thPercentile() / NANOS_PER_MILLI);
+        window.put("p999Millis", snapshot.get999thPercentile() / NANOS_PER_MILLI);
+        window.put("maxMillis", snapshot.getMax() / NANOS_PER_MILLI);
+        return window;
+    }
+}
@@ -0,0 +1,98 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName: LatencySnapshot.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 09:40:00
+ * @description: SlidingWindowLatencyReservoir的快照，直方图按微秒记录，对外按纳秒返回
+ *
+ * 直方图不保留原始样本，getValues和dump返回的是每个有记录的桶的值，不是逐条样本。
+ */
+public class LatencySnapshot extends Snapshot {
+    private static final long NANOS_PER_MICRO = 1000L;
+    private final Histogram histogram;
+    private final long spanNanos;
+
+    LatencySnapshot(Histogram histogram, long spanNanos) {
+        this.histogram = histogram;
+        this.spanNanos = spanNanos;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+            throw new IllegalArgumentException(quantile + " is not in [0..1]");
+        }
+        return this.histogram.getValueAtPercentile(quantile * 100.0) * NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long[] getValues() {
+        List<Long> values = new ArrayList<Long>();
+        for (HistogramIterationValue value : this.histogram.recordedValues()) {
+            values.add(value.getValueIteratedTo() * NANOS_PER_MICRO);
+        }
+        long[] result = new long[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(this.histogram.getTotalCount(), Integer.MAX_VALUE);
+    }
+
+    public long getCount() {
+        return this.histogram.getTotalCount();
+    }
+
+    /**
+     * 快照实际覆盖的时间，启动不足一个窗口时小于窗口长度
+     */
+    public long getSpanNanos() {
+        return this.spanNanos;
+    }
+
+    @Override
+    public long getMax() {
+        return this.histogram.getMaxValue() * NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getMean() {
+        return this.histogram.getTotalCount() == 0 ? 0.0 : this.histogram.getMean() * NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getMin() {
+        return this.histogram.getMinValue() * NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getStdDev() {
+        return this.histogram.getTotalCount() == 0 ? 0.0 : this.histogram.getStdDeviation() * NANOS_PER_MICRO;
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            for (long value : this.getValues()) {
+                out.printf("%d%n", value);
+            }
+        }
+    }
+}
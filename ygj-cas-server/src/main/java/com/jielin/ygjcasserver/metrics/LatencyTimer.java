@@ -0,0 +1,35 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * @ClassName: LatencyTimer.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 09:50:00
+ * @description: 使用SlidingWindowLatencyReservoir的Timer，LatencyHistogramEndpoint列出registry中所有此类型的Timer
+ */
+public class LatencyTimer extends Timer {
+    private final SlidingWindowLatencyReservoir reservoir;
+
+    public LatencyTimer() {
+        this(new SlidingWindowLatencyReservoir());
+    }
+
+    private LatencyTimer(SlidingWindowLatencyReservoir reservoir) {
+        super(reservoir);
+        this.reservoir = reservoir;
+    }
+
+    public SlidingWindowLatencyReservoir getReservoir() {
+        return reservoir;
+    }
+
+    /**
+     * 代替metricRegistry.timer(name)；同名的Timer已存在时返回已有的
+     */
+    public static Timer register(MetricRegistry metricRegistry, String name) {
+        return metricRegistry.timer(name, LatencyTimer::new);
+    }
+}
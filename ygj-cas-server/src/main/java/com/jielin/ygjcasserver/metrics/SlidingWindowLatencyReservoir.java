@@ -0,0 +1,127 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: SlidingWindowLatencyReservoir.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 09:30:00
+ * @description: HdrHistogram实现的滑动窗口Reservoir，保留最近15分钟，按15秒分块滑动
+ *
+ * 记录时只写Recorder（无锁），每过一块把Recorder中的区间直方图移入环形数组，超过15分钟的块被覆盖。
+ * 值按微秒、2位有效数字记录（误差1%），快照时换算回纳秒，与Timer的其他Reservoir一致。
+ * getSnapshot()为最近1分钟，perfStats.log中的分位数即为该窗口；LatencyHistogramEndpoint按配置的窗口分别取快照。
+ */
+public class SlidingWindowLatencyReservoir implements Reservoir {
+    public static final long CHUNK_MILLIS = 15000L;
+    public static final int CHUNKS = 60;
+    public static final long DEFAULT_WINDOW_MILLIS = 60000L;
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long CHUNK_NANOS = TimeUnit.MILLISECONDS.toNanos(CHUNK_MILLIS);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    /**
+     * 已结束的块，index为最近结束的一块，没有记录的块为null
+     */
+    private final Histogram[] chunks = new Histogram[CHUNKS];
+    private final Clock clock;
+    private final long created;
+    private int index;
+    private Histogram current;
+    private volatile long chunkEnd;
+
+    public SlidingWindowLatencyReservoir() {
+        this(Clock.defaultClock());
+    }
+
+    public SlidingWindowLatencyReservoir(Clock clock) {
+        this.clock = clock;
+        this.created = clock.getTick();
+        this.chunkEnd = this.created + CHUNK_NANOS;
+    }
+
+    @Override
+    public int size() {
+        return this.getSnapshot().size();
+    }
+
+    /**
+     * @param value 纳秒
+     */
+    @Override
+    public void update(long value) {
+        long now = this.clock.getTick();
+        if (now - this.chunkEnd >= 0) {
+            this.rotate(now);
+        }
+        this.recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(value));
+    }
+
+    @Override
+    public LatencySnapshot getSnapshot() {
+        return this.getSnapshot(DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * 当前未结束的块加上最近windowMillis内结束的块，实际覆盖的时间见LatencySnapshot.getSpanNanos
+     */
+    public synchronized LatencySnapshot getSnapshot(long windowMillis) {
+        long now = this.clock.getTick();
+        this.rotate(now);
+        this.drain();
+        int windowChunks = (int) Math.min(CHUNKS, Math.max(0L, (windowMillis + CHUNK_MILLIS - 1) / CHUNK_MILLIS));
+        Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+        if (this.current != null) {
+            merged.add(this.current);
+        }
+        for (int i = 0; i < windowChunks; i++) {
+            Histogram chunk = this.chunks[(this.index - i + CHUNKS) % CHUNKS];
+            if (chunk != null) {
+                merged.add(chunk);
+            }
+        }
+        long span = Math.min(now - this.created, now - (this.chunkEnd - CHUNK_NANOS) + windowChunks * CHUNK_NANOS);
+        return new LatencySnapshot(merged, span);
+    }
+
+    private synchronized void rotate(long now) {
+        long elapsed = now - this.chunkEnd;
+        if (elapsed < 0) {
+            return;
+        }
+        this.drain();
+        //期间没有请求时一次跳过多块，跳过的块清空
+        long passed = elapsed / CHUNK_NANOS + 1;
+        if (passed > CHUNKS) {
+            //当前块也已超出15分钟
+            Arrays.fill(this.chunks, null);
+            this.current = null;
+        } else {
+            for (int i = 0; i < passed; i++) {
+                this.index = (this.index + 1) % CHUNKS;
+                this.chunks[this.index] = this.current;
+                this.current = null;
+            }
+        }
+        this.chunkEnd += passed * CHUNK_NANOS;
+    }
+
+    private void drain() {
+        Histogram interval = this.recorder.getIntervalHistogram();
+        if (interval.getTotalCount() == 0) {
+            return;
+        }
+        if (this.current == null) {
+            this.current = interval;
+        } else {
+            this.current.add(interval);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName: StageTimingInterceptor.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 10:00:00
+ * @description: 按方法名把cas组件的调用耗时记入LatencyTimer，用于无法直接修改的类（如CentralAuthenticationService）
+ *
+ * 抛出异常的调用同样计时。metricRegistry在第一次调用时才取，不在BeanPostProcessor阶段提前初始化。
+ */
+public class StageTimingInterceptor implements MethodInterceptor {
+    private final Map<String, String> timerNames;
+    private final Supplier<MetricRegistry> metricRegistry;
+    private volatile Map<String, Timer> timers;
+
+    /**
+     * @param timerNames 方法名到timer名称
+     */
+    public StageTimingInterceptor(Map<String, String> timerNames, Supplier<MetricRegistry> metricRegistry) {
+        this.timerNames = timerNames;
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer timer = this.timers().get(invocation.getMethod().getName());
+        if (timer == null) {
+            return invocation.proceed();
+        }
+        Timer.Context context = timer.time();
+        try {
+            return invocation.proceed();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * 并发初始化时register返回同一个Timer，重复创建map无妨
+     */
+    private Map<String, Timer> timers() {
+        Map<String, Timer> timers = this.timers;
+        if (timers == null) {
+            MetricRegistry registry = this.metricRegistry.get();
+            timers = new HashMap<String, Timer>();
+            for (Map.Entry<String, String> entry : this.timerNames.entrySet()) {
+                timers.put(entry.getKey(), LatencyTimer.register(registry, entry.getValue()));
+            }
+            this.timers = timers;
+        }
+        return timers;
+    }
+}
@@ -0,0 +1,39 @@
+package com.jielin.ygjcasserver.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @ClassName: YgjLatencyMetricsProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月29日 10:10:00
+ * @description: /status/latency配置，前缀 ygj.metrics.latency；访问控制使用cas.monitor.endpoints.metrics.*
+ */
+@ConfigurationProperties(prefix = "ygj.metrics.latency")
+public class YgjLatencyMetricsProperties {
+    private boolean enabled = true;
+    /**
+     * 端点返回的滑动窗口，单位秒，最长900（SlidingWindowLatencyReservoir保留15分钟）
+     */
+    private List<Integer> windowSeconds = new ArrayList<Integer>(Arrays.asList(60, 300, 900));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Integer> getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(List<Integer> windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+}
@@ -0,0 +1,132 @@
+package com.jielin.ygjcasserver.rest;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.jielin.ygjcasserver.ticket.PipelinedRedisTicketRegistry;
+import com.jielin.ygjcasserver.ticket.RedisWriteBatch;
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationException;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.DefaultAuthenticationResultBuilder;
+import org.apereo.cas.authentication.PrincipalElectionStrategy;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.ServiceFactory;
+import org.apereo.cas.authentication.principal.WebApplicationService;
+import org.apereo.cas.services.UnauthorizedServiceException;
+import org.apereo.cas.ticket.AbstractTicketException;
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistrySupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @ClassName: BatchServiceTicketResource.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 09:30:00
+ * @description: 用一个TGT一次为多个service签发ST：POST /v1/tickets/{tgtId}/services，表单参数service可以重复
+ *
+ * 每个service单独调用CentralAuthenticationService.grantServiceTicket，与/v1/tickets/{tgtId}一样逐个做服务授权检查并各自记录SERVICE_TICKET审计；
+ * 某个service被拒绝不影响其他service，结果中tickets为签发成功的ST，errors为失败的原因代码。TGT不存在或已过期时返回404。
+ * ticket registry为PipelinedRedisTicketRegistry时整批ST和TGT的更新在返回前用一次MULTI/EXEC写入。
+ */
+@RestController
+public class BatchServiceTicketResource {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final CentralAuthenticationService centralAuthenticationService;
+    private final TicketRegistrySupport ticketRegistrySupport;
+    private final TicketRegistry ticketRegistry;
+    private final ServiceFactory<WebApplicationService> webApplicationServiceFactory;
+    private final PrincipalElectionStrategy principalElectionStrategy;
+    private final int maxServices;
+    private final Timer timer;
+
+    public BatchServiceTicketResource(CentralAuthenticationService centralAuthenticationService, TicketRegistrySupport ticketRegistrySupport,
+                                      TicketRegistry ticketRegistry, ServiceFactory<WebApplicationService> webApplicationServiceFactory,
+                                      PrincipalElectionStrategy principalElectionStrategy, int maxServices, MetricRegistry metricRegistry) {
+        this.centralAuthenticationService = centralAuthenticationService;
+        this.ticketRegistrySupport = ticketRegistrySupport;
+        this.ticketRegistry = ticketRegistry;
+        this.webApplicationServiceFactory = webApplicationServiceFactory;
+        this.principalElectionStrategy = principalElectionStrategy;
+        this.maxServices = maxServices;
+        this.timer = metricRegistry.timer("cas.rest.batch-service-tickets");
+    }
+
+    @PostMapping(value = "/v1/tickets/{tgtId:.+}/services", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> createServiceTickets(@PathVariable("tgtId") String tgtId,
+                                                                    @RequestParam(value = "service", required = false) List<String> services) {
+        Set<String> serviceIds = new LinkedHashSet<String>(services != null ? services : Collections.<String>emptyList());
+        serviceIds.remove("");
+        if (serviceIds.isEmpty() || serviceIds.size() > this.maxServices) {
+            return error(HttpStatus.BAD_REQUEST, "Between 1 and " + this.maxServices + " distinct service parameters are required");
+        }
+        Authentication authentication = this.ticketRegistrySupport.getAuthenticationFrom(tgtId);
+        if (authentication == null) {
+            return error(HttpStatus.NOT_FOUND, "TicketGrantingTicket could not be found");
+        }
+
+        Map<String, String> tickets = new LinkedHashMap<String, String>();
+        Map<String, String> errors = new LinkedHashMap<String, String>();
+        Timer.Context context = this.timer.time();
+        boolean batching = this.ticketRegistry instanceof PipelinedRedisTicketRegistry;
+        if (batching) {
+            RedisWriteBatch.begin();
+        }
+        try {
+            for (String serviceId : serviceIds) {
+                try {
+                    Service service = this.webApplicationServiceFactory.createService(serviceId);
+                    AuthenticationResult authenticationResult = new DefaultAuthenticationResultBuilder()
+                            .collect(authentication)
+                            .build(this.principalElectionStrategy, service);
+                    ServiceTicket serviceTicket = this.centralAuthenticationService.grantServiceTicket(tgtId, service, authenticationResult);
+                    tickets.put(serviceId, serviceTicket.getId());
+                } catch (InvalidTicketException e) {
+                    //TGT在批次中途过期，剩下的service不再签发
+                    errors.put(serviceId, e.getCode());
+                    break;
+                } catch (AbstractTicketException e) {
+                    errors.put(serviceId, e.getCode());
+                } catch (UnauthorizedServiceException e) {
+                    errors.put(serviceId, e.getMessage());
+                } catch (AuthenticationException e) {
+                    errors.put(serviceId, e.getClass().getSimpleName());
+                }
+            }
+        } finally {
+            //返回的ST必须已经写入redis
+            if (batching) {
+                ((PipelinedRedisTicketRegistry) this.ticketRegistry).flush(RedisWriteBatch.end());
+            }
+            context.stop();
+        }
+        this.logger.debug("Granted [{}] of [{}] service tickets for [{}]", tickets.size(), serviceIds.size(), tgtId);
+
+        Map<String, Object> body = new LinkedHashMap<String, Object>();
+        body.put("tickets", tickets);
+        body.put("errors", errors);
+        return new ResponseEntity<Map<String, Object>>(body, HttpStatus.OK);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        return new ResponseEntity<Map<String, Object>>(Collections.<String, Object>singletonMap("error", message), status);
+    }
+}
@@ -0,0 +1,35 @@
+package com.jielin.ygjcasserver.rest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjRestBatchProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 09:10:00
+ * @description: rest批量签发ST的配置，前缀 ygj.rest.batch
+ */
+@ConfigurationProperties(prefix = "ygj.rest.batch")
+public class YgjRestBatchProperties {
+    private boolean enabled = true;
+    /**
+     * 一次请求最多的service个数（去重后）
+     */
+    private int maxServices = 50;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxServices() {
+        return maxServices;
+    }
+
+    public void setMaxServices(int maxServices) {
+        this.maxServices = maxServices;
+    }
+}
@@ -0,0 +1,83 @@
+package com.jielin.ygjcasserver.services;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.jielin.ygjcasserver.metrics.LatencyTimer;
+import org.apereo.cas.services.AbstractServicesManager;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.ServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * @ClassName: IndexedServicesManager.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 14:50:00
+ * @description: 用RegisteredServiceIndex查找服务的ServicesManager，替代DefaultServicesManager逐个匹配所有服务的正则
+ *
+ * load（启动、json目录监听、定时重新加载）、save、delete之后重建索引，新索引构建完成后一次替换，查找中的请求继续使用旧索引。
+ * 候选只返回索引匹配到的一个服务，AbstractServicesManager仍会用该服务自身的正则确认一次并检查过期策略。
+ * 按service查找最终都走findServiceBy(String)，耗时记入cas.services.find。
+ */
+public class IndexedServicesManager extends AbstractServicesManager {
+    private static final long serialVersionUID = 2947316730165418829L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexedServicesManager.class);
+    private final long resultCacheSize;
+    private final transient Timer lookupLatency;
+    private volatile transient RegisteredServiceIndex index;
+
+    public IndexedServicesManager(ServiceRegistry serviceRegistry, ApplicationEventPublisher eventPublisher, long resultCacheSize,
+                                  MetricRegistry metricRegistry) {
+        super(serviceRegistry, eventPublisher);
+        this.resultCacheSize = resultCacheSize;
+        this.lookupLatency = LatencyTimer.register(metricRegistry, "cas.services.find");
+        this.index = RegisteredServiceIndex.build(Collections.<RegisteredService>emptyList(), null, resultCacheSize);
+    }
+
+    @Override
+    public RegisteredService findServiceBy(String serviceId) {
+        Timer.Context context = this.lookupLatency.time();
+        try {
+            return super.findServiceBy(serviceId);
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Override
+    protected Collection<RegisteredService> getCandidateServicesToMatch(String serviceId) {
+        RegisteredService service = this.index.match(serviceId);
+        return service != null ? Collections.singletonList(service) : Collections.<RegisteredService>emptyList();
+    }
+
+    @Override
+    protected void loadInternal() {
+        this.rebuild();
+    }
+
+    @Override
+    protected void saveInternal(RegisteredService service) {
+        this.rebuild();
+    }
+
+    @Override
+    protected void deleteInternal(RegisteredService service) {
+        this.rebuild();
+    }
+
+    /**
+     * 串行重建，避免较早开始的重建覆盖较新的结果
+     */
+    private synchronized void rebuild() {
+        long start = System.nanoTime();
+        RegisteredServiceIndex rebuilt = RegisteredServiceIndex.build(this.getAllServices(), this.index, this.resultCacheSize);
+        this.index = rebuilt;
+        LOGGER.info("Indexed [{}] service(s) under [{}] host(s), [{}] unindexed, in {} ms", rebuilt.size(), rebuilt.hostCount(),
+                rebuilt.unindexedCount(), (System.nanoTime() - start) / 1000000L);
+    }
+}
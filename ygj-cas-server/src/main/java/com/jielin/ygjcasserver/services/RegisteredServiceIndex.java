@@ -0,0 +1,274 @@
+package com.jielin.ygjcasserver.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.util.RegexUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @ClassName: RegisteredServiceIndex.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 14:20:00
+ * @description: 按host和路径前缀分桶的服务索引，创建后不再修改，服务变化时整体重建
+ *
+ * RegexRegisteredService的serviceId形如^https://app.example.com/app1/.*时，从正则开头的字面量中取出host和路径前缀；
+ * host中带通配符或不是RegexRegisteredService的服务不分桶，对所有地址都参与匹配。
+ * 查找时只依次匹配同一host下路径前缀相符的服务和不分桶的服务，顺序与cas相同（evaluationOrder、name、serviceId、id）。
+ * 正则用RegexUtils编译（忽略大小写，与cas一致），按serviceId在各版本索引间复用；最近的匹配结果缓存在本索引中，重建即失效。
+ */
+public class RegisteredServiceIndex {
+    /**
+     * 正则开头的协议部分：^https://、^(https|http)://、^https?://、^(?:https|imaps)://，斜杠可以转义
+     */
+    private static final Pattern SCHEME = Pattern.compile("^\\^?(?:\\(\\?:|\\()?[a-zA-Z0-9+|?\\-]*\\)?:(?:\\\\?/){2}");
+    private static final String META = ".[]{}()*+?^$|\\";
+    private static final Object NO_MATCH = new Object();
+    private final Map<String, Entry[]> hosts;
+    private final Entry[] unindexed;
+    private final Map<String, Pattern> patterns;
+    private final Cache<String, Object> results;
+    private final int size;
+
+    private RegisteredServiceIndex(Map<String, Entry[]> hosts, Entry[] unindexed, Map<String, Pattern> patterns, long resultCacheSize, int size) {
+        this.hosts = hosts;
+        this.unindexed = unindexed;
+        this.patterns = patterns;
+        this.results = resultCacheSize > 0 ? Caffeine.newBuilder().maximumSize(resultCacheSize).build() : null;
+        this.size = size;
+    }
+
+    /**
+     * @param services 已按cas的顺序排好
+     * @param previous 上一版本的索引，复用其中已编译的正则，可以为null
+     */
+    public static RegisteredServiceIndex build(Collection<RegisteredService> services, RegisteredServiceIndex previous, long resultCacheSize) {
+        Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+        Map<String, List<Entry>> buckets = new HashMap<String, List<Entry>>();
+        List<Entry> unindexed = new ArrayList<Entry>();
+        int order = 0;
+        for (RegisteredService service : services) {
+            String serviceId = service.getServiceId();
+            Pattern pattern = null;
+            if (service instanceof RegexRegisteredService && serviceId != null) {
+                pattern = previous != null ? previous.patterns.get(serviceId) : null;
+                if (pattern == null) {
+                    pattern = RegexUtils.createPattern(serviceId);
+                }
+                patterns.put(serviceId, pattern);
+            }
+            String[] key = pattern != null ? keyOf(serviceId) : null;
+            Entry entry = new Entry(order++, service, pattern, key != null ? key[1] : "");
+            if (key != null) {
+                List<Entry> bucket = buckets.get(key[0]);
+                if (bucket == null) {
+                    bucket = new ArrayList<Entry>();
+                    buckets.put(key[0], bucket);
+                }
+                bucket.add(entry);
+            } else {
+                unindexed.add(entry);
+            }
+        }
+
+        //每个host的候选为该host的服务加上不分桶的服务，合并后保持原有顺序
+        Map<String, Entry[]> hosts = new HashMap<String, Entry[]>(buckets.size() * 2);
+        for (Map.Entry<String, List<Entry>> bucket : buckets.entrySet()) {
+            List<Entry> candidates = new ArrayList<Entry>(bucket.getValue().size() + unindexed.size());
+            candidates.addAll(bucket.getValue());
+            candidates.addAll(unindexed);
+            candidates.sort((a, b) -> Integer.compare(a.order, b.order));
+            hosts.put(bucket.getKey(), candidates.toArray(new Entry[0]));
+        }
+        return new RegisteredServiceIndex(hosts, unindexed.toArray(new Entry[0]), Collections.unmodifiableMap(patterns), resultCacheSize, order);
+    }
+
+    /**
+     * 返回第一个匹配的服务，没有时返回null；不检查过期策略，由ServicesManager处理
+     */
+    public RegisteredService match(String serviceId) {
+        if (serviceId == null) {
+            return null;
+        }
+        if (this.results == null) {
+            return this.find(serviceId);
+        }
+        Object result = this.results.get(serviceId, id -> {
+            RegisteredService service = this.find(id);
+            return service != null ? service : NO_MATCH;
+        });
+        return result != NO_MATCH ? (RegisteredService) result : null;
+    }
+
+    private RegisteredService find(String serviceId) {
+        String[] url = parseUrl(serviceId);
+        Entry[] candidates = url != null ? this.hosts.get(url[0]) : null;
+        if (candidates == null) {
+            candidates = this.unindexed;
+        }
+        String path = url != null ? url[1] : null;
+        for (Entry entry : candidates) {
+            if (!entry.pathPrefix.isEmpty() && (path == null || !path.startsWith(entry.pathPrefix))) {
+                continue;
+            }
+            if (entry.pattern != null ? entry.pattern.matcher(serviceId).matches() : entry.service.matches(serviceId)) {
+                return entry.service;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int hostCount() {
+        return this.hosts.size();
+    }
+
+    public int unindexedCount() {
+        return this.unindexed.length;
+    }
+
+    /**
+     * 从serviceId正则中取出小写的host和路径前缀，host不是确定的字面量时返回null
+     */
+    static String[] keyOf(String regex) {
+        Matcher scheme = SCHEME.matcher(regex);
+        if (!scheme.find() || hasTopLevelAlternation(regex)) {
+            return null;
+        }
+        StringBuilder literal = new StringBuilder();
+        int end = literalPrefix(regex, scheme.end(), literal);
+        String rest = regex.substring(end);
+        int hostEnd = indexOfAny(literal, "/:");
+        boolean complete = hostEnd >= 0 || rest.isEmpty() || rest.startsWith("$")
+                || rest.startsWith("(:") || rest.startsWith("(?::") || rest.startsWith("(/") || rest.startsWith("(?:/");
+        String host = hostEnd >= 0 ? literal.substring(0, hostEnd) : literal.toString();
+        if (!complete || host.isEmpty()) {
+            return null;
+        }
+        int pathStart = literal.indexOf("/", host.length());
+        String path = pathStart >= 0 ? literal.substring(pathStart) : "";
+        //查找时的路径不含查询参数
+        int query = indexOfAny(path, "?#");
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return new String[]{host.toLowerCase(Locale.ROOT), path.toLowerCase(Locale.ROOT)};
+    }
+
+    /**
+     * 最外层有|时正则可以匹配其他host，如^https://a\.com/.*|^https://b\.com/.*
+     */
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取from开始的字面量，转义的符号按字面处理；后面跟?、*、{时最后一个字符不确定，不计入。返回停止的位置
+     */
+    private static int literalPrefix(String regex, int from, StringBuilder literal) {
+        int i = from;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return i;
+                }
+                literal.append(regex.charAt(i + 1));
+                i += 2;
+            } else if (META.indexOf(c) >= 0) {
+                if ((c == '?' || c == '*' || c == '{') && literal.length() > 0) {
+                    literal.setLength(literal.length() - 1);
+                }
+                return i;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * 解析访问地址的小写host和路径（不含查询参数），不是scheme://host形式时返回null
+     */
+    static String[] parseUrl(String serviceId) {
+        int separator = serviceId.indexOf("://");
+        if (separator <= 0) {
+            return null;
+        }
+        int start = separator + 3;
+        int authorityEnd = start;
+        while (authorityEnd < serviceId.length() && "/?#".indexOf(serviceId.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        int hostStart = serviceId.lastIndexOf('@', authorityEnd - 1) + 1;
+        if (hostStart < start) {
+            hostStart = start;
+        }
+        int hostEnd = serviceId.indexOf(':', hostStart);
+        if (hostEnd < 0 || hostEnd > authorityEnd) {
+            hostEnd = authorityEnd;
+        }
+        int pathEnd = authorityEnd;
+        while (pathEnd < serviceId.length() && "?#".indexOf(serviceId.charAt(pathEnd)) < 0) {
+            pathEnd++;
+        }
+        return new String[]{serviceId.substring(hostStart, hostEnd).toLowerCase(Locale.ROOT),
+                serviceId.substring(authorityEnd, pathEnd).toLowerCase(Locale.ROOT)};
+    }
+
+    private static int indexOfAny(CharSequence value, String chars) {
+        for (int i = 0; i < value.length(); i++) {
+            if (chars.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        private final int order;
+        private final RegisteredService service;
+        private final Pattern pattern;
+        private final String pathPrefix;
+
+        private Entry(int order, RegisteredService service, Pattern pattern, String pathPrefix) {
+            this.order = order;
+            this.service = service;
+            this.pattern = pattern;
+            this.pathPrefix = pathPrefix;
+        }
+    }
+}
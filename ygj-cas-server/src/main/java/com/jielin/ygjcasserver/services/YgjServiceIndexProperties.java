@@ -0,0 +1,37 @@
+package com.jielin.ygjcasserver.services;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: YgjServiceIndexProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 15:00:00
+ * @description: 服务索引配置，前缀 ygj.services.index
+ *
+ * 启用后cas.serviceRegistry.managementType不再生效，按DEFAULT的顺序匹配。
+ */
+@ConfigurationProperties(prefix = "ygj.services.index")
+public class YgjServiceIndexProperties {
+    private boolean enabled = true;
+    /**
+     * 缓存的最近匹配结果个数（按完整的service地址），0表示不缓存；服务重新加载后清空
+     */
+    private long resultCacheSize = 10000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    public void setResultCacheSize(long resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+}
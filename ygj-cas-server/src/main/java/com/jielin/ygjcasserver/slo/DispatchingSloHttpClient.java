@@ -0,0 +1,54 @@
+package com.jielin.ygjcasserver.slo;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+
+import java.net.URL;
+
+/**
+ * @ClassName: DispatchingSloHttpClient.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 14:30:00
+ * @description: 单点登出使用的HttpClient，异步的登出通知交给SloDispatcher排队发送
+ *
+ * cas默认的SimpleHttpClient每条异步通知都提交一个任务、新建一次请求；
+ * 同步通知和其他方法仍由原来的noRedirectHttpClient处理。
+ */
+public class DispatchingSloHttpClient implements HttpClient {
+    private final HttpClient delegate;
+    private final SloDispatcher dispatcher;
+
+    public DispatchingSloHttpClient(HttpClient delegate, SloDispatcher dispatcher) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public boolean sendMessageToEndPoint(HttpMessage message) {
+        if (!message.isAsynchronous()) {
+            return this.delegate.sendMessageToEndPoint(message);
+        }
+        return this.dispatcher.submit(message.getUrl(), message.getMessage(), message.getContentType());
+    }
+
+    @Override
+    public HttpMessage sendMessageToEndPoint(URL url) {
+        return this.delegate.sendMessageToEndPoint(url);
+    }
+
+    @Override
+    public boolean isValidEndPoint(String url) {
+        return this.delegate.isValidEndPoint(url);
+    }
+
+    @Override
+    public boolean isValidEndPoint(URL url) {
+        return this.delegate.isValidEndPoint(url);
+    }
+
+    @Override
+    public org.apache.http.client.HttpClient getWrappedHttpClient() {
+        return this.delegate.getWrappedHttpClient();
+    }
+}
@@ -0,0 +1,122 @@
+package com.jielin.ygjcasserver.slo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @ClassName: SloDispatchProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 14:00:00
+ * @description: 单点登出后台通知的配置，前缀 ygj.slo.dispatch
+ */
+@ConfigurationProperties(prefix = "ygj.slo.dispatch")
+public class SloDispatchProperties {
+    /**
+     * 关闭后使用cas默认的SimpleHttpClient逐个发送
+     */
+    private boolean enabled = true;
+    private int threads = 8;
+    /**
+     * 每个客户端主机的待发送队列长度，满了之后该主机的通知直接失败
+     */
+    private int queueCapacityPerHost = 1000;
+    private int maxConnections = 100;
+    /**
+     * 每个客户端主机同时发送的连接数
+     */
+    private int maxConnectionsPerHost = 4;
+    private int connectTimeout = 3000;
+    private int readTimeout = 5000;
+    private int idleTimeout = 30000;
+    private int maxAttempts = 3;
+    private long initialBackoff = 1000L;
+    private double backoffMultiplier = 2.0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacityPerHost() {
+        return queueCapacityPerHost;
+    }
+
+    public void setQueueCapacityPerHost(int queueCapacityPerHost) {
+        this.queueCapacityPerHost = queueCapacityPerHost;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+}
@@ -0,0 +1,268 @@
+package com.jielin.ygjcasserver.slo;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.jielin.ygjcasserver.metrics.LatencyTimer;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @ClassName: SloDispatcher.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月20日 14:10:00
+ * @description: 单点登出后台通知的发送器
+ *
+ * 每个客户端主机一个有界队列，最多maxConnectionsPerHost个线程同时发送，连接池保持长连接；
+ * 队列中已有同一地址、同一SessionIndex（service ticket）的通知时直接合并，每条logoutRequest的ID都不同，不能按内容比较；发送失败按指数退避重试，超过maxAttempts后放弃。
+ * 线程总数固定，批量登出时只会排队，不会不断创建线程。
+ */
+public class SloDispatcher implements Closeable {
+    private static final int DRAIN_BATCH = 32;
+    private static final String LOGOUT_REQUEST_PREFIX = "logoutRequest=";
+    private static final Pattern SESSION_INDEX = Pattern.compile("<(?:\\w+:)?SessionIndex>([^<]+)</");
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final SloDispatchProperties properties;
+    private final CloseableHttpClient httpClient;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final ConcurrentHashMap<String, HostQueue> hosts = new ConcurrentHashMap<String, HostQueue>();
+    private final MetricRegistry metricRegistry;
+    private final Timer latency;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter dropped;
+    private final Counter coalesced;
+
+    public SloDispatcher(SloDispatchProperties properties, LayeredConnectionSocketFactory sslSocketFactory, MetricRegistry metricRegistry) {
+        this.properties = properties;
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build());
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerHost());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(properties.getConnectTimeout())
+                        .setSocketTimeout(properties.getReadTimeout())
+                        .setConnectionRequestTimeout(properties.getReadTimeout())
+                        .setRedirectsEnabled(false)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout(), TimeUnit.MILLISECONDS)
+                .disableAutomaticRetries()
+                .build();
+        this.workers = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), daemonThreads("cas-slo-dispatch-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("cas-slo-retry-"));
+
+        this.metricRegistry = metricRegistry;
+        this.latency = LatencyTimer.register(metricRegistry, "cas.slo.dispatch.latency");
+        this.sent = metricRegistry.counter("cas.slo.dispatch.sent");
+        this.failed = metricRegistry.counter("cas.slo.dispatch.failed");
+        this.retried = metricRegistry.counter("cas.slo.dispatch.retried");
+        this.dropped = metricRegistry.counter("cas.slo.dispatch.dropped");
+        this.coalesced = metricRegistry.counter("cas.slo.dispatch.coalesced");
+        metricRegistry.gauge("cas.slo.dispatch.queued", () -> (Gauge<Integer>) this::queued);
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 放入队列，返回false表示该主机队列已满
+     */
+    public boolean submit(URL url, String message, String contentType) {
+        return this.enqueue(new Notification(url, message, contentType));
+    }
+
+    private boolean enqueue(Notification notification) {
+        HostQueue queue = this.hosts.computeIfAbsent(hostKey(notification.url), HostQueue::new);
+        if (!queue.pending.add(notification.key)) {
+            this.coalesced.inc();
+            return true;
+        }
+        if (!queue.queue.offer(notification)) {
+            queue.pending.remove(notification.key);
+            this.dropped.inc();
+            this.logger.warn("Logout queue for [{}] is full, dropping notification", queue.host);
+            return false;
+        }
+        queue.schedule();
+        return true;
+    }
+
+    private void send(Notification notification) {
+        HttpPost post = new HttpPost(notification.url.toExternalForm());
+        post.setEntity(new StringEntity(notification.message, ContentType.create(notification.contentType, StandardCharsets.UTF_8)));
+        Timer.Context context = this.latency.time();
+        boolean success;
+        try (CloseableHttpResponse response = this.httpClient.execute(post)) {
+            int status = response.getStatusLine().getStatusCode();
+            //读完响应体，连接才能放回连接池
+            EntityUtils.consumeQuietly(response.getEntity());
+            success = status >= 200 && status < 300;
+            if (!success) {
+                this.logger.debug("Logout notification to [{}] returned status {}", notification.url, status);
+            }
+        } catch (IOException e) {
+            this.logger.debug("Logout notification to [{}] failed: {}", notification.url, e.getMessage());
+            success = false;
+        } finally {
+            context.stop();
+        }
+
+        if (success) {
+            this.sent.inc();
+        } else if (notification.attempts < this.properties.getMaxAttempts()) {
+            long delay = (long) (this.properties.getInitialBackoff() * Math.pow(this.properties.getBackoffMultiplier(), notification.attempts - 1));
+            notification.attempts++;
+            this.retried.inc();
+            this.retryScheduler.schedule(() -> this.enqueue(notification), delay, TimeUnit.MILLISECONDS);
+        } else {
+            this.failed.inc();
+            this.logger.warn("Giving up logout notification to [{}] after {} attempts", notification.url, notification.attempts);
+        }
+    }
+
+    private static String hostKey(URL url) {
+        return url.getProtocol() + "://" + url.getHost() + ':' + (url.getPort() < 0 ? url.getDefaultPort() : url.getPort());
+    }
+
+    public int queued() {
+        int queued = 0;
+        for (HostQueue queue : this.hosts.values()) {
+            queued += queue.queue.size();
+        }
+        return queued;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.retryScheduler.shutdownNow();
+        this.workers.shutdown();
+        try {
+            if (!this.workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.httpClient.close();
+    }
+
+    private final class HostQueue {
+        private final String host;
+        private final ArrayBlockingQueue<Notification> queue = new ArrayBlockingQueue<Notification>(properties.getQueueCapacityPerHost());
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger drainers = new AtomicInteger();
+
+        private HostQueue(String host) {
+            this.host = host;
+            metricRegistry.gauge(MetricRegistry.name("cas.slo.dispatch.queue", host), () -> (Gauge<Integer>) this.queue::size);
+        }
+
+        private void schedule() {
+            for (;;) {
+                int current = this.drainers.get();
+                if (current >= properties.getMaxConnectionsPerHost() || this.queue.isEmpty()) {
+                    return;
+                }
+                if (this.drainers.compareAndSet(current, current + 1)) {
+                    workers.execute(this::drain);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 每次最多发送DRAIN_BATCH个后让出线程，避免一个主机占满所有线程
+         */
+        private void drain() {
+            try {
+                Notification notification;
+                for (int i = 0; i < DRAIN_BATCH && (notification = this.queue.poll()) != null; i++) {
+                    this.pending.remove(notification.key);
+                    send(notification);
+                }
+            } finally {
+                this.drainers.decrementAndGet();
+                this.schedule();
+            }
+        }
+    }
+
+    private static final class Notification {
+        private final URL url;
+        private final String message;
+        private final String contentType;
+        private final String key;
+        private int attempts = 1;
+
+        private Notification(URL url, String message, String contentType) {
+            this.url = url;
+            this.message = message;
+            this.contentType = contentType;
+            String sessionIndex = sessionIndex(message);
+            this.key = url.toExternalForm() + '\n' + (sessionIndex != null ? sessionIndex : message);
+        }
+
+        /**
+         * cas的后台通知为 logoutRequest=url编码的xml，取不到时按整条内容合并
+         */
+        private static String sessionIndex(String message) {
+            if (message == null || !message.startsWith(LOGOUT_REQUEST_PREFIX)) {
+                return null;
+            }
+            try {
+                Matcher matcher = SESSION_INDEX.matcher(URLDecoder.decode(message.substring(LOGOUT_REQUEST_PREFIX.length()), "UTF-8"));
+                return matcher.find() ? matcher.group(1) : null;
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
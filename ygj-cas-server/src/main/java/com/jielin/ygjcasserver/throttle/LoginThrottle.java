@@ -0,0 +1,93 @@
+package com.jielin.ygjcasserver.throttle;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Locale;
+
+/**
+ * @ClassName: LoginThrottle.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 10:00:00
+ * @description: 按ip、用户名+ip统计登录失败次数，任一维度在窗口内达到阈值即限流
+ *
+ * 用户名默认与ip组合计数，只限制同一来源反复猜测一个账号；只按用户名计数（globalUsernameThreshold）需要单独开启，
+ * 任何人从多个ip提交错误密码都能锁定该账号，有被恶意锁定的风险。
+ * 只统计认证失败，被限流拒绝的请求不再计数，窗口过后自动解除；用户名不区分大小写（与mysql的比较规则一致）。
+ * 指标：cas.authn.throttle.failures、cas.authn.throttle.rejected，以及当前跟踪的ip数、用户名+ip数、用户名数。
+ */
+public class LoginThrottle {
+    private final SlidingWindowCounter ipFailures;
+    private final SlidingWindowCounter usernameFailures;
+    private final SlidingWindowCounter globalUsernameFailures;
+    private final int ipThreshold;
+    private final int usernameThreshold;
+    private final int globalUsernameThreshold;
+    private final Meter failures;
+    private final Meter rejected;
+
+    public LoginThrottle(long windowMillis, int buckets, long maximumKeys, int ipThreshold, int usernameThreshold,
+                         int globalUsernameThreshold, MetricRegistry metricRegistry) {
+        this.ipFailures = new SlidingWindowCounter(windowMillis, buckets, maximumKeys);
+        this.usernameFailures = new SlidingWindowCounter(windowMillis, buckets, maximumKeys);
+        this.globalUsernameFailures = new SlidingWindowCounter(windowMillis, buckets, maximumKeys);
+        this.ipThreshold = ipThreshold;
+        this.usernameThreshold = usernameThreshold;
+        this.globalUsernameThreshold = globalUsernameThreshold;
+        this.failures = metricRegistry.meter("cas.authn.throttle.failures");
+        this.rejected = metricRegistry.meter("cas.authn.throttle.rejected");
+        metricRegistry.register("cas.authn.throttle.tracked-ips", (Gauge<Long>) this.ipFailures::size);
+        metricRegistry.register("cas.authn.throttle.tracked-username-ips", (Gauge<Long>) this.usernameFailures::size);
+        metricRegistry.register("cas.authn.throttle.tracked-usernames", (Gauge<Long>) this.globalUsernameFailures::size);
+    }
+
+    /**
+     * ip或用户名为空时不按该维度判断；返回true时同时计入rejected
+     */
+    public boolean isThrottled(String ip, String username) {
+        String key = normalize(username);
+        boolean throttled = exceeds(this.ipFailures, ip, this.ipThreshold)
+                || exceeds(this.usernameFailures, usernameIpKey(key, ip), this.usernameThreshold)
+                || exceeds(this.globalUsernameFailures, key, this.globalUsernameThreshold);
+        if (throttled) {
+            this.rejected.mark();
+        }
+        return throttled;
+    }
+
+    public void recordFailure(String ip, String username) {
+        this.failures.mark();
+        if (ip != null && this.ipThreshold > 0) {
+            this.ipFailures.increment(ip);
+        }
+        String key = normalize(username);
+        String usernameIpKey = usernameIpKey(key, ip);
+        if (usernameIpKey != null && this.usernameThreshold > 0) {
+            this.usernameFailures.increment(usernameIpKey);
+        }
+        if (key != null && this.globalUsernameThreshold > 0) {
+            this.globalUsernameFailures.increment(key);
+        }
+    }
+
+    /**
+     * 请求头中不会有换行，ip和用户名拼接后不会混淆
+     */
+    private static String usernameIpKey(String username, String ip) {
+        return username != null && ip != null ? ip + '\n' + username : null;
+    }
+
+    private static boolean exceeds(SlidingWindowCounter counter, String key, int threshold) {
+        return key != null && threshold > 0 && counter.count(key) >= threshold;
+    }
+
+    private static String normalize(String username) {
+        if (username == null) {
+            return null;
+        }
+        String key = username.trim();
+        return key.isEmpty() ? null : key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,60 @@
+package com.jielin.ygjcasserver.throttle;
+
+import org.apereo.cas.authentication.Credential;
+import org.apereo.cas.authentication.PreventedException;
+import org.apereo.cas.support.events.authentication.CasAuthenticationTransactionFailureEvent;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * @ClassName: LoginThrottleFailureListener.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 10:30:00
+ * @description: 认证失败时按ip和用户名计数，webflow和rest的认证失败都会发布CasAuthenticationTransactionFailureEvent
+ *
+ * 所有handler都是因为数据库不可用等原因（PreventedException）失败时不计数，不是用户的问题。
+ */
+public class LoginThrottleFailureListener implements ApplicationListener<CasAuthenticationTransactionFailureEvent> {
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottleFailureListener(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    public void onApplicationEvent(CasAuthenticationTransactionFailureEvent event) {
+        if (!event.getFailures().isEmpty() && allPrevented(event)) {
+            return;
+        }
+        Credential credential = event.getCredential();
+        this.loginThrottle.recordFailure(clientIp(), credential != null ? credential.getId() : null);
+    }
+
+    private static boolean allPrevented(CasAuthenticationTransactionFailureEvent event) {
+        for (Throwable failure : event.getFailures().values()) {
+            if (!(failure instanceof PreventedException)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 事件在认证的请求线程中同步发布，优先取LoginThrottleFilter解析的ip，与检查时一致
+     */
+    private static String clientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object ip = attributes.getAttribute(LoginThrottleFilter.CLIENT_IP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (ip != null) {
+                return ip.toString();
+            }
+        }
+        ClientInfo clientInfo = ClientInfoHolder.getClientInfo();
+        return clientInfo != null ? clientInfo.getClientIpAddress() : null;
+    }
+}
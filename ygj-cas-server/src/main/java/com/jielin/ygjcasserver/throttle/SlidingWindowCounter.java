@@ -0,0 +1,89 @@
+package com.jielin.ygjcasserver.throttle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @ClassName: SlidingWindowCounter.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 09:40:00
+ * @description: 按key计数的滑动窗口，窗口分为buckets个桶，统计当前桶和之前buckets-1个桶的次数之和
+ *
+ * 每个桶是一个long，高位为桶的序号（时间/桶宽），低COUNT_BITS位为次数；计数和换桶都用CAS完成，不加锁。
+ * key放在Caffeine中，最多maximumKeys个，一个窗口内没有访问的key自动过期，超过上限时按访问频率淘汰。
+ */
+public class SlidingWindowCounter {
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private final int buckets;
+    private final long bucketMillis;
+    private final Cache<String, AtomicLongArray> windows;
+
+    public SlidingWindowCounter(long windowMillis, int buckets, long maximumKeys) {
+        if (buckets < 1 || windowMillis < buckets) {
+            throw new IllegalArgumentException("windowMillis must not be less than buckets (>= 1)");
+        }
+        this.buckets = buckets;
+        this.bucketMillis = windowMillis / buckets;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(windowMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 计数加一，返回加一后窗口内的次数
+     */
+    public long increment(String key) {
+        AtomicLongArray window = this.windows.get(key, k -> new AtomicLongArray(this.buckets));
+        long epoch = this.currentEpoch();
+        int slot = (int) (epoch % this.buckets);
+        while (true) {
+            long value = window.get(slot);
+            long next;
+            if (value >>> COUNT_BITS != epoch) {
+                //桶中是上一轮的计数，直接换成本轮的1
+                next = (epoch << COUNT_BITS) | 1L;
+            } else if ((value & COUNT_MASK) == COUNT_MASK) {
+                break;
+            } else {
+                next = value + 1;
+            }
+            if (window.compareAndSet(slot, value, next)) {
+                break;
+            }
+        }
+        return this.sum(window, epoch);
+    }
+
+    /**
+     * 窗口内的次数，key不存在时返回0
+     */
+    public long count(String key) {
+        AtomicLongArray window = this.windows.getIfPresent(key);
+        return window != null ? this.sum(window, this.currentEpoch()) : 0L;
+    }
+
+    public long size() {
+        return this.windows.estimatedSize();
+    }
+
+    private long sum(AtomicLongArray window, long epoch) {
+        long total = 0L;
+        for (int i = 0; i < this.buckets; i++) {
+            long value = window.get(i);
+            if (epoch - (value >>> COUNT_BITS) < this.buckets) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / this.bucketMillis;
+    }
+}
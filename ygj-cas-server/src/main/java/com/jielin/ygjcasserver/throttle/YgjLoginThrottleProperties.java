@@ -0,0 +1,129 @@
+package com.jielin.ygjcasserver.throttle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName: YgjLoginThrottleProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月24日 09:50:00
+ * @description: 登录限流配置，前缀 ygj.authn.throttle
+ *
+ * 启用后不要再配置cas.authn.throttle.failure.*，否则同一次失败会被两边分别统计。
+ */
+@ConfigurationProperties(prefix = "ygj.authn.throttle")
+public class YgjLoginThrottleProperties {
+    private boolean enabled = true;
+    /**
+     * 滑动窗口的毫秒数和分桶个数，窗口按桶前进，实际统计的时长在window*(buckets-1)/buckets到window之间
+     */
+    private long window = 300000L;
+    private int buckets = 10;
+    /**
+     * 窗口内同一个ip、同一个ip上同一个用户名的失败次数达到该值后，后续提交在认证前直接拒绝，小于等于0时不按该维度限制
+     */
+    private int ipThreshold = 20;
+    private int usernameThreshold = 10;
+    /**
+     * 不区分ip，同一个用户名的失败次数达到该值后拒绝，默认0不启用。
+     * 启用后任何人从多个ip提交错误密码都能锁定该账号，只在能接受恶意锁定风险时配置，且应明显大于usernameThreshold
+     */
+    private int globalUsernameThreshold;
+    /**
+     * ip、用户名+ip、用户名各自最多跟踪的key个数
+     */
+    private long maximumKeys = 100000L;
+    private String usernameParameter = "username";
+    /**
+     * nginx等代理转发时取客户端ip的请求头，为空时用remoteAddr。
+     * 只能在cas前面是自己的代理、且代理会覆盖或追加该请求头时配置，否则客户端可以任意伪造ip
+     */
+    private String clientIpHeader;
+    /**
+     * 自己的代理地址，从请求头中从右往左跳过这些地址，取第一个不在其中的作为客户端ip；只有一层代理时不需要配置
+     */
+    private List<String> trustedProxies = new ArrayList<String>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public int getIpThreshold() {
+        return ipThreshold;
+    }
+
+    public void setIpThreshold(int ipThreshold) {
+        this.ipThreshold = ipThreshold;
+    }
+
+    public int getUsernameThreshold() {
+        return usernameThreshold;
+    }
+
+    public void setUsernameThreshold(int usernameThreshold) {
+        this.usernameThreshold = usernameThreshold;
+    }
+
+    public int getGlobalUsernameThreshold() {
+        return globalUsernameThreshold;
+    }
+
+    public void setGlobalUsernameThreshold(int globalUsernameThreshold) {
+        this.globalUsernameThreshold = globalUsernameThreshold;
+    }
+
+    public long getMaximumKeys() {
+        return maximumKeys;
+    }
+
+    public void setMaximumKeys(long maximumKeys) {
+        this.maximumKeys = maximumKeys;
+    }
+
+    public String getUsernameParameter() {
+        return usernameParameter;
+    }
+
+    public void setUsernameParameter(String usernameParameter) {
+        this.usernameParameter = usernameParameter;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public String getClientIpHeader() {
+        return clientIpHeader;
+    }
+
+    public void setClientIpHeader(String clientIpHeader) {
+        this.clientIpHeader = clientIpHeader;
+    }
+}
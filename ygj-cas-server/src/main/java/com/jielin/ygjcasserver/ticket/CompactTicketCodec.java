@@ -0,0 +1,883 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.ticket.Ticket;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/**
+ * @ClassName: CompactTicketCodec.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 14:30:00
+ * @description: 紧凑的二进制ticket格式，可选lz4压缩
+ *
+ * jdk序列化为对象图中的每个类写完整的类描述（类名、serialVersionUID、每个字段的名称和类型），
+ * 一个带认证信息和services的TGT大部分字节都是类描述。这里只写字段值：
+ * 字段按类层次、字段名排序后依次写入，常用类用KNOWN_CLASSES中的编号代替类名，字符串在同一个值内只写一次，整数用变长编码。
+ *
+ * 格式：MAGIC、VERSION、flags，flags带FLAG_LZ4时后面是原始长度和lz4压缩后的数据。
+ * 读取时以0xACED开头的值按jdk序列化解析，迁移期间redis中的旧数据仍然可以读取。
+ * 值中不写字段名，每个类第一次出现时写入字段布局的哈希（类层次中每个字段的类名、字段名、类型）；
+ * 读取方的布局不同（滚动升级期间cas的ticket类有变化）时解析失败，按ticket不存在处理，不会把值读到错误的字段中。
+ * principal的属性是忽略大小写的TreeMap，TreeMap/TreeSet在自然顺序和忽略大小写时按元素写入，比较器记为一个字节。
+ * 类中有writeObject/readResolve等自定义序列化方法时，该对象仍用jdk序列化嵌入。
+ * 值中按类名写入的类（OBJECT、ENUM、ARRAY的元素类型、CLASS）只能是KNOWN_CLASSES或allowedPackages中的类，
+ * 读取时不在其中的类名直接拒绝，不加载也不创建实例；写入时同样检查，配置遗漏在写入时就能发现。
+ */
+public class CompactTicketCodec implements TicketCodec {
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION = 2;
+    private static final int FLAG_LZ4 = 1;
+    private static final int HEADER_LENGTH = 3;
+
+    private static final int NULL = 0;
+    private static final int REF = 1;
+    private static final int STRING = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int DOUBLE = 7;
+    private static final int FLOAT = 8;
+    private static final int SHORT = 9;
+    private static final int BYTE = 10;
+    private static final int CHAR = 11;
+    private static final int ZONED_DATE_TIME = 12;
+    private static final int INSTANT = 13;
+    private static final int LOCAL_DATE_TIME = 14;
+    private static final int DATE = 15;
+    private static final int ENUM = 16;
+    private static final int CLASS = 17;
+    private static final int BYTES = 18;
+    private static final int ARRAY = 19;
+    private static final int COLLECTION = 20;
+    private static final int MAP = 21;
+    private static final int OBJECT = 22;
+    private static final int SERIALIZED = 23;
+    private static final int SORTED_MAP = 24;
+    private static final int SORTED_SET = 25;
+
+    /**
+     * 只能在末尾追加，改变已有编号的含义时需要提高VERSION
+     */
+    private static final String[] KNOWN_CLASSES = {
+            "org.apereo.cas.ticket.TicketGrantingTicketImpl",
+            "org.apereo.cas.ticket.ServiceTicketImpl",
+            "org.apereo.cas.ticket.ProxyGrantingTicketImpl",
+            "org.apereo.cas.ticket.ProxyTicketImpl",
+            "org.apereo.cas.ticket.registry.EncodedTicket",
+            "org.apereo.cas.authentication.DefaultAuthentication",
+            "org.apereo.cas.authentication.DefaultAuthenticationHandlerExecutionResult",
+            "org.apereo.cas.authentication.BasicCredentialMetaData",
+            "org.apereo.cas.authentication.principal.SimplePrincipal",
+            "org.apereo.cas.authentication.principal.SimpleWebApplicationServiceImpl",
+            "org.apereo.cas.validation.ValidationResponseType",
+            "org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy",
+            "org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy",
+            "org.apereo.cas.ticket.support.TimeoutExpirationPolicy",
+            "org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy",
+            "org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicy",
+            "org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicy",
+            "org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy",
+            "org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy$ServiceTicketExpirationPolicy",
+            "org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy$ProxyTicketExpirationPolicy",
+            "org.apereo.cas.authentication.UsernamePasswordCredential",
+            "org.apereo.cas.authentication.RememberMeUsernamePasswordCredential",
+            "java.lang.Object",
+            "java.lang.String",
+            "java.util.ArrayList",
+            "java.util.LinkedList",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.HashSet",
+            "java.util.LinkedHashSet",
+            "java.util.concurrent.ConcurrentHashMap",
+            "java.util.concurrent.CopyOnWriteArrayList"
+    };
+    private static final Map<String, Integer> KNOWN_CLASS_IDS = new HashMap<String, Integer>();
+    private static final AtomicReferenceArray<Class<?>> KNOWN_CLASS_CACHE = new AtomicReferenceArray<Class<?>>(KNOWN_CLASSES.length);
+
+    /**
+     * 按元素逐个写入的集合类型，其余java.*类型用jdk序列化
+     */
+    private static final List<Class<?>> PLAIN_CONTAINERS = Arrays.<Class<?>>asList(ArrayList.class, LinkedList.class, CopyOnWriteArrayList.class,
+            HashSet.class, LinkedHashSet.class, HashMap.class, LinkedHashMap.class, ConcurrentHashMap.class);
+
+    /**
+     * 默认允许的包：ticket、认证信息（含principal、service）和校验结果
+     */
+    static final List<String> DEFAULT_ALLOWED_PACKAGES = Arrays.asList("org.apereo.cas.ticket.", "org.apereo.cas.authentication.",
+            "org.apereo.cas.validation.");
+
+    private static final Objenesis OBJENESIS = new ObjenesisStd(true);
+    private static final ConcurrentHashMap<Class<?>, ClassInfo> CLASS_INFO = new ConcurrentHashMap<Class<?>, ClassInfo>();
+
+    static {
+        for (int i = 0; i < KNOWN_CLASSES.length; i++) {
+            KNOWN_CLASS_IDS.put(KNOWN_CLASSES[i], i);
+        }
+    }
+
+    private final boolean compress;
+    private final int compressThreshold;
+    private final String[] allowedPackages;
+
+    public CompactTicketCodec() {
+        this(false, 0);
+    }
+
+    public CompactTicketCodec(boolean compress, int compressThreshold) {
+        this(compress, compressThreshold, Collections.<String>emptyList());
+    }
+
+    /**
+     * @param compress          是否使用lz4压缩
+     * @param compressThreshold 编码后不小于该字节数才压缩，压缩后没有变小时按不压缩保存
+     * @param allowedPackages   DEFAULT_ALLOWED_PACKAGES之外允许的包名前缀，如自定义的principal、service类所在的包
+     */
+    public CompactTicketCodec(boolean compress, int compressThreshold, Collection<String> allowedPackages) {
+        this.compress = compress;
+        this.compressThreshold = compressThreshold;
+        Set<String> packages = new LinkedHashSet<String>(DEFAULT_ALLOWED_PACKAGES);
+        for (String allowedPackage : allowedPackages) {
+            if (allowedPackage != null && !allowedPackage.trim().isEmpty()) {
+                String name = allowedPackage.trim();
+                packages.add(name.endsWith(".") ? name : name + '.');
+            }
+        }
+        this.allowedPackages = packages.toArray(new String[0]);
+    }
+
+    @Override
+    public byte[] encode(Ticket ticket) {
+        Writer writer = new Writer();
+        writer.writeObject(ticket);
+        byte[] buffer = writer.buffer;
+        int length = writer.position - HEADER_LENGTH;
+
+        if (this.compress && length >= this.compressThreshold) {
+            byte[] compressed = new byte[HEADER_LENGTH + 5 + Lz4Compression.maxCompressedLength(length)];
+            int position = writeVarInt(compressed, HEADER_LENGTH, length);
+            position += Lz4Compression.compress(buffer, HEADER_LENGTH, length, compressed, position);
+            if (position < writer.position) {
+                writeHeader(compressed, FLAG_LZ4);
+                return Arrays.copyOf(compressed, position);
+            }
+        }
+        writeHeader(buffer, 0);
+        return Arrays.copyOf(buffer, writer.position);
+    }
+
+    @Override
+    public Ticket decode(byte[] value) {
+        if (JdkTicketCodec.isJdkStream(value)) {
+            return (Ticket) JdkTicketCodec.deserialize(value, 0, value.length);
+        }
+        if (value.length < HEADER_LENGTH || value[0] != MAGIC) {
+            throw new IllegalArgumentException("Unknown ticket format");
+        }
+        if (value[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact ticket version " + value[1]);
+        }
+        try {
+            Reader reader;
+            if ((value[2] & FLAG_LZ4) != 0) {
+                Reader header = new Reader(value, HEADER_LENGTH);
+                int length = header.readVarInt();
+                reader = new Reader(Lz4Compression.decompress(value, header.position, length), 0);
+            } else {
+                reader = new Reader(value, HEADER_LENGTH);
+            }
+            return (Ticket) reader.readObject();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException | ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to decode ticket", e);
+        }
+    }
+
+    private static void writeHeader(byte[] buffer, int flags) {
+        buffer[0] = MAGIC;
+        buffer[1] = VERSION;
+        buffer[2] = (byte) flags;
+    }
+
+    private static int writeVarInt(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static Class<?> knownClass(int id) throws ClassNotFoundException {
+        Class<?> type = KNOWN_CLASS_CACHE.get(id);
+        if (type == null) {
+            type = loadClass(KNOWN_CLASSES[id]);
+            KNOWN_CLASS_CACHE.set(id, type);
+        }
+        return type;
+    }
+
+    private static Class<?> loadClass(String name) throws ClassNotFoundException {
+        return Class.forName(name, false, CompactTicketCodec.class.getClassLoader());
+    }
+
+    /**
+     * 不在KNOWN_CLASSES和允许的包中时抛出IllegalArgumentException
+     */
+    private String checkAllowed(String name) {
+        if (KNOWN_CLASS_IDS.containsKey(name)) {
+            return name;
+        }
+        for (String allowedPackage : this.allowedPackages) {
+            if (name.startsWith(allowedPackage)) {
+                return name;
+            }
+        }
+        throw new IllegalArgumentException("Class " + name + " is not allowed in compact tickets");
+    }
+
+    private static ClassInfo classInfo(Class<?> type) {
+        ClassInfo info = CLASS_INFO.get(type);
+        if (info == null) {
+            info = new ClassInfo(type);
+            CLASS_INFO.putIfAbsent(type, info);
+        }
+        return info;
+    }
+
+    /**
+     * 每个类的写入方式和字段，首次用到时解析
+     */
+    private static final class ClassInfo {
+        private final int kind;
+        private final Field[] fields;
+        private final int layoutHash;
+        private final Constructor<?> constructor;
+        private final ObjectInstantiator<?> instantiator;
+
+        private ClassInfo(Class<?> type) {
+            Constructor<?> constructor = null;
+            ObjectInstantiator<?> instantiator = null;
+            Field[] fields = null;
+            if (PLAIN_CONTAINERS.contains(type)) {
+                this.kind = Map.class.isAssignableFrom(type) ? MAP : COLLECTION;
+                try {
+                    constructor = type.getConstructor();
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            } else if (type.getName().startsWith("java.") || type.getName().startsWith("javax.")
+                    || type.isArray() || hasCustomSerialization(type)) {
+                this.kind = SERIALIZED;
+            } else if (Serializable.class.isAssignableFrom(type)) {
+                this.kind = OBJECT;
+                fields = serializableFields(type);
+                instantiator = OBJENESIS.getInstantiatorOf(type);
+            } else {
+                throw new IllegalArgumentException(type.getName() + " is not serializable");
+            }
+            this.fields = fields;
+            this.layoutHash = fields != null ? layoutHash(fields) : 0;
+            this.constructor = constructor;
+            this.instantiator = instantiator;
+        }
+
+        private static boolean hasCustomSerialization(Class<?> type) {
+            if (Externalizable.class.isAssignableFrom(type)) {
+                return true;
+            }
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                if (declares(current, "writeObject", ObjectOutputStream.class) || declares(current, "readObject", ObjectInputStream.class)
+                        || declares(current, "writeReplace") || declares(current, "readResolve")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean declares(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        /**
+         * 父类的字段在前，同一个类中按字段名排序
+         */
+        private static Field[] serializableFields(Class<?> type) {
+            List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+            List<Field> fields = new ArrayList<Field>();
+            for (Class<?> current : hierarchy) {
+                List<Field> declared = new ArrayList<Field>();
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        field.setAccessible(true);
+                        declared.add(field);
+                    }
+                }
+                declared.sort(Comparator.comparing(Field::getName));
+                fields.addAll(declared);
+            }
+            return fields.toArray(new Field[0]);
+        }
+    }
+
+    /**
+     * 字段顺序与写入顺序相同，增删字段、改名、改类型都会改变哈希
+     */
+    private static int layoutHash(Field[] fields) {
+        StringBuilder layout = new StringBuilder();
+        for (Field field : fields) {
+            layout.append(field.getDeclaringClass().getName()).append('.').append(field.getName())
+                    .append(':').append(field.getType().getName()).append(';');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(layout.toString().getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private final class Writer {
+        private final IdentityHashMap<Object, Integer> references = new IdentityHashMap<Object, Integer>();
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<Class<?>, Integer> classes = new HashMap<Class<?>, Integer>();
+        private final Set<Class<?>> layouts = new HashSet<Class<?>>();
+        private int nextClassId = KNOWN_CLASSES.length;
+        private byte[] buffer = new byte[512];
+        private int position = HEADER_LENGTH;
+
+        private void ensureCapacity(int length) {
+            if (this.position + length > this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, this.position + length));
+            }
+        }
+
+        private void writeByte(int value) {
+            this.ensureCapacity(1);
+            this.buffer[this.position++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            this.ensureCapacity(5);
+            this.position = CompactTicketCodec.writeVarInt(this.buffer, this.position, value);
+        }
+
+        private void writeVarLong(long value) {
+            this.ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                this.buffer[this.position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.buffer[this.position++] = (byte) value;
+        }
+
+        private void writeSignedInt(int value) {
+            this.writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        private void writeSignedLong(long value) {
+            this.writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeFixedLong(long value) {
+            this.ensureCapacity(8);
+            for (int i = 56; i >= 0; i -= 8) {
+                this.buffer[this.position++] = (byte) (value >>> i);
+            }
+        }
+
+        private void writeBytes(byte[] bytes) {
+            this.writeVarInt(bytes.length);
+            this.ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+            this.position += bytes.length;
+        }
+
+        /**
+         * 0表示后面是新字符串，否则是已写字符串的序号+1
+         */
+        private void writeString(String value) {
+            Integer index = this.strings.get(value);
+            if (index != null) {
+                this.writeVarInt(index + 1);
+                return;
+            }
+            this.strings.put(value, this.strings.size());
+            this.writeVarInt(0);
+            this.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 0表示后面是类名，否则是类编号+1
+         */
+        private void writeClass(Class<?> type) {
+            Integer id = this.classes.get(type);
+            if (id == null) {
+                id = KNOWN_CLASS_IDS.get(type.getName());
+                if (id == null) {
+                    this.writeVarInt(0);
+                    this.writeString(checkAllowed(type.getName()));
+                    this.classes.put(type, this.nextClassId++);
+                    return;
+                }
+                this.classes.put(type, id);
+            }
+            this.writeVarInt(id + 1);
+        }
+
+        private void writeObject(Object value) {
+            if (value == null) {
+                this.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                this.writeByte(STRING);
+                this.writeString((String) value);
+            } else if (type == Integer.class) {
+                this.writeByte(INT);
+                this.writeSignedInt((Integer) value);
+            } else if (type == Long.class) {
+                this.writeByte(LONG);
+                this.writeSignedLong((Long) value);
+            } else if (type == Boolean.class) {
+                this.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                this.writeByte(DOUBLE);
+                this.writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (type == Float.class) {
+                this.writeByte(FLOAT);
+                this.writeSignedInt(Float.floatToIntBits((Float) value));
+            } else if (type == Short.class) {
+                this.writeByte(SHORT);
+                this.writeSignedInt((Short) value);
+            } else if (type == Byte.class) {
+                this.writeByte(BYTE);
+                this.writeByte((Byte) value);
+            } else if (type == Character.class) {
+                this.writeByte(CHAR);
+                this.writeVarInt((Character) value);
+            } else if (type == ZonedDateTime.class) {
+                ZonedDateTime dateTime = (ZonedDateTime) value;
+                this.writeByte(ZONED_DATE_TIME);
+                this.writeSignedLong(dateTime.toEpochSecond());
+                this.writeVarInt(dateTime.getNano());
+                this.writeString(dateTime.getZone().getId());
+            } else if (type == Instant.class) {
+                this.writeByte(INSTANT);
+                this.writeSignedLong(((Instant) value).getEpochSecond());
+                this.writeVarInt(((Instant) value).getNano());
+            } else if (type == LocalDateTime.class) {
+                this.writeByte(LOCAL_DATE_TIME);
+                this.writeSignedLong(((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC));
+                this.writeVarInt(((LocalDateTime) value).getNano());
+            } else if (type == Date.class) {
+                this.writeByte(DATE);
+                this.writeSignedLong(((Date) value).getTime());
+            } else if (value instanceof Enum) {
+                this.writeByte(ENUM);
+                this.writeClass(((Enum<?>) value).getDeclaringClass());
+                this.writeString(((Enum<?>) value).name());
+            } else if (type == Class.class) {
+                this.writeByte(CLASS);
+                this.writeString(checkAllowed(((Class<?>) value).getName()));
+            } else {
+                this.writeReference(value, type);
+            }
+        }
+
+        /**
+         * 可能被多处引用的对象，第二次出现时只写序号
+         */
+        private void writeReference(Object value, Class<?> type) {
+            Integer reference = this.references.get(value);
+            if (reference != null) {
+                this.writeByte(REF);
+                this.writeVarInt(reference);
+                return;
+            }
+            this.references.put(value, this.references.size());
+
+            if (type == byte[].class) {
+                this.writeByte(BYTES);
+                this.writeBytes((byte[]) value);
+                return;
+            }
+            if (type.isArray() && !type.getComponentType().isPrimitive()) {
+                Object[] array = (Object[]) value;
+                this.writeByte(ARRAY);
+                this.writeClass(type.getComponentType());
+                this.writeVarInt(array.length);
+                for (Object element : array) {
+                    this.writeObject(element);
+                }
+                return;
+            }
+
+            if ((type == TreeMap.class || type == TreeSet.class) && this.writeSorted(value, type)) {
+                return;
+            }
+
+            ClassInfo info = classInfo(type);
+            switch (info.kind) {
+                case COLLECTION:
+                    Object[] elements = ((Collection<?>) value).toArray();
+                    this.writeByte(COLLECTION);
+                    this.writeClass(type);
+                    this.writeVarInt(elements.length);
+                    for (Object element : elements) {
+                        this.writeObject(element);
+                    }
+                    break;
+                case MAP:
+                    Object[] entries = ((Map<?, ?>) value).entrySet().toArray();
+                    this.writeByte(MAP);
+                    this.writeClass(type);
+                    this.writeVarInt(entries.length);
+                    for (Object entry : entries) {
+                        this.writeObject(((Map.Entry<?, ?>) entry).getKey());
+                        this.writeObject(((Map.Entry<?, ?>) entry).getValue());
+                    }
+                    break;
+                case OBJECT:
+                    this.writeByte(OBJECT);
+                    this.writeClass(type);
+                    if (this.layouts.add(type)) {
+                        this.writeVarInt(info.layoutHash);
+                    }
+                    for (Field field : info.fields) {
+                        this.writeField(field, value);
+                    }
+                    break;
+                default:
+                    this.writeByte(SERIALIZED);
+                    this.writeBytes(JdkTicketCodec.serialize(value));
+            }
+        }
+
+        /**
+         * 比较器不是自然顺序或忽略大小写时返回false，按jdk序列化写入
+         */
+        private boolean writeSorted(Object value, Class<?> type) {
+            Comparator<?> comparator = type == TreeMap.class ? ((TreeMap<?, ?>) value).comparator() : ((TreeSet<?>) value).comparator();
+            if (comparator != null && comparator != String.CASE_INSENSITIVE_ORDER) {
+                return false;
+            }
+            if (type == TreeMap.class) {
+                Object[] entries = ((TreeMap<?, ?>) value).entrySet().toArray();
+                this.writeByte(SORTED_MAP);
+                this.writeByte(comparator == null ? 0 : 1);
+                this.writeVarInt(entries.length);
+                for (Object entry : entries) {
+                    this.writeObject(((Map.Entry<?, ?>) entry).getKey());
+                    this.writeObject(((Map.Entry<?, ?>) entry).getValue());
+                }
+            } else {
+                Object[] elements = ((TreeSet<?>) value).toArray();
+                this.writeByte(SORTED_SET);
+                this.writeByte(comparator == null ? 0 : 1);
+                this.writeVarInt(elements.length);
+                for (Object element : elements) {
+                    this.writeObject(element);
+                }
+            }
+            return true;
+        }
+
+        private void writeField(Field field, Object target) {
+            try {
+                Class<?> type = field.getType();
+                if (!type.isPrimitive()) {
+                    this.writeObject(field.get(target));
+                } else if (type == int.class) {
+                    this.writeSignedInt(field.getInt(target));
+                } else if (type == long.class) {
+                    this.writeSignedLong(field.getLong(target));
+                } else if (type == boolean.class) {
+                    this.writeByte(field.getBoolean(target) ? 1 : 0);
+                } else if (type == double.class) {
+                    this.writeFixedLong(Double.doubleToLongBits(field.getDouble(target)));
+                } else if (type == float.class) {
+                    this.writeSignedInt(Float.floatToIntBits(field.getFloat(target)));
+                } else if (type == short.class) {
+                    this.writeSignedInt(field.getShort(target));
+                } else if (type == byte.class) {
+                    this.writeByte(field.getByte(target));
+                } else {
+                    this.writeVarInt(field.getChar(target));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final class Reader {
+        private final List<Object> references = new ArrayList<Object>();
+        private final List<String> strings = new ArrayList<String>();
+        private final List<Class<?>> classes = new ArrayList<Class<?>>();
+        private final Set<Class<?>> layouts = new HashSet<Class<?>>();
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private int readByte() {
+            return this.buffer[this.position++];
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = this.buffer[this.position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                long b = this.buffer[this.position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private int readSignedInt() {
+            int value = this.readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readSignedLong() {
+            long value = this.readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (this.buffer[this.position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() {
+            int length = this.readVarInt();
+            byte[] bytes = Arrays.copyOfRange(this.buffer, this.position, this.position + length);
+            this.position += length;
+            return bytes;
+        }
+
+        private String readString() {
+            int index = this.readVarInt();
+            if (index > 0) {
+                return this.strings.get(index - 1);
+            }
+            int length = this.readVarInt();
+            String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+            this.position += length;
+            this.strings.add(value);
+            return value;
+        }
+
+        private Class<?> readClass() throws ClassNotFoundException {
+            int id = this.readVarInt();
+            if (id == 0) {
+                Class<?> type = loadClass(checkAllowed(this.readString()));
+                this.classes.add(type);
+                return type;
+            }
+            id--;
+            return id < KNOWN_CLASSES.length ? knownClass(id) : this.classes.get(id - KNOWN_CLASSES.length);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readObject() throws ReflectiveOperationException {
+            int tag = this.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REF:
+                    return this.references.get(this.readVarInt());
+                case STRING:
+                    return this.readString();
+                case INT:
+                    return this.readSignedInt();
+                case LONG:
+                    return this.readSignedLong();
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case DOUBLE:
+                    return Double.longBitsToDouble(this.readFixedLong());
+                case FLOAT:
+                    return Float.intBitsToFloat(this.readSignedInt());
+                case SHORT:
+                    return (short) this.readSignedInt();
+                case BYTE:
+                    return (byte) this.readByte();
+                case CHAR:
+                    return (char) this.readVarInt();
+                case ZONED_DATE_TIME:
+                    long epochSecond = this.readSignedLong();
+                    int nano = this.readVarInt();
+                    return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), ZoneId.of(this.readString()));
+                case INSTANT:
+                    return Instant.ofEpochSecond(this.readSignedLong(), this.readVarInt());
+                case LOCAL_DATE_TIME:
+                    return LocalDateTime.ofEpochSecond(this.readSignedLong(), this.readVarInt(), ZoneOffset.UTC);
+                case DATE:
+                    return new Date(this.readSignedLong());
+                case ENUM:
+                    return Enum.valueOf((Class<Enum>) this.readClass(), this.readString());
+                case CLASS:
+                    return loadClass(checkAllowed(this.readString()));
+                case BYTES:
+                    byte[] bytes = this.readBytes();
+                    this.references.add(bytes);
+                    return bytes;
+                case ARRAY:
+                    Class<?> componentType = this.readClass();
+                    Object[] array = (Object[]) Array.newInstance(componentType, this.readVarInt());
+                    this.references.add(array);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = this.readObject();
+                    }
+                    return array;
+                case COLLECTION:
+                    Class<?> collectionType = this.readClass();
+                    int size = this.readVarInt();
+                    Collection<Object> collection = (Collection<Object>) classInfo(collectionType).constructor.newInstance();
+                    this.references.add(collection);
+                    for (int i = 0; i < size; i++) {
+                        collection.add(this.readObject());
+                    }
+                    return collection;
+                case MAP:
+                    Class<?> mapType = this.readClass();
+                    int entries = this.readVarInt();
+                    Map<Object, Object> map = (Map<Object, Object>) classInfo(mapType).constructor.newInstance();
+                    this.references.add(map);
+                    for (int i = 0; i < entries; i++) {
+                        map.put(this.readObject(), this.readObject());
+                    }
+                    return map;
+                case SORTED_MAP:
+                    Map<Object, Object> sortedMap = this.readByte() == 0 ? new TreeMap<Object, Object>() : new TreeMap<Object, Object>((Comparator) String.CASE_INSENSITIVE_ORDER);
+                    this.references.add(sortedMap);
+                    int sortedEntries = this.readVarInt();
+                    for (int i = 0; i < sortedEntries; i++) {
+                        sortedMap.put(this.readObject(), this.readObject());
+                    }
+                    return sortedMap;
+                case SORTED_SET:
+                    Collection<Object> sortedSet = this.readByte() == 0 ? new TreeSet<Object>() : new TreeSet<Object>((Comparator) String.CASE_INSENSITIVE_ORDER);
+                    this.references.add(sortedSet);
+                    int sortedElements = this.readVarInt();
+                    for (int i = 0; i < sortedElements; i++) {
+                        sortedSet.add(this.readObject());
+                    }
+                    return sortedSet;
+                case OBJECT:
+                    return this.readFields(this.readClass());
+                case SERIALIZED:
+                    int index = this.references.size();
+                    this.references.add(null);
+                    int length = this.readVarInt();
+                    Object value = JdkTicketCodec.deserialize(this.buffer, this.position, length);
+                    this.position += length;
+                    this.references.set(index, value);
+                    return value;
+                default:
+                    throw new IllegalArgumentException("Unknown tag " + tag);
+            }
+        }
+
+        private Object readFields(Class<?> type) throws ReflectiveOperationException {
+            ClassInfo info = classInfo(type);
+            if (info.kind != OBJECT || this.layouts.add(type) && this.readVarInt() != info.layoutHash) {
+                throw new IllegalArgumentException("Field layout of " + type.getName() + " has changed");
+            }
+            Object target = info.instantiator.newInstance();
+            this.references.add(target);
+            for (Field field : info.fields) {
+                Class<?> fieldType = field.getType();
+                if (!fieldType.isPrimitive()) {
+                    field.set(target, this.readObject());
+                } else if (fieldType == int.class) {
+                    field.setInt(target, this.readSignedInt());
+                } else if (fieldType == long.class) {
+                    field.setLong(target, this.readSignedLong());
+                } else if (fieldType == boolean.class) {
+                    field.setBoolean(target, this.readByte() != 0);
+                } else if (fieldType == double.class) {
+                    field.setDouble(target, Double.longBitsToDouble(this.readFixedLong()));
+                } else if (fieldType == float.class) {
+                    field.setFloat(target, Float.intBitsToFloat(this.readSignedInt()));
+                } else if (fieldType == short.class) {
+                    field.setShort(target, (short) this.readSignedInt());
+                } else if (fieldType == byte.class) {
+                    field.setByte(target, (byte) this.readByte());
+                } else {
+                    field.setChar(target, (char) this.readVarInt());
+                }
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jielin.ygjcasserver.ticket;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @ClassName: InMemoryTicketInvalidationBus.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 09:30:00
+ * @description: 进程内的通知，用于测试和单机，同一个实例可以被多个TicketNearCache（模拟多个节点）共用
+ *
+ * 通知在publish的调用线程中同步送达，始终处于连接状态。
+ */
+public class InMemoryTicketInvalidationBus implements TicketInvalidationBus {
+    private static final InMemoryTicketInvalidationBus SHARED = new InMemoryTicketInvalidationBus();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    /**
+     * 同一个jvm中配置invalidation=MEMORY的registry共用此实例
+     */
+    public static InMemoryTicketInvalidationBus shared() {
+        return SHARED;
+    }
+
+    @Override
+    public void publish(String source, Collection<String> keys) {
+        for (Listener listener : this.listeners) {
+            listener.invalidate(source, keys);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    /**
+     * 共享实例不随registry关闭，各TicketNearCache关闭时自行取消订阅
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,56 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.ticket.Ticket;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * @ClassName: JdkTicketCodec.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 14:10:00
+ * @description: jdk序列化，与spring-data-redis的JdkSerializationRedisSerializer格式相同，即cas RedisTicketRegistry原有的格式
+ */
+public class JdkTicketCodec implements TicketCodec {
+    /**
+     * jdk序列化流的开头 0xACED
+     */
+    static final byte STREAM_MAGIC_0 = (byte) 0xAC;
+    static final byte STREAM_MAGIC_1 = (byte) 0xED;
+
+    @Override
+    public byte[] encode(Ticket ticket) {
+        return serialize(ticket);
+    }
+
+    @Override
+    public Ticket decode(byte[] value) {
+        return (Ticket) deserialize(value, 0, value.length);
+    }
+
+    static boolean isJdkStream(byte[] value) {
+        return value.length > 1 && value[0] == STREAM_MAGIC_0 && value[1] == STREAM_MAGIC_1;
+    }
+
+    static byte[] serialize(Object object) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(object);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to serialize " + object.getClass().getName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    static Object deserialize(byte[] value, int offset, int length) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(value, offset, length))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unable to deserialize ticket", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jielin.ygjcasserver.ticket;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * @ClassName: Lz4Compression.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 14:20:00
+ * @description: lz4压缩，单独放一个类，没有用到压缩时不加载lz4-java
+ */
+final class Lz4Compression {
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private Lz4Compression() {
+    }
+
+    static int maxCompressedLength(int length) {
+        return COMPRESSOR.maxCompressedLength(length);
+    }
+
+    static int compress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+        return COMPRESSOR.compress(src, srcOffset, length, dest, destOffset, dest.length - destOffset);
+    }
+
+    static byte[] decompress(byte[] src, int srcOffset, int originalLength) {
+        byte[] dest = new byte[originalLength];
+        DECOMPRESSOR.decompress(src, srcOffset, dest, 0, originalLength);
+        return dest;
+    }
+}
@@ -0,0 +1,337 @@
+package com.jielin.ygjcasserver.ticket;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.jielin.ygjcasserver.metrics.LatencyTimer;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.AbstractTicketRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.util.Pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @ClassName: PipelinedRedisTicketRegistry.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 09:40:00
+ * @description: 基于jedis连接池的redis ticket registry，webflow一次请求内的写入合并为一次pipeline提交
+ *
+ * key的格式与cas-server-support-redis-ticket-registry一致（CAS_TICKET:前缀），使用JdkTicketCodec时两者的数据可以互相读取。
+ * 当前线程有RedisWriteBatch时addTicket/updateTicket只放入批次，由TicketRegistryBatchingListener在请求处理完、
+ * 响应发出之前调用flush，用一次MULTI/EXEC写入；批次中的ticket在提交前同样可以读到。
+ * 没有批次时（rest、serviceValidate等）直接写入。删除总是立即执行。
+ * 设置了TicketNearCache时getTicket先查近端缓存，写入、删除成功后更新本地缓存并通知其他节点。
+ * 近端缓存只用于TGT；ST、PT等一次性ticket总是读redis，在一个节点上校验删除后其他节点不会再从缓存中取到。
+ * get、add、update、flush的耗时记入cas.ticket.registry.*；有批次时add、update只计入批次的时间，写redis的时间在flush中。
+ */
+public class PipelinedRedisTicketRegistry extends AbstractTicketRegistry {
+    private static final String TICKET_PREFIX = "CAS_TICKET:";
+    private static final int SCAN_COUNT = 1000;
+    private static final String NEAR_CACHEABLE_PREFIX = TicketGrantingTicket.PREFIX + "-";
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Pool<Jedis> pool;
+    private final boolean transactional;
+    private final TicketCodec ticketCodec;
+    private final Timer getLatency;
+    private final Timer addLatency;
+    private final Timer updateLatency;
+    private final Timer flushLatency;
+    private TicketNearCache nearCache;
+
+    public PipelinedRedisTicketRegistry(Pool<Jedis> pool, boolean transactional) {
+        this(pool, transactional, new JdkTicketCodec());
+    }
+
+    /**
+     * @param transactional 批量提交时是否包在MULTI/EXEC中，仍然只有一次往返
+     */
+    public PipelinedRedisTicketRegistry(Pool<Jedis> pool, boolean transactional, TicketCodec ticketCodec) {
+        this(pool, transactional, ticketCodec, new MetricRegistry());
+    }
+
+    public PipelinedRedisTicketRegistry(Pool<Jedis> pool, boolean transactional, TicketCodec ticketCodec, MetricRegistry metricRegistry) {
+        this.pool = pool;
+        this.transactional = transactional;
+        this.ticketCodec = ticketCodec;
+        this.getLatency = LatencyTimer.register(metricRegistry, "cas.ticket.registry.get");
+        this.addLatency = LatencyTimer.register(metricRegistry, "cas.ticket.registry.add");
+        this.updateLatency = LatencyTimer.register(metricRegistry, "cas.ticket.registry.update");
+        this.flushLatency = LatencyTimer.register(metricRegistry, "cas.ticket.registry.flush");
+    }
+
+    public void setNearCache(TicketNearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public void addTicket(Ticket ticket) {
+        Timer.Context context = this.addLatency.time();
+        try {
+            this.write(ticket);
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Override
+    public Ticket updateTicket(Ticket ticket) {
+        Timer.Context context = this.updateLatency.time();
+        try {
+            this.write(ticket);
+        } finally {
+            context.stop();
+        }
+        return ticket;
+    }
+
+    private void write(Ticket ticket) {
+        String key = getTicketRedisKey(this.encodeTicketId(ticket.getId()));
+        Ticket encodeTicket = this.encodeTicket(ticket);
+        int ttl = getTimeout(ticket);
+        boolean nearCacheable = isNearCacheable(ticket.getId());
+        RedisWriteBatch batch = RedisWriteBatch.current();
+        if (batch != null) {
+            batch.put(key, encodeTicket, ttl, nearCacheable);
+            return;
+        }
+        byte[] value = this.ticketCodec.encode(encodeTicket);
+        try (Jedis jedis = this.pool.getResource()) {
+            jedis.setex(key.getBytes(StandardCharsets.UTF_8), ttl, value);
+        }
+        if (this.nearCache != null && nearCacheable) {
+            this.nearCache.written(key, value, ttl);
+            this.nearCache.publish(Collections.singletonList(key));
+        }
+    }
+
+    /**
+     * 提交批次中的写入，一次往返
+     */
+    public void flush(RedisWriteBatch batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        Timer.Context context = this.flushLatency.time();
+        try {
+            this.flushWrites(batch.writes());
+        } finally {
+            context.stop();
+        }
+        this.logger.debug("Flushed [{}] ticket writes in one pipeline", batch.size());
+    }
+
+    private void flushWrites(Collection<RedisWriteBatch.PendingWrite> writes) {
+        List<byte[]> values = new ArrayList<byte[]>(writes.size());
+        try (Jedis jedis = this.pool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            if (this.transactional) {
+                pipeline.multi();
+            }
+            for (RedisWriteBatch.PendingWrite write : writes) {
+                byte[] value = this.ticketCodec.encode(write.ticket);
+                values.add(value);
+                pipeline.setex(write.key.getBytes(StandardCharsets.UTF_8), write.ttlSeconds, value);
+            }
+            if (this.transactional) {
+                pipeline.exec();
+            }
+            pipeline.sync();
+        }
+        if (this.nearCache != null) {
+            List<String> keys = new ArrayList<String>(writes.size());
+            int i = 0;
+            for (RedisWriteBatch.PendingWrite write : writes) {
+                byte[] value = values.get(i++);
+                if (write.nearCacheable) {
+                    this.nearCache.written(write.key, value, write.ttlSeconds);
+                    keys.add(write.key);
+                }
+            }
+            if (!keys.isEmpty()) {
+                this.nearCache.publish(keys);
+            }
+        }
+    }
+
+    @Override
+    public Ticket getTicket(String ticketId) {
+        Timer.Context context = this.getLatency.time();
+        try {
+            return this.findTicket(ticketId);
+        } finally {
+            context.stop();
+        }
+    }
+
+    private Ticket findTicket(String ticketId) {
+        String key = getTicketRedisKey(this.encodeTicketId(ticketId));
+        Ticket ticket = null;
+        RedisWriteBatch batch = RedisWriteBatch.current();
+        if (batch != null) {
+            ticket = batch.get(key);
+        }
+        if (ticket == null) {
+            boolean nearCacheable = isNearCacheable(ticketId);
+            byte[] value = this.read(key, nearCacheable);
+            if (value == null) {
+                return null;
+            }
+            ticket = this.decode(ticketId, value);
+            if (ticket == null) {
+                if (this.nearCache != null && nearCacheable) {
+                    this.nearCache.invalidate(key);
+                }
+                return null;
+            }
+        }
+        Ticket result = this.decodeTicket(ticket);
+        if (result != null && result.isExpired()) {
+            this.logger.debug("Ticket [{}] has expired and is now removed from the cache", result.getId());
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * 先查近端缓存；未命中时GET和PTTL在同一次往返中取回，缓存条目与redis中的key同时过期
+     */
+    private byte[] read(String key, boolean nearCacheable) {
+        if (this.nearCache == null || !nearCacheable) {
+            try (Jedis jedis = this.pool.getResource()) {
+                return jedis.get(key.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        byte[] value = this.nearCache.get(key);
+        if (value != null) {
+            return value;
+        }
+        long version = this.nearCache.version();
+        Response<byte[]> response;
+        Response<Long> pttl;
+        try (Jedis jedis = this.pool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+            response = pipeline.get(rawKey);
+            pttl = pipeline.pttl(rawKey);
+            pipeline.sync();
+        }
+        value = response.get();
+        if (value != null) {
+            this.nearCache.putIfUnchanged(key, value, pttl.get(), version);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean deleteSingleTicket(String ticketId) {
+        String key = getTicketRedisKey(this.encodeTicketId(ticketId));
+        RedisWriteBatch batch = RedisWriteBatch.current();
+        if (batch != null) {
+            batch.remove(key);
+        }
+        try (Jedis jedis = this.pool.getResource()) {
+            return jedis.del(key.getBytes(StandardCharsets.UTF_8)) > 0;
+        } finally {
+            if (this.nearCache != null && isNearCacheable(ticketId)) {
+                this.nearCache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public long deleteAll() {
+        long count = 0;
+        try (Jedis jedis = this.pool.getResource()) {
+            for (List<String> keys : this.scanKeys(jedis)) {
+                count += jedis.del(keys.toArray(new String[0]));
+            }
+        }
+        if (this.nearCache != null) {
+            this.nearCache.invalidateAll();
+        }
+        return count;
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        List<Ticket> tickets = new ArrayList<Ticket>();
+        try (Jedis jedis = this.pool.getResource()) {
+            for (List<String> keys : this.scanKeys(jedis)) {
+                byte[][] rawKeys = new byte[keys.size()][];
+                for (int i = 0; i < rawKeys.length; i++) {
+                    rawKeys[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+                }
+                for (byte[] value : jedis.mget(rawKeys)) {
+                    Ticket ticket = value != null ? this.decode(null, value) : null;
+                    if (ticket != null) {
+                        tickets.add(ticket);
+                    }
+                }
+            }
+        }
+        return this.decodeTickets(tickets);
+    }
+
+    /**
+     * SCAN遍历所有ticket的key，每批最多SCAN_COUNT个，不使用KEYS阻塞redis
+     */
+    private List<List<String>> scanKeys(Jedis jedis) {
+        List<List<String>> batches = new ArrayList<List<String>>();
+        ScanParams params = new ScanParams().match(TICKET_PREFIX + "*").count(SCAN_COUNT);
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            ScanResult<String> result = jedis.scan(cursor, params);
+            if (!result.getResult().isEmpty()) {
+                batches.add(result.getResult());
+            }
+            cursor = result.getStringCursor();
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        return batches;
+    }
+
+    private static String getTicketRedisKey(String ticketId) {
+        return TICKET_PREFIX + ticketId;
+    }
+
+    /**
+     * 按未加密的ticket id判断，PGT（PGT-前缀）同样不缓存
+     */
+    private static boolean isNearCacheable(String ticketId) {
+        return ticketId != null && ticketId.startsWith(NEAR_CACHEABLE_PREFIX);
+    }
+
+    /**
+     * 与RedisTicketRegistry一致，ttl取ticket过期策略的timeToLive
+     */
+    private static int getTimeout(Ticket ticket) {
+        Long ttl = ticket.getExpirationPolicy().getTimeToLive();
+        if (ttl == null || ttl <= 0) {
+            return 1;
+        }
+        return ttl > Integer.MAX_VALUE ? Integer.MAX_VALUE : ttl.intValue();
+    }
+
+    /**
+     * 无法解析的值（格式或ticket类已变化）按不存在处理
+     */
+    private Ticket decode(String ticketId, byte[] value) {
+        try {
+            return this.ticketCodec.decode(value);
+        } catch (IllegalArgumentException e) {
+            this.logger.error("Unable to decode ticket [{}]: {}", ticketId, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.util.Pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName: RedisTicketInvalidationBus.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 09:40:00
+ * @description: 基于redis pub/sub的ticket修改通知
+ *
+ * publish只放入队列，由发送线程把队列中已有的key合并为一条消息发送，不在请求线程上增加一次redis往返。
+ * 消息格式为 source|key1,key2,...；订阅线程断开后间隔重连，断开和重新订阅时通知listener清空缓存。
+ * 队列满或发送失败时这些key的通知丢失，此后先为该source发送一条ALL，其他节点清空全部近端缓存，不会继续使用丢失通知的ticket。
+ */
+public class RedisTicketInvalidationBus implements TicketInvalidationBus {
+    private static final String CHANNEL = "ygj:ticket:invalidate";
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long RECONNECT_DELAY = 3000L;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Pool<Jedis> pool;
+    private final BlockingQueue<Message> pending = new LinkedBlockingQueue<Message>(QUEUE_CAPACITY);
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    /**
+     * 有通知丢失、需要发送ALL的source
+     */
+    private final Set<String> lostSources = ConcurrentHashMap.newKeySet();
+    private final JedisPubSub subscriber = new JedisPubSub() {
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            connected = true;
+            resetListeners();
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            int separator = message.indexOf('|');
+            if (separator < 0) {
+                return;
+            }
+            String source = message.substring(0, separator);
+            List<String> keys = Arrays.asList(message.substring(separator + 1).split(","));
+            for (Listener listener : listeners) {
+                listener.invalidate(source, keys);
+            }
+        }
+    };
+    private final Thread publisherThread;
+    private final Thread subscriberThread;
+    private volatile boolean connected;
+    private volatile boolean closed;
+
+    public RedisTicketInvalidationBus(Pool<Jedis> pool) {
+        this.pool = pool;
+        this.publisherThread = new Thread(this::sendPending, "cas-ticket-invalidation-publisher");
+        this.publisherThread.setDaemon(true);
+        this.publisherThread.start();
+        this.subscriberThread = new Thread(this::listen, "cas-ticket-invalidation-subscriber");
+        this.subscriberThread.setDaemon(true);
+        this.subscriberThread.start();
+    }
+
+    @Override
+    public void publish(String source, Collection<String> keys) {
+        for (String key : keys) {
+            if (!this.pending.offer(new Message(source, key)) && this.lostSources.add(source)) {
+                this.logger.warn("Ticket invalidation queue is full, other nodes will drop their whole near cache instead");
+            }
+        }
+    }
+
+    private void sendPending() {
+        List<Message> batch = new ArrayList<Message>();
+        while (!this.closed) {
+            try {
+                for (String source : this.lostSources) {
+                    if (this.lostSources.remove(source)) {
+                        batch.add(new Message(source, ALL));
+                    }
+                }
+                if (batch.isEmpty()) {
+                    Message first = this.pending.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                this.pending.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                try (Jedis jedis = this.pool.getResource()) {
+                    int start = 0;
+                    //同一个source的key合并为一条消息
+                    for (int i = 1; i <= batch.size(); i++) {
+                        if (i == batch.size() || !batch.get(i).source.equals(batch.get(start).source)) {
+                            StringBuilder message = new StringBuilder(batch.get(start).source).append('|');
+                            for (int j = start; j < i; j++) {
+                                message.append(j > start ? "," : "").append(batch.get(j).key);
+                            }
+                            jedis.publish(CHANNEL, message.toString());
+                            start = i;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                this.logger.error("Unable to publish [{}] ticket invalidations, retrying as a full invalidation in {} ms", batch.size(), RECONNECT_DELAY, e);
+                for (Message message : batch) {
+                    this.lostSources.add(message.source);
+                }
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void listen() {
+        while (!this.closed) {
+            try (Jedis jedis = this.pool.getResource()) {
+                jedis.subscribe(this.subscriber, CHANNEL);
+            } catch (RuntimeException e) {
+                if (this.closed) {
+                    return;
+                }
+                this.logger.warn("Lost subscription to {}, reconnecting in {} ms", CHANNEL, RECONNECT_DELAY, e);
+            }
+            this.connected = false;
+            this.resetListeners();
+            try {
+                Thread.sleep(RECONNECT_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void resetListeners() {
+        for (Listener listener : this.listeners) {
+            listener.reset();
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.connected;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.connected = false;
+        if (this.subscriber.isSubscribed()) {
+            this.subscriber.unsubscribe();
+        }
+        this.publisherThread.interrupt();
+    }
+
+    private static final class Message {
+        private final String source;
+        private final String key;
+
+        private Message(String source, String key) {
+            this.source = source;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.ticket.Ticket;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @ClassName: RedisWriteBatch.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 09:20:00
+ * @description: 当前线程上待写入redis的ticket，由PipelinedRedisTicketRegistry一次性提交
+ *
+ * 同一个key多次写入只保留最后一次，登录时先add再update的TGT只写一次。
+ */
+public final class RedisWriteBatch {
+    private static final ThreadLocal<RedisWriteBatch> CURRENT = new ThreadLocal<RedisWriteBatch>();
+    private final Map<String, PendingWrite> writes = new LinkedHashMap<String, PendingWrite>();
+    private int depth;
+
+    private RedisWriteBatch() {
+    }
+
+    /**
+     * 开始批量写入，已经开始时只增加嵌套层数
+     */
+    public static void begin() {
+        RedisWriteBatch batch = CURRENT.get();
+        if (batch == null) {
+            batch = new RedisWriteBatch();
+            CURRENT.set(batch);
+        }
+        batch.depth++;
+    }
+
+    /**
+     * 结束批量写入，最外层结束时返回待提交的写入并解除线程绑定，否则返回null
+     */
+    public static RedisWriteBatch end() {
+        RedisWriteBatch batch = CURRENT.get();
+        if (batch == null || --batch.depth > 0) {
+            return null;
+        }
+        CURRENT.remove();
+        return batch;
+    }
+
+    /**
+     * 不论嵌套层数，解除当前线程上的批次并返回，没有批次时返回null
+     */
+    static RedisWriteBatch detach() {
+        RedisWriteBatch batch = CURRENT.get();
+        if (batch != null) {
+            CURRENT.remove();
+        }
+        return batch;
+    }
+
+    static RedisWriteBatch current() {
+        return CURRENT.get();
+    }
+
+    void put(String key, Ticket ticket, int ttlSeconds, boolean nearCacheable) {
+        //先删除，保证写入顺序按最后一次put
+        this.writes.remove(key);
+        this.writes.put(key, new PendingWrite(key, ticket, ttlSeconds, nearCacheable));
+    }
+
+    Ticket get(String key) {
+        PendingWrite write = this.writes.get(key);
+        return write != null ? write.ticket : null;
+    }
+
+    void remove(String key) {
+        this.writes.remove(key);
+    }
+
+    boolean isEmpty() {
+        return this.writes.isEmpty();
+    }
+
+    int size() {
+        return this.writes.size();
+    }
+
+    Collection<PendingWrite> writes() {
+        return this.writes.values();
+    }
+
+    static final class PendingWrite {
+        final String key;
+        final Ticket ticket;
+        final int ttlSeconds;
+        final boolean nearCacheable;
+
+        private PendingWrite(String key, Ticket ticket, int ttlSeconds, boolean nearCacheable) {
+            this.key = key;
+            this.ticket = ticket;
+            this.ttlSeconds = ttlSeconds;
+            this.nearCacheable = nearCacheable;
+        }
+    }
+}
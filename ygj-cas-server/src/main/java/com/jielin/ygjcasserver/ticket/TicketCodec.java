@@ -0,0 +1,20 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * @ClassName: TicketCodec.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 14:00:00
+ * @description: ticket写入redis时的序列化方式
+ */
+public interface TicketCodec {
+
+    byte[] encode(Ticket ticket);
+
+    /**
+     * 无法解析时抛出IllegalArgumentException
+     */
+    Ticket decode(byte[] value);
+}
@@ -0,0 +1,44 @@
+package com.jielin.ygjcasserver.ticket;
+
+import java.io.Closeable;
+import java.util.Collection;
+
+/**
+ * @ClassName: TicketInvalidationBus.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 09:20:00
+ * @description: 在cas server节点之间广播ticket的修改，各节点据此清除近端缓存
+ */
+public interface TicketInvalidationBus extends Closeable {
+    /**
+     * 表示清除全部ticket
+     */
+    String ALL = "*";
+
+    /**
+     * 在ticket写入redis之后调用
+     *
+     * @param source 发送方节点，接收方据此忽略自己发出的通知
+     */
+    void publish(String source, Collection<String> keys);
+
+    void subscribe(Listener listener);
+
+    void unsubscribe(Listener listener);
+
+    /**
+     * 订阅断开期间收不到通知，此时近端缓存不能使用
+     */
+    boolean isConnected();
+
+    interface Listener {
+
+        void invalidate(String source, Collection<String> keys);
+
+        /**
+         * 订阅断开或重新建立，期间的通知可能已经丢失
+         */
+        void reset();
+    }
+}
@@ -0,0 +1,185 @@
+package com.jielin.ygjcasserver.ticket;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: TicketNearCache.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月22日 10:10:00
+ * @description: redis ticket registry的进程内近端缓存
+ *
+ * 缓存的是写入redis的字节，每次命中都重新解码，调用方拿到的仍是独立的ticket对象，修改后必须updateTicket才会生效，与直接读redis一致。
+ * 每个条目在redis中的key过期时同时过期：写入时按SETEX的ttl，读取时按同一次往返取到的PTTL；另外最多保留maxTimeToLive。
+ * 本节点写入、删除ticket后通过TicketInvalidationBus通知其他节点清除；订阅断开期间不使用缓存，通知丢失时发送方随后广播ALL清空全部缓存。
+ * 只缓存TGT（由PipelinedRedisTicketRegistry判断），一次性的ST、PT不经过缓存；
+ * 在其他节点注销的TGT，本节点在收到通知之前（pub/sub的传递延迟，通常为毫秒级）仍可能读到。
+ * 从redis读取的值只有在读取期间没有发生过任何清除时才放入缓存，避免旧值覆盖刚收到的清除通知。
+ */
+public class TicketNearCache implements Closeable {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<String, Entry> cache;
+    private final TicketInvalidationBus invalidationBus;
+    private final long maxTimeToLiveMillis;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter remoteInvalidations;
+    private final TicketInvalidationBus.Listener listener = new TicketInvalidationBus.Listener() {
+        @Override
+        public void invalidate(String source, Collection<String> keys) {
+            if (!nodeId.equals(source)) {
+                remoteInvalidations.inc(keys.size());
+                invalidateLocal(keys);
+            }
+        }
+
+        @Override
+        public void reset() {
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        }
+    };
+
+    /**
+     * @param maximumSize         最多缓存的ticket个数
+     * @param maxTimeToLiveMillis 每个条目最多保留的时间，不超过ticket在redis中的剩余时间
+     */
+    public TicketNearCache(TicketInvalidationBus invalidationBus, long maximumSize, long maxTimeToLiveMillis, MetricRegistry metricRegistry) {
+        this.invalidationBus = invalidationBus;
+        this.maxTimeToLiveMillis = maxTimeToLiveMillis;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return Math.max(0L, entry.expiresAt - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return Math.max(0L, entry.expiresAt - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hits = metricRegistry.counter("cas.ticket.registry.nearcache.hits");
+        this.misses = metricRegistry.counter("cas.ticket.registry.nearcache.misses");
+        this.remoteInvalidations = metricRegistry.counter("cas.ticket.registry.nearcache.invalidations");
+        metricRegistry.gauge("cas.ticket.registry.nearcache.size", () -> (Gauge<Long>) this.cache::estimatedSize);
+        metricRegistry.register("cas.ticket.registry.nearcache.hit-ratio", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(hits.getCount(), hits.getCount() + misses.getCount());
+            }
+        });
+        invalidationBus.subscribe(this.listener);
+    }
+
+    /**
+     * 未命中时返回null
+     */
+    public byte[] get(String key) {
+        Entry entry = this.invalidationBus.isConnected() ? this.cache.getIfPresent(key) : null;
+        if (entry == null) {
+            this.misses.inc();
+            return null;
+        }
+        this.hits.inc();
+        return entry.value;
+    }
+
+    /**
+     * 从redis读取前调用，传给putIfUnchanged
+     */
+    public long version() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * 缓存从redis读到的值
+     *
+     * @param pttlMillis 与值在同一次往返中取到的PTTL，小于0（key已不存在或没有过期时间）时不缓存
+     */
+    public void putIfUnchanged(String key, byte[] value, long pttlMillis, long version) {
+        if (pttlMillis <= 0 || this.invalidations.get() != version || !this.invalidationBus.isConnected()) {
+            return;
+        }
+        Entry entry = new Entry(value, pttlMillis, this.maxTimeToLiveMillis);
+        if (this.cache.asMap().putIfAbsent(key, entry) == null && this.invalidations.get() != version) {
+            //放入的同时收到了清除通知
+            this.cache.asMap().remove(key, entry);
+        }
+    }
+
+    /**
+     * 本节点写入redis成功后调用，更新本地缓存并通知其他节点
+     */
+    public void written(String key, byte[] value, int ttlSeconds) {
+        this.invalidations.incrementAndGet();
+        this.cache.put(key, new Entry(value, TimeUnit.SECONDS.toMillis(ttlSeconds), this.maxTimeToLiveMillis));
+    }
+
+    /**
+     * 本节点修改或删除了这些key，通知其他节点
+     */
+    public void publish(Collection<String> keys) {
+        this.invalidationBus.publish(this.nodeId, keys);
+    }
+
+    public void invalidate(String key) {
+        this.invalidateLocal(Collections.singletonList(key));
+        this.publish(Collections.singletonList(key));
+    }
+
+    public void invalidateAll() {
+        this.invalidateLocal(Collections.singletonList(TicketInvalidationBus.ALL));
+        this.publish(Collections.singletonList(TicketInvalidationBus.ALL));
+    }
+
+    private void invalidateLocal(Collection<String> keys) {
+        this.invalidations.incrementAndGet();
+        for (String key : keys) {
+            if (TicketInvalidationBus.ALL.equals(key)) {
+                this.cache.invalidateAll();
+                return;
+            }
+            this.cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.invalidationBus.unsubscribe(this.listener);
+        this.cache.invalidateAll();
+    }
+
+    private static final class Entry {
+        private final byte[] value;
+        private final long expiresAt;
+
+        private Entry(byte[] value, long timeToLiveMillis, long maxTimeToLiveMillis) {
+            this.value = value;
+            //与caffeine默认的ticker一致
+            this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(timeToLiveMillis, maxTimeToLiveMillis));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName: TicketRegistryBatchFilter.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 10:20:00
+ * @description: 保证RedisWriteBatch不会留在线程池的线程上
+ *
+ * 正常情况下TicketRegistryBatchingListener在requestProcessed中提交并解除绑定；
+ * webflow没有回调requestProcessed时，批次会留在线程上，之后这个线程处理的rest、serviceValidate、SLO写入都会进入批次而不再提交。
+ * 本过滤器在请求开始和结束时都检查当前线程，有残留的批次就提交并解除绑定。
+ */
+public class TicketRegistryBatchFilter implements Filter {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Supplier<TicketRegistry> ticketRegistry;
+
+    /**
+     * @param ticketRegistry 第一次需要提交时才取，不提前初始化ticketRegistry
+     */
+    public TicketRegistryBatchFilter(Supplier<TicketRegistry> ticketRegistry) {
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        this.flushLeftover(RedisWriteBatch.detach());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            this.flushLeftover(RedisWriteBatch.detach());
+        }
+    }
+
+    private void flushLeftover(RedisWriteBatch batch) {
+        if (batch == null) {
+            return;
+        }
+        this.logger.warn("Flushing [{}] ticket writes left on thread [{}] without requestProcessed", batch.size(), Thread.currentThread().getName());
+        TicketRegistry registry = this.ticketRegistry.get();
+        if (registry instanceof PipelinedRedisTicketRegistry) {
+            try {
+                ((PipelinedRedisTicketRegistry) registry).flush(batch);
+            } catch (RuntimeException e) {
+                this.logger.error("Unable to flush [{}] leftover ticket writes", batch.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,32 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.springframework.webflow.execution.FlowExecutionListener;
+import org.springframework.webflow.execution.RequestContext;
+
+/**
+ * @ClassName: TicketRegistryBatchingListener.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 10:10:00
+ * @description: webflow每次请求开始时开启RedisWriteBatch，请求处理完后提交
+ *
+ * requestProcessed在重定向到客户端（带ST）之前触发，客户端拿到ST时ticket已经写入redis。
+ * 没有回调requestProcessed时，残留的批次由TicketRegistryBatchFilter在请求结束时提交。
+ */
+public class TicketRegistryBatchingListener implements FlowExecutionListener {
+    private final PipelinedRedisTicketRegistry ticketRegistry;
+
+    public TicketRegistryBatchingListener(PipelinedRedisTicketRegistry ticketRegistry) {
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    @Override
+    public void requestSubmitted(RequestContext context) {
+        RedisWriteBatch.begin();
+    }
+
+    @Override
+    public void requestProcessed(RequestContext context) {
+        this.ticketRegistry.flush(RedisWriteBatch.end());
+    }
+}
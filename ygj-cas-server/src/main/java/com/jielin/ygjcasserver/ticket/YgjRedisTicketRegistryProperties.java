@@ -0,0 +1,215 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName: YgjRedisTicketRegistryProperties.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月21日 10:20:00
+ * @description: pipeline ticket registry的配置，前缀 ygj.ticket.registry.redis
+ *
+ * redis地址、密码、库、超时、sentinel仍使用cas.ticket.registry.redis.*，这里只配置连接池、批量提交、编码和近端缓存。
+ */
+@ConfigurationProperties(prefix = "ygj.ticket.registry.redis")
+public class YgjRedisTicketRegistryProperties {
+    /**
+     * 关闭后使用cas-server-support-redis-ticket-registry默认的RedisTicketRegistry
+     */
+    private boolean enabled = true;
+    /**
+     * 批量写入是否包在MULTI/EXEC中
+     */
+    private boolean transactional = true;
+    /**
+     * ticket的序列化方式：JDK（cas原有格式）或COMPACT；COMPACT可以读取JDK格式的旧数据，
+     * 多节点部署时先让所有节点升级到能读取COMPACT的版本，再改为COMPACT。
+     * COMPACT不写字段名，只校验每个类的字段布局哈希：各节点的cas ticket类（字段名、类型）不一致时，
+     * 对方写入的ticket按不存在处理（需要重新登录）。升级cas等会改变ticket类的版本时，先改回JDK，所有节点升级完成后再改为COMPACT。
+     */
+    private String codec = "JDK";
+    /**
+     * COMPACT格式允许写入、读取的类所在的包（包名前缀），在CompactTicketCodec.DEFAULT_ALLOWED_PACKAGES之外追加；
+     * 自定义的principal、service、凭证类等不在org.apereo.cas.ticket/authentication/validation下时需要配置，否则写入失败
+     */
+    private List<String> codecAllowedPackages = new ArrayList<String>();
+    /**
+     * COMPACT格式是否使用lz4压缩
+     */
+    private boolean compression;
+    private int compressionThreshold = 512;
+    private int maxTotal = 64;
+    private int maxIdle = 64;
+    /**
+     * 保持的最少空闲连接，登录高峰时不需要新建连接
+     */
+    private int minIdle = 8;
+    private long maxWaitMillis = 1000L;
+    private boolean testWhileIdle = true;
+    private long timeBetweenEvictionRunsMillis = 30000L;
+    private long minEvictableIdleTimeMillis = 60000L;
+    private NearCache nearCache = new NearCache();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public void setTransactional(boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public List<String> getCodecAllowedPackages() {
+        return codecAllowedPackages;
+    }
+
+    public void setCodecAllowedPackages(List<String> codecAllowedPackages) {
+        this.codecAllowedPackages = codecAllowedPackages;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public boolean isTestWhileIdle() {
+        return testWhileIdle;
+    }
+
+    public void setTestWhileIdle(boolean testWhileIdle) {
+        this.testWhileIdle = testWhileIdle;
+    }
+
+    public long getTimeBetweenEvictionRunsMillis() {
+        return timeBetweenEvictionRunsMillis;
+    }
+
+    public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
+        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+    }
+
+    public long getMinEvictableIdleTimeMillis() {
+        return minEvictableIdleTimeMillis;
+    }
+
+    public void setMinEvictableIdleTimeMillis(long minEvictableIdleTimeMillis) {
+        this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    /**
+     * 进程内近端缓存，前缀 ygj.ticket.registry.redis.nearCache
+     */
+    public static class NearCache {
+        private boolean enabled = true;
+        private long maximumSize = 10000L;
+        /**
+         * 条目最多保留的毫秒数；清除通知丢失时由ALL通知清空缓存，不依赖这个时间
+         */
+        private long maxTimeToLive = 120000L;
+        /**
+         * 节点之间的清除通知：REDIS（pub/sub）或MEMORY（单机、测试）
+         */
+        private String invalidation = "REDIS";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getMaxTimeToLive() {
+            return maxTimeToLive;
+        }
+
+        public void setMaxTimeToLive(long maxTimeToLive) {
+            this.maxTimeToLive = maxTimeToLive;
+        }
+
+        public String getInvalidation() {
+            return invalidation;
+        }
+
+        public void setInvalidation(String invalidation) {
+            this.invalidation = invalidation;
+        }
+    }
+}
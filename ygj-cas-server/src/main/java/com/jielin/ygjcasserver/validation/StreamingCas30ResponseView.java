@@ -0,0 +1,57 @@
+package com.jielin.ygjcasserver.validation;
+
+import org.apereo.cas.authentication.AuthenticationAttributeReleasePolicy;
+import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
+import org.apereo.cas.authentication.ProtocolAttributeEncoder;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.validation.CasProtocolAttributesRenderer;
+import org.apereo.cas.web.view.Cas30ResponseView;
+import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
+import org.apereo.cas.web.view.attributes.InlinedCas30ProtocolAttributesRenderer;
+import org.springframework.web.servlet.View;
+
+import java.util.Map;
+
+/**
+ * @ClassName: StreamingCas30ResponseView.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月26日 10:20:00
+ * @description: /p3/serviceValidate成功响应的模型准备，属性释放、加密与Cas30ResponseView相同
+ *
+ * cas.view.cas3.attributeRendererType为DEFAULT或INLINE时不再调用renderer生成formattedAttributes，
+ * 只放入渲染方式，由StreamingCasProtocolView输出时逐个转义；自定义的renderer仍按原方式生成。
+ */
+public class StreamingCas30ResponseView extends Cas30ResponseView {
+    private final CasProtocolAttributesRenderer attributesRenderer;
+    private final String rendererType;
+
+    public StreamingCas30ResponseView(boolean successResponse, ProtocolAttributeEncoder protocolAttributeEncoder, ServicesManager servicesManager,
+                                      String authenticationContextAttribute, View view, boolean releaseProtocolAttributes,
+                                      AuthenticationAttributeReleasePolicy authenticationAttributeReleasePolicy,
+                                      AuthenticationServiceSelectionPlan serviceSelectionStrategy, CasProtocolAttributesRenderer attributesRenderer) {
+        super(successResponse, protocolAttributeEncoder, servicesManager, authenticationContextAttribute, view, releaseProtocolAttributes,
+                authenticationAttributeReleasePolicy, serviceSelectionStrategy, attributesRenderer);
+        this.attributesRenderer = attributesRenderer;
+        //只识别cas自带的两种，子类可能改写了单行的格式
+        if (attributesRenderer.getClass() == DefaultCas30ProtocolAttributesRenderer.class) {
+            this.rendererType = StreamingCasProtocolView.RENDERER_DEFAULT;
+        } else if (attributesRenderer.getClass() == InlinedCas30ProtocolAttributesRenderer.class) {
+            this.rendererType = StreamingCasProtocolView.RENDERER_INLINED;
+        } else {
+            this.rendererType = null;
+        }
+    }
+
+    @Override
+    protected void putCasResponseAttributesIntoModel(Map<String, Object> model, Map<String, Object> attributes, RegisteredService registeredService) {
+        Map<String, Object> encodedAttributes = this.protocolAttributeEncoder.encodeAttributes(attributes, registeredService);
+        this.putIntoModel(model, "attributes", encodedAttributes);
+        if (this.rendererType != null) {
+            this.putIntoModel(model, StreamingCasProtocolView.MODEL_ATTRIBUTE_RENDERER, this.rendererType);
+        } else {
+            this.putIntoModel(model, "formattedAttributes", this.attributesRenderer.render(encodedAttributes));
+        }
+    }
+}
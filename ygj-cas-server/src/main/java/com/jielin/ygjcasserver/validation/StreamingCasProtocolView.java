@@ -0,0 +1,281 @@
+package com.jielin.ygjcasserver.validation;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.util.CollectionUtils;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring4.util.SpringContentTypeUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @ClassName: StreamingCasProtocolView.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月26日 10:00:00
+ * @description: 不经过thymeleaf，直接把serviceValidate/p3/serviceValidate的xml响应写到response
+ *
+ * 输出与cas-server-webapp 5.3.9的protocol/2.0、protocol/3.0下casServiceValidationSuccess、casServiceValidationFailure模板逐字节一致，
+ * 包括th:if、th:each、th:remove留下的空白行；文本按thymeleaf的规则转义（& < > " '），Content-Type与locale按ThymeleafView的方式设置。
+ * 模型中有formattedAttributes时原样输出；有StreamingCas30ResponseView放入的渲染方式时，直接从attributes边写边转义（escapeXml10），不再生成中间字符串。
+ */
+public class StreamingCasProtocolView implements View {
+    /**
+     * ThymeleafView未设置contentType时的默认值
+     */
+    public static final String DEFAULT_CONTENT_TYPE = "text/html;charset=ISO-8859-1";
+    public static final String MODEL_ATTRIBUTE_RENDERER = "ygjAttributeRenderer";
+    public static final String RENDERER_DEFAULT = "DEFAULT";
+    public static final String RENDERER_INLINED = "INLINED";
+
+    private static final String RESPONSE_START = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>\n";
+    private static final String RESPONSE_END = "</cas:serviceResponse>\n";
+    private static final String ATTRIBUTE_START = "\n            \n                ";
+    private static final String ATTRIBUTE_END = "\n            ";
+    private static final char[][] TEXT_ESCAPES = new char[128][];
+    private static final char[][] XML10_ESCAPES = new char[0xA0][];
+
+    static {
+        TEXT_ESCAPES['&'] = "&amp;".toCharArray();
+        TEXT_ESCAPES['<'] = "&lt;".toCharArray();
+        TEXT_ESCAPES['>'] = "&gt;".toCharArray();
+        TEXT_ESCAPES['"'] = "&quot;".toCharArray();
+        TEXT_ESCAPES['\''] = "&#39;".toCharArray();
+
+        //与commons-text StringEscapeUtils.escapeXml10一致：xml 1.0不允许的控制字符删除，0x7f-0x84、0x86-0x9f转为数字实体
+        char[] removed = new char[0];
+        for (char c = 0; c < 0x20; c++) {
+            if (c != '\t' && c != '\n' && c != '\r') {
+                XML10_ESCAPES[c] = removed;
+            }
+        }
+        XML10_ESCAPES['&'] = "&amp;".toCharArray();
+        XML10_ESCAPES['<'] = "&lt;".toCharArray();
+        XML10_ESCAPES['>'] = "&gt;".toCharArray();
+        XML10_ESCAPES['"'] = "&quot;".toCharArray();
+        XML10_ESCAPES['\''] = "&apos;".toCharArray();
+        for (char c = 0x7f; c < 0xA0; c++) {
+            if (c != 0x85) {
+                XML10_ESCAPES[c] = ("&#" + (int) c + ";").toCharArray();
+            }
+        }
+    }
+
+    public enum Type {
+        CAS2_SUCCESS, CAS3_SUCCESS, FAILURE
+    }
+
+    private final Type type;
+    private final String contentType;
+    private final Charset charset;
+    private final Locale locale = Locale.getDefault();
+
+    /**
+     * @param contentType 与被替换的CasProtocolView一致，cas未指定时传null
+     * @param charset     spring.thymeleaf.encoding
+     */
+    public StreamingCasProtocolView(Type type, String contentType, Charset charset) {
+        this.type = type;
+        this.contentType = contentType;
+        this.charset = charset;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        response.setLocale(this.locale);
+        response.setContentType(SpringContentTypeUtils.computeViewContentType(request,
+                this.contentType != null ? this.contentType : DEFAULT_CONTENT_TYPE, this.charset));
+        Writer writer = response.getWriter();
+        this.write(model, writer);
+        writer.flush();
+    }
+
+    public void write(Map<String, ?> model, Writer writer) throws IOException {
+        writer.write(RESPONSE_START);
+        if (this.type == Type.FAILURE) {
+            writeFailure(model, writer);
+        } else {
+            this.writeSuccess(model, writer);
+        }
+        writer.write(RESPONSE_END);
+    }
+
+    private static void writeFailure(Map<String, ?> model, Writer writer) throws IOException {
+        Object code = model.get("code");
+        writer.write("    <cas:authenticationFailure");
+        //th:attr的值为null或空字符串时不输出该属性
+        if (code != null && !code.toString().isEmpty()) {
+            writer.write(" code=\"");
+            escapeText(code, writer);
+            writer.write('"');
+        }
+        writer.write('>');
+        escapeText(model.get("description"), writer);
+        writer.write("</cas:authenticationFailure>\n");
+    }
+
+    private void writeSuccess(Map<String, ?> model, Writer writer) throws IOException {
+        writer.write("    <cas:authenticationSuccess>\n        <cas:user>");
+        Principal principal = (Principal) model.get("principal");
+        escapeText(principal.getId(), writer);
+        writer.write("</cas:user>\n        ");
+
+        Object pgtIou = model.get("pgtIou");
+        if (isTrue(pgtIou)) {
+            writer.write("<cas:proxyGrantingTicket>");
+            escapeText(pgtIou, writer);
+            writer.write("</cas:proxyGrantingTicket>");
+        }
+        writer.write("\n        ");
+
+        Collection<?> chainedAuthentications = (Collection<?>) model.get("chainedAuthentications");
+        if (chainedAuthentications != null && !chainedAuthentications.isEmpty()) {
+            writer.write("<cas:proxies>\n            ");
+            for (Object authentication : chainedAuthentications) {
+                writer.write("<cas:proxy>");
+                escapeText(((Authentication) authentication).getPrincipal().getId(), writer);
+                writer.write("</cas:proxy>");
+            }
+            writer.write("\n        </cas:proxies>");
+        }
+
+        if (this.type == Type.CAS3_SUCCESS) {
+            writer.write("\n        ");
+            writeAttributes(model, writer);
+        }
+        writer.write("\n    </cas:authenticationSuccess>\n");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeAttributes(Map<String, ?> model, Writer writer) throws IOException {
+        Collection<?> formattedAttributes = (Collection<?>) model.get("formattedAttributes");
+        if (formattedAttributes != null) {
+            if (!formattedAttributes.isEmpty()) {
+                writer.write("<cas:attributes>");
+                for (Object line : formattedAttributes) {
+                    writer.write(ATTRIBUTE_START);
+                    if (line != null) {
+                        writer.write(line.toString());
+                    }
+                    writer.write(ATTRIBUTE_END);
+                }
+                writer.write("\n        </cas:attributes>");
+            }
+            return;
+        }
+        Object renderer = model.get(MODEL_ATTRIBUTE_RENDERER);
+        Map<String, Object> attributes = (Map<String, Object>) model.get("attributes");
+        if (renderer == null || attributes == null) {
+            return;
+        }
+        boolean inlined = RENDERER_INLINED.equals(renderer);
+        boolean started = false;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            //与DefaultCas30ProtocolAttributesRenderer相同：多值拆开并去重
+            for (Object value : CollectionUtils.toCollection(entry.getValue())) {
+                if (!started) {
+                    writer.write("<cas:attributes>");
+                    started = true;
+                }
+                writer.write(ATTRIBUTE_START);
+                if (inlined) {
+                    writer.write("<cas:attribute name=\"");
+                    writer.write(entry.getKey());
+                    writer.write("\" value=\"");
+                    escapeXml10(value.toString().trim(), writer);
+                    writer.write("\"></cas:attribute>");
+                } else {
+                    writer.write("<cas:");
+                    writer.write(entry.getKey());
+                    writer.write('>');
+                    escapeXml10(value.toString().trim(), writer);
+                    writer.write("</cas:");
+                    writer.write(entry.getKey());
+                    writer.write('>');
+                }
+                writer.write(ATTRIBUTE_END);
+            }
+        }
+        if (started) {
+            writer.write("\n        </cas:attributes>");
+        }
+    }
+
+    /**
+     * thymeleaf th:if的判断规则
+     */
+    private static boolean isTrue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        String text = value.toString();
+        return !"false".equalsIgnoreCase(text) && !"off".equalsIgnoreCase(text) && !"no".equalsIgnoreCase(text);
+    }
+
+    /**
+     * 与th:text、[[...]]相同，只转义& < > " '
+     */
+    static void escapeText(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && TEXT_ESCAPES[c] != null) {
+                writer.write(text, start, i - start);
+                writer.write(TEXT_ESCAPES[c]);
+                start = i + 1;
+            }
+        }
+        writer.write(text, start, length - start);
+    }
+
+    /**
+     * 与StringEscapeUtils.escapeXml10相同，另外删除不成对的代理字符、U+FFFE、U+FFFF
+     */
+    static void escapeXml10(String text, Writer writer) throws IOException {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            char[] escape;
+            if (c < 0xA0) {
+                escape = XML10_ESCAPES[c];
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i++;
+                continue;
+            } else if (Character.isSurrogate(c) || c == '\uFFFE' || c == '\uFFFF') {
+                escape = XML10_ESCAPES[0];
+            } else {
+                continue;
+            }
+            if (escape != null) {
+                writer.write(text, start, i - start);
+                writer.write(escape);
+                start = i + 1;
+            }
+        }
+        writer.write(text, start, length - start);
+    }
+}
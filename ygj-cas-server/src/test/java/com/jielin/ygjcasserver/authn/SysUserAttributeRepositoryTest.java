@@ -0,0 +1,183 @@
+package com.jielin.ygjcasserver.authn;
+
+import org.apereo.services.persondir.IPersonAttributes;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @ClassName: SysUserAttributeRepositoryTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 19:00:00
+ * @description: 角色、权限行的合并，结果缓存，以及warmUp按用户名分页
+ */
+public class SysUserAttributeRepositoryTest {
+
+    /**
+     * 按用户名排序的sys_user，模拟两条sql的结果：单个用户的查询和按用户名翻页的查询
+     */
+    private static final class FakeDatabase {
+        private final TreeMap<String, List<Object[]>> users = new TreeMap<String, List<Object[]>>();
+        private final List<List<Object>> queries = new ArrayList<List<Object>>();
+
+        private void user(String username, String id, String nickname, String[]... rolePermissions) {
+            List<Object[]> rows = new ArrayList<Object[]>();
+            if (rolePermissions.length == 0) {
+                rows.add(new Object[]{username, id, nickname, null, null});
+            }
+            for (String[] rolePermission : rolePermissions) {
+                rows.add(new Object[]{username, id, nickname, rolePermission[0], rolePermission[1]});
+            }
+            this.users.put(username, rows);
+        }
+
+        private DataSource dataSource() {
+            Connection connection = proxy(Connection.class, (method, args) -> {
+                if ("prepareStatement".equals(method)) {
+                    return this.statement((String) args[0]);
+                }
+                return null;
+            });
+            return proxy(DataSource.class, (method, args) -> "getConnection".equals(method) ? connection : null);
+        }
+
+        private PreparedStatement statement(String sql) {
+            boolean warmUp = sql.contains("limit ?");
+            List<Object> parameters = new ArrayList<Object>(Arrays.asList(null, null));
+            return proxy(PreparedStatement.class, (method, args) -> {
+                if ("setString".equals(method) || "setInt".equals(method)) {
+                    parameters.set((Integer) args[0] - 1, args[1]);
+                } else if ("executeQuery".equals(method)) {
+                    this.queries.add(new ArrayList<Object>(parameters));
+                    List<Object[]> rows = new ArrayList<Object[]>();
+                    if (warmUp) {
+                        int limit = (Integer) parameters.get(1);
+                        for (List<Object[]> user : this.users.tailMap((String) parameters.get(0), false).values()) {
+                            if (limit-- == 0) {
+                                break;
+                            }
+                            rows.addAll(user);
+                        }
+                    } else if (this.users.containsKey(parameters.get(0))) {
+                        rows.addAll(this.users.get(parameters.get(0)));
+                    }
+                    return resultSet(rows);
+                }
+                return null;
+            });
+        }
+
+        private static ResultSet resultSet(List<Object[]> rows) {
+            int[] cursor = {-1};
+            return proxy(ResultSet.class, (method, args) -> {
+                if ("next".equals(method)) {
+                    return ++cursor[0] < rows.size();
+                } else if ("getString".equals(method)) {
+                    return rows.get(cursor[0])[(Integer) args[0] - 1];
+                }
+                return null;
+            });
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.invoke(method.getName(), args);
+            if (result == null && method.getReturnType() == boolean.class) {
+                return false;
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void mergesRolePermissionRows() {
+        FakeDatabase database = new FakeDatabase();
+        database.user("admin", "1", "管理员",
+                new String[]{"admin", "user:read"}, new String[]{"admin", "user:write"},
+                new String[]{"auditor", "user:read"}, new String[]{"guest", null});
+        database.user("nobody", "2", null);
+        SysUserAttributeRepository repository = new SysUserAttributeRepository(database.dataSource(), 60000L, 100);
+
+        IPersonAttributes admin = repository.getPerson("admin");
+        assertEquals(Collections.singletonList("1"), admin.getAttributes().get(SysUserAttributeRepository.USER_ID));
+        assertEquals(Collections.singletonList("管理员"), admin.getAttributes().get(SysUserAttributeRepository.NICKNAME));
+        assertEquals(Arrays.asList("admin", "auditor", "guest"), admin.getAttributes().get(SysUserAttributeRepository.ROLES));
+        assertEquals(Arrays.asList("user:read", "user:write"), admin.getAttributes().get(SysUserAttributeRepository.PERMISSIONS));
+
+        IPersonAttributes nobody = repository.getPerson("nobody");
+        assertFalse(nobody.getAttributes().containsKey(SysUserAttributeRepository.NICKNAME));
+        assertEquals(Collections.emptyList(), nobody.getAttributes().get(SysUserAttributeRepository.ROLES));
+    }
+
+    @Test
+    public void cachesFoundUsersOnly() {
+        FakeDatabase database = new FakeDatabase();
+        database.user("admin", "1", null, new String[]{"admin", "user:read"});
+        SysUserAttributeRepository repository = new SysUserAttributeRepository(database.dataSource(), 60000L, 100);
+
+        repository.getPerson("admin");
+        repository.getPerson("admin");
+        assertEquals(1, database.queries.size());
+        //不存在的用户不缓存，用户创建后可以立即读到
+        assertNull(repository.getPerson("missing"));
+        assertNull(repository.getPerson("missing"));
+        assertEquals(3, database.queries.size());
+
+        repository.invalidate("admin");
+        repository.getPerson("admin");
+        assertEquals(4, database.queries.size());
+    }
+
+    @Test
+    public void warmUpPagesByUsername() {
+        FakeDatabase database = new FakeDatabase();
+        for (int i = 0; i < 2500; i++) {
+            String username = String.format("user%05d", i);
+            database.user(username, String.valueOf(i), null, new String[]{"user", "user:read"}, new String[]{"user", "user:write"});
+        }
+        SysUserAttributeRepository repository = new SysUserAttributeRepository(database.dataSource(), 60000L, 10000);
+
+        assertEquals(2500, repository.warmUp());
+        assertEquals(Arrays.asList(
+                Arrays.<Object>asList("", 1000),
+                Arrays.<Object>asList("user00999", 1000),
+                Arrays.<Object>asList("user01999", 1000)), database.queries);
+
+        assertEquals(Collections.singletonList("2499"), repository.getPerson("user02499").getAttributes().get(SysUserAttributeRepository.USER_ID));
+        assertEquals(3, database.queries.size());
+    }
+
+    @Test
+    public void warmUpStopsAtMaximumSize() {
+        FakeDatabase database = new FakeDatabase();
+        for (int i = 0; i < 2500; i++) {
+            database.user(String.format("user%05d", i), String.valueOf(i), null);
+        }
+        SysUserAttributeRepository repository = new SysUserAttributeRepository(database.dataSource(), 60000L, 1500);
+
+        assertEquals(1500, repository.warmUp());
+        assertEquals(Arrays.asList(
+                Arrays.<Object>asList("", 1000),
+                Arrays.<Object>asList("user00999", 500)), database.queries);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jielin.ygjcasserver.authn;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.authentication.AuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.security.auth.login.AccountLockedException;
+import javax.security.auth.login.FailedLoginException;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @ClassName: SysUserAuthenticationHandlerTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 10:20:00
+ * @description: 用户不存在、密码错误、账号锁定时的异常类型
+ */
+public class SysUserAuthenticationHandlerTest {
+    /**
+     * "123456"的md5
+     */
+    private static final String PASSWORD_MD5 = "e10adc3949ba59abbe56e057f20f883e";
+
+    private DataSource dataSource;
+    private ResultSet resultSet;
+    private SysUserAuthenticationHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        this.resultSet = mock(ResultSet.class);
+        when(this.dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(this.resultSet);
+        this.handler = new SysUserAuthenticationHandler("sysUser", null, new DefaultPrincipalFactory(), 0,
+                this.dataSource, "MD5", StandardCharsets.UTF_8, new MetricRegistry());
+    }
+
+    private void givenUser(String password, int status) throws Exception {
+        when(this.resultSet.next()).thenReturn(true, false);
+        when(this.resultSet.getString(1)).thenReturn(password);
+        when(this.resultSet.getInt(2)).thenReturn(status);
+    }
+
+    private AuthenticationHandlerExecutionResult authenticate(String username, String password) throws Exception {
+        return this.handler.authenticateUsernamePasswordInternal(new UsernamePasswordCredential(username, password), password);
+    }
+
+    @Test
+    public void authenticatesUnlockedUserWithMatchingPassword() throws Exception {
+        givenUser(PASSWORD_MD5, 1);
+        assertEquals("admin", authenticate("admin", "123456").getPrincipal().getId());
+    }
+
+    @Test(expected = FailedLoginException.class)
+    public void rejectsWrongPassword() throws Exception {
+        givenUser(PASSWORD_MD5, 1);
+        authenticate("admin", "654321");
+    }
+
+    @Test(expected = FailedLoginException.class)
+    public void unknownUserFailsLikeWrongPassword() throws Exception {
+        when(this.resultSet.next()).thenReturn(false);
+        authenticate("nobody", "123456");
+    }
+
+    @Test(expected = FailedLoginException.class)
+    public void lockedAccountWithWrongPasswordDoesNotRevealLock() throws Exception {
+        givenUser(PASSWORD_MD5, 0);
+        authenticate("admin", "654321");
+    }
+
+    @Test(expected = AccountLockedException.class)
+    public void lockedAccountWithMatchingPasswordIsLocked() throws Exception {
+        givenUser(PASSWORD_MD5, 0);
+        authenticate("admin", "123456");
+    }
+}
@@ -0,0 +1,164 @@
+package com.jielin.ygjcasserver.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableSimpleMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: RingBufferAppenderTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 17:00:00
+ * @description: 队列满时DROP、BLOCK两种策略的丢弃与等待，以及可复用消息入队前的复制
+ */
+public class RingBufferAppenderTest {
+    private static final int BUFFER_SIZE = 64;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private DefaultConfiguration configuration;
+    private BlockingAppender target;
+    private RingBufferAppender appender;
+
+    @Before
+    public void setUp() {
+        this.configuration = new DefaultConfiguration();
+        this.target = new BlockingAppender();
+        this.target.start();
+        this.configuration.addAppender(this.target);
+    }
+
+    @After
+    public void tearDown() {
+        this.target.release.countDown();
+        if (this.appender != null) {
+            this.appender.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private RingBufferAppender start(String policy, long blockTimeoutMillis) {
+        //丢弃数按名称累计，每个用例用不同的名称
+        String name = "ringBufferTest" + SEQUENCE.incrementAndGet();
+        this.appender = RingBufferAppender.createAppender(name, new AppenderRef[]{AppenderRef.createAppenderRef("target", null, null)},
+                null, this.configuration, BUFFER_SIZE, policy, false, blockTimeoutMillis, 1000L, true);
+        this.appender.start();
+        return this.appender;
+    }
+
+    private static LogEvent event(Message message) {
+        return Log4jLogEvent.newBuilder().setLoggerName("audit").setLevel(Level.INFO).setMessage(message).build();
+    }
+
+    /**
+     * 第一条被后台线程取走后阻塞在目标appender中，队列随后按容量填满
+     */
+    private void fill(RingBufferAppender appender) throws InterruptedException {
+        appender.append(event(new SimpleMessage("first")));
+        assertTrue(this.target.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < BUFFER_SIZE; i++) {
+            appender.append(event(new SimpleMessage("event" + i)));
+        }
+        assertEquals(BUFFER_SIZE, appender.getQueueDepth());
+    }
+
+    @Test(timeout = 10000)
+    public void dropPolicyDiscardsWhenFull() throws InterruptedException {
+        RingBufferAppender appender = this.start("DROP", 0L);
+        assertEquals(BUFFER_SIZE, appender.getBufferSize());
+        this.fill(appender);
+        for (int i = 0; i < 10; i++) {
+            appender.append(event(new SimpleMessage("dropped")));
+        }
+        assertEquals(10, RingBufferAppender.getDropped(appender.getName()));
+
+        this.target.release.countDown();
+        this.target.awaitReceived(BUFFER_SIZE);
+        assertEquals(BUFFER_SIZE, this.target.received.size());
+    }
+
+    @Test(timeout = 10000)
+    public void blockPolicyDropsAfterTimeout() throws InterruptedException {
+        RingBufferAppender appender = this.start("BLOCK", 50L);
+        this.fill(appender);
+        long start = System.nanoTime();
+        appender.append(event(new SimpleMessage("dropped")));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50L));
+        assertEquals(1, RingBufferAppender.getDropped(appender.getName()));
+    }
+
+    @Test(timeout = 10000)
+    public void blockPolicyWaitsForFreeSlot() throws InterruptedException {
+        RingBufferAppender appender = this.start("BLOCK", 5000L);
+        this.fill(appender);
+        Thread producer = new Thread(() -> appender.append(event(new SimpleMessage("waited"))));
+        producer.start();
+        Thread.sleep(100);
+        this.target.release.countDown();
+        producer.join();
+
+        this.target.awaitReceived(BUFFER_SIZE + 1);
+        assertEquals(0, RingBufferAppender.getDropped(appender.getName()));
+        assertEquals("waited", this.target.received.get(BUFFER_SIZE).getMessage().getFormattedMessage());
+    }
+
+    @Test(timeout = 10000)
+    public void reusableMessageIsCopiedBeforeEnqueue() throws InterruptedException {
+        RingBufferAppender appender = this.start("DROP", 0L);
+        appender.append(event(new SimpleMessage("first")));
+        assertTrue(this.target.entered.await(5, TimeUnit.SECONDS));
+
+        ReusableSimpleMessage message = new ReusableSimpleMessage();
+        message.set("login admin");
+        appender.append(event(message));
+        //业务线程返回后复用同一个消息对象
+        message.set("login other");
+        this.target.release.countDown();
+
+        this.target.awaitReceived(2);
+        assertEquals("login admin", this.target.received.get(1).getMessage().getFormattedMessage());
+    }
+
+    private static final class BlockingAppender extends AbstractAppender {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<LogEvent> received = new CopyOnWriteArrayList<LogEvent>();
+
+        private BlockingAppender() {
+            super("target", null, null, true);
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            this.entered.countDown();
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.received.add(event);
+        }
+
+        private void awaitReceived(int count) throws InterruptedException {
+            while (this.received.size() < count) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
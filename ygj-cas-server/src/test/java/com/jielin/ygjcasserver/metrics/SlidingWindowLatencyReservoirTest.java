@@ -0,0 +1,102 @@
+package com.jielin.ygjcasserver.metrics;
+
+import com.codahale.metrics.Clock;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @ClassName: SlidingWindowLatencyReservoirTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 16:30:00
+ * @description: 按块滑动、空闲期间跨多块滑动以及快照覆盖的时间
+ */
+public class SlidingWindowLatencyReservoirTest {
+    private static final long FIFTEEN_MINUTES = SlidingWindowLatencyReservoir.CHUNKS * SlidingWindowLatencyReservoir.CHUNK_MILLIS;
+
+    private final ManualClock clock = new ManualClock();
+    private final SlidingWindowLatencyReservoir reservoir = new SlidingWindowLatencyReservoir(this.clock);
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+
+    @Test
+    public void currentChunkIsVisibleImmediately() {
+        this.reservoir.update(millis(3));
+        this.reservoir.update(millis(5));
+        LatencySnapshot snapshot = this.reservoir.getSnapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(millis(5), snapshot.getMax());
+        assertEquals(millis(3), snapshot.getMin());
+    }
+
+    @Test
+    public void chunksLeaveTheDefaultWindowAfterItEnds() {
+        this.reservoir.update(millis(3));
+        //默认窗口为当前块加最近结束的4块
+        this.clock.advance(60000L);
+        assertEquals(1, this.reservoir.getSnapshot().getCount());
+        this.clock.advance(15000L);
+        assertEquals(0, this.reservoir.getSnapshot().getCount());
+        assertEquals(1, this.reservoir.getSnapshot(FIFTEEN_MINUTES).getCount());
+    }
+
+    @Test
+    public void idleGapSkipsSeveralChunks() {
+        this.reservoir.update(millis(3));
+        //空闲约2.5块后再记录，两条都在窗口内
+        this.clock.advance(37500L);
+        this.reservoir.update(millis(7));
+        assertEquals(2, this.reservoir.getSnapshot().getCount());
+
+        this.clock.advance(37500L);
+        LatencySnapshot snapshot = this.reservoir.getSnapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(millis(7), snapshot.getMax());
+    }
+
+    @Test
+    public void idleGapLongerThanAllChunksDropsEverything() {
+        this.reservoir.update(millis(3));
+        this.clock.advance(FIFTEEN_MINUTES + 60000L);
+        assertEquals(0, this.reservoir.getSnapshot(FIFTEEN_MINUTES).getCount());
+
+        this.reservoir.update(millis(7));
+        LatencySnapshot snapshot = this.reservoir.getSnapshot(FIFTEEN_MINUTES);
+        assertEquals(1, snapshot.getCount());
+        assertEquals(millis(7), snapshot.getMin());
+    }
+
+    @Test
+    public void updatesDuringIdleRotationAreKept() {
+        this.clock.advance(FIFTEEN_MINUTES * 3);
+        this.reservoir.update(millis(3));
+        assertEquals(1, this.reservoir.getSnapshot().getCount());
+    }
+
+    @Test
+    public void spanIsLimitedByUptime() {
+        this.clock.advance(20000L);
+        assertEquals(millis(20000L), this.reservoir.getSnapshot().getSpanNanos());
+        this.clock.advance(FIFTEEN_MINUTES);
+        //当前块已过5秒，加上4个完整块
+        assertEquals(millis(65000L), this.reservoir.getSnapshot().getSpanNanos());
+    }
+
+    private static final class ManualClock extends Clock {
+        private long tick = 1000L;
+
+        private void advance(long millis) {
+            this.tick += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public long getTick() {
+            return this.tick;
+        }
+    }
+}
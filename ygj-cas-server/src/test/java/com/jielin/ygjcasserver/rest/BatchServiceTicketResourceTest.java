@@ -0,0 +1,161 @@
+package com.jielin.ygjcasserver.rest;
+
+import com.codahale.metrics.MetricRegistry;
+import com.jielin.ygjcasserver.ticket.PipelinedRedisTicketRegistry;
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.DefaultPrincipalElectionStrategy;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.services.UnauthorizedServiceException;
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistrySupport;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.util.Pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @ClassName: BatchServiceTicketResourceTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 19:40:00
+ * @description: 批量签发ST时各service单独授权，单个失败不影响其他，整批在返回前提交
+ */
+public class BatchServiceTicketResourceTest {
+    private static final String TGT_ID = "TGT-1-abcdefghijklmnopqrstuvwxyz-cas";
+
+    private CentralAuthenticationService cas;
+    private TicketRegistrySupport ticketRegistrySupport;
+    private Jedis jedis;
+    private Pipeline pipeline;
+    private PipelinedRedisTicketRegistry registry;
+    private int granted;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        Pool<Jedis> pool = mock(Pool.class);
+        this.jedis = mock(Jedis.class);
+        this.pipeline = mock(Pipeline.class);
+        when(pool.getResource()).thenReturn(this.jedis);
+        when(this.jedis.pipelined()).thenReturn(this.pipeline);
+        this.registry = new PipelinedRedisTicketRegistry(pool, true);
+
+        Authentication authentication = DefaultAuthenticationBuilder.newInstance()
+                .setPrincipal(new DefaultPrincipalFactory().createPrincipal("admin"))
+                .build();
+        TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl(TGT_ID, authentication, new TicketGrantingTicketExpirationPolicy(28800, 7200));
+        this.ticketRegistrySupport = mock(TicketRegistrySupport.class);
+        when(this.ticketRegistrySupport.getAuthenticationFrom(TGT_ID)).thenReturn(authentication);
+        //与DefaultCentralAuthenticationService一样写入ST和更新后的TGT
+        this.cas = mock(CentralAuthenticationService.class);
+        when(this.cas.grantServiceTicket(eq(TGT_ID), any(Service.class), any(AuthenticationResult.class))).thenAnswer(invocation -> {
+            Service service = (Service) invocation.getArguments()[1];
+            if (service.getId().contains("denied")) {
+                throw new UnauthorizedServiceException(UnauthorizedServiceException.CODE_UNAUTHZ_SERVICE, "denied");
+            }
+            if (service.getId().contains("expired")) {
+                throw new InvalidTicketException(TGT_ID);
+            }
+            this.granted++;
+            ServiceTicket serviceTicket = tgt.grantServiceTicket("ST-" + this.granted + "-abcdefghijklmnopqrst-cas", service,
+                    new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, true);
+            this.registry.addTicket(serviceTicket);
+            this.registry.updateTicket(tgt);
+            return serviceTicket;
+        });
+    }
+
+    private BatchServiceTicketResource resource(TicketRegistry ticketRegistry) {
+        return new BatchServiceTicketResource(this.cas, this.ticketRegistrySupport, ticketRegistry, new WebApplicationServiceFactory(),
+                new DefaultPrincipalElectionStrategy(), 3, new MetricRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> part(ResponseEntity<Map<String, Object>> response, String name) {
+        return (Map<String, String>) response.getBody().get(name);
+    }
+
+    @Test
+    public void grantsEachServiceAndFlushesOnce() {
+        ResponseEntity<Map<String, Object>> response = this.resource(this.registry).createServiceTickets(TGT_ID,
+                Arrays.asList("https://a.example.com/", "https://denied.example.com/", "https://a.example.com/", "", "https://b.example.com/"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Arrays.asList("https://a.example.com/", "https://b.example.com/"), new ArrayList<String>(part(response, "tickets").keySet()));
+        assertEquals("ST-2-abcdefghijklmnopqrst-cas", part(response, "tickets").get("https://b.example.com/"));
+        assertEquals(Collections.singletonMap("https://denied.example.com/", "denied"), part(response, "errors"));
+        //重复的service只签发一次；两个ST和TGT在一次pipeline中写入
+        assertEquals(2, this.granted);
+        verify(this.pipeline, times(1)).exec();
+        verify(this.pipeline, times(3)).setex(any(byte[].class), anyInt(), any(byte[].class));
+        verify(this.jedis, never()).setex(any(byte[].class), anyInt(), any(byte[].class));
+    }
+
+    @Test
+    public void stopsWhenTicketGrantingTicketExpiresMidway() throws Exception {
+        ResponseEntity<Map<String, Object>> response = this.resource(this.registry).createServiceTickets(TGT_ID,
+                Arrays.asList("https://a.example.com/", "https://expired.example.com/", "https://b.example.com/"));
+
+        assertEquals(Collections.singleton("https://a.example.com/"), part(response, "tickets").keySet());
+        assertNotNull(part(response, "errors").get("https://expired.example.com/"));
+        verify(this.cas, times(2)).grantServiceTicket(eq(TGT_ID), any(Service.class), any(AuthenticationResult.class));
+        //已签发的ST仍然写入
+        verify(this.pipeline, times(2)).setex(any(byte[].class), anyInt(), any(byte[].class));
+        verify(this.pipeline).exec();
+    }
+
+    @Test
+    public void writesDirectlyWithOtherRegistries() {
+        //registry不是PipelinedRedisTicketRegistry时不开启批次，写入立即执行
+        ResponseEntity<Map<String, Object>> response = this.resource(mock(TicketRegistry.class)).createServiceTickets(TGT_ID,
+                Collections.singletonList("https://a.example.com/"));
+        assertEquals(1, part(response, "tickets").size());
+        verify(this.jedis, times(2)).setex(any(byte[].class), anyInt(), any(byte[].class));
+        verify(this.pipeline, never()).exec();
+    }
+
+    @Test
+    public void rejectsInvalidRequests() throws Exception {
+        BatchServiceTicketResource resource = this.resource(this.registry);
+        assertEquals(HttpStatus.BAD_REQUEST, resource.createServiceTickets(TGT_ID, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, resource.createServiceTickets(TGT_ID, Collections.singletonList("")).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, resource.createServiceTickets(TGT_ID,
+                Arrays.asList("https://a/", "https://b/", "https://c/", "https://d/")).getStatusCode());
+
+        ResponseEntity<Map<String, Object>> notFound = resource.createServiceTickets("TGT-missing", Collections.singletonList("https://a/"));
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertTrue(notFound.getBody().containsKey("error"));
+        verify(this.cas, never()).grantServiceTicket(any(String.class), any(Service.class), any(AuthenticationResult.class));
+        verify(this.jedis, never()).pipelined();
+    }
+}
@@ -0,0 +1,117 @@
+package com.jielin.ygjcasserver.services;
+
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredService;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @ClassName: RegisteredServiceIndexTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 19:20:00
+ * @description: 从serviceId正则取host和路径前缀，索引查找的结果与逐个匹配一致
+ */
+public class RegisteredServiceIndexTest {
+    private static long nextId = 1;
+
+    private static RegexRegisteredService service(String serviceId) {
+        RegexRegisteredService service = new RegexRegisteredService();
+        service.setId(nextId++);
+        service.setName("service" + service.getId());
+        service.setServiceId(serviceId);
+        return service;
+    }
+
+    @Test
+    public void extractsHostAndPathPrefix() {
+        assertArrayEquals(new String[]{"app.example.com", "/app1/"}, RegisteredServiceIndex.keyOf("^https://app\\.example\\.com/app1/.*"));
+        assertArrayEquals(new String[]{"app.example.com", "/"}, RegisteredServiceIndex.keyOf("^(https|http)://App\\.Example\\.com/.*"));
+        assertArrayEquals(new String[]{"app.example.com", ""}, RegisteredServiceIndex.keyOf("^https?://app\\.example\\.com(:\\d+)?/.*"));
+        assertArrayEquals(new String[]{"app.example.com", ""}, RegisteredServiceIndex.keyOf("^https:\\/\\/app\\.example\\.com"));
+        assertArrayEquals(new String[]{"app.example.com", "/login"}, RegisteredServiceIndex.keyOf("^https://app\\.example\\.com/login\\?from=.*"));
+    }
+
+    @Test
+    public void leavesNonLiteralHostsUnindexed() {
+        assertNull(RegisteredServiceIndex.keyOf("^https://.*"));
+        assertNull(RegisteredServiceIndex.keyOf("^(https|imaps)://.*"));
+        //未转义的.可以匹配任意字符
+        assertNull(RegisteredServiceIndex.keyOf("^https://app.example.com/.*"));
+        //?使最后一个字符不确定
+        assertNull(RegisteredServiceIndex.keyOf("^https://app\\.example\\.co?m/.*"));
+        assertNull(RegisteredServiceIndex.keyOf("^https://a\\.com/.*|^https://b\\.com/.*"));
+        assertNull(RegisteredServiceIndex.keyOf("^https://app\\.example\\.com\\w*/.*"));
+    }
+
+    @Test
+    public void parsesHostAndPathOfServiceUrl() {
+        assertArrayEquals(new String[]{"app.example.com", "/app1/x"}, RegisteredServiceIndex.parseUrl("https://user@App.Example.com:8443/App1/x?y=/z#f"));
+        assertArrayEquals(new String[]{"app.example.com", ""}, RegisteredServiceIndex.parseUrl("https://app.example.com?y"));
+        assertNull(RegisteredServiceIndex.parseUrl("app.example.com/app1"));
+    }
+
+    @Test
+    public void findsServiceInEvaluationOrder() {
+        RegexRegisteredService app1 = service("^https://app\\.example\\.com/app1/.*");
+        RegexRegisteredService wildcard = service("^https://.*\\.example\\.com/app2/.*");
+        RegexRegisteredService host = service("^https://app\\.example\\.com/.*");
+        RegexRegisteredService any = service("^(https|http)://.*");
+        RegisteredServiceIndex index = RegisteredServiceIndex.build(Arrays.<RegisteredService>asList(app1, wildcard, host, any), null, 100);
+
+        assertEquals(4, index.size());
+        assertEquals(1, index.hostCount());
+        assertEquals(2, index.unindexedCount());
+        assertSame(app1, index.match("https://app.example.com/app1/index"));
+        assertSame(app1, index.match("HTTPS://APP.EXAMPLE.COM/APP1/index"));
+        //不分桶的服务按顺序排在host服务之前
+        assertSame(wildcard, index.match("https://app.example.com/app2/index"));
+        assertSame(host, index.match("https://app.example.com/app3/index"));
+        assertSame(any, index.match("http://other.example.com/"));
+        assertNull(index.match("ftp://app.example.com/"));
+        assertNull(index.match("ftp://app.example.com/"));
+        assertNull(index.match(null));
+    }
+
+    @Test
+    public void matchesLikeLinearScan() {
+        List<RegisteredService> services = new ArrayList<RegisteredService>();
+        for (int i = 0; i < 50; i++) {
+            services.add(service("^https://app" + i + "\\.example\\.com/app" + (i % 3) + "/.*"));
+            if (i % 10 == 0) {
+                services.add(service("^https://app" + i + "\\.example\\.com(:8443)?/.*"));
+                services.add(service("^https://app" + i + ".example.com/.*"));
+            }
+        }
+        services.add(service("^https://.*/public/.*"));
+        RegisteredServiceIndex index = RegisteredServiceIndex.build(services, null, 0);
+        RegisteredServiceIndex rebuilt = RegisteredServiceIndex.build(services, index, 100);
+
+        for (int i = 0; i < 55; i++) {
+            for (String url : Arrays.asList("https://app" + i + ".example.com/app" + (i % 3) + "/x",
+                    "https://app" + i + ".example.com/app" + ((i + 1) % 3) + "/x",
+                    "https://app" + i + ".example.com:8443/x",
+                    "https://app" + i + "Xexample.com/x",
+                    "https://app" + i + ".example.com/public/x",
+                    "http://app" + i + ".example.com/app0/x")) {
+                RegisteredService expected = null;
+                for (RegisteredService service : services) {
+                    if (service.matches(url)) {
+                        expected = service;
+                        break;
+                    }
+                }
+                assertSame(url, expected, index.match(url));
+                assertSame(url, expected, rebuilt.match(url));
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.jielin.ygjcasserver.slo;
+
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: SloDispatcherTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 17:30:00
+ * @description: 同一地址、同一SessionIndex的通知合并，队列满时丢弃，失败后重试
+ */
+public class SloDispatcherTest {
+    private static final String CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private final List<String> received = new CopyOnWriteArrayList<String>();
+    private final CountDownLatch firstEntered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private HttpServer server;
+    private SloDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody(); Scanner scanner = new Scanner(body, "UTF-8")) {
+                String message = scanner.useDelimiter("\\A").hasNext() ? scanner.next() : "";
+                //第一条通知阻塞，后面的通知留在队列中
+                this.firstEntered.countDown();
+                this.release.await(5, TimeUnit.SECONDS);
+                boolean fail = this.failures.getAndDecrement() > 0;
+                if (!fail) {
+                    this.received.add(message);
+                }
+                exchange.sendResponseHeaders(fail ? 500 : 200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.release.countDown();
+        if (this.dispatcher != null) {
+            this.dispatcher.close();
+        }
+        this.server.stop(0);
+    }
+
+    private SloDispatcher dispatcher(int queueCapacityPerHost) {
+        SloDispatchProperties properties = new SloDispatchProperties();
+        properties.setThreads(2);
+        properties.setMaxConnectionsPerHost(1);
+        properties.setQueueCapacityPerHost(queueCapacityPerHost);
+        properties.setInitialBackoff(10L);
+        this.dispatcher = new SloDispatcher(properties, SSLConnectionSocketFactory.getSocketFactory(), this.metricRegistry);
+        return this.dispatcher;
+    }
+
+    private URL url(String path) throws Exception {
+        return new URL("http://127.0.0.1:" + this.server.getAddress().getPort() + path);
+    }
+
+    private static String logoutRequest(String id, String sessionIndex) throws Exception {
+        String xml = "<samlp:LogoutRequest xmlns:samlp=\"urn:oasis:names:tc:SAML:2.0:protocol\" ID=\"" + id + "\" Version=\"2.0\">"
+                + "<saml:NameID xmlns:saml=\"urn:oasis:names:tc:SAML:2.0:assertion\">@NOT_USED@</saml:NameID>"
+                + "<samlp:SessionIndex>" + sessionIndex + "</samlp:SessionIndex></samlp:LogoutRequest>";
+        return "logoutRequest=" + URLEncoder.encode(xml, "UTF-8");
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.received.size() < count && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * sent、retried在收到响应后才计数
+     */
+    private long awaitCounter(String name, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.metricRegistry.counter(name).getCount() < count && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        return this.metricRegistry.counter(name).getCount();
+    }
+
+    @Test(timeout = 20000)
+    public void coalescesQueuedNotificationsPerUrlAndSessionIndex() throws Exception {
+        SloDispatcher dispatcher = this.dispatcher(100);
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-0", "ST-0"), CONTENT_TYPE));
+        assertTrue(this.firstEntered.await(5, TimeUnit.SECONDS));
+
+        //ID不同、SessionIndex相同的只发一次
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-1", "ST-1"), CONTENT_TYPE));
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-2", "ST-1"), CONTENT_TYPE));
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-3", "ST-1"), CONTENT_TYPE));
+        //SessionIndex不同或地址不同的分别发送
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-4", "ST-2"), CONTENT_TYPE));
+        assertTrue(dispatcher.submit(this.url("/other/logout"), logoutRequest("LR-5", "ST-1"), CONTENT_TYPE));
+        assertEquals(3, dispatcher.queued());
+        assertEquals(2, this.metricRegistry.counter("cas.slo.dispatch.coalesced").getCount());
+
+        this.release.countDown();
+        assertEquals(4, this.awaitCounter("cas.slo.dispatch.sent", 4));
+        assertEquals(4, this.received.size());
+    }
+
+    @Test(timeout = 20000)
+    public void sentNotificationIsNotCoalescedWithLaterOnes() throws Exception {
+        SloDispatcher dispatcher = this.dispatcher(100);
+        this.release.countDown();
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-1", "ST-1"), CONTENT_TYPE));
+        this.awaitReceived(1);
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-2", "ST-1"), CONTENT_TYPE));
+        this.awaitReceived(2);
+        assertEquals(2, this.received.size());
+        assertEquals(0, this.metricRegistry.counter("cas.slo.dispatch.coalesced").getCount());
+    }
+
+    @Test(timeout = 20000)
+    public void dropsWhenHostQueueIsFull() throws Exception {
+        SloDispatcher dispatcher = this.dispatcher(1);
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-0", "ST-0"), CONTENT_TYPE));
+        assertTrue(this.firstEntered.await(5, TimeUnit.SECONDS));
+
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-1", "ST-1"), CONTENT_TYPE));
+        assertFalse(dispatcher.submit(this.url("/logout"), logoutRequest("LR-2", "ST-2"), CONTENT_TYPE));
+        assertEquals(1, this.metricRegistry.counter("cas.slo.dispatch.dropped").getCount());
+
+        //丢弃的通知不留在合并集合中，之后可以再次提交
+        this.release.countDown();
+        this.awaitReceived(2);
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-3", "ST-2"), CONTENT_TYPE));
+        this.awaitReceived(3);
+        assertEquals(3, this.received.size());
+    }
+
+    @Test(timeout = 20000)
+    public void retriesFailedNotification() throws Exception {
+        SloDispatcher dispatcher = this.dispatcher(100);
+        this.failures.set(1);
+        this.release.countDown();
+        assertTrue(dispatcher.submit(this.url("/logout"), logoutRequest("LR-1", "ST-1"), CONTENT_TYPE));
+        assertEquals(1, this.awaitCounter("cas.slo.dispatch.sent", 1));
+        assertEquals(1, this.received.size());
+        assertEquals(1, this.metricRegistry.counter("cas.slo.dispatch.retried").getCount());
+    }
+}
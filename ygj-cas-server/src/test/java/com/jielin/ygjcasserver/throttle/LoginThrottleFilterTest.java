@@ -0,0 +1,53 @@
+package com.jielin.ygjcasserver.throttle;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @ClassName: LoginThrottleFilterTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 11:40:00
+ * @description: 从代理请求头中取客户端ip
+ */
+public class LoginThrottleFilterTest {
+    private static final LoginThrottle THROTTLE = new LoginThrottle(60000L, 10, 100, 20, 10, 0, new MetricRegistry());
+
+    private static HttpServletRequest request(String forwardedFor) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(request.getHeader("X-Forwarded-For")).thenReturn(forwardedFor);
+        return request;
+    }
+
+    @Test
+    public void usesRemoteAddrWithoutHeaderOption() {
+        LoginThrottleFilter filter = new LoginThrottleFilter(THROTTLE, "username", null, Collections.<String>emptyList());
+        assertEquals("10.0.0.2", filter.clientIp(request("1.2.3.4")));
+    }
+
+    @Test
+    public void takesRightmostEntryAddedByProxy() {
+        LoginThrottleFilter filter = new LoginThrottleFilter(THROTTLE, "username", "X-Forwarded-For", Collections.<String>emptyList());
+        //客户端自己填的第一个值被忽略
+        assertEquals("203.0.113.7", filter.clientIp(request("6.6.6.6, 203.0.113.7")));
+        assertEquals("203.0.113.7", filter.clientIp(request("203.0.113.7")));
+        assertEquals("10.0.0.2", filter.clientIp(request(null)));
+    }
+
+    @Test
+    public void skipsTrustedProxiesFromTheRight() {
+        LoginThrottleFilter filter = new LoginThrottleFilter(THROTTLE, "username", "X-Forwarded-For", Arrays.asList("10.0.0.3", "10.0.0.4"));
+        assertEquals("203.0.113.7", filter.clientIp(request("6.6.6.6,203.0.113.7, 10.0.0.3 ,10.0.0.4")));
+        //全部是可信代理时取最左边的值
+        assertEquals("10.0.0.3", filter.clientIp(request("10.0.0.3, 10.0.0.4")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.jielin.ygjcasserver.throttle;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @ClassName: LoginThrottleTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 11:30:00
+ * @description: 各维度的计数key、阈值和窗口过期
+ */
+public class LoginThrottleTest {
+    private static final long WINDOW = 60000L;
+
+    private static LoginThrottle throttle(long window, int ipThreshold, int usernameThreshold, int globalUsernameThreshold) {
+        return new LoginThrottle(window, 10, 1000, ipThreshold, usernameThreshold, globalUsernameThreshold, new MetricRegistry());
+    }
+
+    @Test
+    public void usernameIsCountedPerIp() {
+        LoginThrottle throttle = throttle(WINDOW, 0, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("10.0.0.1", "admin");
+        }
+        assertTrue(throttle.isThrottled("10.0.0.1", "admin"));
+        //其他ip上的同一个用户名不受影响
+        assertFalse(throttle.isThrottled("10.0.0.2", "admin"));
+        assertFalse(throttle.isThrottled("10.0.0.1", "other"));
+    }
+
+    @Test
+    public void usernameIsCaseInsensitiveAndTrimmed() {
+        LoginThrottle throttle = throttle(WINDOW, 0, 2, 0);
+        throttle.recordFailure("10.0.0.1", "Admin");
+        throttle.recordFailure("10.0.0.1", " admin ");
+        assertTrue(throttle.isThrottled("10.0.0.1", "ADMIN"));
+    }
+
+    @Test
+    public void ipThresholdCoversAllUsernames() {
+        LoginThrottle throttle = throttle(WINDOW, 3, 0, 0);
+        throttle.recordFailure("10.0.0.1", "a");
+        throttle.recordFailure("10.0.0.1", "b");
+        assertFalse(throttle.isThrottled("10.0.0.1", "c"));
+        throttle.recordFailure("10.0.0.1", "c");
+        assertTrue(throttle.isThrottled("10.0.0.1", "d"));
+        assertTrue(throttle.isThrottled("10.0.0.1", null));
+        assertFalse(throttle.isThrottled("10.0.0.2", "a"));
+    }
+
+    @Test
+    public void globalUsernameThresholdIsOffByDefault() {
+        LoginThrottle throttle = throttle(WINDOW, 0, 100, 0);
+        for (int i = 0; i < 50; i++) {
+            throttle.recordFailure("10.0.0." + i, "admin");
+        }
+        assertFalse(throttle.isThrottled("10.0.1.1", "admin"));
+    }
+
+    @Test
+    public void globalUsernameThresholdSpansIps() {
+        LoginThrottle throttle = throttle(WINDOW, 0, 100, 5);
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("10.0.0." + i, "admin");
+        }
+        assertTrue(throttle.isThrottled("10.0.1.1", "admin"));
+    }
+
+    @Test
+    public void failuresExpireAfterWindow() throws InterruptedException {
+        LoginThrottle throttle = throttle(200L, 2, 0, 0);
+        throttle.recordFailure("10.0.0.1", "admin");
+        throttle.recordFailure("10.0.0.1", "admin");
+        assertTrue(throttle.isThrottled("10.0.0.1", "admin"));
+        Thread.sleep(450L);
+        assertFalse(throttle.isThrottled("10.0.0.1", "admin"));
+    }
+
+    @Test
+    public void windowCounterSumsOnlyLiveBuckets() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(400L, 4, 100);
+        assertEquals(1L, counter.increment("k"));
+        assertEquals(2L, counter.increment("k"));
+        assertEquals(0L, counter.count("missing"));
+        Thread.sleep(900L);
+        //两个窗口后旧桶全部失效
+        assertEquals(1L, counter.increment("k"));
+    }
+}
@@ -0,0 +1,208 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.DefaultAuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @ClassName: CompactTicketCodecTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 14:00:00
+ * @description: 编码解码往返、旧的jdk格式、字段布局校验和类名白名单
+ */
+public class CompactTicketCodecTest {
+    private static final int OBJECT = 22;
+    /**
+     * KNOWN_CLASSES中SimplePrincipal的编号+1
+     */
+    private static final int SIMPLE_PRINCIPAL_ID = 9;
+
+    private static TicketGrantingTicketImpl ticketGrantingTicket(Object extraAttribute) {
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        attributes.put("userId", Collections.singletonList("1"));
+        attributes.put("roles", new ArrayList<Object>(Arrays.asList("admin", "user")));
+        if (extraAttribute != null) {
+            attributes.put("extra", extraAttribute);
+        }
+        Principal principal = new DefaultPrincipalFactory().createPrincipal("admin", attributes);
+        UsernamePasswordCredential credential = new UsernamePasswordCredential("admin", "123456");
+        Authentication authentication = DefaultAuthenticationBuilder.newInstance()
+                .setPrincipal(principal)
+                .addCredential(new BasicCredentialMetaData(credential))
+                .addSuccess("sysUser", new DefaultAuthenticationHandlerExecutionResult("sysUser", new BasicCredentialMetaData(credential), principal,
+                        new ArrayList<>()))
+                .addAttribute("authenticationMethod", "sysUser")
+                .build();
+        return new TicketGrantingTicketImpl("TGT-1-abcdefghijklmnopqrstuvwxyz-cas", authentication,
+                new TicketGrantingTicketExpirationPolicy(28800, 7200));
+    }
+
+    private static ServiceTicket grantServiceTicket(TicketGrantingTicketImpl tgt) {
+        return tgt.grantServiceTicket("ST-1-abcdefghijklmnopqrst-cas", new WebApplicationServiceFactory().createService("http://app.example.com/"),
+                new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, true);
+    }
+
+    private static void assertSameTicketGrantingTicket(TicketGrantingTicket expected, Ticket actual) {
+        TicketGrantingTicket tgt = (TicketGrantingTicket) actual;
+        assertEquals(expected.getId(), tgt.getId());
+        assertEquals(expected.getAuthentication().getPrincipal().getId(), tgt.getAuthentication().getPrincipal().getId());
+        assertEquals(expected.getAuthentication().getPrincipal().getAttributes(), tgt.getAuthentication().getPrincipal().getAttributes());
+        assertEquals(expected.getAuthentication().getAuthenticationDate(), tgt.getAuthentication().getAuthenticationDate());
+        assertEquals(expected.getAuthentication().getSuccesses().keySet(), tgt.getAuthentication().getSuccesses().keySet());
+        assertEquals(expected.getServices().keySet(), tgt.getServices().keySet());
+        assertEquals(expected.getCountOfUses(), tgt.getCountOfUses());
+        assertEquals(expected.getExpirationPolicy().getClass(), tgt.getExpirationPolicy().getClass());
+        assertEquals(expected.getExpirationPolicy().getTimeToLive(), tgt.getExpirationPolicy().getTimeToLive());
+    }
+
+    @Test
+    public void roundTripsTicketGrantingTicket() {
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(null);
+        grantServiceTicket(tgt);
+        CompactTicketCodec codec = new CompactTicketCodec();
+        byte[] value = codec.encode(tgt);
+        assertEquals(CompactTicketCodec.MAGIC, value[0]);
+        assertSameTicketGrantingTicket(tgt, codec.decode(value));
+    }
+
+    @Test
+    public void roundTripsServiceTicketWithSharedReferences() {
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(null);
+        ServiceTicket st = grantServiceTicket(tgt);
+        CompactTicketCodec codec = new CompactTicketCodec();
+
+        ServiceTicket decoded = (ServiceTicket) codec.decode(codec.encode(st));
+        assertEquals(st.getId(), decoded.getId());
+        assertEquals(st.getService().getId(), decoded.getService().getId());
+        assertEquals(st.isFromNewLogin(), decoded.isFromNewLogin());
+        assertSameTicketGrantingTicket(tgt, decoded.getTicketGrantingTicket());
+        //tgt中同一个principal对象的多处引用解码后仍是同一个对象
+        Authentication authentication = decoded.getTicketGrantingTicket().getAuthentication();
+        assertSame(authentication.getPrincipal(), authentication.getSuccesses().get("sysUser").getPrincipal());
+    }
+
+    @Test
+    public void roundTripsCompressedTicket() {
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(null);
+        for (int i = 0; i < 20; i++) {
+            tgt.grantServiceTicket("ST-" + i + "-abcdefghijklmnopqrst-cas", new WebApplicationServiceFactory().createService("http://app.example.com/" + i),
+                    new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, true);
+        }
+        CompactTicketCodec codec = new CompactTicketCodec(true, 0);
+        byte[] value = codec.encode(tgt);
+        assertSameTicketGrantingTicket(tgt, codec.decode(value));
+        //压缩和不压缩的数据互相可读
+        assertSameTicketGrantingTicket(tgt, new CompactTicketCodec().decode(value));
+    }
+
+    @Test
+    public void readsJdkSerializedTickets() {
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(null);
+        assertSameTicketGrantingTicket(tgt, new CompactTicketCodec().decode(new JdkTicketCodec().encode(tgt)));
+    }
+
+    @Test
+    public void rejectsChangedFieldLayout() {
+        ByteArrayOutputStream payload = header();
+        payload.write(OBJECT);
+        writeVarInt(payload, SIMPLE_PRINCIPAL_ID);
+        writeVarInt(payload, 1);
+        try {
+            new CompactTicketCodec().decode(payload.toByteArray());
+            fail("layout hash mismatch must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Field layout"));
+        }
+    }
+
+    @Test
+    public void rejectsClassNamesOutsideAllowList() {
+        ByteArrayOutputStream payload = header();
+        payload.write(OBJECT);
+        writeVarInt(payload, 0);
+        writeString(payload, "org.apache.commons.collections4.functors.InvokerTransformer");
+        try {
+            new CompactTicketCodec().decode(payload.toByteArray());
+            fail("class outside the allow list must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("not allowed"));
+        }
+    }
+
+    @Test
+    public void customClassesNeedAnAllowedPackage() {
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(new CustomAttribute("a"));
+        try {
+            new CompactTicketCodec().encode(tgt);
+            fail("class outside the allow list must not be written");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(CustomAttribute.class.getName()));
+        }
+
+        CompactTicketCodec codec = new CompactTicketCodec(false, 0, Collections.singletonList("com.jielin.ygjcasserver.ticket"));
+        TicketGrantingTicket decoded = (TicketGrantingTicket) codec.decode(codec.encode(tgt));
+        Object extra = decoded.getAuthentication().getPrincipal().getAttributes().get("extra");
+        assertNotSame(tgt.getAuthentication().getPrincipal().getAttributes().get("extra"), extra);
+        assertEquals("a", ((CustomAttribute) extra).value);
+    }
+
+    private static ByteArrayOutputStream header() {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.write(CompactTicketCodec.MAGIC);
+        payload.write(CompactTicketCodec.VERSION);
+        payload.write(0);
+        return payload;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, 0);
+        writeVarInt(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static final class CustomAttribute implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String value;
+
+        CustomAttribute(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.util.Pool;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @ClassName: PipelinedRedisTicketRegistryTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 18:00:00
+ * @description: 有批次时写入合并为一次pipeline提交，批次中的ticket提交前可读，没有批次时直接写入
+ */
+public class PipelinedRedisTicketRegistryTest {
+    private static final String TGT_ID = "TGT-1-abcdefghijklmnopqrstuvwxyz-cas";
+    private static final byte[] TGT_KEY = ("CAS_TICKET:" + TGT_ID).getBytes(StandardCharsets.UTF_8);
+
+    private Pool<Jedis> pool;
+    private Jedis jedis;
+    private Pipeline pipeline;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        this.pool = mock(Pool.class);
+        this.jedis = mock(Jedis.class);
+        this.pipeline = mock(Pipeline.class);
+        when(this.pool.getResource()).thenReturn(this.jedis);
+        when(this.jedis.pipelined()).thenReturn(this.pipeline);
+    }
+
+    @After
+    public void tearDown() {
+        RedisWriteBatch.detach();
+    }
+
+    static TicketGrantingTicketImpl ticketGrantingTicket(String id) {
+        Authentication authentication = DefaultAuthenticationBuilder.newInstance()
+                .setPrincipal(new DefaultPrincipalFactory().createPrincipal("admin"))
+                .build();
+        return new TicketGrantingTicketImpl(id, authentication, new TicketGrantingTicketExpirationPolicy(28800, 7200));
+    }
+
+    @Test
+    public void writesDirectlyWithoutBatch() {
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(this.pool, true);
+        registry.addTicket(ticketGrantingTicket(TGT_ID));
+        verify(this.jedis).setex(eq(TGT_KEY), eq(28800), any(byte[].class));
+        verifyZeroInteractions(this.pipeline);
+    }
+
+    @Test
+    public void batchedWritesAreFlushedInOnePipeline() {
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(this.pool, true);
+        RedisWriteBatch.begin();
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(TGT_ID);
+        registry.addTicket(tgt);
+        registry.updateTicket(tgt);
+        registry.addTicket(ticketGrantingTicket("TGT-2-abcdefghijklmnopqrstuvwxyz-cas"));
+        verifyZeroInteractions(this.pool);
+
+        //提交前同一线程可以读到批次中的ticket
+        assertSame(tgt, registry.getTicket(TGT_ID));
+
+        RedisWriteBatch batch = RedisWriteBatch.end();
+        assertEquals(2, batch.size());
+        registry.flush(batch);
+        verify(this.pool, times(1)).getResource();
+        InOrder order = inOrder(this.pipeline);
+        order.verify(this.pipeline).multi();
+        order.verify(this.pipeline, times(2)).setex(any(byte[].class), anyInt(), any(byte[].class));
+        order.verify(this.pipeline).exec();
+        order.verify(this.pipeline).sync();
+        verify(this.jedis, never()).setex(any(byte[].class), anyInt(), any(byte[].class));
+    }
+
+    @Test
+    public void nonTransactionalFlushSkipsMulti() {
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(this.pool, false);
+        RedisWriteBatch.begin();
+        registry.addTicket(ticketGrantingTicket(TGT_ID));
+        registry.flush(RedisWriteBatch.end());
+        verify(this.pipeline, never()).multi();
+        verify(this.pipeline).setex(eq(TGT_KEY), eq(28800), any(byte[].class));
+        verify(this.pipeline).sync();
+    }
+
+    @Test
+    public void nestedBatchIsFlushedByOutermostEnd() {
+        RedisWriteBatch.begin();
+        RedisWriteBatch.begin();
+        assertNull(RedisWriteBatch.end());
+        RedisWriteBatch batch = RedisWriteBatch.end();
+        assertEquals(0, batch.size());
+        assertNull(RedisWriteBatch.current());
+    }
+
+    @Test
+    public void deleteDropsPendingWrite() {
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(this.pool, true);
+        RedisWriteBatch.begin();
+        registry.addTicket(ticketGrantingTicket(TGT_ID));
+        registry.deleteSingleTicket(TGT_ID);
+        verify(this.jedis).del(TGT_KEY);
+        assertNull(registry.getTicket(TGT_ID));
+        assertEquals(0, RedisWriteBatch.end().size());
+    }
+
+    @Test
+    public void readsAndDecodesFromRedis() {
+        JdkTicketCodec codec = new JdkTicketCodec();
+        TicketGrantingTicketImpl tgt = ticketGrantingTicket(TGT_ID);
+        when(this.jedis.get(TGT_KEY)).thenReturn(codec.encode(tgt));
+        Ticket read = new PipelinedRedisTicketRegistry(this.pool, true, codec).getTicket(TGT_ID);
+        assertEquals(TGT_ID, read.getId());
+        //无法解析的值按不存在处理
+        when(this.jedis.get(TGT_KEY)).thenReturn(new byte[]{1, 2, 3});
+        assertNull(new PipelinedRedisTicketRegistry(this.pool, true, codec).getTicket(TGT_ID));
+    }
+}
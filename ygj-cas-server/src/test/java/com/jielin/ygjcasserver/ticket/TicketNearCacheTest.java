@@ -0,0 +1,171 @@
+package com.jielin.ygjcasserver.ticket;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.util.Pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @ClassName: TicketNearCacheTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 18:40:00
+ * @description: 近端缓存的跨节点清除、读取期间有清除时不放入缓存，以及一次性ticket不经过缓存
+ */
+public class TicketNearCacheTest {
+    private static final String KEY = "CAS_TICKET:TGT-1";
+    private static final byte[] VALUE = {1, 2, 3};
+
+    private static TicketNearCache nearCache(TicketInvalidationBus bus) {
+        return new TicketNearCache(bus, 100, 60000L, new MetricRegistry());
+    }
+
+    @Test
+    public void writeOnOneNodeInvalidatesOthers() {
+        InMemoryTicketInvalidationBus bus = new InMemoryTicketInvalidationBus();
+        TicketNearCache node1 = nearCache(bus);
+        TicketNearCache node2 = nearCache(bus);
+        node2.putIfUnchanged(KEY, VALUE, 60000L, node2.version());
+        assertArrayEquals(VALUE, node2.get(KEY));
+
+        byte[] updated = {4, 5, 6};
+        node1.written(KEY, updated, 60);
+        node1.publish(Collections.singletonList(KEY));
+        //发送方保留自己写入的值
+        assertArrayEquals(updated, node1.get(KEY));
+        assertNull(node2.get(KEY));
+    }
+
+    @Test
+    public void invalidateAllClearsEveryNode() {
+        InMemoryTicketInvalidationBus bus = new InMemoryTicketInvalidationBus();
+        TicketNearCache node1 = nearCache(bus);
+        TicketNearCache node2 = nearCache(bus);
+        node1.written(KEY, VALUE, 60);
+        node2.written(KEY, VALUE, 60);
+        node1.invalidateAll();
+        assertNull(node1.get(KEY));
+        assertNull(node2.get(KEY));
+    }
+
+    @Test
+    public void readRacingAnInvalidationIsNotCached() {
+        TicketNearCache cache = nearCache(new InMemoryTicketInvalidationBus());
+        long version = cache.version();
+        //读取redis期间收到了清除通知
+        cache.invalidate(KEY);
+        cache.putIfUnchanged(KEY, VALUE, 60000L, version);
+        assertNull(cache.get(KEY));
+
+        cache.putIfUnchanged(KEY, VALUE, 60000L, cache.version());
+        assertArrayEquals(VALUE, cache.get(KEY));
+    }
+
+    @Test
+    public void keysWithoutTimeToLiveAreNotCached() {
+        TicketNearCache cache = nearCache(new InMemoryTicketInvalidationBus());
+        cache.putIfUnchanged(KEY, VALUE, -1L, cache.version());
+        cache.putIfUnchanged(KEY, VALUE, -2L, cache.version());
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    public void cacheIsBypassedWhileDisconnected() {
+        DisconnectableBus bus = new DisconnectableBus();
+        TicketNearCache cache = nearCache(bus);
+        cache.written(KEY, VALUE, 60);
+        bus.connected = false;
+        assertNull(cache.get(KEY));
+        cache.putIfUnchanged("CAS_TICKET:TGT-2", VALUE, 60000L, cache.version());
+
+        //重新连接时期间的通知可能已经丢失，清空全部
+        bus.connected = true;
+        bus.listener.reset();
+        assertNull(cache.get(KEY));
+        assertNull(cache.get("CAS_TICKET:TGT-2"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void registryCachesTicketGrantingTicketsOnly() {
+        JdkTicketCodec codec = new JdkTicketCodec();
+        TicketGrantingTicketImpl tgt = PipelinedRedisTicketRegistryTest.ticketGrantingTicket("TGT-1-abcdefghijklmnopqrstuvwxyz-cas");
+        ServiceTicket st = tgt.grantServiceTicket("ST-1-abcdefghijklmnopqrst-cas", new WebApplicationServiceFactory().createService("http://app.example.com/"),
+                new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, true);
+        byte[] tgtKey = ("CAS_TICKET:" + tgt.getId()).getBytes(StandardCharsets.UTF_8);
+        byte[] stKey = ("CAS_TICKET:" + st.getId()).getBytes(StandardCharsets.UTF_8);
+
+        Pool<Jedis> pool = mock(Pool.class);
+        Jedis jedis = mock(Jedis.class);
+        Pipeline pipeline = mock(Pipeline.class);
+        Response<byte[]> value = mock(Response.class);
+        Response<Long> pttl = mock(Response.class);
+        when(pool.getResource()).thenReturn(jedis);
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(pipeline.get(tgtKey)).thenReturn(value);
+        when(pipeline.pttl(tgtKey)).thenReturn(pttl);
+        when(value.get()).thenReturn(codec.encode(tgt));
+        when(pttl.get()).thenReturn(60000L);
+        when(jedis.get(stKey)).thenReturn(codec.encode(st));
+
+        PipelinedRedisTicketRegistry registry = new PipelinedRedisTicketRegistry(pool, true, codec);
+        registry.setNearCache(nearCache(new InMemoryTicketInvalidationBus()));
+        assertEquals(tgt.getId(), registry.getTicket(tgt.getId()).getId());
+        assertEquals(tgt.getId(), registry.getTicket(tgt.getId()).getId());
+        verify(pipeline, times(1)).get(tgtKey);
+
+        //st每次都读redis，在其他节点删除后不会从缓存中取到
+        assertEquals(st.getId(), registry.getTicket(st.getId()).getId());
+        when(jedis.get(stKey)).thenReturn(null);
+        assertNull(registry.getTicket(st.getId()));
+        verify(jedis, times(2)).get(stKey);
+        verify(pipeline, never()).get(stKey);
+    }
+
+    private static final class DisconnectableBus implements TicketInvalidationBus {
+        private volatile boolean connected = true;
+        private Listener listener;
+
+        @Override
+        public void publish(String source, Collection<String> keys) {
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void unsubscribe(Listener listener) {
+            this.listener = null;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return this.connected;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jielin.ygjcasserver.ticket;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @ClassName: TicketRegistryBatchFilterTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 18:20:00
+ * @description: 请求开始和结束时提交并解除线程上残留的批次
+ */
+public class TicketRegistryBatchFilterTest {
+
+    @After
+    public void tearDown() {
+        RedisWriteBatch.detach();
+    }
+
+    @Test
+    public void flushesBatchLeftByEarlierRequest() throws Exception {
+        PipelinedRedisTicketRegistry registry = mock(PipelinedRedisTicketRegistry.class);
+        RedisWriteBatch.begin();
+        RedisWriteBatch leftover = RedisWriteBatch.current();
+        leftover.put("CAS_TICKET:TGT-1", PipelinedRedisTicketRegistryTest.ticketGrantingTicket("TGT-1"), 60, true);
+
+        new TicketRegistryBatchFilter(() -> registry).doFilter(mock(ServletRequest.class), mock(ServletResponse.class),
+                (request, response) -> assertNull(RedisWriteBatch.current()));
+        verify(registry).flush(leftover);
+        assertNull(RedisWriteBatch.current());
+    }
+
+    @Test
+    public void flushesBatchLeftByChainEvenWhenItFails() throws Exception {
+        PipelinedRedisTicketRegistry registry = mock(PipelinedRedisTicketRegistry.class);
+        FilterChain chain = (request, response) -> {
+            //webflow开始了批次但没有回调requestProcessed
+            RedisWriteBatch.begin();
+            RedisWriteBatch.current().put("CAS_TICKET:TGT-1", PipelinedRedisTicketRegistryTest.ticketGrantingTicket("TGT-1"), 60, true);
+            throw new IllegalStateException("flow failed");
+        };
+        try {
+            new TicketRegistryBatchFilter(() -> registry).doFilter(mock(ServletRequest.class), mock(ServletResponse.class), chain);
+            fail("the chain exception must propagate");
+        } catch (IllegalStateException expected) {
+            assertEquals("flow failed", expected.getMessage());
+        }
+        verify(registry).flush(any(RedisWriteBatch.class));
+        assertNull(RedisWriteBatch.current());
+    }
+
+    @Test
+    public void doesNothingWithoutLeftover() throws Exception {
+        PipelinedRedisTicketRegistry registry = mock(PipelinedRedisTicketRegistry.class);
+        new TicketRegistryBatchFilter(() -> registry).doFilter(mock(ServletRequest.class), mock(ServletResponse.class),
+                (request, response) -> {
+                });
+        verify(registry, never()).flush(any(RedisWriteBatch.class));
+    }
+}
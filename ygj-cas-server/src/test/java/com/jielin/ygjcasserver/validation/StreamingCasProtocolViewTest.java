@@ -0,0 +1,187 @@
+package com.jielin.ygjcasserver.validation;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.PrincipalFactory;
+import org.apereo.cas.validation.CasProtocolAttributesRenderer;
+import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
+import org.apereo.cas.web.view.attributes.InlinedCas30ProtocolAttributesRenderer;
+import org.junit.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @ClassName: StreamingCasProtocolViewTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月18日 20:00:00
+ * @description: 输出与cas-server-webapp 5.3.9的protocol模板经thymeleaf处理的结果逐字节一致
+ */
+public class StreamingCasProtocolViewTest {
+    /**
+     * protocol/3.0/casServiceValidationSuccess.html
+     */
+    private static final String CAS3_SUCCESS = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>\n"
+            + "    <cas:authenticationSuccess>\n"
+            + "        <cas:user th:text=\"${principal.id}\"/>\n"
+            + "        <cas:proxyGrantingTicket th:if=\"${pgtIou}\" th:text=\"${pgtIou}\"/>\n"
+            + "        <cas:proxies th:if=\"${not #lists.isEmpty(chainedAuthentications)}\">\n"
+            + "            <cas:proxy th:each=\"proxy : ${chainedAuthentications}\" th:text=\"${proxy.principal.id}\"/>\n"
+            + "        </cas:proxies>\n"
+            + "        <cas:attributes th:if=\"${not #lists.isEmpty(formattedAttributes)}\">\n"
+            + "            <div th:each=\"attr : ${formattedAttributes}\" th:remove=\"tag\">\n"
+            + "                <div th:utext=\"${attr}\" th:remove=\"tag\"/>\n"
+            + "            </div>\n"
+            + "        </cas:attributes>\n"
+            + "    </cas:authenticationSuccess>\n"
+            + "</cas:serviceResponse>\n";
+    /**
+     * protocol/2.0/casServiceValidationSuccess.html
+     */
+    private static final String CAS2_SUCCESS = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas' th:inline=\"text\">\n"
+            + "    <cas:authenticationSuccess>\n"
+            + "        <cas:user>[[${principal.id}]]</cas:user>\n"
+            + "        <cas:proxyGrantingTicket th:if=\"${pgtIou}\">[[${pgtIou}]]</cas:proxyGrantingTicket>\n"
+            + "        <cas:proxies th:if=\"${not #lists.isEmpty(chainedAuthentications)}\">\n"
+            + "            <cas:proxy th:each=\"proxy : ${chainedAuthentications}\">[[${proxy.principal.id}]]</cas:proxy>\n"
+            + "        </cas:proxies>\n"
+            + "    </cas:authenticationSuccess>\n"
+            + "</cas:serviceResponse>\n";
+    /**
+     * protocol/2.0、3.0的casServiceValidationFailure.html相同
+     */
+    private static final String FAILURE = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas' th:inline=\"text\">\n"
+            + "    <cas:authenticationFailure th:attr=\"code=${code}\">[[${description}]]</cas:authenticationFailure>\n"
+            + "</cas:serviceResponse>\n";
+
+    private static final PrincipalFactory PRINCIPAL_FACTORY = new DefaultPrincipalFactory();
+    private static final SpringTemplateEngine TEMPLATE_ENGINE = new SpringTemplateEngine();
+
+    static {
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        TEMPLATE_ENGINE.setTemplateResolver(templateResolver);
+    }
+
+    private static String thymeleaf(String template, Map<String, Object> model) {
+        Context context = new Context();
+        context.setVariables(model);
+        return TEMPLATE_ENGINE.process(template, context);
+    }
+
+    private static String streaming(StreamingCasProtocolView.Type type, Map<String, Object> model) throws IOException {
+        StringWriter writer = new StringWriter();
+        new StreamingCasProtocolView(type, null, StandardCharsets.UTF_8).write(model, writer);
+        return writer.toString();
+    }
+
+    private static Map<String, Object> successModel(String pgtIou, String... proxies) {
+        List<Authentication> chainedAuthentications = new ArrayList<Authentication>();
+        for (String proxy : proxies) {
+            chainedAuthentications.add(DefaultAuthenticationBuilder.newInstance().setPrincipal(PRINCIPAL_FACTORY.createPrincipal(proxy)).build());
+        }
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("principal", PRINCIPAL_FACTORY.createPrincipal("ad<min>&'\""));
+        model.put("pgtIou", pgtIou);
+        model.put("chainedAuthentications", chainedAuthentications);
+        return model;
+    }
+
+    private static Map<String, Object> attributes() {
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        attributes.put("userId", Collections.singletonList("1"));
+        attributes.put("nickname", " 部门 <a> & 'ygj' \"x\"\u0001\u0085\u0090 ");
+        attributes.put("roles", new ArrayList<Object>(Arrays.asList("admin", "user", "admin")));
+        attributes.put("empty", new ArrayList<Object>());
+        return attributes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertCas3Attributes(CasProtocolAttributesRenderer renderer, String rendererType) throws IOException {
+        Map<String, Object> expectedModel = successModel("PGTIOU-1", "https://proxy.example.com/pgt");
+        expectedModel.put("formattedAttributes", renderer.render(attributes()));
+        Map<String, Object> model = successModel("PGTIOU-1", "https://proxy.example.com/pgt");
+        model.put("attributes", attributes());
+        model.put(StreamingCasProtocolView.MODEL_ATTRIBUTE_RENDERER, rendererType);
+
+        String expected = thymeleaf(CAS3_SUCCESS, expectedModel);
+        assertEquals(expected, streaming(StreamingCasProtocolView.Type.CAS3_SUCCESS, model));
+        //自定义renderer时按formattedAttributes原样输出
+        assertEquals(expected, streaming(StreamingCasProtocolView.Type.CAS3_SUCCESS, expectedModel));
+    }
+
+    @Test
+    public void cas3MatchesTemplateWithDefaultRenderer() throws IOException {
+        this.assertCas3Attributes(new DefaultCas30ProtocolAttributesRenderer(), StreamingCasProtocolView.RENDERER_DEFAULT);
+    }
+
+    @Test
+    public void cas3MatchesTemplateWithInlinedRenderer() throws IOException {
+        this.assertCas3Attributes(new InlinedCas30ProtocolAttributesRenderer(), StreamingCasProtocolView.RENDERER_INLINED);
+    }
+
+    @Test
+    public void cas3MatchesTemplateWithoutAttributesOrProxies() throws IOException {
+        Map<String, Object> model = successModel(null);
+        model.put("formattedAttributes", Collections.emptyList());
+        assertEquals(thymeleaf(CAS3_SUCCESS, model), streaming(StreamingCasProtocolView.Type.CAS3_SUCCESS, model));
+
+        model.remove("formattedAttributes");
+        model.put("attributes", Collections.emptyMap());
+        model.put(StreamingCasProtocolView.MODEL_ATTRIBUTE_RENDERER, StreamingCasProtocolView.RENDERER_DEFAULT);
+        model.put("pgtIou", "false");
+        assertEquals(thymeleaf(CAS3_SUCCESS, model), streaming(StreamingCasProtocolView.Type.CAS3_SUCCESS, model));
+    }
+
+    @Test
+    public void cas2MatchesTemplate() throws IOException {
+        Map<String, Object> model = successModel("PGTIOU-<1>", "https://proxy1.example.com/pgt?a=1&b=2", "https://proxy2.example.com/pgt");
+        assertEquals(thymeleaf(CAS2_SUCCESS, model), streaming(StreamingCasProtocolView.Type.CAS2_SUCCESS, model));
+        model = successModel(null);
+        assertEquals(thymeleaf(CAS2_SUCCESS, model), streaming(StreamingCasProtocolView.Type.CAS2_SUCCESS, model));
+    }
+
+    @Test
+    public void failureMatchesTemplate() throws IOException {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("code", "INVALID_TICKET");
+        model.put("description", "Ticket 'ST-1<x>' not recognized & \"rejected\"");
+        assertEquals(thymeleaf(FAILURE, model), streaming(StreamingCasProtocolView.Type.FAILURE, model));
+
+        //code为空时不输出属性
+        model.put("code", "");
+        assertEquals(thymeleaf(FAILURE, model), streaming(StreamingCasProtocolView.Type.FAILURE, model));
+        model.remove("code");
+        model.remove("description");
+        assertEquals(thymeleaf(FAILURE, model), streaming(StreamingCasProtocolView.Type.FAILURE, model));
+    }
+
+    @Test
+    public void escapesLikeCommonsText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (char c = 0; c < 0x200; c++) {
+            text.append(c);
+        }
+        text.append("😀 end");
+        StringWriter writer = new StringWriter();
+        StreamingCasProtocolView.escapeXml10(text.toString(), writer);
+        assertEquals(StringEscapeUtils.escapeXml10(text.toString()), writer.toString());
+    }
+}
@@ -0,0 +1,149 @@
+package com.jielin.ygjssoloadtest;
+
+import org.h2.tools.Server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * @ClassName: InMemoryMysql.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:20:00
+ * @description: h2内存数据库（MySQL模式），按init.sql建表，并生成压测用户，通过TCP端口供cas server连接
+ *
+ * init.sql是mysql导出的脚本，执行前去掉h2不支持的部分：反引号、CHARACTER SET、COMMENT、USING BTREE、普通索引、表选项。
+ * 压测用户为 {userPrefix}{序号}，密码按cas server的encodingAlgorithm=MD5存储，都授予id为2的角色。
+ */
+public class InMemoryMysql implements Closeable {
+    private static final String DATABASE = "mem:sso_jwt;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final Pattern CHARACTER_SET = Pattern.compile("\\s+(CHARACTER SET|COLLATE)\\s+\\w+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMENT = Pattern.compile("\\s+COMMENT\\s+'(?:[^']|'')*'", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UNIQUE_KEY = Pattern.compile("UNIQUE KEY\\s+\\w+\\s*\\(", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_OPTIONS = Pattern.compile("^\\)\\s*ENGINE.*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRAILING_COMMA = Pattern.compile(",\\s*\\)\\s*$");
+    private final Server server;
+    /**
+     * 保持一个连接，同时DB_CLOSE_DELAY=-1，数据库在进程退出前一直存在
+     */
+    private final Connection connection;
+    private final int port;
+
+    public InMemoryMysql(int port, String initSql, String userPrefix, String password, int users) throws SQLException, IOException {
+        this.port = port;
+        this.server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-tcpAllowOthers", "-ifNotExists").start();
+        this.connection = DriverManager.getConnection("jdbc:h2:" + DATABASE, "root", "123456");
+        this.runScript(Files.readAllLines(Paths.get(initSql), StandardCharsets.UTF_8));
+        this.seedUsers(userPrefix, password, users);
+    }
+
+    public String getJdbcUrl() {
+        return "jdbc:h2:tcp://127.0.0.1:" + this.port + "/" + DATABASE.replace(";DB_CLOSE_DELAY=-1", "");
+    }
+
+    private void runScript(List<String> lines) throws SQLException {
+        StringBuilder statement = new StringBuilder();
+        try (Statement stmt = this.connection.createStatement()) {
+            for (String raw : lines) {
+                String line = raw.trim();
+                if (line.isEmpty() || line.startsWith("--") || line.startsWith("/*")) {
+                    continue;
+                }
+                String upper = line.toUpperCase();
+                if (upper.startsWith("SET ") || upper.equals("BEGIN;") || upper.equals("COMMIT;")) {
+                    continue;
+                }
+                line = line.replace("`", "");
+                line = CHARACTER_SET.matcher(line).replaceAll("");
+                line = COMMENT.matcher(line).replaceAll("");
+                line = line.replaceAll("(?i)\\s+USING BTREE", "");
+                if (upper.startsWith("KEY ")) {
+                    continue;
+                }
+                line = UNIQUE_KEY.matcher(line).replaceAll("UNIQUE (");
+                line = TABLE_OPTIONS.matcher(line).replaceAll(");");
+                statement.append(line).append('\n');
+                if (line.endsWith(";")) {
+                    String sql = statement.toString().trim();
+                    sql = sql.substring(0, sql.length() - 1);
+                    //去掉普通索引后，前一行可能留下多余的逗号
+                    sql = TRAILING_COMMA.matcher(sql).replaceAll("\n)");
+                    stmt.execute(sql);
+                    statement.setLength(0);
+                }
+            }
+        }
+    }
+
+    private void seedUsers(String userPrefix, String password, int users) throws SQLException {
+        String hash = md5(password);
+        //init.sql中的记录带显式id，自增序列不一定跟上，压测用户的id也显式指定
+        long userId = this.maxId("sys_user");
+        long userRoleId = this.maxId("sys_user_role");
+        this.connection.setAutoCommit(false);
+        try (PreparedStatement user = this.connection.prepareStatement(
+                "INSERT INTO sys_user (id, username, password, nickname, status, create_user) VALUES (?, ?, ?, ?, 1, 'loadtest')");
+             PreparedStatement role = this.connection.prepareStatement("INSERT INTO sys_user_role (id, user_id, role_id) VALUES (?, ?, 2)")) {
+            for (int i = 0; i < users; i++) {
+                userId++;
+                user.setLong(1, userId);
+                user.setString(2, userPrefix + i);
+                user.setString(3, hash);
+                user.setString(4, userPrefix + i);
+                user.addBatch();
+                role.setLong(1, ++userRoleId);
+                role.setLong(2, userId);
+                role.addBatch();
+            }
+            user.executeBatch();
+            role.executeBatch();
+        }
+        this.connection.commit();
+        this.connection.setAutoCommit(true);
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Statement stmt = this.connection.createStatement();
+             ResultSet resultSet = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String md5(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            this.server.stop();
+        }
+    }
+}
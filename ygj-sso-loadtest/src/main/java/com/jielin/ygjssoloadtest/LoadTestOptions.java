@@ -0,0 +1,58 @@
+package com.jielin.ygjssoloadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @ClassName: LoadTestOptions.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:00:00
+ * @description: 命令行参数，形如key=value，未指定的取默认值
+ *
+ * casUrl、clientUrl必须与cas server、client中配置的地址一致（client的serverName决定ST回跳的service）。
+ */
+public class LoadTestOptions {
+    private final Map<String, String> values = new LinkedHashMap<String, String>();
+
+    public LoadTestOptions(String[] args) {
+        this.values.put("casUrl", "https://www.server.com:8443/cas");
+        //client受保护的页面，登录后返回200
+        this.values.put("clientUrl", "http://www.client2.com:8082/actuator/health");
+        this.values.put("threads", "16");
+        this.values.put("duration", "60");
+        this.values.put("warmup", "10");
+        this.values.put("users", "1000");
+        this.values.put("userPrefix", "loadtest");
+        this.values.put("password", "123456");
+        //退出后等待back-channel登出生效的最长毫秒数
+        this.values.put("sloTimeout", "5000");
+        this.values.put("dbPort", "9092");
+        this.values.put("redisPort", "6380");
+        this.values.put("initSql", "../ygj-cas-server/src/main/resource/init.sql");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String key = arg.substring(0, separator);
+            if (!this.values.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option " + key + ", expected one of " + this.values.keySet());
+            }
+            this.values.put(key, arg.substring(separator + 1));
+        }
+    }
+
+    public String get(String key) {
+        return this.values.get(key);
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(this.values.get(key));
+    }
+
+    @Override
+    public String toString() {
+        return this.values.toString();
+    }
+}
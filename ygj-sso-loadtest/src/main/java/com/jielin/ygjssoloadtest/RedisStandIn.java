@@ -0,0 +1,541 @@
+package com.jielin.ygjssoloadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.regex.Pattern;
+
+/**
+ * @ClassName: RedisStandIn.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:30:00
+ * @description: 进程内的redis替身，实现RESP协议和压测中用到的命令，数据只在内存中
+ *
+ * 支持：PING、SELECT、AUTH、CLIENT、ECHO、GET、MGET、SET（EX/PX）、SETEX、PSETEX、DEL、EXISTS、EXPIRE、PEXPIRE、TTL、PTTL、
+ * KEYS、SCAN（一次返回全部）、DBSIZE、FLUSHDB、MULTI/EXEC/DISCARD、PUBLISH、SUBSCRIBE/UNSUBSCRIBE、
+ * 以及cas client RedisSessionIndexBackend使用的先GET再DEL的EVAL脚本。
+ * 每个连接一个线程，过期的key在访问时和每秒一次的清理中删除。
+ */
+public class RedisStandIn implements Closeable {
+    private final Map<String, Value> store = new ConcurrentHashMap<String, Value>();
+    private final Map<String, Set<Connection>> channels = new ConcurrentHashMap<String, Set<Connection>>();
+    private final Set<Connection> connections = new CopyOnWriteArraySet<Connection>();
+    private final ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    public RedisStandIn(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        daemon("redis-standin-accept", this::accept);
+        daemon("redis-standin-expire", this::expireLoop);
+    }
+
+    private void accept() {
+        while (!this.closed) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                this.connections.add(connection);
+                daemon("redis-standin-" + socket.getPort(), connection::serve);
+            } catch (IOException e) {
+                if (!this.closed) {
+                    System.err.println("redis stand-in accept failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void expireLoop() {
+        while (!this.closed) {
+            long now = System.currentTimeMillis();
+            this.store.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+            try {
+                Thread.sleep(1000L);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return this.store.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.serverSocket.close();
+        for (Connection connection : this.connections) {
+            connection.close();
+        }
+    }
+
+    private Value live(String key) {
+        Value value = this.store.get(key);
+        if (value != null && value.isExpired(System.currentTimeMillis())) {
+            this.store.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * 执行一条命令，返回RESP格式的回复
+     */
+    private byte[] execute(Connection connection, List<byte[]> command) throws IOException {
+        String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+        Reply reply = new Reply();
+        switch (name) {
+            case "PING":
+                return command.size() > 1 ? reply.bulk(command.get(1)).bytes() : reply.simple("PONG").bytes();
+            case "ECHO":
+                return reply.bulk(command.get(1)).bytes();
+            case "SELECT":
+            case "AUTH":
+            case "CLIENT":
+                return reply.simple("OK").bytes();
+            case "GET": {
+                Value value = this.live(string(command.get(1)));
+                return reply.bulk(value != null ? value.data : null).bytes();
+            }
+            case "MGET": {
+                reply.array(command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    Value value = this.live(string(command.get(i)));
+                    reply.bulk(value != null ? value.data : null);
+                }
+                return reply.bytes();
+            }
+            case "SET": {
+                long expiresAt = 0L;
+                for (int i = 3; i + 1 < command.size(); i += 2) {
+                    String option = string(command.get(i)).toUpperCase(Locale.ROOT);
+                    long amount = Long.parseLong(string(command.get(i + 1)));
+                    expiresAt = System.currentTimeMillis() + ("EX".equals(option) ? amount * 1000L : amount);
+                }
+                this.store.put(string(command.get(1)), new Value(command.get(2), expiresAt));
+                return reply.simple("OK").bytes();
+            }
+            case "SETEX":
+            case "PSETEX": {
+                long amount = Long.parseLong(string(command.get(2)));
+                long expiresAt = System.currentTimeMillis() + ("SETEX".equals(name) ? amount * 1000L : amount);
+                this.store.put(string(command.get(1)), new Value(command.get(3), expiresAt));
+                return reply.simple("OK").bytes();
+            }
+            case "DEL": {
+                long removed = 0L;
+                for (int i = 1; i < command.size(); i++) {
+                    Value value = this.store.remove(string(command.get(i)));
+                    if (value != null && !value.isExpired(System.currentTimeMillis())) {
+                        removed++;
+                    }
+                }
+                return reply.integer(removed).bytes();
+            }
+            case "EXISTS": {
+                long found = 0L;
+                for (int i = 1; i < command.size(); i++) {
+                    if (this.live(string(command.get(i))) != null) {
+                        found++;
+                    }
+                }
+                return reply.integer(found).bytes();
+            }
+            case "EXPIRE":
+            case "PEXPIRE": {
+                String key = string(command.get(1));
+                Value value = this.live(key);
+                if (value == null) {
+                    return reply.integer(0L).bytes();
+                }
+                long amount = Long.parseLong(string(command.get(2)));
+                this.store.put(key, new Value(value.data, System.currentTimeMillis() + ("EXPIRE".equals(name) ? amount * 1000L : amount)));
+                return reply.integer(1L).bytes();
+            }
+            case "TTL":
+            case "PTTL": {
+                Value value = this.live(string(command.get(1)));
+                if (value == null) {
+                    return reply.integer(-2L).bytes();
+                }
+                if (value.expiresAt == 0L) {
+                    return reply.integer(-1L).bytes();
+                }
+                long remaining = value.expiresAt - System.currentTimeMillis();
+                return reply.integer("TTL".equals(name) ? remaining / 1000L : remaining).bytes();
+            }
+            case "KEYS":
+                return this.keys(reply, string(command.get(1))).bytes();
+            case "SCAN": {
+                String match = "*";
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if ("MATCH".equalsIgnoreCase(string(command.get(i)))) {
+                        match = string(command.get(i + 1));
+                    }
+                }
+                reply.array(2).bulk("0".getBytes(StandardCharsets.US_ASCII));
+                return this.keys(reply, match).bytes();
+            }
+            case "DBSIZE":
+                return reply.integer(this.store.size()).bytes();
+            case "FLUSHDB":
+            case "FLUSHALL":
+                this.store.clear();
+                return reply.simple("OK").bytes();
+            case "PUBLISH":
+                return reply.integer(this.publish(command.get(1), command.get(2))).bytes();
+            case "EVAL":
+                return this.eval(reply, command).bytes();
+            default:
+                return reply.error("ERR unknown command '" + name + "'").bytes();
+        }
+    }
+
+    private Reply keys(Reply reply, String glob) {
+        Pattern pattern = globToPattern(glob);
+        List<String> keys = new ArrayList<String>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Value> entry : this.store.entrySet()) {
+            if (!entry.getValue().isExpired(now) && pattern.matcher(entry.getKey()).matches()) {
+                keys.add(entry.getKey());
+            }
+        }
+        reply.array(keys.size());
+        for (String key : keys) {
+            reply.bulk(key.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        return reply;
+    }
+
+    /**
+     * 只支持先GET再DEL同一个key并返回原值的脚本
+     */
+    private Reply eval(Reply reply, List<byte[]> command) {
+        String script = string(command.get(1));
+        int keyCount = Integer.parseInt(string(command.get(2)));
+        if (keyCount != 1 || !script.contains("'GET'") || !script.contains("'DEL'")) {
+            return reply.error("ERR only the GET-then-DEL script is supported by the stand-in");
+        }
+        Value value = this.store.remove(string(command.get(3)));
+        return reply.bulk(value != null && !value.isExpired(System.currentTimeMillis()) ? value.data : null);
+    }
+
+    private long publish(byte[] channel, byte[] message) {
+        Set<Connection> subscribers = this.channels.get(string(channel));
+        if (subscribers == null) {
+            return 0L;
+        }
+        long delivered = 0L;
+        for (Connection subscriber : subscribers) {
+            Reply reply = new Reply().array(3).bulk("message".getBytes(StandardCharsets.US_ASCII)).bulk(channel).bulk(message);
+            if (subscriber.write(reply.bytes())) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void daemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static final class Value {
+        private final byte[] data;
+        /**
+         * 0表示不过期
+         */
+        private final long expiresAt;
+
+        private Value(byte[] data, long expiresAt) {
+            this.data = data;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return this.expiresAt != 0L && this.expiresAt <= now;
+        }
+    }
+
+    private final class Connection implements Closeable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final Set<String> subscriptions = new CopyOnWriteArraySet<String>();
+        private List<List<byte[]>> queued;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void serve() {
+            try (InputStream in = new BufferedInputStream(this.socket.getInputStream())) {
+                while (!closed) {
+                    List<byte[]> command = readCommand(in);
+                    if (command.isEmpty()) {
+                        continue;
+                    }
+                    this.write(this.dispatch(command));
+                }
+            } catch (EOFException e) {
+                //客户端断开
+            } catch (IOException e) {
+                if (!closed && !this.socket.isClosed()) {
+                    System.err.println("redis stand-in connection failed: " + e);
+                }
+            } finally {
+                this.close();
+            }
+        }
+
+        private byte[] dispatch(List<byte[]> command) throws IOException {
+            String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "MULTI":
+                    this.queued = new ArrayList<List<byte[]>>();
+                    return new Reply().simple("OK").bytes();
+                case "DISCARD":
+                    this.queued = null;
+                    return new Reply().simple("OK").bytes();
+                case "EXEC": {
+                    List<List<byte[]>> commands = this.queued != null ? this.queued : Collections.<List<byte[]>>emptyList();
+                    this.queued = null;
+                    ByteArrayOutputStream replies = new ByteArrayOutputStream();
+                    byte[] header = new Reply().array(commands.size()).bytes();
+                    replies.write(header, 0, header.length);
+                    //整个事务在锁内执行，与redis一样不会穿插其他连接的命令
+                    synchronized (RedisStandIn.this) {
+                        for (List<byte[]> queuedCommand : commands) {
+                            byte[] reply = execute(this, queuedCommand);
+                            replies.write(reply, 0, reply.length);
+                        }
+                    }
+                    return replies.toByteArray();
+                }
+                case "SUBSCRIBE":
+                case "UNSUBSCRIBE":
+                    return this.subscription("SUBSCRIBE".equals(name), command);
+                case "QUIT":
+                    this.write(new Reply().simple("OK").bytes());
+                    this.close();
+                    return new byte[0];
+                default:
+                    if (this.queued != null) {
+                        this.queued.add(command);
+                        return new Reply().simple("QUEUED").bytes();
+                    }
+                    synchronized (RedisStandIn.this) {
+                        return execute(this, command);
+                    }
+            }
+        }
+
+        private byte[] subscription(boolean subscribe, List<byte[]> command) {
+            Reply reply = new Reply();
+            List<String> names = new ArrayList<String>();
+            for (int i = 1; i < command.size(); i++) {
+                names.add(string(command.get(i)));
+            }
+            if (!subscribe && names.isEmpty()) {
+                names.addAll(this.subscriptions);
+            }
+            for (String channel : names) {
+                if (subscribe) {
+                    this.subscriptions.add(channel);
+                    channels.computeIfAbsent(channel, k -> new CopyOnWriteArraySet<Connection>()).add(this);
+                } else {
+                    this.subscriptions.remove(channel);
+                    Set<Connection> subscribers = channels.get(channel);
+                    if (subscribers != null) {
+                        subscribers.remove(this);
+                    }
+                }
+                reply.array(3).bulk((subscribe ? "subscribe" : "unsubscribe").getBytes(StandardCharsets.US_ASCII))
+                        .bulk(channel.getBytes(StandardCharsets.ISO_8859_1)).integer(this.subscriptions.size());
+            }
+            return reply.bytes();
+        }
+
+        /**
+         * 订阅消息由发布方的线程写入，与本连接的回复互斥
+         */
+        private synchronized boolean write(byte[] bytes) {
+            if (bytes.length == 0) {
+                return true;
+            }
+            try {
+                this.out.write(bytes);
+                this.out.flush();
+                return true;
+            } catch (IOException e) {
+                this.close();
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            connections.remove(this);
+            for (String channel : this.subscriptions) {
+                Set<Connection> subscribers = channels.get(channel);
+                if (subscribers != null) {
+                    subscribers.remove(this);
+                }
+            }
+            try {
+                this.socket.close();
+            } catch (IOException e) {
+                //忽略
+            }
+        }
+    }
+
+    /**
+     * 读取一条命令：客户端发送的bulk字符串数组，或以空格分隔的内联命令
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            throw new EOFException();
+        }
+        if (first != '*') {
+            String line = (char) first + readLine(in);
+            List<byte[]> inline = new ArrayList<byte[]>();
+            for (String part : line.trim().split("\\s+")) {
+                if (!part.isEmpty()) {
+                    inline.add(part.getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+            return inline;
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> command = new ArrayList<byte[]>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Protocol error: expected bulk string");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] data = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = in.read(data, read, length - read);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            in.read();
+            in.read();
+            command.add(data);
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c < 0) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static final class Reply {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+
+        private Reply simple(String value) {
+            return this.line("+" + value);
+        }
+
+        private Reply error(String message) {
+            return this.line("-" + message);
+        }
+
+        private Reply integer(long value) {
+            return this.line(":" + value);
+        }
+
+        private Reply array(int size) {
+            return this.line("*" + size);
+        }
+
+        private Reply bulk(byte[] value) {
+            if (value == null) {
+                return this.line("$-1");
+            }
+            this.line("$" + value.length);
+            this.buffer.write(value, 0, value.length);
+            return this.line("");
+        }
+
+        private Reply line(String value) {
+            byte[] bytes = (value + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            this.buffer.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        private byte[] bytes() {
+            return this.buffer.toByteArray();
+        }
+    }
+
+    /**
+     * 单独运行时只启动redis替身：java -cp ygj-sso-loadtest.jar com.jielin.ygjssoloadtest.RedisStandIn [端口]
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 6380;
+        RedisStandIn redis = new RedisStandIn(port);
+        System.out.println("redis stand-in listening on 127.0.0.1:" + port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                redis.close();
+            } catch (IOException e) {
+                //忽略
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
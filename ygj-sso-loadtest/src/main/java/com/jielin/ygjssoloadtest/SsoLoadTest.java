@@ -0,0 +1,147 @@
+package com.jielin.ygjssoloadtest;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+
+import javax.net.ssl.SSLContext;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: SsoLoadTest.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:50:00
+ * @description: 端到端单点登录压测入口
+ *
+ * standins：启动h2（MySQL模式）和redis替身，打印cas server、client的启动参数后一直运行；
+ * run：threads个虚拟用户循环执行SsoSession中的流程，预热warmup秒后清零统计，再压测duration秒，按步骤输出吞吐量和延迟分位数。
+ * cas server和client按正常方式单独启动，压测的是真实的webflow、认证、ticket registry和单点退出链路。
+ */
+public class SsoLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "run";
+        LoadTestOptions options = new LoadTestOptions(args.length > 0 ? Arrays.copyOfRange(args, 1, args.length) : args);
+        if ("standins".equals(mode)) {
+            standIns(options);
+        } else if ("run".equals(mode)) {
+            run(options);
+        } else {
+            System.err.println("usage: java -jar ygj-sso-loadtest.jar standins|run [key=value ...], options: " + options);
+            System.exit(1);
+        }
+    }
+
+    private static void standIns(LoadTestOptions options) throws Exception {
+        InMemoryMysql mysql = new InMemoryMysql(options.getInt("dbPort"), options.get("initSql"), options.get("userPrefix"),
+                options.get("password"), options.getInt("users"));
+        RedisStandIn redis = new RedisStandIn(options.getInt("redisPort"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                redis.close();
+                mysql.close();
+            } catch (Exception e) {
+                //忽略
+            }
+        }));
+        System.out.println("h2 (MySQL mode) and redis stand-in started, " + options.getInt("users") + " users "
+                + options.get("userPrefix") + "0.." + options.get("userPrefix") + (options.getInt("users") - 1));
+        System.out.println();
+        System.out.println("ygj-cas-server arguments:");
+        System.out.println("  --ygj.authn.jdbc.url=" + mysql.getJdbcUrl());
+        System.out.println("  --ygj.authn.jdbc.driverClass=org.h2.Driver");
+        System.out.println("  --ygj.authn.jdbc.user=root --ygj.authn.jdbc.password=123456");
+        System.out.println("  --cas.ticket.registry.redis.host=127.0.0.1 --cas.ticket.registry.redis.port=" + options.getInt("redisPort"));
+        System.out.println();
+        System.out.println("cas-client-springboot filter init parameters (sessionMappingStorage=REDIS):");
+        System.out.println("  sessionMappingRedisUrl=redis://127.0.0.1:" + options.getInt("redisPort") + "/0");
+        Thread.currentThread().join();
+    }
+
+    private static void run(LoadTestOptions options) throws Exception {
+        int threads = options.getInt("threads");
+        int users = options.getInt("users");
+        String userPrefix = options.get("userPrefix");
+        String password = options.get("password");
+        StepRecorder recorder = new StepRecorder(SsoSession.STEPS);
+        AtomicLong flows = new AtomicLong();
+        AtomicLong failedFlows = new AtomicLong();
+        System.out.println("running " + options);
+
+        try (CloseableHttpClient httpClient = createHttpClient(threads)) {
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getInt("warmup"));
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.getInt("duration"));
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                Thread thread = new Thread(() -> {
+                    SsoSession session = new SsoSession(httpClient, recorder, options);
+                    try {
+                        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                            String username = userPrefix + ThreadLocalRandom.current().nextInt(users);
+                            if (session.run(username, password)) {
+                                flows.incrementAndGet();
+                            } else {
+                                failedFlows.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }, "sso-user-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.max(0L, warmupEnd - System.nanoTime()));
+            recorder.reset();
+            flows.set(0);
+            failedFlows.set(0);
+            long measureStart = System.nanoTime();
+            done.await();
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+            System.out.println();
+            recorder.print(System.out, seconds);
+            System.out.printf("%nflows: %d ok, %d failed, %.1f flows/s over %.1fs with %d threads%n",
+                    flows.get(), failedFlows.get(), flows.get() / seconds, seconds, threads);
+        }
+    }
+
+    /**
+     * 所有虚拟用户共享连接池，cookie由每次流程自己的HttpClientContext保存；cas server为自签名证书，跳过证书校验
+     */
+    private static CloseableHttpClient createHttpClient(int threads) throws Exception {
+        SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE))
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(threads * 2);
+        connectionManager.setDefaultMaxPerRoute(threads);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(5000)
+                .setSocketTimeout(30000)
+                .setConnectionRequestTimeout(5000)
+                .setRedirectsEnabled(false)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableRedirectHandling()
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.jielin.ygjssoloadtest;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @ClassName: SsoSession.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:40:00
+ * @description: 一个虚拟用户的完整单点登录流程，每一步单独计时
+ *
+ * client_entry：未登录访问client，302到cas登录页
+ * login_form：打开登录页，取execution
+ * login_submit：提交用户名密码，302回client并带上ST
+ * ticket_validation：client用ST向cas校验，成功后302去掉ticket参数
+ * client_page：带client会话访问受保护页面，200
+ * logout：cas退出，cas向client发back-channel登出请求
+ * slo_propagation：轮询client页面直到会话失效（302到cas登录页），衡量单点退出生效的延迟
+ *
+ * 每个虚拟用户独立的cookie，不跟随重定向，重定向由流程自己处理以便区分各步骤。
+ */
+public class SsoSession {
+    public static final String[] STEPS = {"client_entry", "login_form", "login_submit", "ticket_validation",
+            "client_page", "logout", "slo_propagation"};
+    private static final Pattern EXECUTION = Pattern.compile("name=\"execution\"\\s+value=\"([^\"]+)\"");
+    private final CloseableHttpClient httpClient;
+    private final StepRecorder recorder;
+    private final String casUrl;
+    private final String clientUrl;
+    private final long sloTimeout;
+
+    public SsoSession(CloseableHttpClient httpClient, StepRecorder recorder, LoadTestOptions options) {
+        this.httpClient = httpClient;
+        this.recorder = recorder;
+        this.casUrl = options.get("casUrl");
+        this.clientUrl = options.get("clientUrl");
+        this.sloTimeout = options.getInt("sloTimeout");
+    }
+
+    /**
+     * 执行一次完整流程，某一步失败时记录错误并结束本次流程
+     */
+    public boolean run(String username, String password) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(new BasicCookieStore());
+        String step = STEPS[0];
+        try {
+            long start = System.nanoTime();
+            Result entry = this.execute(new HttpGet(this.clientUrl), context);
+            String loginUrl = this.expectRedirect(entry, this.casUrl + "/login");
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "login_form";
+            start = System.nanoTime();
+            Result form = this.execute(new HttpGet(loginUrl), context);
+            this.expectStatus(form, 200);
+            Matcher matcher = EXECUTION.matcher(form.body);
+            if (!matcher.find()) {
+                throw new IllegalStateException("execution not found on login page");
+            }
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "login_submit";
+            start = System.nanoTime();
+            HttpPost submit = new HttpPost(loginUrl);
+            List<NameValuePair> parameters = new ArrayList<NameValuePair>();
+            parameters.add(new BasicNameValuePair("username", username));
+            parameters.add(new BasicNameValuePair("password", password));
+            parameters.add(new BasicNameValuePair("execution", matcher.group(1)));
+            parameters.add(new BasicNameValuePair("_eventId", "submit"));
+            submit.setEntity(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8));
+            Result login = this.execute(submit, context);
+            String serviceUrl = this.expectRedirect(login, null);
+            if (!serviceUrl.contains("ticket=")) {
+                throw new IllegalStateException("no service ticket in " + serviceUrl);
+            }
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "ticket_validation";
+            start = System.nanoTime();
+            Result validation = this.execute(new HttpGet(serviceUrl), context);
+            if (validation.status != 200 && !(validation.status == 302 && !validation.location.startsWith(this.casUrl))) {
+                throw new IllegalStateException("ticket validation returned " + validation.status + " " + validation.location);
+            }
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "client_page";
+            start = System.nanoTime();
+            this.expectStatus(this.execute(new HttpGet(this.clientUrl), context), 200);
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "logout";
+            start = System.nanoTime();
+            Result logout = this.execute(new HttpGet(this.casUrl + "/logout"), context);
+            if (logout.status >= 400) {
+                throw new IllegalStateException("logout returned " + logout.status);
+            }
+            this.recorder.record(step, System.nanoTime() - start);
+
+            step = "slo_propagation";
+            start = System.nanoTime();
+            long deadline = start + this.sloTimeout * 1000000L;
+            while (true) {
+                Result page = this.execute(new HttpGet(this.clientUrl), context);
+                if (page.status == 302 && page.location.startsWith(this.casUrl + "/login")) {
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("client session still alive " + this.sloTimeout + "ms after logout");
+                }
+                Thread.sleep(10L);
+            }
+            this.recorder.record(step, System.nanoTime() - start);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            this.recorder.fail(step);
+            return false;
+        }
+    }
+
+    private Result execute(HttpUriRequest request, HttpClientContext context) throws IOException {
+        try (CloseableHttpResponse response = this.httpClient.execute(request, context)) {
+            return new Result(response);
+        }
+    }
+
+    private String expectRedirect(Result result, String prefix) {
+        if (result.status != 302 || result.location == null || (prefix != null && !result.location.startsWith(prefix))) {
+            throw new IllegalStateException("expected redirect to " + prefix + " but was " + result.status + " " + result.location);
+        }
+        return result.location;
+    }
+
+    private void expectStatus(Result result, int status) {
+        if (result.status != status) {
+            throw new IllegalStateException("expected " + status + " but was " + result.status + " " + result.location);
+        }
+    }
+
+    private static final class Result {
+        private final int status;
+        private final String location;
+        private final String body;
+
+        private Result(HttpResponse response) throws IOException {
+            this.status = response.getStatusLine().getStatusCode();
+            this.location = response.getFirstHeader("Location") != null ? response.getFirstHeader("Location").getValue() : "";
+            //读完响应体，连接才能放回连接池
+            this.body = response.getEntity() != null ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8) : "";
+        }
+    }
+}
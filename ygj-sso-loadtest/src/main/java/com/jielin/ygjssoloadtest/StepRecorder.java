@@ -0,0 +1,73 @@
+package com.jielin.ygjssoloadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @ClassName: StepRecorder.java
+ * @author: yangxl
+ * @version: 1.0.0
+ * @createTime: 2026年10月25日 14:10:00
+ * @description: 按步骤记录延迟（HdrHistogram，微秒，3位有效数字）和失败次数
+ *
+ * 预热结束时reset，只统计正式压测阶段。
+ */
+public class StepRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private final Map<String, Step> steps = new LinkedHashMap<String, Step>();
+
+    public StepRecorder(String... names) {
+        for (String name : names) {
+            this.steps.put(name, new Step());
+        }
+    }
+
+    public void record(String name, long nanos) {
+        this.step(name).histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void fail(String name) {
+        this.step(name).errors.incrementAndGet();
+    }
+
+    public void reset() {
+        for (Step step : this.steps.values()) {
+            step.histogram.reset();
+            step.errors.set(0);
+        }
+    }
+
+    public void print(PrintStream out, double seconds) {
+        out.printf("%-20s %10s %8s %10s %10s %10s %10s %10s%n", "step", "count", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Map.Entry<String, Step> entry : this.steps.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", entry.getKey(), histogram.getTotalCount(),
+                    entry.getValue().errors.get(), histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+    }
+
+    private Step step(String name) {
+        Step step = this.steps.get(name);
+        if (step == null) {
+            throw new IllegalArgumentException("Unknown step " + name);
+        }
+        return step;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Step {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+    }
+}